@@ -0,0 +1,73 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Runs the benchmarks with the usual JMH command line options. Unless given otherwise, results are written as JSON
+ * to <code>jmh-result-&lt;version&gt;.json</code>, so results of different Mojo versions can be compared.
+ * @author NilsCoding
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Resource with the Maven properties of the benchmarked Mojo.
+     */
+    private static final String MOJO_POM_PROPERTIES = "META-INF/maven/io.github.nilscoding.maven/mvn-send-usage-infos/pom.properties";
+
+    /**
+     * Hidden constructor.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Main method.
+     * @param args JMH command line options
+     * @throws Exception on errors
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(cmdOptions);
+        if (cmdOptions.getResultFormat().hasValue() == false) {
+            optionsBuilder.resultFormat(ResultFormatType.JSON);
+        }
+        if (cmdOptions.getResult().hasValue() == false) {
+            ResultFormatType format = cmdOptions.getResultFormat().orElse(ResultFormatType.JSON);
+            optionsBuilder.result("jmh-result-" + getMojoVersion() + "." + format.name().toLowerCase());
+        }
+        Runner runner = new Runner(optionsBuilder.build());
+        if (cmdOptions.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+
+    /**
+     * Returns the version of the benchmarked Mojo.
+     * @return version or "unknown"
+     */
+    static String getMojoVersion() {
+        try (InputStream in = BenchmarkMain.class.getClassLoader().getResourceAsStream(MOJO_POM_PROPERTIES)) {
+            if (in != null) {
+                Properties props = new Properties();
+                props.load(in);
+                return props.getProperty("version", "unknown");
+            }
+        } catch (IOException ex) {
+            // fall through
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import io.github.nilscoding.maven.sendusageinfos.SendUsageInfoMojo;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.session.SessionContext;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mojo configured for benchmarks, exposing the benchmarked steps. Parameters are set the way Maven injects them.
+ * @author NilsCoding
+ */
+public final class BenchmarkMojo extends SendUsageInfoMojo {
+
+    /**
+     * Logging.
+     */
+    private final SilentLog silentLog = new SilentLog();
+
+    /**
+     * Creates a new instance with a session without repositories, project building without caches and
+     * the default parameter values.
+     * @param projectBuilder project builder to use
+     */
+    public BenchmarkMojo(ProjectBuilder projectBuilder) {
+        this.setLog(this.silentLog);
+        this.setParameter("session", new MavenSession(null, new DefaultRepositorySystemSession(),
+                new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult()));
+        this.setParameter("mavenProjectBuilder", projectBuilder);
+        this.setParameter("sessionCache", Boolean.FALSE);
+        this.setParameter("urlMethod", "POST");
+        this.setParameter("httpConnectTimeout", 10);
+        this.setParameter("httpReadTimeout", 10);
+        this.setParameter("httpWriteTimeout", 10);
+        this.setParameter("httpCompression", "none");
+        this.setParameter("httpCompressionThreshold", 65536L);
+    }
+
+    /**
+     * Sets a parameter (or injected component) of the Mojo.
+     * @param name  field name
+     * @param value value
+     */
+    public void setParameter(String name, Object value) {
+        try {
+            Field field = SendUsageInfoMojo.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(this, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("cannot set Mojo parameter " + name, ex);
+        }
+    }
+
+    /**
+     * Sets a parameter from its string value, converted to the parameter's type (String, Boolean, Integer, Long or File).
+     * @param name  field name
+     * @param value string value
+     */
+    public void setParameterValue(String name, String value) {
+        Class<?> type;
+        try {
+            type = SendUsageInfoMojo.class.getDeclaredField(name).getType();
+        } catch (NoSuchFieldException ex) {
+            throw new IllegalArgumentException("unknown Mojo parameter " + name, ex);
+        }
+        if (type == Boolean.class) {
+            this.setParameter(name, Boolean.valueOf(value));
+        } else if (type == Integer.class) {
+            this.setParameter(name, Integer.valueOf(value));
+        } else if (type == Long.class) {
+            this.setParameter(name, Long.valueOf(value));
+        } else if (type == File.class) {
+            this.setParameter(name, new File(value));
+        } else if (type == String.class) {
+            this.setParameter(name, value);
+        } else {
+            throw new IllegalArgumentException("Mojo parameter " + name + " cannot be set from a string");
+        }
+    }
+
+    /**
+     * Sets the session context, as done at the start of the Mojo execution.
+     * @param sessionContext session context
+     */
+    public void setSessionContext(SessionContext sessionContext) {
+        this.setParameter("sessionContext", sessionContext);
+    }
+
+    /**
+     * Resolves the project of an artifact.
+     * @param artifact artifact
+     * @return project or null
+     */
+    public MavenProject resolveProject(Artifact artifact) {
+        return this.resolveProjectViaRepo(artifact);
+    }
+
+    /**
+     * Resolves the data of all referenced artifacts.
+     * @param artifacts referenced artifacts
+     * @return artifact data
+     * @throws MojoExecutionException on interruption
+     */
+    public List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> resolveArtifacts(Set<Artifact> artifacts)
+            throws MojoExecutionException {
+        return this.resolveReferencedArtifacts(artifacts, this.silentLog);
+    }
+
+    /**
+     * Sends the data to a URL endpoint.
+     * @param usageData usage data
+     * @param url       URL
+     * @return true on success
+     */
+    public boolean sendToWeb(UsageData usageData, String url) {
+        return this.getWebSink().send(usageData, url, null, this.silentLog);
+    }
+
+    /**
+     * Sends the data to the build log.
+     * @param usageData usage data
+     * @return true on success
+     */
+    public boolean sendToLog(UsageData usageData) {
+        return this.sendDataToLog(usageData, "@logging", this.silentLog);
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.send.SharedHttpClient;
+import io.github.nilscoding.maven.sendusageinfos.session.SessionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending usage data to an in-process HTTP endpoint, which reads and discards the request body.
+ * @author NilsCoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HttpSinkBenchmark {
+
+    /**
+     * HTTP status code OK.
+     */
+    private static final int HTTP_OK = 200;
+    /**
+     * Buffer size for reading request bodies.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Number of referenced artifacts.
+     */
+    @Param({"100", "1000", "10000"})
+    private int artifactCount;
+    /**
+     * HTTP compression mode.
+     */
+    @Param({"none", "gzip"})
+    private String httpCompression;
+
+    /**
+     * Usage data.
+     */
+    private UsageData usageData;
+    /**
+     * Local HTTP server.
+     */
+    private HttpServer server;
+    /**
+     * URL of the local endpoint.
+     */
+    private String url;
+    /**
+     * Shared HTTP client of the session.
+     */
+    private SharedHttpClient httpClient;
+    /**
+     * Mojo.
+     */
+    private BenchmarkMojo mojo;
+
+    /**
+     * Starts the server and creates the Mojo.
+     * @throws IOException on server errors
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.usageData = SyntheticGraph.createUsageData(this.artifactCount);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/usage-data", exchange -> {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+            exchange.sendResponseHeaders(HTTP_OK, -1);
+            exchange.close();
+        });
+        this.server.start();
+        this.url = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/usage-data";
+
+        SessionContext sessionContext = new SessionContext();
+        this.httpClient = sessionContext.getAttribute("http-client", SharedHttpClient.class, SharedHttpClient::new);
+        this.mojo = new BenchmarkMojo(new StubProjectBuilder());
+        this.mojo.setSessionContext(sessionContext);
+        this.mojo.setParameter("httpCompression", this.httpCompression);
+    }
+
+    /**
+     * Stops the server and closes the HTTP client.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.httpClient.close();
+        this.server.stop(0);
+    }
+
+    /**
+     * Sends the data.
+     * @return true on success
+     */
+    @Benchmark
+    public boolean sendViaWeb() {
+        boolean sent = this.mojo.sendToWeb(this.usageData, this.url);
+        if (sent == false) {
+            throw new IllegalStateException("sending to local endpoint failed");
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.LineBasedWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the <code>@logging</code> sink: the {@link LineBasedWriter} alone (with pre-serialized,
+ * pretty-printed JSON) and the whole sink including serialization.
+ * @author NilsCoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingSinkBenchmark {
+
+    /**
+     * Size of the chunks written to the writer, as written by Gson's buffered writer.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Number of referenced artifacts.
+     */
+    @Param({"100", "1000", "10000"})
+    private int artifactCount;
+
+    /**
+     * Usage data.
+     */
+    private UsageData usageData;
+    /**
+     * Pretty-printed JSON of the usage data.
+     */
+    private char[] json;
+    /**
+     * Mojo.
+     */
+    private BenchmarkMojo mojo;
+
+    /**
+     * Creates the data.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.usageData = SyntheticGraph.createUsageData(this.artifactCount);
+        this.json = new GsonBuilder().setPrettyPrinting().create().toJson(this.usageData).toCharArray();
+        this.mojo = new BenchmarkMojo(new StubProjectBuilder());
+    }
+
+    /**
+     * Writes the JSON lines to the writer.
+     * @param blackhole blackhole receiving the lines
+     */
+    @Benchmark
+    public void lineBasedWriter(Blackhole blackhole) {
+        LineBasedWriter writer = new LineBasedWriter(blackhole::consume);
+        for (int off = 0; off < this.json.length; off += CHUNK_SIZE) {
+            writer.write(this.json, off, Math.min(CHUNK_SIZE, this.json.length - off));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Sends the data to the logging sink.
+     * @return true on success
+     */
+    @Benchmark
+    public boolean loggingSink() {
+        return this.mojo.sendToLog(this.usageData);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import org.apache.maven.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the projects of all referenced artifacts via <code>resolveProjectViaRepo()</code> against a stub project builder.
+ * @author NilsCoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResolveProjectBenchmark {
+
+    /**
+     * Number of referenced artifacts.
+     */
+    @Param({"100", "1000", "10000"})
+    private int artifactCount;
+
+    /**
+     * Referenced artifacts.
+     */
+    private Set<Artifact> artifacts;
+    /**
+     * Mojo.
+     */
+    private BenchmarkMojo mojo;
+
+    /**
+     * Creates the graph and the Mojo.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.artifacts = SyntheticGraph.createArtifacts(this.artifactCount);
+        this.mojo = new BenchmarkMojo(new StubProjectBuilder());
+    }
+
+    /**
+     * Resolves all projects.
+     * @param blackhole blackhole
+     */
+    @Benchmark
+    public void resolveProjectViaRepo(Blackhole blackhole) {
+        for (Artifact oneArtifact : this.artifacts) {
+            blackhole.consume(this.mojo.resolveProject(oneArtifact));
+        }
+    }
+}
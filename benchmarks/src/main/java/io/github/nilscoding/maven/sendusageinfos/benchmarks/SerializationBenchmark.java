@@ -0,0 +1,73 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson serialization of usage data, with and without pretty-printing.
+ * @author NilsCoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    /**
+     * Number of referenced artifacts.
+     */
+    @Param({"100", "1000", "10000"})
+    private int artifactCount;
+    /**
+     * Flag for pretty-printing.
+     */
+    @Param({"false", "true"})
+    private boolean prettyPrint;
+
+    /**
+     * Usage data.
+     */
+    private UsageData usageData;
+    /**
+     * Gson instance, created like the Mojo does.
+     */
+    private Gson gson;
+
+    /**
+     * Creates the data.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.usageData = SyntheticGraph.createUsageData(this.artifactCount);
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        if (this.prettyPrint) {
+            gsonBuilder.setPrettyPrinting();
+        }
+        this.gson = gsonBuilder.create();
+    }
+
+    /**
+     * Serializes the data.
+     * @return JSON
+     */
+    @Benchmark
+    public String toJson() {
+        return this.gson.toJson(this.usageData);
+    }
+}
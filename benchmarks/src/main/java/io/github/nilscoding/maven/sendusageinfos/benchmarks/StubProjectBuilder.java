@@ -0,0 +1,112 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Project builder creating synthetic projects for artifacts, without any repository access.
+ * This isolates the Mojo's own resolution overhead from Maven's project building.
+ * @author NilsCoding
+ */
+public final class StubProjectBuilder implements ProjectBuilder {
+
+    /**
+     * Number of projects built.
+     */
+    private final AtomicLong builds = new AtomicLong();
+
+    /**
+     * Creates a new instance.
+     */
+    public StubProjectBuilder() {
+    }
+
+    /**
+     * Returns the number of projects built.
+     * @return number of projects built
+     */
+    public long getBuilds() {
+        return this.builds.get();
+    }
+
+    @Override
+    public ProjectBuildingResult build(Artifact projectArtifact, ProjectBuildingRequest request) {
+        this.builds.incrementAndGet();
+        return new StubResult(SyntheticGraph.createProject(projectArtifact));
+    }
+
+    @Override
+    public ProjectBuildingResult build(Artifact projectArtifact, boolean allowStubModel, ProjectBuildingRequest request) {
+        return this.build(projectArtifact, request);
+    }
+
+    @Override
+    public ProjectBuildingResult build(File projectFile, ProjectBuildingRequest request) throws ProjectBuildingException {
+        throw new UnsupportedOperationException("only artifacts are supported");
+    }
+
+    @Override
+    public ProjectBuildingResult build(ModelSource modelSource, ProjectBuildingRequest request) throws ProjectBuildingException {
+        throw new UnsupportedOperationException("only artifacts are supported");
+    }
+
+    @Override
+    public List<ProjectBuildingResult> build(List<File> pomFiles, boolean recursive, ProjectBuildingRequest request)
+            throws ProjectBuildingException {
+        throw new UnsupportedOperationException("only artifacts are supported");
+    }
+
+    /**
+     * Result with a prepared project.
+     */
+    private static final class StubResult implements ProjectBuildingResult {
+        /**
+         * Project.
+         */
+        private final MavenProject project;
+
+        /**
+         * Creates a new instance.
+         * @param project project
+         */
+        StubResult(MavenProject project) {
+            this.project = project;
+        }
+
+        @Override
+        public String getProjectId() {
+            return this.project.getId();
+        }
+
+        @Override
+        public File getPomFile() {
+            return null;
+        }
+
+        @Override
+        public MavenProject getProject() {
+            return this.project;
+        }
+
+        @Override
+        public List<ModelProblem> getProblems() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public DependencyResolutionResult getDependencyResolutionResult() {
+            return null;
+        }
+    }
+}
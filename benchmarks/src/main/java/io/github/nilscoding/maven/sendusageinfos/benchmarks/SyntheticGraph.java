@@ -0,0 +1,129 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.resolve.ArtifactMetadata;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Synthetic dependency graphs: a project with a tree of referenced artifacts, each artifact having up to
+ * {@link #FAN_OUT} dependencies, spread over a few group IDs. The graphs are deterministic for a given size.
+ * @author NilsCoding
+ */
+public final class SyntheticGraph {
+
+    /**
+     * Number of dependencies per artifact.
+     */
+    static final int FAN_OUT = 8;
+    /**
+     * Number of distinct group IDs.
+     */
+    private static final int GROUPS = 50;
+    /**
+     * Project group ID.
+     */
+    static final String PROJECT_GROUP_ID = "org.example.bench";
+    /**
+     * Project artifact ID.
+     */
+    static final String PROJECT_ARTIFACT_ID = "bench-project";
+    /**
+     * Project version.
+     */
+    static final String PROJECT_VERSION = "1.0.0";
+
+    /**
+     * Hidden constructor.
+     */
+    private SyntheticGraph() {
+    }
+
+    /**
+     * Creates the referenced Maven artifacts of the synthetic project, with dependency trails.
+     * @param count number of artifacts
+     * @return artifacts in breadth-first order
+     */
+    public static Set<Artifact> createArtifacts(int count) {
+        String projectId = PROJECT_GROUP_ID + ":" + PROJECT_ARTIFACT_ID + ":jar:" + PROJECT_VERSION;
+        List<Artifact> artifacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Artifact artifact = new DefaultArtifact("org.example.group" + (i % GROUPS), "artifact-" + i,
+                    VersionRange.createFromVersion("1." + (i % 10) + "." + i), (i < FAN_OUT) ? "compile" : "runtime",
+                    "jar", null, new DefaultArtifactHandler("jar"));
+            List<String> trail;
+            if (i < FAN_OUT) {
+                trail = new ArrayList<>();
+                trail.add(projectId);
+            } else {
+                trail = new ArrayList<>(artifacts.get((i - FAN_OUT) / FAN_OUT).getDependencyTrail());
+            }
+            trail.add(artifact.getId());
+            artifact.setDependencyTrail(trail);
+            artifacts.add(artifact);
+        }
+        return new LinkedHashSet<>(artifacts);
+    }
+
+    /**
+     * Creates the resolved project of a referenced artifact, as a project builder would.
+     * @param artifact referenced artifact
+     * @return project with name, description, URL and license
+     */
+    public static MavenProject createProject(Artifact artifact) {
+        Model model = new Model();
+        model.setGroupId(artifact.getGroupId());
+        model.setArtifactId(artifact.getArtifactId());
+        model.setVersion(artifact.getVersion());
+        model.setPackaging(artifact.getType());
+        model.setName("Synthetic " + artifact.getArtifactId());
+        model.setDescription("Synthetic artifact " + artifact.getId() + " for benchmarks");
+        model.setUrl("https://example.org/" + artifact.getGroupId() + "/" + artifact.getArtifactId());
+        org.apache.maven.model.License license = new org.apache.maven.model.License();
+        license.setName("MIT License");
+        license.setUrl("https://www.opensource.org/licenses/mit-license.php");
+        model.addLicense(license);
+        return new MavenProject(model);
+    }
+
+    /**
+     * Creates the project of the synthetic graph.
+     * @return project
+     */
+    public static MavenProject createRootProject() {
+        Model model = new Model();
+        model.setGroupId(PROJECT_GROUP_ID);
+        model.setArtifactId(PROJECT_ARTIFACT_ID);
+        model.setVersion(PROJECT_VERSION);
+        model.setPackaging("jar");
+        model.setName("Synthetic benchmark project");
+        return new MavenProject(model);
+    }
+
+    /**
+     * Creates fully populated usage data of the given size, without resolving anything.
+     * @param count number of referenced artifacts
+     * @return usage data
+     */
+    public static UsageData createUsageData(int count) {
+        UsageData usageData = new UsageData();
+        usageData.setProjectArtifact(io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenProject(createRootProject()));
+        List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> refArtifacts = new ArrayList<>(count);
+        for (Artifact oneArtifact : createArtifacts(count)) {
+            io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact =
+                    io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(oneArtifact);
+            ArtifactMetadata.fromMavenProject(createProject(oneArtifact)).applyTo(refArtifact);
+            refArtifacts.add(refArtifact);
+        }
+        usageData.setReferencedArtifacts(refArtifacts);
+        return usageData;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
+
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.DependencyGraph;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building usage data from a synthetic artifact graph, as done by the Mojo execution (with a stub project builder).
+ * @author NilsCoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UsageDataBenchmark {
+
+    /**
+     * Number of referenced artifacts.
+     */
+    @Param({"100", "1000", "10000"})
+    private int artifactCount;
+
+    /**
+     * Referenced artifacts.
+     */
+    private Set<org.apache.maven.artifact.Artifact> artifacts;
+    /**
+     * Mojo.
+     */
+    private BenchmarkMojo mojo;
+
+    /**
+     * Creates the graph and the Mojo.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.artifacts = SyntheticGraph.createArtifacts(this.artifactCount);
+        this.mojo = new BenchmarkMojo(new StubProjectBuilder());
+    }
+
+    /**
+     * Builds usage data with dependency trails.
+     * @return usage data
+     * @throws MojoExecutionException on errors
+     */
+    @Benchmark
+    public UsageData buildWithTrails() throws MojoExecutionException {
+        return this.buildUsageData();
+    }
+
+    /**
+     * Builds usage data with dependency graph encoding.
+     * @return usage data
+     * @throws MojoExecutionException on errors
+     */
+    @Benchmark
+    public UsageData buildWithGraph() throws MojoExecutionException {
+        UsageData usageData = this.buildUsageData();
+        usageData.setDependencyGraph(DependencyGraph.fromDependencyTrails(usageData.getProjectArtifact().getGatv(),
+                usageData.getReferencedArtifacts()));
+        return usageData;
+    }
+
+    /**
+     * Builds usage data the way the Mojo execution does.
+     * @return usage data
+     * @throws MojoExecutionException on errors
+     */
+    private UsageData buildUsageData() throws MojoExecutionException {
+        UsageData usageData = new UsageData();
+        usageData.setProjectArtifact(Artifact.fromMavenProject(SyntheticGraph.createRootProject()));
+        List<Artifact> refArtifacts = this.mojo.resolveArtifacts(this.artifacts);
+        usageData.setReferencedArtifacts(refArtifacts);
+        return usageData;
+    }
+}
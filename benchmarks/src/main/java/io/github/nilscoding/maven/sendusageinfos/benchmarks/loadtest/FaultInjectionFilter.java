@@ -0,0 +1,253 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filter for the collector's HTTP server, injecting latency and failures into uploads (POST requests): uploads can be
+ * delayed and can fail randomly with HTTP 500 or be throttled with HTTP 429 and a Retry-After header. Failed uploads
+ * are not passed to the collector. Responses, received bytes and the handling time of uploads are recorded.
+ * @author NilsCoding
+ */
+public final class FaultInjectionFilter extends Filter {
+
+    /**
+     * HTTP status code for throttled requests.
+     */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    /**
+     * HTTP status code for server errors.
+     */
+    private static final int HTTP_INTERNAL_ERROR = 500;
+    /**
+     * Buffer size for reading request bodies.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Fixed latency of uploads in milliseconds.
+     */
+    private final long latencyMillis;
+    /**
+     * Maximum additional random latency of uploads in milliseconds.
+     */
+    private final long jitterMillis;
+    /**
+     * Ratio of uploads failing with HTTP 500.
+     */
+    private final double errorRate;
+    /**
+     * Ratio of uploads throttled with HTTP 429.
+     */
+    private final double throttleRate;
+    /**
+     * Retry-After value of throttled uploads in seconds.
+     */
+    private final int retryAfterSeconds;
+    /**
+     * Random numbers for latency and failures.
+     */
+    private final Random random;
+    /**
+     * Number of responses by HTTP status code.
+     */
+    private final ConcurrentMap<Integer, AtomicInteger> responses = new ConcurrentHashMap<>();
+    /**
+     * Number of received body bytes (as sent, possibly compressed).
+     */
+    private final AtomicLong receivedBytes = new AtomicLong();
+    /**
+     * Handling time of uploads, including the injected latency.
+     */
+    private final LatencyStats uploadLatency = new LatencyStats();
+
+    /**
+     * Creates a new instance.
+     * @param latencyMillis     fixed latency of uploads in milliseconds
+     * @param jitterMillis      maximum additional random latency of uploads in milliseconds
+     * @param errorRate         ratio of uploads failing with HTTP 500 (0 to 1)
+     * @param throttleRate      ratio of uploads throttled with HTTP 429 (0 to 1)
+     * @param retryAfterSeconds Retry-After value of throttled uploads in seconds
+     * @param seed              seed for random latency and failures
+     */
+    public FaultInjectionFilter(long latencyMillis, long jitterMillis, double errorRate, double throttleRate,
+                                int retryAfterSeconds, long seed) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Handles one request, injecting latency and failures into uploads.
+     * @param exchange HTTP exchange
+     * @param chain    remaining filters and the collector's handler
+     * @throws IOException on I/O errors
+     */
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod()) == false) {
+            chain.doFilter(exchange);
+            this.recordResponse(exchange.getResponseCode());
+            return;
+        }
+        long start = System.nanoTime();
+        exchange.setStreams(new CountingInputStream(exchange.getRequestBody(), this.receivedBytes), null);
+        double failureDice;
+        long delayMillis = this.latencyMillis;
+        synchronized (this.random) {
+            failureDice = this.random.nextDouble();
+            if (this.jitterMillis > 0) {
+                delayMillis += (long) (this.random.nextDouble() * this.jitterMillis);
+            }
+        }
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            if (failureDice < this.throttleRate) {
+                exchange.getResponseHeaders().set("Retry-After", Integer.toString(this.retryAfterSeconds));
+                this.fail(exchange, HTTP_TOO_MANY_REQUESTS);
+            } else if (failureDice < this.throttleRate + this.errorRate) {
+                this.fail(exchange, HTTP_INTERNAL_ERROR);
+            } else {
+                chain.doFilter(exchange);
+                this.recordResponse(exchange.getResponseCode());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } finally {
+            this.uploadLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Answers an upload with an injected failure, without passing it to the collector.
+     * @param exchange HTTP exchange
+     * @param status   HTTP status code
+     * @throws IOException on I/O errors
+     */
+    private void fail(HttpExchange exchange, int status) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            // read the body like the collector would, so it is counted and the connection can be reused
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int len = in.read(buffer);
+            while (len >= 0) {
+                len = in.read(buffer);
+            }
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+        this.recordResponse(status);
+    }
+
+    /**
+     * Records a response.
+     * @param status HTTP status code
+     */
+    private void recordResponse(int status) {
+        this.responses.computeIfAbsent(status, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Returns a description of the filter.
+     * @return description
+     */
+    @Override
+    public String description() {
+        return "injects latency, errors and throttling into uploads";
+    }
+
+    /**
+     * Returns the number of responses by HTTP status code.
+     * @return number of responses by HTTP status code, sorted by status code
+     */
+    public Map<Integer, Integer> getResponses() {
+        Map<Integer, Integer> result = new TreeMap<>();
+        for (Map.Entry<Integer, AtomicInteger> oneEntry : this.responses.entrySet()) {
+            result.put(oneEntry.getKey(), oneEntry.getValue().get());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of received body bytes of uploads (as sent, possibly compressed).
+     * @return number of received body bytes
+     */
+    public long getReceivedBytes() {
+        return this.receivedBytes.get();
+    }
+
+    /**
+     * Returns the handling time of uploads, including the injected latency.
+     * @return handling time of uploads
+     */
+    public LatencyStats getUploadLatency() {
+        return this.uploadLatency;
+    }
+
+    /**
+     * Input stream counting the read bytes.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * Counter of read bytes.
+         */
+        private final AtomicLong counter;
+
+        /**
+         * Creates a new instance.
+         * @param in      stream to read from
+         * @param counter counter of read bytes
+         */
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        /**
+         * Reads one byte.
+         * @return byte or -1 at the end of the stream
+         * @throws IOException on read errors
+         */
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                this.counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        /**
+         * Reads bytes into an array.
+         * @param b   array to read into
+         * @param off offset in the array
+         * @param len maximum number of bytes to read
+         * @return number of read bytes or -1 at the end of the stream
+         * @throws IOException on read errors
+         */
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                this.counter.addAndGet(count);
+            }
+            return count;
+        }
+    }
+}
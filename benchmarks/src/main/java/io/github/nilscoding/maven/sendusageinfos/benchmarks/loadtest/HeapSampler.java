@@ -0,0 +1,87 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Samples the used heap in a background thread and keeps the peak value.
+ * @author NilsCoding
+ */
+public final class HeapSampler implements AutoCloseable {
+
+    /**
+     * Sample interval in milliseconds.
+     */
+    private static final long SAMPLE_INTERVAL_MILLIS = 10L;
+
+    /**
+     * Memory bean.
+     */
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    /**
+     * Sampling thread.
+     */
+    private final Thread thread;
+    /**
+     * Peak used heap in bytes.
+     */
+    private volatile long peakBytes;
+    /**
+     * Flag for stopping the sampling.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new instance and starts sampling.
+     */
+    public HeapSampler() {
+        this.peakBytes = this.sample();
+        this.thread = new Thread(this::run, "load-test-heap-sampler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Samples until stopped.
+     */
+    private void run() {
+        while (this.stopped == false) {
+            this.sample();
+            try {
+                Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes one sample.
+     * @return used heap in bytes
+     */
+    private long sample() {
+        long used = this.memoryBean.getHeapMemoryUsage().getUsed();
+        if (used > this.peakBytes) {
+            this.peakBytes = used;
+        }
+        return used;
+    }
+
+    /**
+     * Returns the peak used heap.
+     * @return peak used heap in bytes
+     */
+    public long getPeakBytes() {
+        return this.peakBytes;
+    }
+
+    /**
+     * Stops sampling, after taking a last sample.
+     */
+    @Override
+    public void close() {
+        this.stopped = true;
+        this.thread.interrupt();
+        this.sample();
+    }
+}
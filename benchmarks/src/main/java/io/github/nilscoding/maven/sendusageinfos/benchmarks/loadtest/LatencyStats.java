@@ -0,0 +1,105 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorded latencies, with percentiles. Thread-safe.
+ * @author NilsCoding
+ */
+public final class LatencyStats {
+
+    /**
+     * Initial capacity.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Percentage of all values.
+     */
+    private static final double HUNDRED_PERCENT = 100.0;
+    /**
+     * Percentiles shown in the summary.
+     */
+    private static final double[] SUMMARY_PERCENTILES = {50.0, 90.0, 99.0};
+
+    /**
+     * Recorded latencies in nanoseconds.
+     */
+    private long[] values = new long[INITIAL_CAPACITY];
+    /**
+     * Number of recorded latencies.
+     */
+    private int count;
+
+    /**
+     * Creates a new instance.
+     */
+    public LatencyStats() {
+    }
+
+    /**
+     * Records a latency.
+     * @param nanos latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        if (this.count == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.count] = nanos;
+        this.count++;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     * @return number of recorded latencies
+     */
+    public synchronized int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns a percentile (nearest rank).
+     * @param percentile percentile, between 0 and 100
+     * @return latency in nanoseconds, 0 if nothing recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0L;
+        }
+        long[] sorted = Arrays.copyOf(this.values, this.count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / HUNDRED_PERCENT * sorted.length);
+        return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+    }
+
+    /**
+     * Returns the highest latency.
+     * @return latency in nanoseconds, 0 if nothing recorded
+     */
+    public long getMax() {
+        return this.getPercentile(HUNDRED_PERCENT);
+    }
+
+    /**
+     * Formats the percentiles and maximum in milliseconds.
+     * @return summary, e.g. "p50 12.3 ms, p90 20.1 ms, p99 31.0 ms, max 40.2 ms"
+     */
+    public String formatSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (double onePercentile : SUMMARY_PERCENTILES) {
+            sb.append(String.format(Locale.ROOT, "p%.0f %s, ", onePercentile, formatMillis(this.getPercentile(onePercentile))));
+        }
+        sb.append("max ").append(formatMillis(this.getMax()));
+        return sb.toString();
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     * @param nanos nanoseconds
+     * @return formatted milliseconds
+     */
+    static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
+
+import io.github.nilscoding.maven.sendusageinfos.benchmarks.BenchmarkMojo;
+import io.github.nilscoding.maven.sendusageinfos.benchmarks.StubProjectBuilder;
+import io.github.nilscoding.maven.sendusageinfos.collector.ArtifactStore;
+import io.github.nilscoding.maven.sendusageinfos.collector.CollectorServer;
+import io.github.nilscoding.maven.sendusageinfos.session.DaemonThreadFactory;
+import io.github.nilscoding.maven.sendusageinfos.session.SessionContextManager;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the Mojo for all modules of a synthetic reactor against the reference collector (with latency and failures
+ * injected by a {@link FaultInjectionFilter}), like a parallel multi-module build (<code>mvn -T</code>) would, and
+ * reports throughput, latency percentiles and peak heap.
+ * Metadata is read with the <code>pom-reader</code> engine from a generated local repository; nothing is accessed
+ * over the network.
+ * @author NilsCoding
+ */
+public final class LoadTestMain {
+
+    /**
+     * Bytes per megabyte.
+     */
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Number of modules.
+     */
+    private int modules = 200;
+    /**
+     * Number of artifacts in the local repository.
+     */
+    private int artifacts = 5000;
+    /**
+     * Number of referenced artifacts per module.
+     */
+    private int artifactsPerModule = 300;
+    /**
+     * Number of modules built concurrently.
+     */
+    private int threads = 4;
+    /**
+     * Local repository directory.
+     */
+    private File repository = new File("target/loadtest-repository");
+    /**
+     * Fixed latency of uploads in milliseconds.
+     */
+    private long latency = 20L;
+    /**
+     * Maximum additional random latency of uploads in milliseconds.
+     */
+    private long jitter = 10L;
+    /**
+     * Ratio of uploads failing with HTTP 500.
+     */
+    private double errorRate;
+    /**
+     * Ratio of uploads throttled with HTTP 429.
+     */
+    private double throttleRate;
+    /**
+     * Retry-After value of throttled uploads in seconds.
+     */
+    private int retryAfter = 1;
+    /**
+     * Number of collector threads.
+     */
+    private int collectorThreads = 16;
+    /**
+     * Seed for random numbers.
+     */
+    private long seed = 42L;
+    /**
+     * Additional Mojo parameters.
+     */
+    private final Map<String, String> mojoParameters = new LinkedHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private LoadTestMain() {
+    }
+
+    /**
+     * Main method.
+     * @param args command line options, see {@link #printUsage(PrintStream)}
+     * @throws Exception on errors
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestMain loadTest = new LoadTestMain();
+        if (loadTest.parse(args) == false) {
+            printUsage(System.err);
+            return;
+        }
+        loadTest.run(System.out);
+    }
+
+    /**
+     * Parses the command line options.
+     * @param args command line options
+     * @return true if valid, false for invalid options or help
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if ((option.startsWith("--") == false) || "--help".equals(option) || (i + 1 >= args.length)) {
+                return false;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--modules":
+                    this.modules = Integer.parseInt(value);
+                    break;
+                case "--artifacts":
+                    this.artifacts = Integer.parseInt(value);
+                    break;
+                case "--artifacts-per-module":
+                    this.artifactsPerModule = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    this.threads = Integer.parseInt(value);
+                    break;
+                case "--repository":
+                    this.repository = new File(value);
+                    break;
+                case "--latency":
+                    this.latency = Long.parseLong(value);
+                    break;
+                case "--jitter":
+                    this.jitter = Long.parseLong(value);
+                    break;
+                case "--error-rate":
+                    this.errorRate = Double.parseDouble(value);
+                    break;
+                case "--throttle-rate":
+                    this.throttleRate = Double.parseDouble(value);
+                    break;
+                case "--retry-after":
+                    this.retryAfter = Integer.parseInt(value);
+                    break;
+                case "--collector-threads":
+                    this.collectorThreads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    this.seed = Long.parseLong(value);
+                    break;
+                case "--mojo":
+                    int pos = value.indexOf('=');
+                    if (pos <= 0) {
+                        return false;
+                    }
+                    this.mojoParameters.put(value.substring(0, pos), value.substring(pos + 1));
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints the command line options.
+     * @param out stream to print to
+     */
+    private static void printUsage(PrintStream out) {
+        out.println("usage: LoadTestMain [options]");
+        out.println("  --modules <n>               number of modules (200)");
+        out.println("  --artifacts <n>             number of artifacts in the local repository (5000)");
+        out.println("  --artifacts-per-module <n>  referenced artifacts per module (300)");
+        out.println("  --threads <n>               modules built concurrently (4)");
+        out.println("  --repository <dir>          generated local repository (target/loadtest-repository)");
+        out.println("  --latency <ms>              fixed latency of uploads (20)");
+        out.println("  --jitter <ms>               maximum additional random latency of uploads (10)");
+        out.println("  --error-rate <0..1>         ratio of uploads failing with HTTP 500 (0)");
+        out.println("  --throttle-rate <0..1>      ratio of uploads throttled with HTTP 429 (0)");
+        out.println("  --retry-after <s>           Retry-After value of throttled uploads (1)");
+        out.println("  --collector-threads <n>     threads of the collector (16)");
+        out.println("  --seed <n>                  seed for random numbers (42)");
+        out.println("  --mojo <name>=<value>       Mojo parameter, e.g. --mojo retryBudget=30 (repeatable)");
+    }
+
+    /**
+     * Runs the load test and prints the report.
+     * @param out stream to print the report to
+     * @throws Exception on errors
+     */
+    private void run(PrintStream out) throws Exception {
+        SyntheticReactor reactor = new SyntheticReactor(this.repository, this.artifacts, this.modules, this.artifactsPerModule, this.seed);
+        long generateStart = System.nanoTime();
+        int written = reactor.generateRepository();
+        out.println(String.format(Locale.ROOT, "local repository: %s (%d POM files written in %.1f s)",
+                this.repository.getAbsolutePath(), written, (System.nanoTime() - generateStart) / NANOS_PER_SECOND));
+        List<MavenProject> moduleProjects = reactor.createModules();
+
+        ArtifactStore store = new ArtifactStore();
+        FaultInjectionFilter faultInjection = new FaultInjectionFilter(this.latency, this.jitter, this.errorRate, this.throttleRate,
+                this.retryAfter, this.seed);
+        try (CollectorServer collector = new CollectorServer(store)) {
+            String url = collector.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), this.collectorThreads, faultInjection);
+            MavenSession session = new MavenSession(null, reactor.createRepositorySession(),
+                    new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+            SessionContextManager sessionContextManager = new SessionContextManager();
+            StubProjectBuilder projectBuilder = new StubProjectBuilder();
+            LatencyStats executionLatency = new LatencyStats();
+            AtomicInteger failedModules = new AtomicInteger();
+
+            HeapSampler heapSampler = new HeapSampler();
+            long start = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(this.threads, new DaemonThreadFactory("load-test-build"));
+            try {
+                List<Future<?>> futures = new ArrayList<>(moduleProjects.size());
+                for (MavenProject oneModule : moduleProjects) {
+                    BenchmarkMojo mojo = this.createMojo(projectBuilder, session, sessionContextManager, oneModule, url);
+                    futures.add(executor.submit(() -> {
+                        long executionStart = System.nanoTime();
+                        try {
+                            mojo.execute();
+                        } catch (Exception ex) {
+                            failedModules.incrementAndGet();
+                        } finally {
+                            executionLatency.record(System.nanoTime() - executionStart);
+                        }
+                    }));
+                }
+                for (Future<?> oneFuture : futures) {
+                    oneFuture.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            // runs deferred and aggregated sends, like at the end of a real build
+            long sessionEndStart = System.nanoTime();
+            ExecutionListener listener = session.getRequest().getExecutionListener();
+            if (listener != null) {
+                listener.sessionEnded(null);
+            }
+            long end = System.nanoTime();
+            heapSampler.close();
+
+            double seconds = (end - start) / NANOS_PER_SECOND;
+            int uploads = faultInjection.getUploadLatency().getCount();
+            out.println(String.format(Locale.ROOT, "load test: %d modules, %d artifacts per module, %d threads",
+                    this.modules, this.artifactsPerModule, this.threads));
+            out.println(String.format(Locale.ROOT, "collector: latency %d ms + up to %d ms, error rate %.3f, throttle rate %.3f",
+                    this.latency, this.jitter, this.errorRate, this.throttleRate));
+            out.println(String.format(Locale.ROOT, "duration:          %.2f s (session end %.2f s)",
+                    seconds, (end - sessionEndStart) / NANOS_PER_SECOND));
+            out.println(String.format(Locale.ROOT, "throughput:        %.1f modules/s, %.0f artifacts/s, %.1f uploads/s",
+                    this.modules / seconds, ((double) this.modules * this.artifactsPerModule) / seconds, uploads / seconds));
+            out.println("mojo execution:    " + executionLatency.formatSummary());
+            out.println("collector upload:  " + faultInjection.getUploadLatency().formatSummary());
+            out.println("responses:         " + faultInjection.getResponses());
+            out.println(String.format(Locale.ROOT, "received:          %.1f MB, %d projects stored, %d distinct artifacts",
+                    faultInjection.getReceivedBytes() / BYTES_PER_MB, store.getProjectCount(), store.getArtifactCount()));
+            out.println("failed modules:    " + failedModules.get());
+            out.println(String.format(Locale.ROOT, "projects built:    %d (pom-reader fallback)", projectBuilder.getBuilds()));
+            out.println(String.format(Locale.ROOT, "peak heap:         %.1f MB (max %.1f MB)",
+                    heapSampler.getPeakBytes() / BYTES_PER_MB, Runtime.getRuntime().maxMemory() / BYTES_PER_MB));
+            if (TimeUnit.NANOSECONDS.toSeconds(end - start) == 0) {
+                out.println("note: very short run, increase --modules for meaningful numbers");
+            }
+        }
+    }
+
+    /**
+     * Creates the Mojo for one module, configured like in a build using the collector.
+     * @param projectBuilder        project builder, only used if a POM is missing in the local repository
+     * @param session               Maven session
+     * @param sessionContextManager session context manager
+     * @param module                module project
+     * @param url                   URL of the collector
+     * @return Mojo
+     */
+    private BenchmarkMojo createMojo(StubProjectBuilder projectBuilder, MavenSession session,
+                                     SessionContextManager sessionContextManager, MavenProject module, String url) {
+        BenchmarkMojo mojo = new BenchmarkMojo(projectBuilder);
+        mojo.setParameter("session", session);
+        mojo.setParameter("sessionContextManager", sessionContextManager);
+        mojo.setParameter("project", module);
+        mojo.setParameter("urlLocation", url);
+        mojo.setParameter("resolutionEngine", "pom-reader");
+        mojo.setParameter("sessionCache", Boolean.TRUE);
+        mojo.setParameter("failOnSinkError", Boolean.TRUE);
+        for (Map.Entry<String, String> oneParameter : this.mojoParameters.entrySet()) {
+            mojo.setParameterValue(oneParameter.getKey(), oneParameter.getValue());
+        }
+        return mojo;
+    }
+}
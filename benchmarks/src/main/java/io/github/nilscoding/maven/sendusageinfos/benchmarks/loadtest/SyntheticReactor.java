@@ -0,0 +1,281 @@
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.NoLocalRepositoryManagerException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic reactor: modules referencing artifacts of a generated local repository. Artifacts inherit their license
+ * from a parent POM per group, some declare their own. Modules draw their artifacts with a skewed distribution, so
+ * popular artifacts are shared by many modules, like in real reactors. Everything is deterministic for a given seed.
+ * @author NilsCoding
+ */
+public final class SyntheticReactor {
+
+    /**
+     * Group ID of the modules.
+     */
+    static final String MODULE_GROUP_ID = "org.example.loadtest";
+    /**
+     * Version of the modules.
+     */
+    static final String MODULE_VERSION = "1.0.0-SNAPSHOT";
+    /**
+     * Number of dependencies per artifact in the dependency trails.
+     */
+    private static final int FAN_OUT = 8;
+    /**
+     * Number of distinct group IDs.
+     */
+    private static final int GROUPS = 100;
+    /**
+     * Every n-th artifact declares its own license instead of inheriting the parent's one.
+     */
+    private static final int OWN_LICENSE_INTERVAL = 3;
+    /**
+     * Number of distinct minor versions.
+     */
+    private static final int MINOR_VERSIONS = 10;
+    /**
+     * Version of the group parent POMs.
+     */
+    private static final String PARENT_VERSION = "1";
+
+    /**
+     * Root directory of the local repository.
+     */
+    private final File localRepository;
+    /**
+     * Number of artifacts in the local repository.
+     */
+    private final int artifactCount;
+    /**
+     * Number of modules.
+     */
+    private final int moduleCount;
+    /**
+     * Number of referenced artifacts per module.
+     */
+    private final int artifactsPerModule;
+    /**
+     * Seed for selecting the artifacts of the modules.
+     */
+    private final long seed;
+
+    /**
+     * Creates a new instance.
+     * @param localRepository    root directory of the local repository
+     * @param artifactCount      number of artifacts in the local repository
+     * @param moduleCount        number of modules
+     * @param artifactsPerModule number of referenced artifacts per module (at most the number of artifacts)
+     * @param seed               seed for selecting the artifacts of the modules
+     */
+    public SyntheticReactor(File localRepository, int artifactCount, int moduleCount, int artifactsPerModule, long seed) {
+        this.localRepository = localRepository;
+        this.artifactCount = artifactCount;
+        this.moduleCount = moduleCount;
+        this.artifactsPerModule = Math.min(artifactsPerModule, artifactCount);
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the POM files of all artifacts and their parents to the local repository. Existing files are kept,
+     * as their content only depends on the artifact index.
+     * @return number of files written
+     * @throws IOException on write errors
+     */
+    public int generateRepository() throws IOException {
+        int written = 0;
+        for (int g = 0; g < Math.min(GROUPS, this.artifactCount); g++) {
+            if (this.writePom(groupId(g), "parent", PARENT_VERSION, parentPom(g))) {
+                written++;
+            }
+        }
+        for (int i = 0; i < this.artifactCount; i++) {
+            if (this.writePom(groupId(i % GROUPS), artifactId(i), version(i), artifactPom(i))) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Creates a repository session using the generated local repository.
+     * @return repository session
+     * @throws NoLocalRepositoryManagerException if the local repository cannot be used
+     */
+    public DefaultRepositorySystemSession createRepositorySession() throws NoLocalRepositoryManagerException {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setLocalRepositoryManager(new SimpleLocalRepositoryManagerFactory()
+                .newInstance(session, new LocalRepository(this.localRepository)));
+        return session;
+    }
+
+    /**
+     * Creates the module projects, each with its referenced artifacts and their dependency trails.
+     * @return module projects in reactor order
+     */
+    public List<MavenProject> createModules() {
+        List<MavenProject> modules = new ArrayList<>(this.moduleCount);
+        for (int m = 0; m < this.moduleCount; m++) {
+            Model model = new Model();
+            model.setGroupId(MODULE_GROUP_ID);
+            model.setArtifactId("module-" + m);
+            model.setVersion(MODULE_VERSION);
+            model.setPackaging("jar");
+            model.setName("Load test module " + m);
+            MavenProject module = new MavenProject(model);
+            module.setArtifacts(this.createModuleArtifacts(m, MODULE_GROUP_ID + ":module-" + m + ":jar:" + MODULE_VERSION));
+            modules.add(module);
+        }
+        return modules;
+    }
+
+    /**
+     * Creates the referenced artifacts of one module.
+     * @param module    module index
+     * @param projectId ID of the module project
+     * @return referenced artifacts
+     */
+    private Set<Artifact> createModuleArtifacts(int module, String projectId) {
+        Random random = new Random(this.seed + module);
+        Set<Integer> indexes = new LinkedHashSet<>();
+        while (indexes.size() < this.artifactsPerModule) {
+            // squared distribution: low indexes are picked much more often
+            double r = random.nextDouble();
+            indexes.add((int) (r * r * this.artifactCount));
+        }
+        List<Artifact> artifacts = new ArrayList<>(indexes.size());
+        for (int oneIndex : indexes) {
+            int position = artifacts.size();
+            Artifact artifact = new DefaultArtifact(groupId(oneIndex % GROUPS), artifactId(oneIndex),
+                    VersionRange.createFromVersion(version(oneIndex)), (position < FAN_OUT) ? "compile" : "runtime",
+                    "jar", null, new DefaultArtifactHandler("jar"));
+            List<String> trail;
+            if (position < FAN_OUT) {
+                trail = new ArrayList<>();
+                trail.add(projectId);
+            } else {
+                trail = new ArrayList<>(artifacts.get((position - FAN_OUT) / FAN_OUT).getDependencyTrail());
+            }
+            trail.add(artifact.getId());
+            artifact.setDependencyTrail(trail);
+            artifacts.add(artifact);
+        }
+        return new LinkedHashSet<>(artifacts);
+    }
+
+    /**
+     * Writes a POM file to the local repository, if not existing yet.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param version    version
+     * @param content    POM content
+     * @return true if written, false if already existing
+     * @throws IOException on write errors
+     */
+    private boolean writePom(String groupId, String artifactId, String version, String content) throws IOException {
+        File dir = new File(this.localRepository, groupId.replace('.', '/') + "/" + artifactId + "/" + version);
+        File pomFile = new File(dir, artifactId + "-" + version + ".pom");
+        if (pomFile.isFile()) {
+            return false;
+        }
+        Files.createDirectories(dir.toPath());
+        Files.write(pomFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
+    /**
+     * Returns the POM of a group parent.
+     * @param group group index
+     * @return POM content
+     */
+    private static String parentPom(int group) {
+        return "<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <groupId>" + groupId(group) + "</groupId>\n"
+                + "  <artifactId>parent</artifactId>\n"
+                + "  <version>" + PARENT_VERSION + "</version>\n"
+                + "  <packaging>pom</packaging>\n"
+                + "  <url>https://example.org/group" + group + "</url>\n"
+                + "  <licenses>\n"
+                + "    <license>\n"
+                + "      <name>Apache License, Version 2.0</name>\n"
+                + "      <url>https://www.apache.org/licenses/LICENSE-2.0.txt</url>\n"
+                + "    </license>\n"
+                + "  </licenses>\n"
+                + "</project>\n";
+    }
+
+    /**
+     * Returns the POM of an artifact.
+     * @param index artifact index
+     * @return POM content
+     */
+    private static String artifactPom(int index) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<project>\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n")
+                .append("  <parent>\n")
+                .append("    <groupId>").append(groupId(index % GROUPS)).append("</groupId>\n")
+                .append("    <artifactId>parent</artifactId>\n")
+                .append("    <version>").append(PARENT_VERSION).append("</version>\n")
+                .append("  </parent>\n")
+                .append("  <artifactId>").append(artifactId(index)).append("</artifactId>\n")
+                .append("  <version>").append(version(index)).append("</version>\n")
+                .append("  <name>Library ").append(index).append("</name>\n")
+                .append("  <description>Synthetic library ").append(index).append(" for load tests</description>\n");
+        if (index % OWN_LICENSE_INTERVAL == 0) {
+            sb.append("  <licenses>\n")
+                    .append("    <license>\n")
+                    .append("      <name>MIT License</name>\n")
+                    .append("      <url>https://www.opensource.org/licenses/mit-license.php</url>\n")
+                    .append("    </license>\n")
+                    .append("  </licenses>\n");
+        }
+        return sb.append("</project>\n").toString();
+    }
+
+    /**
+     * Returns the group ID of a group.
+     * @param group group index
+     * @return group ID
+     */
+    private static String groupId(int group) {
+        return "org.example.loadtest.group" + group;
+    }
+
+    /**
+     * Returns the artifact ID of an artifact.
+     * @param index artifact index
+     * @return artifact ID
+     */
+    private static String artifactId(int index) {
+        return "library-" + index;
+    }
+
+    /**
+     * Returns the version of an artifact.
+     * @param index artifact index
+     * @return version
+     */
+    private static String version(int index) {
+        return "1." + (index % MINOR_VERSIONS) + "." + index;
+    }
+}
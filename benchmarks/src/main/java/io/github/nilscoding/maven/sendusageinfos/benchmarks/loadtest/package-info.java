@@ -0,0 +1,5 @@
+/**
+ * Load-test harness running the Mojo for synthetic reactors against the reference collector
+ * (run with {@link io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest.LoadTestMain}).
+ */
+package io.github.nilscoding.maven.sendusageinfos.benchmarks.loadtest;
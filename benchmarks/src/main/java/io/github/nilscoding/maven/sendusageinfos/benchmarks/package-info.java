@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks for resolution, serialization and sinks of the Mojo, with their fixtures.
+ */
+package io.github.nilscoding.maven.sendusageinfos.benchmarks;
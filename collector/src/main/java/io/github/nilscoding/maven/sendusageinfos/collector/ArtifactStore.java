@@ -0,0 +1,1041 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.DeltaUsageData;
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.send.DeltaSnapshot;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory store of artifact usages with inverted indexes. Each usage of an artifact by a project is a record of
+ * three ints (project, artifact, scope); all strings are kept once in a dictionary. Artifacts are indexed by group ID,
+ * artifact ID, "groupId:artifactId", version and license name, and each artifact and project keeps the list of its
+ * records, so searches only touch the records of the most selective index.
+ * <p>
+ * Storing usage data of a project replaces its previous records, which are marked as dead and removed by a
+ * compaction once there are more dead than live records. Dependency trails and module artifacts are not stored.
+ * Access is guarded by a read-write lock, so searches run concurrently.
+ * </p>
+ * @author NilsCoding
+ */
+public final class ArtifactStore {
+
+    /**
+     * Magic number of snapshot files ("SUIC").
+     */
+    private static final int SNAPSHOT_MAGIC = 0x53554943;
+    /**
+     * Format version of snapshot files.
+     */
+    private static final int SNAPSHOT_VERSION = 1;
+    /**
+     * Number of ints per artifact in snapshot files, without licenses.
+     */
+    private static final int SNAPSHOT_ARTIFACT_INTS = 8;
+    /**
+     * Number of ints per record in snapshot files.
+     */
+    private static final int SNAPSHOT_RECORD_INTS = 3;
+    /**
+     * Minimum number of dead records before compacting.
+     */
+    private static final int COMPACTION_THRESHOLD = 10000;
+    /**
+     * Marker for "no project".
+     */
+    private static final int NO_PROJECT = -1;
+
+    /**
+     * Strings.
+     */
+    private final StringTable strings = new StringTable();
+    /**
+     * Artifact IDs by GATV.
+     */
+    private final Map<String, Integer> artifactIds = new HashMap<>();
+    /**
+     * Group ID of each artifact (string ID).
+     */
+    private final IntList artifactGroupIds = new IntList();
+    /**
+     * Artifact ID of each artifact (string ID).
+     */
+    private final IntList artifactArtifactIds = new IntList();
+    /**
+     * "groupId:artifactId" of each artifact (string ID).
+     */
+    private final IntList artifactGas = new IntList();
+    /**
+     * Version of each artifact (string ID).
+     */
+    private final IntList artifactVersions = new IntList();
+    /**
+     * Packaging of each artifact (string ID).
+     */
+    private final IntList artifactPackagings = new IntList();
+    /**
+     * Name of each artifact (string ID).
+     */
+    private final IntList artifactNames = new IntList();
+    /**
+     * Description of each artifact (string ID).
+     */
+    private final IntList artifactDescriptions = new IntList();
+    /**
+     * Website URL of each artifact (string ID).
+     */
+    private final IntList artifactUrls = new IntList();
+    /**
+     * Licenses of each artifact, as pairs of name and URL (string IDs).
+     */
+    private final List<int[]> artifactLicenses = new ArrayList<>();
+    /**
+     * Project of each artifact, {@link #NO_PROJECT} if the artifact is no project.
+     */
+    private final IntList artifactProjects = new IntList();
+    /**
+     * Records of each artifact, including dead records.
+     */
+    private final List<IntList> artifactRecords = new ArrayList<>();
+    /**
+     * Artifacts by group ID (string ID).
+     */
+    private final Map<Integer, IntList> artifactsByGroupId = new HashMap<>();
+    /**
+     * Artifacts by artifact ID (string ID).
+     */
+    private final Map<Integer, IntList> artifactsByArtifactId = new HashMap<>();
+    /**
+     * Artifacts by "groupId:artifactId" (string ID).
+     */
+    private final Map<Integer, IntList> artifactsByGa = new HashMap<>();
+    /**
+     * Artifacts by version (string ID).
+     */
+    private final Map<Integer, IntList> artifactsByVersion = new HashMap<>();
+    /**
+     * Artifacts by license name (string ID). Can contain artifacts whose licenses changed, so matches are verified.
+     */
+    private final Map<Integer, IntList> artifactsByLicense = new HashMap<>();
+    /**
+     * Artifact of each project.
+     */
+    private final IntList projectArtifacts = new IntList();
+    /**
+     * Checksum of the referenced artifacts of each project, see {@link DeltaSnapshot#getChecksum()}.
+     */
+    private final List<String> projectChecksums = new ArrayList<>();
+    /**
+     * Live records of each project.
+     */
+    private final List<IntList> projectRecords = new ArrayList<>();
+    /**
+     * Project of each record.
+     */
+    private IntList recordProjects = new IntList();
+    /**
+     * Artifact of each record.
+     */
+    private IntList recordArtifacts = new IntList();
+    /**
+     * Scope of each record (string ID).
+     */
+    private IntList recordScopes = new IntList();
+    /**
+     * Live records.
+     */
+    private BitSet liveRecords = new BitSet();
+    /**
+     * Number of live records.
+     */
+    private int liveRecordCount;
+    /**
+     * Number of modifications, used for detecting changes since the last snapshot.
+     */
+    private long modifications;
+    /**
+     * Lock guarding all data.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates a new, empty instance.
+     */
+    public ArtifactStore() {
+    }
+
+    /**
+     * Stores usage data, replacing the previously stored usage data of the same project.
+     * @param usageData usage data
+     * @return true if stored, false if invalid (no project artifact)
+     */
+    public boolean store(UsageData usageData) {
+        if ((usageData == null) || (usageData.getProjectArtifact() == null)) {
+            return false;
+        }
+        // same checksum as computed by the Mojo, so the next build can send a delta against it
+        String checksum = DeltaSnapshot.of(usageData, SharedGson.compact(), true).getChecksum();
+        this.lock.writeLock().lock();
+        try {
+            int project = this.getOrCreateProject(usageData.getProjectArtifact());
+            Map<Integer, Integer> scopes = new LinkedHashMap<>();
+            if (usageData.getReferencedArtifacts() != null) {
+                for (Artifact oneArtifact : usageData.getReferencedArtifacts()) {
+                    if (oneArtifact != null) {
+                        scopes.put(this.getOrCreateArtifact(oneArtifact), this.strings.add(oneArtifact.getScope()));
+                    }
+                }
+            }
+            this.replaceRecords(project, scopes);
+            this.projectChecksums.set(project, checksum);
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies delta usage data to the stored usage data of the same project.
+     * @param delta delta usage data
+     * @return true if applied, false if no usage data of the project is stored or the base checksum does not match
+     */
+    public boolean applyDelta(DeltaUsageData delta) {
+        if ((delta == null) || (delta.getProjectArtifact() == null)) {
+            return false;
+        }
+        this.lock.writeLock().lock();
+        try {
+            Integer projectArtifact = this.artifactIds.get(delta.getProjectArtifact().getGatv());
+            int project = (projectArtifact != null) ? this.artifactProjects.get(projectArtifact) : NO_PROJECT;
+            if ((project == NO_PROJECT) || (this.projectChecksums.get(project) == null)
+                    || (this.projectChecksums.get(project).equals(delta.getBaseChecksum()) == false)) {
+                return false;
+            }
+            this.getOrCreateProject(delta.getProjectArtifact());
+            Map<Integer, Integer> scopes = new LinkedHashMap<>();
+            IntList records = this.projectRecords.get(project);
+            for (int i = 0; i < records.size(); i++) {
+                int record = records.get(i);
+                scopes.put(this.recordArtifacts.get(record), this.recordScopes.get(record));
+            }
+            if (delta.getRemovedArtifacts() != null) {
+                for (String oneGatv : delta.getRemovedArtifacts()) {
+                    Integer artifact = this.artifactIds.get(oneGatv);
+                    if (artifact != null) {
+                        scopes.remove(artifact);
+                    }
+                }
+            }
+            for (List<Artifact> oneList : Arrays.asList(delta.getAddedArtifacts(), delta.getChangedArtifacts())) {
+                if (oneList != null) {
+                    for (Artifact oneArtifact : oneList) {
+                        if (oneArtifact != null) {
+                            scopes.put(this.getOrCreateArtifact(oneArtifact), this.strings.add(oneArtifact.getScope()));
+                        }
+                    }
+                }
+            }
+            this.replaceRecords(project, scopes);
+            this.projectChecksums.set(project, delta.getChecksum());
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the artifact ID of an artifact, adding it or updating its metadata. Metadata is only overwritten by
+     * non-null values, so coordinates-only artifacts do not remove known metadata.
+     * @param artifact artifact
+     * @return artifact ID
+     */
+    private int getOrCreateArtifact(Artifact artifact) {
+        String gatv = artifact.getGatv();
+        Integer id = this.artifactIds.get(gatv);
+        if (id == null) {
+            id = this.addArtifact(gatv, this.strings.add(artifact.getGroupId()), this.strings.add(artifact.getArtifactId()),
+                    this.strings.add(artifact.getVersion()), this.strings.add(artifact.getPackaging()));
+        }
+        if (artifact.getName() != null) {
+            this.artifactNames.set(id, this.strings.add(artifact.getName()));
+        }
+        if (artifact.getDescription() != null) {
+            this.artifactDescriptions.set(id, this.strings.add(artifact.getDescription()));
+        }
+        if (artifact.getWebsiteUrl() != null) {
+            this.artifactUrls.set(id, this.strings.add(artifact.getWebsiteUrl()));
+        }
+        if (artifact.getLicenses() != null) {
+            List<License> licenses = artifact.getLicenses();
+            int[] pairs = new int[licenses.size() * 2];
+            for (int i = 0; i < licenses.size(); i++) {
+                License oneLicense = licenses.get(i);
+                pairs[i * 2] = (oneLicense != null) ? this.strings.add(oneLicense.getName()) : StringTable.NULL_ID;
+                pairs[i * 2 + 1] = (oneLicense != null) ? this.strings.add(oneLicense.getUrl()) : StringTable.NULL_ID;
+            }
+            this.setLicenses(id, pairs);
+        }
+        return id;
+    }
+
+    /**
+     * Adds an artifact without metadata and indexes its coordinates.
+     * @param gatv       GATV
+     * @param groupId    group ID (string ID)
+     * @param artifactId artifact ID (string ID)
+     * @param version    version (string ID)
+     * @param packaging  packaging (string ID)
+     * @return artifact ID
+     */
+    private int addArtifact(String gatv, int groupId, int artifactId, int version, int packaging) {
+        int id = this.artifactGroupIds.size();
+        this.artifactIds.put(gatv, id);
+        int ga = this.strings.add(this.strings.get(groupId) + ":" + this.strings.get(artifactId));
+        this.artifactGroupIds.add(groupId);
+        this.artifactArtifactIds.add(artifactId);
+        this.artifactGas.add(ga);
+        this.artifactVersions.add(version);
+        this.artifactPackagings.add(packaging);
+        this.artifactNames.add(StringTable.NULL_ID);
+        this.artifactDescriptions.add(StringTable.NULL_ID);
+        this.artifactUrls.add(StringTable.NULL_ID);
+        this.artifactLicenses.add(new int[0]);
+        this.artifactProjects.add(NO_PROJECT);
+        this.artifactRecords.add(new IntList());
+        addToIndex(this.artifactsByGroupId, groupId, id);
+        addToIndex(this.artifactsByArtifactId, artifactId, id);
+        addToIndex(this.artifactsByGa, ga, id);
+        addToIndex(this.artifactsByVersion, version, id);
+        return id;
+    }
+
+    /**
+     * Sets the licenses of an artifact, indexing license names not indexed for the artifact yet.
+     * @param artifact artifact ID
+     * @param pairs    pairs of license name and URL (string IDs)
+     */
+    private void setLicenses(int artifact, int[] pairs) {
+        int[] previous = this.artifactLicenses.get(artifact);
+        for (int i = 0; i < pairs.length; i += 2) {
+            if ((pairs[i] != StringTable.NULL_ID) && (containsName(previous, pairs[i]) == false)) {
+                addToIndex(this.artifactsByLicense, pairs[i], artifact);
+            }
+        }
+        this.artifactLicenses.set(artifact, pairs);
+    }
+
+    /**
+     * Returns the project of a project artifact, adding the artifact and the project if not present yet.
+     * @param projectArtifact project artifact
+     * @return project
+     */
+    private int getOrCreateProject(Artifact projectArtifact) {
+        int artifact = this.getOrCreateArtifact(projectArtifact);
+        int project = this.artifactProjects.get(artifact);
+        if (project == NO_PROJECT) {
+            project = this.addProject(artifact, null);
+        }
+        return project;
+    }
+
+    /**
+     * Adds a project without records.
+     * @param artifact artifact ID of the project
+     * @param checksum checksum of the referenced artifacts, can be null
+     * @return project
+     */
+    private int addProject(int artifact, String checksum) {
+        int project = this.projectArtifacts.size();
+        this.projectArtifacts.add(artifact);
+        this.projectChecksums.add(checksum);
+        this.projectRecords.add(new IntList());
+        this.artifactProjects.set(artifact, project);
+        return project;
+    }
+
+    /**
+     * Replaces the records of a project.
+     * @param project project
+     * @param scopes  scope (string ID) by referenced artifact ID
+     */
+    private void replaceRecords(int project, Map<Integer, Integer> scopes) {
+        IntList records = this.projectRecords.get(project);
+        for (int i = 0; i < records.size(); i++) {
+            this.liveRecords.clear(records.get(i));
+        }
+        this.liveRecordCount -= records.size();
+        records.clear();
+        for (Map.Entry<Integer, Integer> oneEntry : scopes.entrySet()) {
+            this.addRecord(project, oneEntry.getKey(), oneEntry.getValue());
+        }
+        this.modifications++;
+        int deadRecordCount = this.recordProjects.size() - this.liveRecordCount;
+        if ((deadRecordCount > COMPACTION_THRESHOLD) && (deadRecordCount > this.liveRecordCount)) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Adds a live record.
+     * @param project  project
+     * @param artifact referenced artifact ID
+     * @param scope    scope (string ID)
+     */
+    private void addRecord(int project, int artifact, int scope) {
+        int record = this.recordProjects.size();
+        this.recordProjects.add(project);
+        this.recordArtifacts.add(artifact);
+        this.recordScopes.add(scope);
+        this.liveRecords.set(record);
+        this.liveRecordCount++;
+        this.projectRecords.get(project).add(record);
+        this.artifactRecords.get(artifact).add(record);
+    }
+
+    /**
+     * Removes dead records, renumbering the live records.
+     */
+    private void compact() {
+        IntList oldProjects = this.recordProjects;
+        IntList oldArtifacts = this.recordArtifacts;
+        IntList oldScopes = this.recordScopes;
+        BitSet oldLive = this.liveRecords;
+        this.recordProjects = new IntList(this.liveRecordCount);
+        this.recordArtifacts = new IntList(this.liveRecordCount);
+        this.recordScopes = new IntList(this.liveRecordCount);
+        this.liveRecords = new BitSet(this.liveRecordCount);
+        this.liveRecordCount = 0;
+        for (IntList oneList : this.projectRecords) {
+            oneList.clear();
+        }
+        for (IntList oneList : this.artifactRecords) {
+            oneList.clear();
+        }
+        for (int record = oldLive.nextSetBit(0); record >= 0; record = oldLive.nextSetBit(record + 1)) {
+            this.addRecord(oldProjects.get(record), oldArtifacts.get(record), oldScopes.get(record));
+        }
+    }
+
+    /**
+     * Searches usages of artifacts. All given criteria must match; at least one criterion must be given.
+     * @param groupId    group ID of the used artifacts, can be null
+     * @param artifactId artifact ID of the used artifacts, can be null
+     * @param version    version of the used artifacts, can be null
+     * @param license    license name of the used artifacts, can be null
+     * @param project    consuming project as GATV or "groupId:artifactId" (all versions), can be null
+     * @param limit      maximum number of returned usages
+     * @return search result
+     */
+    public UsageSearchResult searchUsages(String groupId, String artifactId, String version, String license, String project, int limit) {
+        long start = System.nanoTime();
+        List<ArtifactUsage> usages = new ArrayList<>();
+        int total = 0;
+        this.lock.readLock().lock();
+        try {
+            ArtifactQuery query = new ArtifactQuery(groupId, artifactId, version, license);
+            BitSet projects = (project != null) ? this.findProjects(project) : null;
+            if (query.isUnsatisfiable() == false) {
+                if (projects != null) {
+                    // the records of the consuming projects are usually fewer than those of the artifacts
+                    for (int p = projects.nextSetBit(0); p >= 0; p = projects.nextSetBit(p + 1)) {
+                        IntList records = this.projectRecords.get(p);
+                        for (int i = 0; i < records.size(); i++) {
+                            int record = records.get(i);
+                            if (query.matches(this.recordArtifacts.get(record))) {
+                                total = this.collect(record, usages, total, limit);
+                            }
+                        }
+                    }
+                } else if (query.isEmpty() == false) {
+                    IntList candidates = query.getCandidates();
+                    BitSet seen = new BitSet();
+                    for (int i = 0; i < candidates.size(); i++) {
+                        int artifact = candidates.get(i);
+                        if (seen.get(artifact) || (query.matches(artifact) == false)) {
+                            continue;
+                        }
+                        seen.set(artifact);
+                        IntList records = this.artifactRecords.get(artifact);
+                        for (int r = 0; r < records.size(); r++) {
+                            int record = records.get(r);
+                            if (this.liveRecords.get(record)) {
+                                total = this.collect(record, usages, total, limit);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        UsageSearchResult result = new UsageSearchResult();
+        result.setTotal(total);
+        result.setUsages(usages);
+        result.setTookMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return result;
+    }
+
+    /**
+     * Counts a matching record and adds it to the usages if the limit is not reached yet.
+     * @param record record
+     * @param usages usages
+     * @param total  number of matching records so far
+     * @param limit  maximum number of usages
+     * @return new number of matching records
+     */
+    private int collect(int record, List<ArtifactUsage> usages, int total, int limit) {
+        if (usages.size() < limit) {
+            int artifact = this.recordArtifacts.get(record);
+            ArtifactUsage usage = new ArtifactUsage();
+            usage.setProject(this.getGatv(this.projectArtifacts.get(this.recordProjects.get(record))));
+            usage.setArtifact(this.getGatv(artifact));
+            usage.setScope(this.strings.get(this.recordScopes.get(record)));
+            int[] licenses = this.artifactLicenses.get(artifact);
+            if (licenses.length > 0) {
+                List<String> names = new ArrayList<>(licenses.length / 2);
+                for (int i = 0; i < licenses.length; i += 2) {
+                    names.add(this.strings.get(licenses[i]));
+                }
+                usage.setLicenses(names);
+            }
+            usages.add(usage);
+        }
+        return total + 1;
+    }
+
+    /**
+     * Returns the artifacts without stored metadata, for the known-artifacts handshake. Artifacts with metadata can be
+     * sent with their coordinates only, as stored metadata is kept by {@link #store(UsageData)}.
+     * @param gatvs GATVs of artifacts
+     * @return GATVs of the artifacts that are not stored or have no name, description, website URL or licenses
+     */
+    public List<String> findUnknownArtifacts(List<String> gatvs) {
+        List<String> unknown = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            for (String oneGatv : gatvs) {
+                Integer artifact = this.artifactIds.get(oneGatv);
+                if ((artifact == null) || ((this.artifactNames.get(artifact) == StringTable.NULL_ID)
+                        && (this.artifactDescriptions.get(artifact) == StringTable.NULL_ID)
+                        && (this.artifactUrls.get(artifact) == StringTable.NULL_ID)
+                        && (this.artifactLicenses.get(artifact).length == 0))) {
+                    unknown.add(oneGatv);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return unknown;
+    }
+
+    /**
+     * Finds the usage data of projects by their coordinates.
+     * @param groupId    group ID, can be null
+     * @param artifactId artifact ID, can be null
+     * @param version    version, can be null
+     * @return usage data of the matching projects
+     */
+    public List<UsageData> findProjects(String groupId, String artifactId, String version) {
+        List<UsageData> result = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            ArtifactQuery query = new ArtifactQuery(groupId, artifactId, version, null);
+            if (query.isUnsatisfiable()) {
+                return result;
+            }
+            if (query.isEmpty()) {
+                for (int p = 0; p < this.projectArtifacts.size(); p++) {
+                    result.add(this.toUsageData(p));
+                }
+                return result;
+            }
+            IntList candidates = query.getCandidates();
+            for (int i = 0; i < candidates.size(); i++) {
+                int artifact = candidates.get(i);
+                int project = this.artifactProjects.get(artifact);
+                if ((project != NO_PROJECT) && query.matches(artifact)) {
+                    result.add(this.toUsageData(project));
+                }
+            }
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the usage data of projects referencing matching artifacts.
+     * @param groupId    group ID of the referenced artifacts, can be null
+     * @param artifactId artifact ID of the referenced artifacts, can be null
+     * @param version    version of the referenced artifacts, can be null
+     * @param license    license name of the referenced artifacts, can be null
+     * @return usage data of the referencing projects
+     */
+    public List<UsageData> findReferencingProjects(String groupId, String artifactId, String version, String license) {
+        List<UsageData> result = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            ArtifactQuery query = new ArtifactQuery(groupId, artifactId, version, license);
+            if (query.isUnsatisfiable() || query.isEmpty()) {
+                return result;
+            }
+            BitSet projects = new BitSet();
+            IntList candidates = query.getCandidates();
+            for (int i = 0; i < candidates.size(); i++) {
+                int artifact = candidates.get(i);
+                if (query.matches(artifact)) {
+                    IntList records = this.artifactRecords.get(artifact);
+                    for (int r = 0; r < records.size(); r++) {
+                        if (this.liveRecords.get(records.get(r))) {
+                            projects.set(this.recordProjects.get(records.get(r)));
+                        }
+                    }
+                }
+            }
+            for (int p = projects.nextSetBit(0); p >= 0; p = projects.nextSetBit(p + 1)) {
+                result.add(this.toUsageData(p));
+            }
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the projects matching a GATV or "groupId:artifactId".
+     * @param project GATV or "groupId:artifactId"
+     * @return projects
+     */
+    private BitSet findProjects(String project) {
+        BitSet projects = new BitSet();
+        Integer exact = this.artifactIds.get(project);
+        if ((exact != null) && (this.artifactProjects.get(exact) != NO_PROJECT)) {
+            projects.set(this.artifactProjects.get(exact));
+            return projects;
+        }
+        IntList artifacts = this.artifactsByGa.get(this.strings.find(project));
+        if (artifacts != null) {
+            for (int i = 0; i < artifacts.size(); i++) {
+                int oneProject = this.artifactProjects.get(artifacts.get(i));
+                if (oneProject != NO_PROJECT) {
+                    projects.set(oneProject);
+                }
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Creates the usage data of a project from its live records.
+     * @param project project
+     * @return usage data
+     */
+    private UsageData toUsageData(int project) {
+        UsageData usageData = new UsageData();
+        usageData.setProjectArtifact(this.toArtifact(this.projectArtifacts.get(project)));
+        IntList records = this.projectRecords.get(project);
+        List<Artifact> referencedArtifacts = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            int record = records.get(i);
+            Artifact artifact = this.toArtifact(this.recordArtifacts.get(record));
+            artifact.setScope(this.strings.get(this.recordScopes.get(record)));
+            referencedArtifacts.add(artifact);
+        }
+        usageData.setReferencedArtifacts(referencedArtifacts);
+        return usageData;
+    }
+
+    /**
+     * Creates an artifact from the stored data.
+     * @param artifact artifact ID
+     * @return artifact, without scope
+     */
+    private Artifact toArtifact(int artifact) {
+        Artifact result = new Artifact();
+        result.setGroupId(this.strings.get(this.artifactGroupIds.get(artifact)));
+        result.setArtifactId(this.strings.get(this.artifactArtifactIds.get(artifact)));
+        result.setVersion(this.strings.get(this.artifactVersions.get(artifact)));
+        result.setPackaging(this.strings.get(this.artifactPackagings.get(artifact)));
+        result.setName(this.strings.get(this.artifactNames.get(artifact)));
+        result.setDescription(this.strings.get(this.artifactDescriptions.get(artifact)));
+        result.setWebsiteUrl(this.strings.get(this.artifactUrls.get(artifact)));
+        int[] licenses = this.artifactLicenses.get(artifact);
+        if (licenses.length > 0) {
+            List<License> list = new ArrayList<>(licenses.length / 2);
+            for (int i = 0; i < licenses.length; i += 2) {
+                License license = new License();
+                license.setName(this.strings.get(licenses[i]));
+                license.setUrl(this.strings.get(licenses[i + 1]));
+                list.add(license);
+            }
+            result.setLicenses(list);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the GATV of an artifact.
+     * @param artifact artifact ID
+     * @return GATV
+     */
+    private String getGatv(int artifact) {
+        return this.strings.get(this.artifactGas.get(artifact)) + ":" + this.strings.get(this.artifactPackagings.get(artifact))
+                + ":" + this.strings.get(this.artifactVersions.get(artifact));
+    }
+
+    /**
+     * Returns the number of stored projects.
+     * @return number of stored projects
+     */
+    public int getProjectCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.projectArtifacts.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored artifacts, including projects.
+     * @return number of stored artifacts
+     */
+    public int getArtifactCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.artifactGroupIds.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored usages (live records).
+     * @return number of stored usages
+     */
+    public int getUsageCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.liveRecordCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of modifications, e.g. for detecting changes since the last snapshot.
+     * @return number of modifications
+     */
+    public long getModifications() {
+        this.lock.readLock().lock();
+        try {
+            return this.modifications;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the store through a memory-mapped file. The snapshot is written to a temporary file first
+     * and then moved to the target file, so an existing snapshot is never left incomplete. Stores are blocked while
+     * the snapshot is written, searches are not.
+     * @param file snapshot file
+     * @return number of modifications contained in the snapshot
+     * @throws IOException on write errors
+     */
+    public long saveSnapshot(File file) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        long snapshotModifications;
+        this.lock.readLock().lock();
+        try {
+            snapshotModifications = this.modifications;
+            try (MappedOutput out = new MappedOutput(tempFile, this.getSnapshotSize())) {
+                this.writeSnapshot(out);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return snapshotModifications;
+    }
+
+    /**
+     * Returns the exact size of a snapshot of the current data.
+     * @return size in bytes
+     */
+    private long getSnapshotSize() {
+        long size = 2L * MappedOutput.INT_SIZE;
+        size += MappedOutput.INT_SIZE;
+        for (int i = 0; i < this.strings.size(); i++) {
+            size += MappedOutput.sizeOf(this.strings.get(i));
+        }
+        size += MappedOutput.INT_SIZE;
+        for (int[] oneLicenses : this.artifactLicenses) {
+            size += (SNAPSHOT_ARTIFACT_INTS + (long) oneLicenses.length) * MappedOutput.INT_SIZE;
+        }
+        size += MappedOutput.INT_SIZE;
+        for (String oneChecksum : this.projectChecksums) {
+            size += MappedOutput.INT_SIZE + MappedOutput.sizeOf(oneChecksum);
+        }
+        size += MappedOutput.INT_SIZE + (long) this.liveRecordCount * SNAPSHOT_RECORD_INTS * MappedOutput.INT_SIZE;
+        size += MappedOutput.INT_SIZE;
+        return size;
+    }
+
+    /**
+     * Writes the snapshot data: header, strings, artifacts, projects, live records and the magic number as end marker.
+     * @param out output
+     * @throws IOException on write errors
+     */
+    private void writeSnapshot(MappedOutput out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(this.strings.size());
+        for (int i = 0; i < this.strings.size(); i++) {
+            out.writeString(this.strings.get(i));
+        }
+        out.writeInt(this.artifactGroupIds.size());
+        for (int i = 0; i < this.artifactGroupIds.size(); i++) {
+            out.writeInt(this.artifactGroupIds.get(i));
+            out.writeInt(this.artifactArtifactIds.get(i));
+            out.writeInt(this.artifactVersions.get(i));
+            out.writeInt(this.artifactPackagings.get(i));
+            out.writeInt(this.artifactNames.get(i));
+            out.writeInt(this.artifactDescriptions.get(i));
+            out.writeInt(this.artifactUrls.get(i));
+            int[] licenses = this.artifactLicenses.get(i);
+            out.writeInt(licenses.length);
+            for (int oneId : licenses) {
+                out.writeInt(oneId);
+            }
+        }
+        out.writeInt(this.projectArtifacts.size());
+        for (int i = 0; i < this.projectArtifacts.size(); i++) {
+            out.writeInt(this.projectArtifacts.get(i));
+            out.writeString(this.projectChecksums.get(i));
+        }
+        out.writeInt(this.liveRecordCount);
+        for (int record = this.liveRecords.nextSetBit(0); record >= 0; record = this.liveRecords.nextSetBit(record + 1)) {
+            out.writeInt(this.recordProjects.get(record));
+            out.writeInt(this.recordArtifacts.get(record));
+            out.writeInt(this.recordScopes.get(record));
+        }
+        out.writeInt(SNAPSHOT_MAGIC);
+    }
+
+    /**
+     * Loads a snapshot written by {@link #saveSnapshot(File)}, rebuilding the indexes.
+     * @param file snapshot file
+     * @return store
+     * @throws IOException on read errors or invalid snapshot files
+     */
+    public static ArtifactStore loadSnapshot(File file) throws IOException {
+        ArtifactStore store = new ArtifactStore();
+        try (MappedInput in = new MappedInput(file)) {
+            if ((in.readInt() != SNAPSHOT_MAGIC) || (in.readInt() != SNAPSHOT_VERSION)) {
+                throw new IOException("not a collector snapshot file (or unsupported version): " + file);
+            }
+            int stringCount = in.readInt();
+            for (int i = 0; i < stringCount; i++) {
+                store.strings.add(in.readString());
+            }
+            int artifactCount = in.readInt();
+            for (int i = 0; i < artifactCount; i++) {
+                int groupId = in.readInt();
+                int artifactId = in.readInt();
+                int version = in.readInt();
+                int packaging = in.readInt();
+                String gatv = store.strings.get(groupId) + ":" + store.strings.get(artifactId) + ":"
+                        + store.strings.get(packaging) + ":" + store.strings.get(version);
+                int id = store.addArtifact(gatv, groupId, artifactId, version, packaging);
+                store.artifactNames.set(id, in.readInt());
+                store.artifactDescriptions.set(id, in.readInt());
+                store.artifactUrls.set(id, in.readInt());
+                int[] licenses = new int[in.readInt()];
+                for (int l = 0; l < licenses.length; l++) {
+                    licenses[l] = in.readInt();
+                }
+                store.setLicenses(id, licenses);
+            }
+            int projectCount = in.readInt();
+            for (int i = 0; i < projectCount; i++) {
+                int artifact = in.readInt();
+                store.addProject(artifact, in.readString());
+            }
+            int recordCount = in.readInt();
+            for (int i = 0; i < recordCount; i++) {
+                int project = in.readInt();
+                int artifact = in.readInt();
+                store.addRecord(project, artifact, in.readInt());
+            }
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("incomplete collector snapshot file: " + file);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Adds an artifact to an index.
+     * @param index    index
+     * @param key      key (string ID)
+     * @param artifact artifact ID
+     */
+    private static void addToIndex(Map<Integer, IntList> index, int key, int artifact) {
+        if (key != StringTable.NULL_ID) {
+            index.computeIfAbsent(key, k -> new IntList()).add(artifact);
+        }
+    }
+
+    /**
+     * Checks if pairs of license name and URL contain a license name.
+     * @param pairs pairs of license name and URL (string IDs)
+     * @param name  license name (string ID)
+     * @return true if contained
+     */
+    private static boolean containsName(int[] pairs, int name) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (pairs[i] == name) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Criteria on artifact coordinates and license, resolved to string IDs.
+     */
+    private final class ArtifactQuery {
+
+        /**
+         * Group ID (string ID), {@link StringTable#NULL_ID} if not given.
+         */
+        private final int groupId;
+        /**
+         * Artifact ID (string ID), {@link StringTable#NULL_ID} if not given.
+         */
+        private final int artifactId;
+        /**
+         * Version (string ID), {@link StringTable#NULL_ID} if not given.
+         */
+        private final int version;
+        /**
+         * License name (string ID), {@link StringTable#NULL_ID} if not given.
+         */
+        private final int license;
+        /**
+         * Flag if a given value is unknown, so nothing can match.
+         */
+        private final boolean unsatisfiable;
+
+        /**
+         * Creates a new instance.
+         * @param groupId    group ID, can be null
+         * @param artifactId artifact ID, can be null
+         * @param version    version, can be null
+         * @param license    license name, can be null
+         */
+        ArtifactQuery(String groupId, String artifactId, String version, String license) {
+            this.groupId = ArtifactStore.this.strings.find(groupId);
+            this.artifactId = ArtifactStore.this.strings.find(artifactId);
+            this.version = ArtifactStore.this.strings.find(version);
+            this.license = ArtifactStore.this.strings.find(license);
+            this.unsatisfiable = ((groupId != null) && (this.groupId == StringTable.NULL_ID))
+                    || ((artifactId != null) && (this.artifactId == StringTable.NULL_ID))
+                    || ((version != null) && (this.version == StringTable.NULL_ID))
+                    || ((license != null) && (this.license == StringTable.NULL_ID));
+        }
+
+        /**
+         * Checks if a given value is unknown, so nothing can match.
+         * @return true if nothing can match
+         */
+        boolean isUnsatisfiable() {
+            return this.unsatisfiable;
+        }
+
+        /**
+         * Checks if no criterion is given.
+         * @return true if no criterion is given
+         */
+        boolean isEmpty() {
+            return (this.groupId == StringTable.NULL_ID) && (this.artifactId == StringTable.NULL_ID)
+                    && (this.version == StringTable.NULL_ID) && (this.license == StringTable.NULL_ID);
+        }
+
+        /**
+         * Returns the candidate artifacts from the smallest index of the given criteria. Candidates have to be
+         * checked with {@link #matches(int)}.
+         * @return candidate artifacts
+         */
+        IntList getCandidates() {
+            IntList candidates = null;
+            if ((this.groupId != StringTable.NULL_ID) && (this.artifactId != StringTable.NULL_ID)) {
+                int ga = ArtifactStore.this.strings.find(ArtifactStore.this.strings.get(this.groupId) + ":"
+                        + ArtifactStore.this.strings.get(this.artifactId));
+                candidates = smaller(candidates, (ga != StringTable.NULL_ID) ? ArtifactStore.this.artifactsByGa.get(ga) : new IntList());
+            } else {
+                candidates = smaller(candidates, ArtifactStore.this.artifactsByGroupId.get(this.groupId));
+                candidates = smaller(candidates, ArtifactStore.this.artifactsByArtifactId.get(this.artifactId));
+            }
+            candidates = smaller(candidates, ArtifactStore.this.artifactsByVersion.get(this.version));
+            candidates = smaller(candidates, ArtifactStore.this.artifactsByLicense.get(this.license));
+            return (candidates != null) ? candidates : new IntList();
+        }
+
+        /**
+         * Checks if an artifact matches all given criteria.
+         * @param artifact artifact ID
+         * @return true if matching
+         */
+        boolean matches(int artifact) {
+            return matches(this.groupId, ArtifactStore.this.artifactGroupIds.get(artifact))
+                    && matches(this.artifactId, ArtifactStore.this.artifactArtifactIds.get(artifact))
+                    && matches(this.version, ArtifactStore.this.artifactVersions.get(artifact))
+                    && ((this.license == StringTable.NULL_ID) || containsName(ArtifactStore.this.artifactLicenses.get(artifact), this.license));
+        }
+
+        /**
+         * Checks if a value matches a criterion.
+         * @param criterion criterion (string ID), {@link StringTable#NULL_ID} matches all values
+         * @param value     value (string ID)
+         * @return true if matching
+         */
+        private boolean matches(int criterion, int value) {
+            return (criterion == StringTable.NULL_ID) || (criterion == value);
+        }
+
+        /**
+         * Returns the smaller of two posting lists.
+         * @param current current posting list, null if none yet
+         * @param other   other posting list, null if the criterion is not given
+         * @return smaller posting list
+         */
+        private IntList smaller(IntList current, IntList other) {
+            if (other == null) {
+                return current;
+            }
+            return ((current == null) || (other.size() < current.size())) ? other : current;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.util.List;
+
+/**
+ * Usage of one artifact by one project, as returned by usage searches.
+ * @author NilsCoding
+ */
+public class ArtifactUsage {
+
+    /**
+     * GATV of the consuming project.
+     */
+    protected String project;
+    /**
+     * GATV of the used artifact.
+     */
+    protected String artifact;
+    /**
+     * Scope of the usage.
+     */
+    protected String scope;
+    /**
+     * License names of the used artifact.
+     */
+    protected List<String> licenses;
+
+    /**
+     * Creates a new instance.
+     */
+    public ArtifactUsage() {
+    }
+
+    /**
+     * Returns the GATV of the consuming project.
+     * @return GATV of the consuming project
+     */
+    public String getProject() {
+        return project;
+    }
+
+    /**
+     * Sets the GATV of the consuming project.
+     * @param project GATV of the consuming project
+     */
+    public void setProject(String project) {
+        this.project = project;
+    }
+
+    /**
+     * Returns the GATV of the used artifact.
+     * @return GATV of the used artifact
+     */
+    public String getArtifact() {
+        return artifact;
+    }
+
+    /**
+     * Sets the GATV of the used artifact.
+     * @param artifact GATV of the used artifact
+     */
+    public void setArtifact(String artifact) {
+        this.artifact = artifact;
+    }
+
+    /**
+     * Returns the scope of the usage.
+     * @return scope of the usage
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * Sets the scope of the usage.
+     * @param scope scope of the usage
+     */
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Returns the license names of the used artifact.
+     * @return license names of the used artifact
+     */
+    public List<String> getLicenses() {
+        return licenses;
+    }
+
+    /**
+     * Sets the license names of the used artifact.
+     * @param licenses license names of the used artifact
+     */
+    public void setLicenses(List<String> licenses) {
+        this.licenses = licenses;
+    }
+}
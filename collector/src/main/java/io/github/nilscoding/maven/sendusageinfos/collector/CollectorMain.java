@@ -0,0 +1,192 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import io.github.nilscoding.maven.sendusageinfos.session.DaemonThreadFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the reference collector: loads the snapshot from the data directory (if present), serves the API and writes
+ * snapshots periodically (if the store changed) and on shutdown.
+ * @author NilsCoding
+ */
+public final class CollectorMain {
+
+    /**
+     * Name of the snapshot file in the data directory.
+     */
+    private static final String SNAPSHOT_FILE_NAME = "collector.snapshot";
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+    /**
+     * Bytes per megabyte.
+     */
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    /**
+     * Port.
+     */
+    private int port = 8080;
+    /**
+     * Address to listen on.
+     */
+    private String bind = "127.0.0.1";
+    /**
+     * Data directory.
+     */
+    private File dataDirectory = new File("collector-data");
+    /**
+     * Snapshot interval in seconds, 0 for snapshots on shutdown only.
+     */
+    private long snapshotInterval = 60L;
+    /**
+     * Number of threads handling requests.
+     */
+    private int threads = 8;
+    /**
+     * Maximum size of a request body in megabytes.
+     */
+    private long maxBodySize = CollectorServer.DEFAULT_MAX_BODY_SIZE / BYTES_PER_MEGABYTE;
+    /**
+     * Number of modifications contained in the last snapshot.
+     */
+    private long savedModifications;
+
+    /**
+     * Hidden constructor.
+     */
+    private CollectorMain() {
+    }
+
+    /**
+     * Main method.
+     * @param args command line options, see {@link #printUsage(PrintStream)}
+     * @throws Exception on errors
+     */
+    public static void main(String[] args) throws Exception {
+        CollectorMain collector = new CollectorMain();
+        if (collector.parse(args) == false) {
+            printUsage(System.err);
+            return;
+        }
+        collector.run(System.out);
+    }
+
+    /**
+     * Parses the command line options.
+     * @param args command line options
+     * @return true if valid, false for invalid options or help
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if ((option.startsWith("--") == false) || "--help".equals(option) || (i + 1 >= args.length)) {
+                return false;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--port":
+                    this.port = Integer.parseInt(value);
+                    break;
+                case "--bind":
+                    this.bind = value;
+                    break;
+                case "--data-dir":
+                    this.dataDirectory = new File(value);
+                    break;
+                case "--snapshot-interval":
+                    this.snapshotInterval = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    this.threads = Integer.parseInt(value);
+                    break;
+                case "--max-body-size":
+                    this.maxBodySize = Long.parseLong(value);
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints the command line options.
+     * @param out stream to print to
+     */
+    private static void printUsage(PrintStream out) {
+        out.println("usage: CollectorMain [options]");
+        out.println("  --port <n>               port (8080)");
+        out.println("  --bind <address>         address to listen on (127.0.0.1)");
+        out.println("  --data-dir <dir>         directory of the snapshot file (collector-data)");
+        out.println("  --snapshot-interval <s>  seconds between snapshots, 0 for snapshots on shutdown only (60)");
+        out.println("  --threads <n>            threads handling requests (8)");
+        out.println("  --max-body-size <mb>     maximum request size in MB, also after decompression (64)");
+    }
+
+    /**
+     * Runs the collector until the JVM is shut down.
+     * @param out stream to print status messages to
+     * @throws Exception on errors
+     */
+    private void run(PrintStream out) throws Exception {
+        if ((this.dataDirectory.isDirectory() == false) && (this.dataDirectory.mkdirs() == false)) {
+            throw new IOException("cannot create data directory " + this.dataDirectory.getAbsolutePath());
+        }
+        File snapshotFile = new File(this.dataDirectory, SNAPSHOT_FILE_NAME);
+        ArtifactStore store = new ArtifactStore();
+        if (snapshotFile.isFile()) {
+            long start = System.nanoTime();
+            store = ArtifactStore.loadSnapshot(snapshotFile);
+            out.println(String.format(Locale.ROOT, "loaded snapshot %s in %.1f ms: %d projects, %d artifacts, %d usages",
+                    snapshotFile.getAbsolutePath(), (System.nanoTime() - start) / NANOS_PER_MILLI,
+                    store.getProjectCount(), store.getArtifactCount(), store.getUsageCount()));
+        }
+        ArtifactStore finalStore = store;
+        CollectorServer server = new CollectorServer(store, this.maxBodySize * BYTES_PER_MEGABYTE);
+        String url = server.start(new InetSocketAddress(this.bind, this.port), this.threads);
+        out.println("collector listening on " + url);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("collector-snapshot"));
+        if (this.snapshotInterval > 0) {
+            scheduler.scheduleWithFixedDelay(() -> this.saveSnapshot(finalStore, snapshotFile, out),
+                    this.snapshotInterval, this.snapshotInterval, TimeUnit.SECONDS);
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            scheduler.shutdownNow();
+            this.saveSnapshot(finalStore, snapshotFile, out);
+            stopped.countDown();
+        }, "collector-shutdown"));
+        stopped.await();
+    }
+
+    /**
+     * Writes a snapshot if the store changed since the last snapshot.
+     * @param store        store
+     * @param snapshotFile snapshot file
+     * @param out          stream to print status messages to
+     */
+    private synchronized void saveSnapshot(ArtifactStore store, File snapshotFile, PrintStream out) {
+        if (store.getModifications() == this.savedModifications) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            this.savedModifications = store.saveSnapshot(snapshotFile);
+            out.println(String.format(Locale.ROOT, "saved snapshot in %.1f ms: %d projects, %d usages",
+                    (System.nanoTime() - start) / NANOS_PER_MILLI, store.getProjectCount(), store.getUsageCount()));
+        } catch (IOException ex) {
+            out.println("could not save snapshot: " + ex);
+        }
+    }
+}
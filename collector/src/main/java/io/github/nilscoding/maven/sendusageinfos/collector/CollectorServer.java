@@ -0,0 +1,467 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.nilscoding.maven.sendusageinfos.data.DeltaUsageData;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.encode.CborReader;
+import io.github.nilscoding.maven.sendusageinfos.encode.UsageDataReader;
+import io.github.nilscoding.maven.sendusageinfos.session.DaemonThreadFactory;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HTTP server implementing <code>extras/swagger.yaml</code> on top of an {@link ArtifactStore}. Uploads can be
+ * gzip-compressed JSON, NDJSON or CBOR; full uploads announce delta support with the
+ * <code>X-Usage-Data-Delta</code> response header. The known-artifacts handshake is supported as well.
+ * @author NilsCoding
+ */
+public final class CollectorServer implements AutoCloseable {
+
+    /**
+     * HTTP status code OK.
+     */
+    private static final int HTTP_OK = 200;
+    /**
+     * HTTP status code for invalid input.
+     */
+    private static final int HTTP_BAD_REQUEST = 400;
+    /**
+     * HTTP status code for unknown resources.
+     */
+    private static final int HTTP_NOT_FOUND = 404;
+    /**
+     * HTTP status code for unsupported methods.
+     */
+    private static final int HTTP_METHOD_NOT_ALLOWED = 405;
+    /**
+     * HTTP status code for a delta not matching the stored data.
+     */
+    private static final int HTTP_CONFLICT = 409;
+    /**
+     * HTTP status code for request bodies exceeding the maximum size.
+     */
+    private static final int HTTP_PAYLOAD_TOO_LARGE = 413;
+    /**
+     * Base path of the API.
+     */
+    private static final String BASE_PATH = "/usage-data";
+    /**
+     * Number of path segments of a GAV path.
+     */
+    private static final int GAV_SEGMENTS = 3;
+    /**
+     * Buffer size for reading request bodies.
+     */
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Default number of returned usages.
+     */
+    private static final int DEFAULT_LIMIT = 100;
+    /**
+     * Maximum number of returned usages.
+     */
+    private static final int MAX_LIMIT = 10000;
+    /**
+     * Default maximum size of a request body in bytes (also after decompression).
+     */
+    public static final long DEFAULT_MAX_BODY_SIZE = 64L * 1024L * 1024L;
+
+    /**
+     * Store.
+     */
+    private final ArtifactStore store;
+    /**
+     * Maximum size of a request body in bytes (also after decompression).
+     */
+    private final long maxBodySize;
+    /**
+     * Gson instance.
+     */
+    private final Gson gson = SharedGson.compact();
+    /**
+     * HTTP server.
+     */
+    private HttpServer server;
+    /**
+     * Executor of the HTTP server.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Creates a new instance.
+     * @param store store
+     */
+    public CollectorServer(ArtifactStore store) {
+        this(store, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param store       store
+     * @param maxBodySize maximum size of a request body in bytes (also after decompression), larger requests get 413
+     */
+    public CollectorServer(ArtifactStore store, long maxBodySize) {
+        this.store = store;
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Starts the server.
+     * @param address address to listen on
+     * @param threads number of threads handling requests
+     * @param filters filters wrapping the handling of all requests (e.g. to inject latency in load tests), in order
+     * @return URL of the usage data endpoint
+     * @throws IOException if the server cannot be started
+     */
+    public String start(InetSocketAddress address, int threads, Filter... filters) throws IOException {
+        this.executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("collector-http"));
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(this.executor);
+        HttpContext context = this.server.createContext(BASE_PATH, this::handle);
+        context.getFilters().addAll(Arrays.asList(filters));
+        this.server.start();
+        return "http://" + address.getHostString() + ":" + this.server.getAddress().getPort() + BASE_PATH;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Handles one request.
+     * @param exchange HTTP exchange
+     * @throws IOException on I/O errors
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String subPath = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            String method = exchange.getRequestMethod();
+            if ("POST".equals(method)) {
+                this.handleUpload(exchange, subPath);
+            } else if ("GET".equals(method)) {
+                this.handleQuery(exchange, subPath);
+            } else {
+                this.respond(exchange, HTTP_METHOD_NOT_ALLOWED, null);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Handles an upload.
+     * @param exchange HTTP exchange
+     * @param subPath  path below the base path
+     * @throws IOException on I/O errors
+     */
+    private void handleUpload(HttpExchange exchange, String subPath) throws IOException {
+        try {
+            byte[] body = this.decompress(exchange, this.readBody(exchange.getRequestBody()));
+            if (subPath.isEmpty() || "/".equals(subPath)) {
+                List<UsageData> documents = UsageDataReader.read(new ByteArrayInputStream(body), this.gson);
+                if ((documents.size() != 1) || (this.store.store(documents.get(0)) == false)) {
+                    this.respond(exchange, HTTP_BAD_REQUEST, null);
+                    return;
+                }
+                exchange.getResponseHeaders().set("X-Usage-Data-Delta", "supported");
+                this.respond(exchange, HTTP_OK, null);
+            } else if ("/batch".equals(subPath)) {
+                JsonObject response = new JsonObject();
+                response.add("results", isCbor(exchange) ? this.storeCborBatch(body) : this.storeNdjsonBatch(body));
+                this.respond(exchange, HTTP_OK, response);
+            } else if ("/known".equals(subPath)) {
+                JsonElement tree = parseTree(exchange, body);
+                JsonElement artifacts = tree.isJsonObject() ? tree.getAsJsonObject().get("artifacts") : null;
+                if ((artifacts == null) || (artifacts.isJsonArray() == false)) {
+                    this.respond(exchange, HTTP_BAD_REQUEST, null);
+                    return;
+                }
+                List<String> gatvs = new ArrayList<>();
+                for (JsonElement oneArtifact : artifacts.getAsJsonArray()) {
+                    if (oneArtifact.isJsonPrimitive()) {
+                        gatvs.add(oneArtifact.getAsString());
+                    }
+                }
+                JsonArray unknown = new JsonArray();
+                for (String oneGatv : this.store.findUnknownArtifacts(gatvs)) {
+                    unknown.add(oneGatv);
+                }
+                JsonObject response = new JsonObject();
+                response.add("unknownArtifacts", unknown);
+                this.respond(exchange, HTTP_OK, response);
+            } else if ("/delta".equals(subPath)) {
+                DeltaUsageData delta = this.gson.fromJson(parseTree(exchange, body), DeltaUsageData.class);
+                if ((delta == null) || (delta.getProjectArtifact() == null)) {
+                    this.respond(exchange, HTTP_BAD_REQUEST, null);
+                    return;
+                }
+                this.respond(exchange, this.store.applyDelta(delta) ? HTTP_OK : HTTP_CONFLICT, null);
+            } else {
+                this.respond(exchange, HTTP_NOT_FOUND, null);
+            }
+        } catch (BodyTooLargeException ex) {
+            this.respond(exchange, HTTP_PAYLOAD_TOO_LARGE, null);
+        } catch (IOException | JsonParseException ex) {
+            this.respond(exchange, HTTP_BAD_REQUEST, null);
+        }
+    }
+
+    /**
+     * Stores the documents of an NDJSON batch. Each line is parsed on its own, so an invalid line only rejects its
+     * own document (with status 400); blank lines are skipped.
+     * @param body decompressed request body
+     * @return status of each document
+     */
+    private JsonArray storeNdjsonBatch(byte[] body) {
+        JsonArray results = new JsonArray();
+        int index = 0;
+        for (String oneLine : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            if (oneLine.trim().isEmpty()) {
+                continue;
+            }
+            int status;
+            String message = null;
+            try {
+                status = this.store.store(this.gson.fromJson(oneLine, UsageData.class)) ? HTTP_OK : HTTP_BAD_REQUEST;
+            } catch (JsonParseException | NumberFormatException ex) {
+                status = HTTP_BAD_REQUEST;
+                message = "invalid JSON: " + ex.getMessage();
+            }
+            results.add(batchResult(index, status, message));
+            index++;
+        }
+        return results;
+    }
+
+    /**
+     * Stores the documents of a CBOR batch (a sequence of data items). As items cannot be told apart without parsing,
+     * an invalid item rejects the whole batch.
+     * @param body decompressed request body
+     * @return status of each document
+     * @throws IOException on invalid CBOR data
+     */
+    private JsonArray storeCborBatch(byte[] body) throws IOException {
+        List<UsageData> documents = UsageDataReader.read(new ByteArrayInputStream(body), this.gson);
+        JsonArray results = new JsonArray();
+        for (int i = 0; i < documents.size(); i++) {
+            results.add(batchResult(i, this.store.store(documents.get(i)) ? HTTP_OK : HTTP_BAD_REQUEST, null));
+        }
+        return results;
+    }
+
+    /**
+     * Creates the result of one document of a batch.
+     * @param index   index of the document
+     * @param status  HTTP status code for the document
+     * @param message message, can be null
+     * @return result
+     */
+    private static JsonObject batchResult(int index, int status, String message) {
+        JsonObject result = new JsonObject();
+        result.addProperty("index", index);
+        result.addProperty("status", status);
+        if (message != null) {
+            result.addProperty("message", message);
+        }
+        return result;
+    }
+
+    /**
+     * Handles a query.
+     * @param exchange HTTP exchange
+     * @param subPath  path below the base path
+     * @throws IOException on I/O errors
+     */
+    private void handleQuery(HttpExchange exchange, String subPath) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (subPath.isEmpty() || "/".equals(subPath) || "/referenced".equals(subPath)) {
+            List<UsageData> matches = "/referenced".equals(subPath)
+                    ? this.store.findReferencingProjects(query.get("groupId"), query.get("artifactId"), query.get("version"), query.get("license"))
+                    : this.store.findProjects(query.get("groupId"), query.get("artifactId"), query.get("version"));
+            this.respond(exchange, matches.isEmpty() ? HTTP_NOT_FOUND : HTTP_OK, matches.isEmpty() ? null : matches);
+            return;
+        }
+        if ("/usages".equals(subPath)) {
+            if ((query.containsKey("groupId") || query.containsKey("artifactId") || query.containsKey("version")
+                    || query.containsKey("license") || query.containsKey("project")) == false) {
+                this.respond(exchange, HTTP_BAD_REQUEST, null);
+                return;
+            }
+            int limit = DEFAULT_LIMIT;
+            try {
+                if (query.containsKey("limit")) {
+                    limit = Math.max(0, Math.min(MAX_LIMIT, Integer.parseInt(query.get("limit"))));
+                }
+            } catch (NumberFormatException ex) {
+                this.respond(exchange, HTTP_BAD_REQUEST, null);
+                return;
+            }
+            this.respond(exchange, HTTP_OK, this.store.searchUsages(query.get("groupId"), query.get("artifactId"), query.get("version"),
+                    query.get("license"), query.get("project"), limit));
+            return;
+        }
+        String[] segments = subPath.substring(1).split("/");
+        if (segments.length == GAV_SEGMENTS) {
+            List<UsageData> matches = this.store.findProjects(segments[0], segments[1], segments[2]);
+            if (matches.isEmpty() == false) {
+                this.respond(exchange, HTTP_OK, matches.get(0));
+                return;
+            }
+        }
+        this.respond(exchange, HTTP_NOT_FOUND, null);
+    }
+
+    /**
+     * Parses a JSON or CBOR request body (according to its Content-Type) to a tree.
+     * @param exchange HTTP exchange
+     * @param body     decompressed request body
+     * @return tree
+     * @throws IOException on invalid CBOR data
+     */
+    private static JsonElement parseTree(HttpExchange exchange, byte[] body) throws IOException {
+        if (isCbor(exchange)) {
+            return new CborReader(new ByteArrayInputStream(body)).read();
+        }
+        return JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks if the request body is CBOR according to its Content-Type.
+     * @param exchange HTTP exchange
+     * @return true if CBOR
+     */
+    private static boolean isCbor(HttpExchange exchange) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        return (contentType != null) && contentType.startsWith("application/cbor");
+    }
+
+    /**
+     * Parses a query string.
+     * @param rawQuery raw query string, can be null
+     * @return query parameters
+     * @throws IOException on invalid encoding
+     */
+    private static Map<String, String> parseQuery(String rawQuery) throws IOException {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String oneParam : rawQuery.split("&")) {
+            int pos = oneParam.indexOf('=');
+            if (pos > 0) {
+                query.put(URLDecoder.decode(oneParam.substring(0, pos), "UTF-8"), URLDecoder.decode(oneParam.substring(pos + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Sends a response.
+     * @param exchange HTTP exchange
+     * @param status   HTTP status code
+     * @param body     response body, serialized as JSON, null for no body
+     * @throws IOException on I/O errors
+     */
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = this.gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a request body completely, up to the maximum body size.
+     * @param in request body stream
+     * @return body
+     * @throws BodyTooLargeException if the body exceeds the maximum body size
+     * @throws IOException on read errors
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int len = in.read(buffer);
+        while (len >= 0) {
+            if (out.size() + (long) len > this.maxBodySize) {
+                throw new BodyTooLargeException();
+            }
+            out.write(buffer, 0, len);
+            len = in.read(buffer);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decompresses a gzip request body according to its Content-Encoding.
+     * @param exchange HTTP exchange
+     * @param body     request body
+     * @return decompressed body
+     * @throws BodyTooLargeException if the decompressed body exceeds the maximum body size
+     * @throws IOException on invalid gzip data
+     */
+    private byte[] decompress(HttpExchange exchange, byte[] body) throws IOException {
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if ((contentEncoding == null) || ("gzip".equals(contentEncoding.trim().toLowerCase(Locale.ROOT)) == false)) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return this.readBody(in);
+        }
+    }
+
+    /**
+     * Exception for request bodies exceeding the maximum body size.
+     */
+    private static final class BodyTooLargeException extends IOException {
+
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates a new instance.
+         */
+        BodyTooLargeException() {
+            super("request body too large");
+        }
+    }
+}
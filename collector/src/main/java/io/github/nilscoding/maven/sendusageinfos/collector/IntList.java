@@ -0,0 +1,84 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, avoiding boxing for large posting lists.
+ * @author NilsCoding
+ */
+final class IntList {
+
+    /**
+     * Initial capacity.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Values.
+     */
+    private int[] values;
+    /**
+     * Number of values.
+     */
+    private int size;
+
+    /**
+     * Creates a new instance.
+     */
+    IntList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param capacity initial capacity
+     */
+    IntList(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends a value.
+     * @param value value
+     */
+    void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size] = value;
+        this.size++;
+    }
+
+    /**
+     * Returns a value.
+     * @param index index
+     * @return value
+     */
+    int get(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Replaces a value.
+     * @param index index
+     * @param value value
+     */
+    void set(int index, int value) {
+        this.values[index] = value;
+    }
+
+    /**
+     * Returns the number of values.
+     * @return number of values
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all values.
+     */
+    void clear() {
+        this.size = 0;
+    }
+}
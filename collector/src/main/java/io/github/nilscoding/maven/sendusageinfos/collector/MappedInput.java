@@ -0,0 +1,111 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file written by {@link MappedOutput} through read-only memory-mapped regions.
+ * @author NilsCoding
+ */
+final class MappedInput implements Closeable {
+
+    /**
+     * File channel.
+     */
+    private final FileChannel channel;
+    /**
+     * Total size of the file.
+     */
+    private final long size;
+    /**
+     * Currently mapped region.
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * File position of the currently mapped region.
+     */
+    private long regionStart;
+
+    /**
+     * Creates a new instance.
+     * @param file file
+     * @throws IOException if the file cannot be opened
+     */
+    MappedInput(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = this.channel.size();
+        this.map(0L);
+    }
+
+    /**
+     * Maps the region starting at the given file position.
+     * @param position file position
+     * @throws IOException on mapping errors
+     */
+    private void map(long position) throws IOException {
+        this.regionStart = position;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MappedOutput.CHUNK_SIZE, this.size - position));
+    }
+
+    /**
+     * Maps the next region if less than the given number of bytes remains in the current region.
+     * @param len number of bytes
+     * @throws IOException on mapping errors or at the end of the file
+     */
+    private void ensure(int len) throws IOException {
+        if (this.buffer.remaining() >= len) {
+            return;
+        }
+        long position = this.regionStart + this.buffer.position();
+        if (position + len > this.size) {
+            throw new EOFException("unexpected end of snapshot file");
+        }
+        this.map(position);
+    }
+
+    /**
+     * Reads an int.
+     * @return value
+     * @throws IOException on mapping errors or at the end of the file
+     */
+    int readInt() throws IOException {
+        this.ensure(MappedOutput.INT_SIZE);
+        return this.buffer.getInt();
+    }
+
+    /**
+     * Reads a string written by {@link MappedOutput#writeString(String)}.
+     * @return string, can be null
+     * @throws IOException on mapping errors or at the end of the file
+     */
+    String readString() throws IOException {
+        int len = this.readInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        int offset = 0;
+        while (offset < len) {
+            this.ensure(1);
+            int chunk = Math.min(this.buffer.remaining(), len - offset);
+            this.buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException on errors
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a file of known size through memory-mapped regions, so large snapshots are written without copying them
+ * through heap buffers. The file is mapped in chunks, as a single mapping is limited to 2 GB.
+ * @author NilsCoding
+ */
+final class MappedOutput implements Closeable {
+
+    /**
+     * Size of a mapped region.
+     */
+    static final int CHUNK_SIZE = 64 * 1024 * 1024;
+    /**
+     * Size of an int.
+     */
+    static final int INT_SIZE = 4;
+
+    /**
+     * File channel.
+     */
+    private final FileChannel channel;
+    /**
+     * Total size of the file.
+     */
+    private final long size;
+    /**
+     * Currently mapped region.
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * File position of the currently mapped region.
+     */
+    private long regionStart;
+
+    /**
+     * Creates a new instance, replacing the file.
+     * @param file file
+     * @param size total size of the file in bytes
+     * @throws IOException if the file cannot be created
+     */
+    MappedOutput(File file, long size) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = size;
+        this.map(0L);
+    }
+
+    /**
+     * Maps the region starting at the given file position.
+     * @param position file position
+     * @throws IOException on mapping errors
+     */
+    private void map(long position) throws IOException {
+        if (this.buffer != null) {
+            this.buffer.force();
+        }
+        this.regionStart = position;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(CHUNK_SIZE, this.size - position));
+    }
+
+    /**
+     * Writes an int.
+     * @param value value
+     * @throws IOException on mapping errors or if the file size is exceeded
+     */
+    void writeInt(int value) throws IOException {
+        if (this.buffer.remaining() < INT_SIZE) {
+            this.map(this.regionStart + this.buffer.position());
+        }
+        this.buffer.putInt(value);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its UTF-8 bytes; null is written as length -1.
+     * @param value string, can be null
+     * @throws IOException on mapping errors or if the file size is exceeded
+     */
+    void writeString(String value) throws IOException {
+        if (value == null) {
+            this.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (this.buffer.hasRemaining() == false) {
+                this.map(this.regionStart + this.buffer.position());
+            }
+            int len = Math.min(this.buffer.remaining(), bytes.length - offset);
+            this.buffer.put(bytes, offset, len);
+            offset += len;
+        }
+    }
+
+    /**
+     * Returns the number of bytes needed by {@link #writeString(String)}. The size is taken from the same encoding as
+     * the written bytes, so e.g. unpaired surrogates (replaced by a single <code>?</code>) are counted correctly.
+     * @param value string, can be null
+     * @return number of bytes
+     */
+    static long sizeOf(String value) {
+        if (value == null) {
+            return INT_SIZE;
+        }
+        return INT_SIZE + (long) value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Flushes the written data to disk and closes the file.
+     * @throws IOException on write errors
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.buffer.force();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
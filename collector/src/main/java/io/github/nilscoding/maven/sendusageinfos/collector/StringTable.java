@@ -0,0 +1,81 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary assigning an int ID to each distinct string, so the store keeps every string only once.
+ * @author NilsCoding
+ */
+final class StringTable {
+
+    /**
+     * ID of null.
+     */
+    static final int NULL_ID = -1;
+
+    /**
+     * IDs by string.
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+    /**
+     * Strings by ID.
+     */
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Creates a new instance.
+     */
+    StringTable() {
+    }
+
+    /**
+     * Returns the ID of a string, adding it if not present yet.
+     * @param value string, can be null
+     * @return ID, {@link #NULL_ID} for null
+     */
+    int add(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = this.ids.get(value);
+        if (id == null) {
+            id = this.values.size();
+            this.values.add(value);
+            this.ids.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of a string, without adding it.
+     * @param value string, can be null
+     * @return ID, {@link #NULL_ID} for null or unknown strings
+     */
+    int find(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = this.ids.get(value);
+        return (id != null) ? id : NULL_ID;
+    }
+
+    /**
+     * Returns the string of an ID.
+     * @param id ID
+     * @return string, null for {@link #NULL_ID}
+     */
+    String get(int id) {
+        return (id == NULL_ID) ? null : this.values.get(id);
+    }
+
+    /**
+     * Returns the number of strings.
+     * @return number of strings
+     */
+    int size() {
+        return this.values.size();
+    }
+}
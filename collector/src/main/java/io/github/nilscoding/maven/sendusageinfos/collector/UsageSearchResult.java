@@ -0,0 +1,77 @@
+package io.github.nilscoding.maven.sendusageinfos.collector;
+
+import java.util.List;
+
+/**
+ * Result of a usage search.
+ * @author NilsCoding
+ */
+public class UsageSearchResult {
+
+    /**
+     * Total number of matching usages.
+     */
+    protected int total;
+    /**
+     * Search time in microseconds, not including the response serialization.
+     */
+    protected long tookMicros;
+    /**
+     * Matching usages, up to the requested limit.
+     */
+    protected List<ArtifactUsage> usages;
+
+    /**
+     * Creates a new instance.
+     */
+    public UsageSearchResult() {
+    }
+
+    /**
+     * Returns the total number of matching usages.
+     * @return total number of matching usages
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Sets the total number of matching usages.
+     * @param total total number of matching usages
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Returns the search time in microseconds.
+     * @return search time in microseconds
+     */
+    public long getTookMicros() {
+        return tookMicros;
+    }
+
+    /**
+     * Sets the search time in microseconds.
+     * @param tookMicros search time in microseconds
+     */
+    public void setTookMicros(long tookMicros) {
+        this.tookMicros = tookMicros;
+    }
+
+    /**
+     * Returns the matching usages.
+     * @return matching usages, up to the requested limit
+     */
+    public List<ArtifactUsage> getUsages() {
+        return usages;
+    }
+
+    /**
+     * Sets the matching usages.
+     * @param usages matching usages
+     */
+    public void setUsages(List<ArtifactUsage> usages) {
+        this.usages = usages;
+    }
+}
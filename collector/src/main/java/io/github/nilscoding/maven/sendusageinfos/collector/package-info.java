@@ -0,0 +1,5 @@
+/**
+ * Reference collector service receiving usage data, with an indexed in-memory artifact store and
+ * memory-mapped snapshots (run with {@link io.github.nilscoding.maven.sendusageinfos.collector.CollectorMain}).
+ */
+package io.github.nilscoding.maven.sendusageinfos.collector;
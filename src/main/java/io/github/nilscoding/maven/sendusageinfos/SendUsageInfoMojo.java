@@ -1,17 +1,38 @@
 package io.github.nilscoding.maven.sendusageinfos;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import io.github.nilscoding.maven.sendusageinfos.data.DependencyGraph;
 import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
-import okhttp3.Call;
-import okhttp3.MediaType;
+import io.github.nilscoding.maven.sendusageinfos.encode.UsageDataEncoding;
+import io.github.nilscoding.maven.sendusageinfos.metrics.MetricsRecorder;
+import io.github.nilscoding.maven.sendusageinfos.metrics.MetricsRecorder.ResolutionOutcome;
+import io.github.nilscoding.maven.sendusageinfos.resolve.ArtifactFilter;
+import io.github.nilscoding.maven.sendusageinfos.resolve.ArtifactMetadata;
+import io.github.nilscoding.maven.sendusageinfos.resolve.DiskMetadataCache;
+import io.github.nilscoding.maven.sendusageinfos.resolve.FailedResolutionCache;
+import io.github.nilscoding.maven.sendusageinfos.resolve.PomMetadataReader;
+import io.github.nilscoding.maven.sendusageinfos.resolve.SessionResolutionCache;
+import io.github.nilscoding.maven.sendusageinfos.resolve.TimeBoundedResolver;
+import io.github.nilscoding.maven.sendusageinfos.send.HistorySink;
+import io.github.nilscoding.maven.sendusageinfos.send.HttpResult;
+import io.github.nilscoding.maven.sendusageinfos.send.KnownArtifactsQuery;
+import io.github.nilscoding.maven.sendusageinfos.send.Outbox;
+import io.github.nilscoding.maven.sendusageinfos.send.ParallelSender;
+import io.github.nilscoding.maven.sendusageinfos.send.RetryPolicy;
+import io.github.nilscoding.maven.sendusageinfos.send.SendCancellation;
+import io.github.nilscoding.maven.sendusageinfos.send.SharedHttpClient;
+import io.github.nilscoding.maven.sendusageinfos.send.SinkResult;
+import io.github.nilscoding.maven.sendusageinfos.send.WebSink;
+import io.github.nilscoding.maven.sendusageinfos.session.BackgroundDelivery;
+import io.github.nilscoding.maven.sendusageinfos.session.SessionContext;
+import io.github.nilscoding.maven.sendusageinfos.session.SessionContextManager;
+import io.github.nilscoding.maven.sendusageinfos.session.UsageDataAggregator;
+import io.github.nilscoding.maven.sendusageinfos.util.LineBasedWriter;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.License;
+import org.apache.maven.model.building.ModelProblem;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -22,20 +43,40 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import javax.inject.Inject;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Mojo to send usage infos (metadata and licenses) from referenced artifacts to a URL endpoint or save them to a file.
@@ -44,10 +85,64 @@ import java.util.function.Consumer;
 @Mojo(
         name = "send-usage-infos",
         requiresDependencyCollection = ResolutionScope.COMPILE_PLUS_RUNTIME,
-        requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME
+        requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME,
+        threadSafe = true
 )
 public class SendUsageInfoMojo extends AbstractMojo {
 
+    /**
+     * Resolution engine using the Maven project builder.
+     */
+    private static final String ENGINE_PROJECT_BUILDER = "project-builder";
+    /**
+     * Resolution engine comparing the results of project builder and POM reader.
+     */
+    private static final String ENGINE_COMPARE = "compare";
+    /**
+     * Resolution engine reading the POM files directly.
+     */
+    private static final String ENGINE_POM_READER = "pom-reader";
+    /**
+     * Dependency encoding: dependency trail per referenced artifact.
+     */
+    private static final String DEPENDENCY_ENCODING_TRAIL = "trail";
+    /**
+     * Dependency encoding: one dependency graph with node table and parent IDs.
+     */
+    private static final String DEPENDENCY_ENCODING_GRAPH = "graph";
+    /**
+     * Milliseconds per second.
+     */
+    private static final long MILLIS_PER_SECOND = 1000L;
+    /**
+     * Bytes per megabyte.
+     */
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    /**
+     * Pattern of the encoding option of a location.
+     */
+    private static final Pattern ENCODING_OPTION_PATTERN = Pattern.compile("\\(encoding:([A-Za-z0-9-]+)\\)");
+    /**
+     * Base delay for retries in milliseconds.
+     */
+    private static final long RETRY_BASE_DELAY_MILLIS = 500L;
+    /**
+     * Maximum delay for retries in milliseconds.
+     */
+    private static final long RETRY_MAX_DELAY_MILLIS = 60L * 60L * 1000L;
+    /**
+     * Maximum length of a resolution failure reason.
+     */
+    private static final int MAX_FAILURE_REASON_LENGTH = 500;
+    /**
+     * Maximum number of failure reasons in the resolution failure summary (all reasons are logged on debug level).
+     */
+    private static final int MAX_SUMMARY_FAILURE_REASONS = 10;
+    /**
+     * Failure reason of artifacts that could not be resolved for an unknown reason.
+     */
+    private static final String UNKNOWN_FAILURE_REASON = "unknown";
+
     /**
      * URL method (optional).
      */
@@ -63,11 +158,248 @@ public class SendUsageInfoMojo extends AbstractMojo {
      */
     @Parameter(property = "urlAuthHeaderValue")
     private String urlAuthHeader;
+    /**
+     * HTTP connect timeout in seconds (optional).
+     */
+    @Parameter(property = "httpConnectTimeout", defaultValue = "10")
+    private Integer httpConnectTimeout;
+    /**
+     * HTTP read timeout in seconds (optional).
+     */
+    @Parameter(property = "httpReadTimeout", defaultValue = "10")
+    private Integer httpReadTimeout;
+    /**
+     * HTTP write timeout in seconds (optional).
+     */
+    @Parameter(property = "httpWriteTimeout", defaultValue = "10")
+    private Integer httpWriteTimeout;
+    /**
+     * HTTP request body compression: none, gzip or auto (optional).
+     */
+    @Parameter(property = "httpCompression", defaultValue = WebSink.COMPRESSION_NONE)
+    private String httpCompression;
+    /**
+     * Size threshold in bytes above which request bodies will be compressed in compression mode auto (optional).
+     */
+    @Parameter(property = "httpCompressionThreshold", defaultValue = "65536")
+    private Long httpCompressionThreshold;
+    /**
+     * Timeout in seconds for sending data to one location, 0 for no timeout (optional).
+     */
+    @Parameter(property = "sinkTimeout", defaultValue = "0")
+    private Integer sinkTimeout;
+    /**
+     * Overall deadline in seconds for sending data to all locations, 0 for no deadline (optional).
+     */
+    @Parameter(property = "sendDeadline", defaultValue = "0")
+    private Integer sendDeadline;
+    /**
+     * Flag for failing the build if data could not be sent to all locations (optional).
+     */
+    @Parameter(property = "failOnSinkError", defaultValue = "false")
+    private Boolean failOnSinkError;
+    /**
+     * Flag for sending only changes since the last successfully sent data to URL endpoints supporting it (optional).
+     */
+    @Parameter(property = "deltaSend", defaultValue = "false")
+    private Boolean deltaSend;
+    /**
+     * Directory for the snapshots of the last successfully sent data, used for delta sending (optional).
+     */
+    @Parameter(property = "deltaStateDirectory", defaultValue = "${project.build.directory}/usage-infos-state")
+    private File deltaStateDirectory;
+    /**
+     * Time budget in seconds for retrying failed sends to URL endpoints and replaying the outbox (optional).
+     */
+    @Parameter(property = "retryBudget", defaultValue = "0")
+    private Integer retryBudget;
+    /**
+     * Flag for keeping data that could not be sent to URL endpoints in an outbox, to be sent by later builds (optional).
+     */
+    @Parameter(property = "outbox", defaultValue = "false")
+    private Boolean outbox;
+    /**
+     * Outbox directory (optional).
+     */
+    @Parameter(property = "outboxDirectory", defaultValue = "${user.home}/.m2/mvn-send-usage-infos/outbox")
+    private File outboxDirectory;
+    /**
+     * Maximum number of entries in the outbox (optional).
+     */
+    @Parameter(property = "outboxMaxEntries", defaultValue = "1000")
+    private Integer outboxMaxEntries;
+    /**
+     * Maximum age of outbox entries in hours (optional).
+     */
+    @Parameter(property = "outboxMaxAgeHours", defaultValue = "168")
+    private Integer outboxMaxAgeHours;
+    /**
+     * Maximum number of outbox entries to replay per URL endpoint and build (optional).
+     */
+    @Parameter(property = "outboxReplayBatchSize", defaultValue = "20")
+    private Integer outboxReplayBatchSize;
+    /**
+     * Flag for sending data to URL endpoints as newline-delimited JSON batches to <code>&lt;url&gt;/batch</code> (optional).
+     */
+    @Parameter(property = "batchSend", defaultValue = "false")
+    private Boolean batchSend;
+    /**
+     * Flag for sending data in the background while the build continues, joined at the end of the build (optional).
+     */
+    @Parameter(property = "deferredSend", defaultValue = "false")
+    private Boolean deferredSend;
+    /**
+     * Maximum time in seconds to wait at the end of the build for background delivery, 0 for no limit (optional).
+     */
+    @Parameter(property = "deferredSendTimeout", defaultValue = "60")
+    private Integer deferredSendTimeout;
+    /**
+     * Maximum size of a history file in MB before rotating, 0 for no limit (optional).
+     */
+    @Parameter(property = "historyMaxFileSize", defaultValue = "64")
+    private Integer historyMaxFileSize;
+    /**
+     * Maximum age of a history file in hours before rotating, 0 for no limit (optional).
+     */
+    @Parameter(property = "historyRotateHours", defaultValue = "0")
+    private Integer historyRotateHours;
+    /**
+     * Maximum number of history files to keep, 0 for no limit (optional).
+     */
+    @Parameter(property = "historyMaxFiles", defaultValue = "0")
+    private Integer historyMaxFiles;
+    /**
+     * Flag for logging a summary of timings and sizes at the end of the execution (optional).
+     */
+    @Parameter(property = "metrics", defaultValue = "false")
+    private Boolean metrics;
+    /**
+     * File to write the metrics of the execution to as JSON (optional).
+     */
+    @Parameter(property = "metricsFile")
+    private File metricsFile;
+    /**
+     * Flag for attaching the metrics of the execution to the payload (optional).
+     */
+    @Parameter(property = "metricsInPayload", defaultValue = "false")
+    private Boolean metricsInPayload;
+    /**
+     * Number of slowest artifacts to include in the metrics (optional).
+     */
+    @Parameter(property = "metricsSlowestArtifacts", defaultValue = "10")
+    private Integer metricsSlowestArtifacts;
     /**
      * Flag for pretty-printing.
      */
     @Parameter(property = "prettyPrint")
     private Boolean prettyPrint;
+    /**
+     * Flag for sending one aggregated report for all modules at the end of the build (optional).
+     */
+    @Parameter(property = "aggregate", defaultValue = "false")
+    private Boolean aggregate;
+    /**
+     * Number of threads used to resolve the referenced artifacts (optional, 1 resolves them one after another).
+     */
+    @Parameter(property = "resolverThreads", defaultValue = "1")
+    private Integer resolverThreads;
+    /**
+     * Encoding of the dependency structure: trail or graph (optional).
+     */
+    @Parameter(property = "dependencyEncoding", defaultValue = DEPENDENCY_ENCODING_TRAIL)
+    private String dependencyEncoding;
+    /**
+     * Resolution engine: project-builder, pom-reader or compare (optional).
+     */
+    @Parameter(property = "resolutionEngine", defaultValue = ENGINE_PROJECT_BUILDER)
+    private String resolutionEngine;
+    /**
+     * Flag for sharing resolved metadata between all Mojo executions of a build (optional).
+     */
+    @Parameter(property = "sessionCache", defaultValue = "true")
+    private Boolean sessionCache;
+    /**
+     * Flag for using the persistent metadata cache (optional).
+     */
+    @Parameter(property = "metadataCache", defaultValue = "false")
+    private Boolean metadataCache;
+    /**
+     * Directory of the persistent metadata cache (optional).
+     */
+    @Parameter(property = "metadataCacheDirectory", defaultValue = "${user.home}/.m2/mvn-send-usage-infos/metadata-cache")
+    private File metadataCacheDirectory;
+    /**
+     * Maximum number of entries in the persistent metadata cache (optional).
+     */
+    @Parameter(property = "metadataCacheMaxEntries", defaultValue = "50000")
+    private Integer metadataCacheMaxEntries;
+    /**
+     * Time to live in hours of cached resolution failures on disk (optional, 0 to keep failures for the current build only).
+     */
+    @Parameter(property = "failedResolutionTtlHours", defaultValue = "0")
+    private Integer failedResolutionTtlHours;
+    /**
+     * Directory of the persistent cache for resolution failures (optional).
+     */
+    @Parameter(property = "failedResolutionCacheDirectory", defaultValue = "${user.home}/.m2/mvn-send-usage-infos/failed-resolutions")
+    private File failedResolutionCacheDirectory;
+    /**
+     * Flag for resolving metadata only from the local repository and the reactor, without remote access (optional).
+     */
+    @Parameter(property = "offlineResolution", defaultValue = "false")
+    private Boolean offlineResolution;
+    /**
+     * Timeout in seconds for resolving one referenced artifact (optional, 0 for no timeout).
+     */
+    @Parameter(property = "artifactResolutionTimeout", defaultValue = "0")
+    private Integer artifactResolutionTimeout;
+    /**
+     * Overall time budget in seconds for resolving all referenced artifacts, counted from the start of the Mojo
+     * execution (optional, 0 for no budget).
+     */
+    @Parameter(property = "resolutionBudget", defaultValue = "0")
+    private Integer resolutionBudget;
+    /**
+     * Patterns <code>groupId[:artifactId]</code> of referenced artifacts to include, with * and ? as wildcards (optional).
+     */
+    @Parameter(property = "includes")
+    private String includes;
+    /**
+     * Patterns <code>groupId[:artifactId]</code> of referenced artifacts to exclude, with * and ? as wildcards (optional).
+     */
+    @Parameter(property = "excludes")
+    private String excludes;
+    /**
+     * Scopes of referenced artifacts to include (optional, all if not set).
+     */
+    @Parameter(property = "includeScopes")
+    private String includeScopes;
+    /**
+     * Scopes of referenced artifacts to exclude (optional).
+     */
+    @Parameter(property = "excludeScopes")
+    private String excludeScopes;
+    /**
+     * Types of referenced artifacts to include (optional, all if not set).
+     */
+    @Parameter(property = "includeTypes")
+    private String includeTypes;
+    /**
+     * Types of referenced artifacts to exclude (optional).
+     */
+    @Parameter(property = "excludeTypes")
+    private String excludeTypes;
+    /**
+     * Flag for including direct dependencies of the project only (optional).
+     */
+    @Parameter(property = "directDependenciesOnly", defaultValue = "false")
+    private Boolean directDependenciesOnly;
+    /**
+     * Flag for asking the URL endpoints which referenced artifacts they have no metadata for, so that only these
+     * are resolved and sent with metadata (optional).
+     */
+    @Parameter(property = "knownArtifactsHandshake", defaultValue = "false")
+    private Boolean knownArtifactsHandshake;
 
     /**
      * Maven project.
@@ -87,6 +419,45 @@ public class SendUsageInfoMojo extends AbstractMojo {
     @Inject
     private ProjectBuilder mavenProjectBuilder;
 
+    /**
+     * Session context manager.
+     */
+    @Inject
+    private SessionContextManager sessionContextManager;
+
+    /**
+     * Context of the current build session.
+     */
+    private SessionContext sessionContext;
+    /**
+     * Persistent metadata cache of the current execution, null if disabled.
+     */
+    private DiskMetadataCache diskMetadataCache;
+    /**
+     * Cache for resolution failures, shared by all Mojo executions of the build session; null if not executing.
+     */
+    private FailedResolutionCache failedResolutionCache;
+    /**
+     * Metrics of the current execution.
+     */
+    private MetricsRecorder metricsRecorder;
+    /**
+     * GATVs of the referenced artifacts sent without metadata in offline resolution mode.
+     */
+    private final Set<String> unenrichedArtifacts = ConcurrentHashMap.newKeySet();
+    /**
+     * GATVs of the referenced artifacts whose resolution did not finish in time.
+     */
+    private final List<String> timedOutArtifacts = new ArrayList<>();
+    /**
+     * GATVs of the referenced artifacts whose metadata is known to all URL endpoints (sent without metadata).
+     */
+    private Set<String> knownArtifacts = Collections.emptySet();
+    /**
+     * Start time of the current execution (as of {@link System#nanoTime()}).
+     */
+    private long executionStartNanos;
+
     /**
      * Creates a new instance.
      */
@@ -102,6 +473,7 @@ public class SendUsageInfoMojo extends AbstractMojo {
     public void execute() throws MojoExecutionException, MojoFailureException {
         Log log = getLog();
         log.info("SendUsageInfo Mojo at work...");
+        this.executionStartNanos = System.nanoTime();
 
         UsageData usageData = new UsageData();
 
@@ -125,60 +497,710 @@ public class SendUsageInfoMojo extends AbstractMojo {
             return;
         }
 
+        this.sessionContext = this.sessionContextManager.getContext(this.session);
+        this.metricsRecorder = new MetricsRecorder();
+        if ((this.sessionCache == null) || (this.sessionCache)) {
+            SessionResolutionCache resolutionCache = this.sessionContext.getResolutionCache();
+            this.sessionContext.registerSessionEndAction("resolution-cache-stats", () ->
+                    log.info("metadata resolution cache: " + resolutionCache.getHits() + " hits, "
+                            + resolutionCache.getMisses() + " misses"));
+        }
+
         // assign project artifact's data
         io.github.nilscoding.maven.sendusageinfos.data.Artifact projectArtifact
                 = io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenProject(this.project);
         usageData.setProjectArtifact(projectArtifact);
 
         // assign data of referenced artifacts
-        Set<Artifact> mavenRefArtifacts = this.project.getArtifacts();
+        Set<Artifact> mavenRefArtifacts = this.filterReferencedArtifacts(this.project.getArtifacts(), projectArtifact.getGatv(), log);
         if ((mavenRefArtifacts != null) && (mavenRefArtifacts.isEmpty() == false)) {
-            List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> refArtifacts = new LinkedList<>();
-            for (final Artifact oneRefArtifact : mavenRefArtifacts) {
-                io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact =
-                        io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(oneRefArtifact);
-                MavenProject refProject = this.resolveProjectViaRepo(oneRefArtifact);
-                if (refProject != null) {
-                    List<License> mavenRefLicenses = refProject.getLicenses();
-                    if ((mavenRefLicenses != null) && (mavenRefLicenses.isEmpty() == false)) {
-                        List<io.github.nilscoding.maven.sendusageinfos.data.License> refLicenses = new LinkedList<>();
-                        for (final License oneMavenRefLicense : mavenRefLicenses) {
-                            io.github.nilscoding.maven.sendusageinfos.data.License oneRefLicense =
-                                    io.github.nilscoding.maven.sendusageinfos.data.License.fromMavenLicense(oneMavenRefLicense);
-                            if (oneRefLicense != null) {
-                                refLicenses.add(oneRefLicense);
-                            }
-                        }
-                        refArtifact.setLicenses(refLicenses);
+            if ((this.metadataCache != null) && (this.metadataCache) && (this.metadataCacheDirectory != null)) {
+                int maxEntries = (this.metadataCacheMaxEntries != null) ? this.metadataCacheMaxEntries : 0;
+                this.diskMetadataCache = new DiskMetadataCache(this.metadataCacheDirectory, this.getCachedResolutionEngine(), maxEntries);
+            }
+            this.failedResolutionCache = this.getFailedResolutionCache(log);
+            this.knownArtifacts = this.queryKnownArtifacts(mavenRefArtifacts, locations, log);
+            if (this.knownArtifacts.isEmpty() == false) {
+                usageData.setKnownMetadataOmitted(Boolean.TRUE);
+            }
+            long resolutionStart = System.nanoTime();
+            List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> refArtifacts =
+                    this.resolveReferencedArtifacts(mavenRefArtifacts, log);
+            this.metricsRecorder.recordResolution(System.nanoTime() - resolutionStart);
+            if (this.unenrichedArtifacts.isEmpty() == false) {
+                List<String> unenriched = new ArrayList<>(this.unenrichedArtifacts);
+                Collections.sort(unenriched);
+                usageData.setUnenrichedArtifacts(unenriched);
+                log.warn(unenriched.size() + " artifacts not available in local repository or reactor, sent without metadata");
+                log.debug("artifacts sent without metadata: " + String.join(", ", unenriched));
+            }
+            if (this.timedOutArtifacts.isEmpty() == false) {
+                usageData.setPartial(Boolean.TRUE);
+                usageData.setTimedOutArtifacts(new ArrayList<>(this.timedOutArtifacts));
+                log.warn("resolution of " + this.timedOutArtifacts.size() + " artifacts did not finish in time, sent without metadata");
+                log.debug("timed out artifacts: " + String.join(", ", this.timedOutArtifacts));
+            }
+            if (this.isOfflineResolution() == false) {
+                int failedCount = 0;
+                for (io.github.nilscoding.maven.sendusageinfos.data.Artifact oneRefArtifact : refArtifacts) {
+                    if (oneRefArtifact.getResolutionFailure() != null) {
+                        failedCount++;
                     }
-                    refArtifact.setName(refProject.getName());
-                    refArtifact.setDescription(refProject.getDescription());
-                    refArtifact.setWebsiteUrl(refProject.getUrl());
-                    refArtifacts.add(refArtifact);
+                }
+                if (failedCount > 0) {
+                    log.warn(failedCount + " artifacts could not be resolved, sent without metadata");
                 }
             }
             if (refArtifacts.isEmpty() == false) {
                 usageData.setReferencedArtifacts(refArtifacts);
+                if ((this.dependencyEncoding != null) && DEPENDENCY_ENCODING_GRAPH.equalsIgnoreCase(this.dependencyEncoding.trim())) {
+                    usageData.setDependencyGraph(DependencyGraph.fromDependencyTrails(projectArtifact.getGatv(), refArtifacts));
+                }
+            }
+            if (this.diskMetadataCache != null) {
+                int evicted = this.diskMetadataCache.evict();
+                if (evicted > 0) {
+                    log.debug("evicted " + evicted + " entries from metadata cache");
+                }
+            }
+        }
+
+        boolean metricsInPayload = (this.metricsInPayload != null) && (this.metricsInPayload);
+        if (this.isMetricsEnabled() || (this.metricsFile != null) || metricsInPayload) {
+            this.metricsRecorder.measureSerialization(SharedGson.compact(), usageData);
+        }
+        if (metricsInPayload) {
+            // sink results are not known before sending
+            usageData.setExecutionMetrics(this.metricsRecorder.toMetrics(this.getMetricsSlowestArtifacts(), false));
+        }
+
+        if ((this.aggregate != null) && (this.aggregate)) {
+            this.collectForAggregation(usageData, locations, log);
+            this.metricsRecorder.setSendNote("collected for aggregation");
+            this.reportMetrics(log);
+            return;
+        }
+
+        if ((this.deferredSend != null) && (this.deferredSend)) {
+            if (this.deferData(usageData, locations, log)) {
+                this.metricsRecorder.setSendNote("deferred to the end of the build");
+                this.reportMetrics(log);
+                return;
             }
+            log.warn("background delivery not available, sending data immediately");
         }
 
-        // send data
+        boolean sent = this.sendData(usageData, locations, log);
+        this.reportMetrics(log);
+        if ((sent == false) && (this.failOnSinkError != null) && (this.failOnSinkError)) {
+            throw new MojoFailureException("usage info data could not be sent to all locations");
+        }
+    }
 
+    /**
+     * Sends the data to all given locations. Multiple locations will be served concurrently.
+     * @param usageData usage data to send
+     * @param locations locations to send data to
+     * @param log       logging
+     * @return true if the data has been sent to all locations, false if at least one location failed or timed out
+     */
+    protected boolean sendData(UsageData usageData, Set<String> locations, Log log) {
+        long sinkTimeoutMillis = toLong(this.sinkTimeout) * MILLIS_PER_SECOND;
+        long deadlineMillis = toLong(this.sendDeadline) * MILLIS_PER_SECOND;
+        if ((locations.size() == 1) && (sinkTimeoutMillis <= 0) && (deadlineMillis <= 0)) {
+            String location = locations.iterator().next();
+            long start = System.nanoTime();
+            boolean success = this.sendDataToLocation(usageData, location, new SendCancellation(), log);
+            this.recordSink(location, success ? SinkResult.Status.SUCCESS : SinkResult.Status.FAILED,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return success;
+        }
+        Map<String, ParallelSender.CancellableSend> sends = new LinkedHashMap<>();
         for (String oneLocation : locations) {
-            if (oneLocation.startsWith("http://") || oneLocation.startsWith("https://")) {
-                this.sendDataViaWeb(usageData, oneLocation, log);
-            } else if (oneLocation.startsWith("@logging")) {
-                this.sendDataToLog(usageData, oneLocation, log);
+            sends.put(oneLocation, cancellation -> this.sendDataToLocation(usageData, oneLocation, cancellation, log));
+        }
+        List<SinkResult> results;
+        try {
+            results = new ParallelSender(sinkTimeoutMillis, deadlineMillis).send(sends);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.error("interrupted while sending data");
+            return false;
+        }
+        boolean allSucceeded = true;
+        for (SinkResult oneResult : results) {
+            this.recordSink(oneResult.getLocation(), oneResult.getStatus(), oneResult.getDurationMillis());
+            String resultInfo = "'" + oneResult.getLocation() + "': " + oneResult.getStatus().name().toLowerCase()
+                    + " (" + oneResult.getDurationMillis() + " ms)";
+            if (oneResult.isSuccess()) {
+                log.info(resultInfo);
             } else {
-                this.sendDataToFile(usageData, oneLocation, log);
+                log.warn(resultInfo);
+                allSucceeded = false;
+            }
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Records the result of sending to one location in the metrics.
+     * @param location       location
+     * @param status         status
+     * @param durationMillis duration in milliseconds
+     */
+    protected void recordSink(String location, SinkResult.Status status, long durationMillis) {
+        if (this.metricsRecorder != null) {
+            this.metricsRecorder.recordSink(location, status.name().toLowerCase(Locale.ROOT), durationMillis);
+        }
+    }
+
+    /**
+     * Logs the metrics summary and writes the metrics file, as configured.
+     * @param log logging
+     */
+    protected void reportMetrics(Log log) {
+        int slowestCount = this.getMetricsSlowestArtifacts();
+        if (this.isMetricsEnabled()) {
+            log.info("usage info metrics:");
+            for (String oneLine : this.metricsRecorder.formatSummary(slowestCount)) {
+                log.info(oneLine);
+            }
+        }
+        if (this.metricsFile != null) {
+            try {
+                Files.createDirectories(this.metricsFile.getAbsoluteFile().getParentFile().toPath());
+                try (Writer writer = new OutputStreamWriter(new FileOutputStream(this.metricsFile, false), StandardCharsets.UTF_8)) {
+                    SharedGson.pretty().toJson(this.metricsRecorder.toMetrics(slowestCount, true), writer);
+                }
+            } catch (IOException ex) {
+                log.warn("exception writing metrics file: " + ex);
             }
         }
     }
 
     /**
-     * Resolves a Maven project via Artifact info.
+     * Checks if the metrics summary should be logged.
+     * @return true if enabled
+     */
+    protected boolean isMetricsEnabled() {
+        return (this.metrics != null) && (this.metrics);
+    }
+
+    /**
+     * Returns the number of slowest artifacts to include in the metrics.
+     * @return number of slowest artifacts
+     */
+    protected int getMetricsSlowestArtifacts() {
+        return (this.metricsSlowestArtifacts != null) ? this.metricsSlowestArtifacts : 0;
+    }
+
+    /**
+     * Sends the data to one location.
+     * @param usageData    usage data to send
+     * @param location     location to send data to
+     * @param cancellation cancellation of the send if it does not finish in time
+     * @param log          logging
+     * @return true on success, false on error
+     */
+    protected boolean sendDataToLocation(UsageData usageData, String location, SendCancellation cancellation, Log log) {
+        UsageDataEncoding encoding = getEncodingOption(location, log);
+        String target = stripEncodingOption(location);
+        if (target.startsWith("http://") || target.startsWith("https://")) {
+            WebSink webSink = this.getWebSink();
+            webSink.setCancellation(cancellation);
+            return webSink.send(usageData, target, encoding, log);
+        } else if (target.startsWith("@logging")) {
+            return this.sendDataToLog(usageData, target, log);
+        } else if (target.startsWith("@history:")) {
+            HistorySink historySink = this.getHistorySink();
+            historySink.setCancellation(cancellation);
+            return historySink.send(usageData, target.substring("@history:".length()).trim(), log);
+        } else {
+            return this.sendDataToFile(usageData, target, encoding, cancellation, log);
+        }
+    }
+
+    /**
+     * Returns the encoding given by the <code>(encoding:...)</code> option of a location.
+     * @param location location
+     * @param log      logging
+     * @return encoding or null if not specified or unknown
+     */
+    protected static UsageDataEncoding getEncodingOption(String location, Log log) {
+        Matcher m = ENCODING_OPTION_PATTERN.matcher(location);
+        if (m.find() == false) {
+            return null;
+        }
+        UsageDataEncoding encoding = UsageDataEncoding.fromId(m.group(1));
+        if (encoding == null) {
+            log.warn("unknown encoding '" + m.group(1) + "', using default encoding");
+        }
+        return encoding;
+    }
+
+    /**
+     * Removes the <code>(encoding:...)</code> option from a location.
+     * @param location location
+     * @return location without encoding option
+     */
+    protected static String stripEncodingOption(String location) {
+        return ENCODING_OPTION_PATTERN.matcher(location).replaceAll("").trim();
+    }
+
+    /**
+     * Queues the data of the current module for delivery in the background, which will be joined at the end of the build.
+     * @param usageData usage data of the current module
+     * @param locations locations to send the data to
+     * @param log       logging
+     * @return true if queued, false if background delivery is not available (e.g. the session has already ended)
+     */
+    protected boolean deferData(UsageData usageData, Set<String> locations, Log log) {
+        if (this.sessionContext.hasEnded()) {
+            return false;
+        }
+        if (this.isBatchSend()) {
+            // all modules' data will be sent in one batch request per URL endpoint
+            String batchKey = "deferred-batch:" + String.join("\n", locations);
+            UsageDataAggregator collector = this.sessionContext.getAttribute(batchKey, UsageDataAggregator.class, UsageDataAggregator::new);
+            collector.add(this.session.getProjects().indexOf(this.project), usageData);
+            this.sessionContext.registerSessionEndAction(batchKey, () -> {
+                List<UsageData> collected = collector.getModuleUsageData();
+                log.info("sending usage info data of " + collected.size() + " modules in batches ...");
+                if (this.sendBatchToLocations(collected, locations, log) == false) {
+                    // the build cannot be failed anymore at the end of the session
+                    log.error("usage info data could not be sent to all locations");
+                }
+            });
+            log.info("usage info data queued for batch delivery");
+            return true;
+        }
+        BackgroundDelivery delivery = this.sessionContext.getAttribute("background-delivery", BackgroundDelivery.class, () -> {
+            BackgroundDelivery newDelivery = new BackgroundDelivery();
+            this.sessionContext.registerSessionResource(newDelivery);
+            // the action outlives this execution, so it must not keep the Mojo itself
+            long timeoutMillis = toLong(this.deferredSendTimeout) * MILLIS_PER_SECOND;
+            this.sessionContext.registerSessionEndAction("background-delivery", () -> {
+                int count = newDelivery.size();
+                log.info("waiting for background delivery of usage info data of " + count + " modules ...");
+                List<String> failed = newDelivery.awaitAll(timeoutMillis);
+                if (failed.isEmpty() == false) {
+                    // the build cannot be failed anymore at the end of the session
+                    log.error("usage info data of " + failed.size() + " of " + count + " modules could not be sent: "
+                            + String.join(", ", failed));
+                }
+            });
+            return newDelivery;
+        });
+        String description = usageData.getProjectArtifact().getGatv();
+        delivery.submit(description, () -> this.sendData(usageData, locations, log));
+        log.info("usage info data queued for background delivery");
+        return true;
+    }
+
+    /**
+     * Sends the data of multiple modules to all given locations. URL endpoints get one batch request,
+     * other locations get the data of each module.
+     * @param usageDataList usage data of the modules
+     * @param locations     locations to send data to
+     * @param log           logging
+     * @return true if all data has been sent to all locations, false otherwise
+     */
+    protected boolean sendBatchToLocations(List<UsageData> usageDataList, Set<String> locations, Log log) {
+        boolean allSucceeded = true;
+        for (String oneLocation : locations) {
+            // batches are always sent as newline-delimited JSON
+            String url = stripEncodingOption(oneLocation);
+            if (url.startsWith("http://") || url.startsWith("https://")) {
+                List<Boolean> stored = this.getWebSink().sendBatch(usageDataList, url, log);
+                allSucceeded &= (stored.contains(Boolean.FALSE) == false);
+            } else {
+                for (UsageData oneUsageData : usageDataList) {
+                    allSucceeded &= this.sendDataToLocation(oneUsageData, oneLocation, new SendCancellation(), log);
+                }
+            }
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Collects the data of the current module for the aggregated report, which will be sent at the end of the build.
+     * @param usageData usage data of the current module
+     * @param locations locations to send the aggregated data to
+     * @param log       logging
+     */
+    protected void collectForAggregation(UsageData usageData, Set<String> locations, Log log) {
+        String aggregationKey = "aggregate:" + String.join("\n", locations);
+        UsageDataAggregator aggregator = this.sessionContext.getAttribute(aggregationKey,
+                UsageDataAggregator.class, UsageDataAggregator::new);
+        aggregator.add(this.session.getProjects().indexOf(this.project), usageData);
+        log.info("usage info data collected for aggregated report");
+        this.sessionContext.registerSessionEndAction(aggregationKey, () -> {
+            MavenProject topLevelProject = this.session.getTopLevelProject();
+            UsageData aggregatedData = aggregator.aggregate(io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenProject(
+                    (topLevelProject != null) ? topLevelProject : this.project));
+            log.info("sending aggregated usage info data of " + aggregator.size() + " modules ...");
+            if (this.sendData(aggregatedData, locations, log) == false) {
+                // the build cannot be failed anymore at the end of the session
+                log.error("aggregated usage info data could not be sent to all locations");
+            }
+        });
+    }
+
+    /**
+     * Filters the referenced artifacts by the configured includes and excludes, before anything is resolved.
+     * @param mavenRefArtifacts referenced Maven artifacts, can be null
+     * @param projectGatv       GATV of the project
+     * @param log               logging
+     * @return accepted artifacts, in the given order
+     */
+    protected Set<Artifact> filterReferencedArtifacts(Set<Artifact> mavenRefArtifacts, String projectGatv, Log log) {
+        if ((mavenRefArtifacts == null) || mavenRefArtifacts.isEmpty()) {
+            return mavenRefArtifacts;
+        }
+        ArtifactFilter filter = new ArtifactFilter(this.includes, this.excludes);
+        filter.setScopes(this.includeScopes, this.excludeScopes);
+        filter.setTypes(this.includeTypes, this.excludeTypes);
+        filter.setDirectDependenciesOnly((this.directDependenciesOnly != null) && (this.directDependenciesOnly));
+        if (filter.isActive() == false) {
+            return mavenRefArtifacts;
+        }
+        Set<Artifact> accepted = new LinkedHashSet<>();
+        for (Artifact oneRefArtifact : mavenRefArtifacts) {
+            if (filter.accepts(oneRefArtifact, projectGatv)) {
+                accepted.add(oneRefArtifact);
+            }
+        }
+        log.info("filtered referenced artifacts: " + accepted.size() + " of " + mavenRefArtifacts.size() + " included");
+        return accepted;
+    }
+
+    /**
+     * Asks all URL endpoints which of the referenced artifacts they have no metadata for (known-artifacts handshake),
+     * if enabled. The handshake is only done if all locations are URL endpoints, as other locations need the complete
+     * metadata. If any endpoint does not support the handshake or fails, all artifacts are resolved as usual.
+     * @param mavenRefArtifacts referenced Maven artifacts
+     * @param locations         locations the data will be sent to
+     * @param log               logging
+     * @return GATVs of the artifacts whose metadata is known to all endpoints, not null
+     */
+    protected Set<String> queryKnownArtifacts(Set<Artifact> mavenRefArtifacts, Set<String> locations, Log log) {
+        if ((this.knownArtifactsHandshake == null) || (this.knownArtifactsHandshake == false)) {
+            return Collections.emptySet();
+        }
+        List<String> urls = new ArrayList<>(locations.size());
+        for (String oneLocation : locations) {
+            String target = stripEncodingOption(oneLocation);
+            if ((target.startsWith("http://") == false) && (target.startsWith("https://") == false)) {
+                log.info("known-artifacts handshake skipped, location '" + target + "' needs complete metadata");
+                return Collections.emptySet();
+            }
+            urls.add(target);
+        }
+        Set<String> gatvs = new LinkedHashSet<>();
+        for (Artifact oneRefArtifact : mavenRefArtifacts) {
+            gatvs.add(io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(oneRefArtifact).getGatv());
+        }
+        Gson gson = SharedGson.compact();
+        KnownArtifactsQuery query = new KnownArtifactsQuery(new ArrayList<>(gatvs));
+        Set<String> known = new LinkedHashSet<>(gatvs);
+        WebSink webSink = this.getWebSink();
+        for (String oneUrl : urls) {
+            String knownUrl = WebSink.appendPath(oneUrl, "/known");
+            try {
+                HttpResult result = webSink.sendJson(query, knownUrl, gson);
+                Set<String> unknown = KnownArtifactsQuery.parseUnknownArtifacts(result, gson);
+                if (unknown == null) {
+                    log.info("known-artifacts handshake not supported by '" + knownUrl + "' (http " + result.getCode()
+                            + "), sending complete metadata");
+                    return Collections.emptySet();
+                }
+                known.removeAll(unknown);
+            } catch (IOException ex) {
+                log.warn("exception in known-artifacts handshake with '" + knownUrl + "', sending complete metadata: " + ex);
+                return Collections.emptySet();
+            }
+        }
+        log.info("known-artifacts handshake: " + known.size() + " of " + gatvs.size()
+                + " referenced artifacts are known to the collector and will be sent without metadata");
+        return known;
+    }
+
+    /**
+     * Resolves the data of all given referenced artifacts, either one after another or in parallel.
+     * The order of the returned list always follows the iteration order of the given artifacts.
+     * Artifacts whose resolution does not finish within the timeout or budget are returned with their coordinates only
+     * and recorded as timed out, artifacts whose resolution throws an exception are returned with the failure reason.
+     * @param mavenRefArtifacts referenced Maven artifacts
+     * @param log               logging
+     * @return list with resolved artifacts, not null
+     * @throws MojoExecutionException if parallel resolution was interrupted
+     */
+    protected List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> resolveReferencedArtifacts(
+            Set<Artifact> mavenRefArtifacts, Log log) throws MojoExecutionException {
+        List<io.github.nilscoding.maven.sendusageinfos.data.Artifact> refArtifacts = new LinkedList<>();
+        int threads = (this.resolverThreads != null) ? Math.min(this.resolverThreads, mavenRefArtifacts.size()) : 1;
+        long timeoutMillis = toLong(this.artifactResolutionTimeout) * MILLIS_PER_SECOND;
+        long budgetMillis = toLong(this.resolutionBudget) * MILLIS_PER_SECOND;
+        if ((threads <= 1) && (timeoutMillis <= 0) && (budgetMillis <= 0)) {
+            for (final Artifact oneRefArtifact : mavenRefArtifacts) {
+                io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact;
+                try {
+                    refArtifact = this.resolveReferencedArtifact(oneRefArtifact);
+                } catch (RuntimeException ex) {
+                    refArtifact = this.fromFailedResolution(oneRefArtifact, ex, log);
+                }
+                if (refArtifact != null) {
+                    refArtifacts.add(refArtifact);
+                }
+            }
+            return refArtifacts;
+        }
+        log.debug("resolving " + mavenRefArtifacts.size() + " artifacts using " + Math.max(threads, 1) + " threads");
+        List<Artifact> orderedRefArtifacts = new ArrayList<>(mavenRefArtifacts);
+        List<Callable<io.github.nilscoding.maven.sendusageinfos.data.Artifact>> resolutions = new ArrayList<>(orderedRefArtifacts.size());
+        for (final Artifact oneRefArtifact : orderedRefArtifacts) {
+            resolutions.add(() -> this.resolveReferencedArtifact(oneRefArtifact));
+        }
+        TimeBoundedResolver<io.github.nilscoding.maven.sendusageinfos.data.Artifact> resolver =
+                new TimeBoundedResolver<>(threads, timeoutMillis, budgetMillis, this.executionStartNanos);
+        List<TimeBoundedResolver.Outcome<io.github.nilscoding.maven.sendusageinfos.data.Artifact>> outcomes;
+        try {
+            outcomes = resolver.resolve(resolutions);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("interrupted while resolving referenced artifacts", ex);
+        }
+        // outcomes are in submission order, which keeps the output deterministic
+        for (int i = 0; i < outcomes.size(); i++) {
+            TimeBoundedResolver.Outcome<io.github.nilscoding.maven.sendusageinfos.data.Artifact> oneOutcome = outcomes.get(i);
+            if (oneOutcome.isTimedOut()) {
+                io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact =
+                        io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(orderedRefArtifacts.get(i));
+                this.timedOutArtifacts.add(refArtifact.getGatv());
+                refArtifacts.add(refArtifact);
+            } else if (oneOutcome.getFailure() != null) {
+                refArtifacts.add(this.fromFailedResolution(orderedRefArtifacts.get(i), oneOutcome.getFailure(), log));
+            } else if (oneOutcome.getResult() != null) {
+                refArtifacts.add(oneOutcome.getResult());
+            }
+        }
+        return refArtifacts;
+    }
+
+    /**
+     * Creates the artifact data for a referenced Maven artifact, including metadata from its resolved project.
+     * Artifacts whose project could not be resolved are kept without metadata, but with the failure reason.
+     * Artifacts known to the URL endpoints (see {@link #queryKnownArtifacts(Set, Set, Log)}) and artifacts with
+     * a cached resolution failure are not resolved at all.
+     * @param mavenRefArtifact referenced Maven artifact
+     * @return artifact data
+     */
+    protected io.github.nilscoding.maven.sendusageinfos.data.Artifact resolveReferencedArtifact(Artifact mavenRefArtifact) {
+        io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact =
+                io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(mavenRefArtifact);
+        if (this.knownArtifacts.contains(refArtifact.getGatv())) {
+            this.recordArtifactResolution(mavenRefArtifact, 0L, ResolutionOutcome.KNOWN);
+            return refArtifact;
+        }
+        FailedResolutionCache failedCache = this.failedResolutionCache;
+        String cachedFailure = (failedCache != null) ? failedCache.get(getFailureKey(mavenRefArtifact)) : null;
+        if (cachedFailure != null) {
+            this.recordArtifactResolution(mavenRefArtifact, 0L, ResolutionOutcome.SKIPPED);
+            return this.withResolutionFailure(refArtifact, cachedFailure);
+        }
+        long start = System.nanoTime();
+        ArtifactMetadata metadata = this.resolveMetadata(mavenRefArtifact);
+        this.recordArtifactResolution(mavenRefArtifact, System.nanoTime() - start,
+                (metadata != null) ? ResolutionOutcome.RESOLVED : ResolutionOutcome.FAILED);
+        if (metadata == null) {
+            String reason = (failedCache != null) ? failedCache.getReason(getFailureKey(mavenRefArtifact)) : null;
+            return this.withResolutionFailure(refArtifact, (reason != null) ? reason : UNKNOWN_FAILURE_REASON);
+        }
+        metadata.applyTo(refArtifact);
+        return refArtifact;
+    }
+
+    /**
+     * Creates the artifact data for a referenced Maven artifact whose resolution threw an exception.
+     * The failure is recorded in the resolution failure cache, the artifact is kept without metadata.
+     * @param mavenRefArtifact referenced Maven artifact
+     * @param failure          exception thrown by the resolution
+     * @param log              logging
+     * @return artifact data with the failure reason
+     */
+    protected io.github.nilscoding.maven.sendusageinfos.data.Artifact fromFailedResolution(Artifact mavenRefArtifact, Throwable failure, Log log) {
+        String reason = describeResolutionFailure(failure);
+        log.warn("exception resolving artifact " + mavenRefArtifact.getId() + ": " + reason);
+        log.debug("resolution failure of " + mavenRefArtifact.getId(), failure);
+        this.recordResolutionFailure(mavenRefArtifact, reason);
+        this.recordArtifactResolution(mavenRefArtifact, 0L, ResolutionOutcome.FAILED);
+        return this.withResolutionFailure(io.github.nilscoding.maven.sendusageinfos.data.Artifact.fromMavenArtifact(mavenRefArtifact), reason);
+    }
+
+    /**
+     * Marks a referenced artifact as sent without metadata because its resolution failed.
+     * @param refArtifact referenced artifact
+     * @param reason      failure reason
+     * @return the given artifact
+     */
+    protected io.github.nilscoding.maven.sendusageinfos.data.Artifact withResolutionFailure(
+            io.github.nilscoding.maven.sendusageinfos.data.Artifact refArtifact, String reason) {
+        refArtifact.setResolutionFailure(reason);
+        if (this.isOfflineResolution()) {
+            this.unenrichedArtifacts.add(refArtifact.getGatv());
+        }
+        return refArtifact;
+    }
+
+    /**
+     * Records the outcome of resolving a referenced artifact in the metrics of the execution (if recording).
+     * @param mavenRefArtifact referenced Maven artifact
+     * @param nanos            duration in nanoseconds
+     * @param outcome          outcome
+     */
+    protected void recordArtifactResolution(Artifact mavenRefArtifact, long nanos, ResolutionOutcome outcome) {
+        if (this.metricsRecorder != null) {
+            this.metricsRecorder.recordArtifactResolution(mavenRefArtifact.getId(), nanos, outcome);
+        }
+    }
+
+    /**
+     * Resolves the metadata of a referenced Maven artifact, using the session cache if enabled.
+     * @param mavenRefArtifact referenced Maven artifact
+     * @return metadata or null if the artifact's project could not be resolved
+     */
+    protected ArtifactMetadata resolveMetadata(Artifact mavenRefArtifact) {
+        if (mavenRefArtifact == null) {
+            return null;
+        }
+        if ((this.sessionContext == null) || ((this.sessionCache != null) && (this.sessionCache == false))) {
+            return this.resolveMetadataViaCache(mavenRefArtifact);
+        }
+        String key = mavenRefArtifact.getGroupId() + ":" + mavenRefArtifact.getArtifactId() + ":" + mavenRefArtifact.getVersion();
+        return this.sessionContext.getResolutionCache().get(key, () -> this.resolveMetadataViaCache(mavenRefArtifact));
+    }
+
+    /**
+     * Resolves the metadata of a referenced Maven artifact, using the persistent metadata cache if enabled.
+     * @param mavenRefArtifact referenced Maven artifact
+     * @return metadata or null if the artifact's project could not be resolved
+     */
+    protected ArtifactMetadata resolveMetadataViaCache(Artifact mavenRefArtifact) {
+        DiskMetadataCache cache = this.diskMetadataCache;
+        String gav = null;
+        String stamp = null;
+        if (cache != null) {
+            gav = mavenRefArtifact.getGroupId() + ":" + mavenRefArtifact.getArtifactId() + ":" + mavenRefArtifact.getBaseVersion();
+            if (mavenRefArtifact.isSnapshot()) {
+                stamp = this.getPomStamp(mavenRefArtifact);
+                if (stamp == null) {
+                    // without a local POM there is nothing to validate a cached SNAPSHOT entry against
+                    cache = null;
+                }
+            }
+        }
+        if (cache != null) {
+            ArtifactMetadata cachedMetadata = cache.get(gav, stamp);
+            if (cachedMetadata != null) {
+                return cachedMetadata;
+            }
+        }
+        ArtifactMetadata metadata = this.resolveMetadataViaEngine(mavenRefArtifact);
+        if ((cache != null) && (metadata != null)) {
+            cache.put(gav, stamp, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Resolves the metadata of a referenced Maven artifact, using the configured resolution engine.
+     * @param mavenRefArtifact referenced Maven artifact
+     * @return metadata or null if the artifact's project could not be resolved
+     */
+    protected ArtifactMetadata resolveMetadataViaEngine(Artifact mavenRefArtifact) {
+        String engine = (this.resolutionEngine != null) ? this.resolutionEngine.trim() : ENGINE_PROJECT_BUILDER;
+        if (ENGINE_PROJECT_BUILDER.equalsIgnoreCase(engine)) {
+            return ArtifactMetadata.fromMavenProject(this.resolveProjectViaRepo(mavenRefArtifact));
+        }
+        ArtifactMetadata pomMetadata = this.getPomMetadataReader().read(mavenRefArtifact.getGroupId(),
+                mavenRefArtifact.getArtifactId(), mavenRefArtifact.getVersion());
+        if (ENGINE_COMPARE.equalsIgnoreCase(engine)) {
+            ArtifactMetadata projectMetadata = ArtifactMetadata.fromMavenProject(this.resolveProjectViaRepo(mavenRefArtifact));
+            if (projectMetadata != null) {
+                List<String> differences = projectMetadata.getDifferences(pomMetadata);
+                if (differences.isEmpty() == false) {
+                    getLog().warn("resolution engines differ for " + mavenRefArtifact.getId() + ": "
+                            + String.join("; ", differences));
+                }
+            }
+            return projectMetadata;
+        }
+        if (pomMetadata == null) {
+            // POM (or a required parent POM) not available in local repository, fall back to full project building
+            return ArtifactMetadata.fromMavenProject(this.resolveProjectViaRepo(mavenRefArtifact));
+        }
+        return pomMetadata;
+    }
+
+    /**
+     * Returns the resolution engine whose results are stored in the persistent metadata cache. The <code>compare</code>
+     * engine returns the results of the <code>project-builder</code> engine, so both share their cache entries.
+     * @return resolution engine
+     */
+    protected String getCachedResolutionEngine() {
+        String engine = (this.resolutionEngine != null) ? this.resolutionEngine.trim() : ENGINE_PROJECT_BUILDER;
+        if (ENGINE_PROJECT_BUILDER.equalsIgnoreCase(engine) || ENGINE_COMPARE.equalsIgnoreCase(engine)) {
+            return ENGINE_PROJECT_BUILDER;
+        }
+        return ENGINE_POM_READER;
+    }
+
+    /**
+     * Returns the POM metadata reader, which is shared by all Mojo executions of the build session.
+     * @return POM metadata reader
+     */
+    protected PomMetadataReader getPomMetadataReader() {
+        if (this.sessionContext == null) {
+            return new PomMetadataReader(this::getLocalPomFile);
+        }
+        return this.sessionContext.getAttribute("pom-metadata-reader", PomMetadataReader.class,
+                () -> new PomMetadataReader(this::getLocalPomFile));
+    }
+
+    /**
+     * Returns the POM file of an artifact in the local repository.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param version    version
+     * @return POM file or null on error (the file might not exist)
+     */
+    protected File getLocalPomFile(String groupId, String artifactId, String version) {
+        try {
+            LocalRepositoryManager localRepoManager = this.session.getRepositorySession().getLocalRepositoryManager();
+            String pomPath = localRepoManager.getPathForLocalArtifact(new DefaultArtifact(groupId, artifactId, "pom", version));
+            return new File(localRepoManager.getRepository().getBasedir(), pomPath);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a stamp (last modification time and size) of the artifact's POM file in the local repository.
+     * @param mavenArtifact Maven artifact
+     * @return stamp or null if the POM file is not available locally
+     */
+    protected String getPomStamp(Artifact mavenArtifact) {
+        File pomFile = this.getLocalPomFile(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(), mavenArtifact.getVersion());
+        if ((pomFile == null) || (pomFile.isFile() == false)) {
+            return null;
+        }
+        return pomFile.lastModified() + ":" + pomFile.length();
+    }
+
+    /**
+     * Resolves a Maven project via Artifact info. Failures are recorded in the resolution failure cache.
      * @param artifact artifact used for resolving
-     * @return Maven project
+     * @return Maven project or null on error
      */
     protected MavenProject resolveProjectViaRepo(Artifact artifact) {
         if (artifact == null) {
@@ -187,66 +1209,249 @@ public class SendUsageInfoMojo extends AbstractMojo {
         try {
             ProjectBuildingRequest projectBuildingRequest = new DefaultProjectBuildingRequest();
             projectBuildingRequest.setLocalRepository(this.session.getLocalRepository());
-            projectBuildingRequest.setRepositorySession(this.session.getRepositorySession());
+            projectBuildingRequest.setRepositorySession(this.getResolutionRepositorySession());
             ProjectBuildingResult pbRes = this.mavenProjectBuilder.build(artifact, projectBuildingRequest);
+            if (pbRes.getProject() == null) {
+                this.recordResolutionFailure(artifact, "no project built");
+            }
             return pbRes.getProject();
         } catch (Exception ex) {
+            if (isCausedByInterrupt(ex)) {
+                // restore the flag (the cause may have been wrapped), so the cancelled resolution is not cached
+                Thread.currentThread().interrupt();
+            } else {
+                this.recordResolutionFailure(artifact, describeResolutionFailure(ex));
+            }
             return null;
         }
     }
 
     /**
-     * Sends the data via HTTP/HTTPS.
-     * @param usageData usage data to send
-     * @param sendToUrl url to send data to
-     * @param log       logging
+     * Records the resolution failure of an artifact. The failure is only cached on disk when resolving online, because
+     * failures in offline resolution mode would otherwise prevent online builds from resolving the artifact.
+     * @param artifact artifact that could not be resolved
+     * @param reason   failure reason
      */
-    protected void sendDataViaWeb(UsageData usageData, String sendToUrl, Log log) {
-        if (usageData == null) {
+    protected void recordResolutionFailure(Artifact artifact, String reason) {
+        FailedResolutionCache failedCache = this.failedResolutionCache;
+        if ((failedCache == null) || Thread.currentThread().isInterrupted()) {
+            // cancelled resolutions are reported as timed out instead
             return;
         }
-        try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            // pretty-printing for web requests is disabled by default
-            if ((this.prettyPrint != null) && (this.prettyPrint == true)) {
-                gsonBuilder.setPrettyPrinting();
-            }
-            Gson gson = gsonBuilder.create();
-            String bodyContent = gson.toJson(usageData);
-
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .followRedirects(true)
-                    .followSslRedirects(true)
-                    .hostnameVerifier((hostname, sslSession) -> true)
-                    .build();
-            Request.Builder reqBuilder = new Request.Builder()
-                    .url(sendToUrl);
-            if ((this.urlAuthHeader != null) && (this.urlAuthHeader.isEmpty() == false)) {
-                reqBuilder.addHeader("Authorization", this.urlAuthHeader);
-            }
-            RequestBody reqBody = RequestBody.create(bodyContent, MediaType.get("application/json"));
-            reqBuilder.method(this.urlMethod, reqBody);
-            Request req = reqBuilder.build();
-            log.info("sending usage info data to '" + sendToUrl + "' ...");
-            Call call = client.newCall(req);
-            try (Response resp = call.execute()) {
-                int respCode = resp.code();
-                log.info("data sent (http " + respCode + ")");
+        failedCache.put(getFailureKey(artifact), reason, this.isOfflineResolution() == false);
+    }
+
+    /**
+     * Returns the resolution failure cache, which is shared by all Mojo executions of the build session.
+     * A summary of all failures is logged at the end of the build.
+     * @param log logging
+     * @return resolution failure cache
+     */
+    protected FailedResolutionCache getFailedResolutionCache(Log log) {
+        long ttlMillis = TimeUnit.HOURS.toMillis(toLong(this.failedResolutionTtlHours));
+        FailedResolutionCache failedCache = this.sessionContext.getAttribute("failed-resolution-cache", FailedResolutionCache.class,
+                () -> new FailedResolutionCache(this.failedResolutionCacheDirectory, ttlMillis));
+        this.sessionContext.registerSessionEndAction("failed-resolution-summary", () -> reportResolutionFailures(failedCache, log));
+        return failedCache;
+    }
+
+    /**
+     * Logs a summary of the resolution failures of the build, grouped by reason, and removes expired failures from disk.
+     * @param failedCache resolution failure cache
+     * @param log         logging
+     */
+    protected static void reportResolutionFailures(FailedResolutionCache failedCache, Log log) {
+        if (failedCache.size() > 0) {
+            String cacheInfo = (failedCache.getDiskHits() > 0)
+                    ? " (" + failedCache.getDiskHits() + " of them cached by earlier builds and not resolved again)" : "";
+            log.warn("metadata resolution failed for " + failedCache.size() + " artifacts" + cacheInfo + ", by reason:");
+            Map<String, List<String>> failuresByReason = failedCache.getFailuresByReason();
+            int reasonCount = 0;
+            for (Map.Entry<String, List<String>> oneReason : failuresByReason.entrySet()) {
+                reasonCount++;
+                if (reasonCount <= MAX_SUMMARY_FAILURE_REASONS) {
+                    log.warn("  " + oneReason.getValue().size() + "x " + oneReason.getKey());
+                }
+                log.debug("failed with reason '" + oneReason.getKey() + "': " + String.join(", ", oneReason.getValue()));
             }
-        } catch (Exception ex) {
-            log.error("exception sending data via web: " + ex);
+            if (reasonCount > MAX_SUMMARY_FAILURE_REASONS) {
+                log.warn("  ... and " + (reasonCount - MAX_SUMMARY_FAILURE_REASONS) + " more reasons (see debug output)");
+            }
+        }
+        int evicted = failedCache.evictExpired();
+        if (evicted > 0) {
+            log.debug("evicted " + evicted + " expired entries from resolution failure cache");
+        }
+    }
+
+    /**
+     * Returns the key of an artifact in the resolution failure cache.
+     * @param artifact artifact
+     * @return key (groupId:artifactId:version)
+     */
+    protected static String getFailureKey(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+
+    /**
+     * Describes the reason of a failed project resolution. For project building errors, this is the message of the
+     * first error (e.g. a non-resolvable parent POM), otherwise the first line of the exception message.
+     * @param ex exception of the failed resolution
+     * @return failure reason, not null
+     */
+    protected static String describeResolutionFailure(Throwable ex) {
+        String reason = null;
+        if ((ex instanceof ProjectBuildingException) && (((ProjectBuildingException) ex).getResults() != null)) {
+            for (ProjectBuildingResult oneResult : ((ProjectBuildingException) ex).getResults()) {
+                for (ModelProblem oneProblem : oneResult.getProblems()) {
+                    if ((reason == null) && (oneProblem.getSeverity() != ModelProblem.Severity.WARNING)) {
+                        reason = oneProblem.getMessage();
+                    }
+                }
+            }
+        }
+        if (reason == null) {
+            reason = ex.getMessage();
+        }
+        if ((reason == null) || reason.trim().isEmpty()) {
+            return ex.getClass().getSimpleName();
+        }
+        reason = reason.trim();
+        int lineEnd = reason.indexOf('\n');
+        if (lineEnd > 0) {
+            reason = reason.substring(0, lineEnd).trim();
+        }
+        if (reason.length() > MAX_FAILURE_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_FAILURE_REASON_LENGTH) + "...";
+        }
+        return reason;
+    }
+
+    /**
+     * Checks if an exception was caused by interrupting the resolving thread (i.e. by cancelling the resolution).
+     * @param ex exception
+     * @return true if caused by an interrupt
+     */
+    protected static boolean isCausedByInterrupt(Throwable ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if ((cause instanceof InterruptedException) || (cause instanceof ClosedByInterruptException)) {
+                return true;
+            }
+            cause = (cause.getCause() != cause) ? cause.getCause() : null;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the repository session for resolving projects. In offline resolution mode, this is an offline copy of
+     * the build's repository session, shared by all Mojo executions of the build session: POMs are only read from the
+     * local repository and the reactor, and remote repositories (including those declared in POMs) are never accessed.
+     * @return repository session
+     */
+    protected RepositorySystemSession getResolutionRepositorySession() {
+        RepositorySystemSession repoSession = this.session.getRepositorySession();
+        if ((this.isOfflineResolution() == false) || repoSession.isOffline()) {
+            return repoSession;
+        }
+        if (this.sessionContext == null) {
+            return new DefaultRepositorySystemSession(repoSession).setOffline(true);
+        }
+        return this.sessionContext.getAttribute("offline-repository-session", RepositorySystemSession.class,
+                () -> new DefaultRepositorySystemSession(repoSession).setOffline(true));
+    }
+
+    /**
+     * Checks if offline resolution mode is enabled.
+     * @return true if enabled
+     */
+    protected boolean isOfflineResolution() {
+        return (this.offlineResolution != null) && (this.offlineResolution);
+    }
+
+    /**
+     * Returns the sink for URL endpoints, configured by the Mojo parameters.
+     * @return web sink
+     */
+    protected WebSink getWebSink() {
+        WebSink webSink = new WebSink(this.getHttpClient(), this.urlMethod, this.urlAuthHeader);
+        webSink.setCompression(this.httpCompression, (this.httpCompressionThreshold != null) ? this.httpCompressionThreshold : 0L);
+        webSink.setRetry(this.getRetryPolicy(), TimeUnit.SECONDS.toMillis(toLong(this.retryBudget)));
+        webSink.setOutbox(this.getOutbox(), (this.outboxReplayBatchSize != null) ? this.outboxReplayBatchSize : 0);
+        if ((this.deltaSend != null) && (this.deltaSend)) {
+            webSink.setDeltaStateDirectory(this.deltaStateDirectory);
+        }
+        webSink.setBatchSend(this.isBatchSend());
+        // pretty-printing for web requests is disabled by default
+        webSink.setPrettyPrint((this.prettyPrint != null) && (this.prettyPrint == true));
+        return webSink;
+    }
+
+    /**
+     * Checks if usage data is sent to URL endpoints in batches.
+     * @return true if batch sending is enabled
+     */
+    protected boolean isBatchSend() {
+        return (this.batchSend != null) && (this.batchSend);
+    }
+
+    /**
+     * Returns the outbox.
+     * @return outbox or null if disabled
+     */
+    protected Outbox getOutbox() {
+        if ((this.outbox == null) || (this.outbox == false) || (this.outboxDirectory == null)) {
+            return null;
         }
+        int maxEntries = (this.outboxMaxEntries != null) ? this.outboxMaxEntries : 0;
+        long maxAgeMillis = TimeUnit.HOURS.toMillis(toLong(this.outboxMaxAgeHours));
+        return new Outbox(this.outboxDirectory, maxEntries, maxAgeMillis);
+    }
+
+    /**
+     * Returns the retry policy for sending data via web.
+     * @return retry policy
+     */
+    protected RetryPolicy getRetryPolicy() {
+        return new RetryPolicy(RETRY_BASE_DELAY_MILLIS, RETRY_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Returns the HTTP client with the configured timeouts. The client's connection pool is shared by all sends of the build.
+     * @return HTTP client
+     */
+    protected OkHttpClient getHttpClient() {
+        SharedHttpClient sharedClient = this.sessionContext.getAttribute("http-client", SharedHttpClient.class, () -> {
+            SharedHttpClient newClient = new SharedHttpClient();
+            this.sessionContext.registerSessionResource(newClient);
+            return newClient;
+        });
+        return sharedClient.getClient(toLong(this.httpConnectTimeout), toLong(this.httpReadTimeout), toLong(this.httpWriteTimeout));
+    }
+
+    /**
+     * Converts a nullable number to a long value.
+     * @param value value, can be null
+     * @return long value, 0 for null
+     */
+    private static long toLong(Integer value) {
+        return (value != null) ? value.longValue() : 0L;
     }
 
     /**
-     * Sends the data to local file.
+     * Sends the data to local file. The data is written to a temporary file first, which is only renamed to the target
+     * file if the send has not been cancelled meanwhile.
      * @param usageData    usage data to send
      * @param fileLocation file location to write to
+     * @param encoding     encoding, null for detecting it by the file extension (JSON if unknown)
+     * @param cancellation cancellation of the send if it does not finish in time
      * @param log          logging
+     * @return true if the data has been written, false otherwise
      */
-    protected void sendDataToFile(UsageData usageData, String fileLocation, Log log) {
+    protected boolean sendDataToFile(UsageData usageData, String fileLocation, UsageDataEncoding encoding,
+            SendCancellation cancellation, Log log) {
         if (usageData == null) {
-            return;
+            return false;
         }
         try {
             String location = fileLocation;
@@ -258,52 +1463,78 @@ public class SendUsageInfoMojo extends AbstractMojo {
                 if (!location.endsWith(File.separator)) {
                     location = location + File.separator;
                 }
-                location = location + "usage-infos.json";
+                location = location + "usage-infos" + ((encoding != null) ? encoding.getFileExtension() : ".json");
                 f = new File(location);
             }
+            UsageDataEncoding fileEncoding = (encoding != null) ? encoding : UsageDataEncoding.fromFileName(location);
+            if (fileEncoding == null) {
+                fileEncoding = UsageDataEncoding.JSON;
+            }
             if (f.isFile()) {
                 log.warn("file '" + location + "' exists and will not be overwritten");
+                return false;
             } else {
-                GsonBuilder gsonBuilder = new GsonBuilder();
-                // pretty-printing for web requests is enabled by default
-                if ((this.prettyPrint == null) || (this.prettyPrint == true)) {
-                    gsonBuilder.setPrettyPrinting();
-                }
-                Gson gson = gsonBuilder.create();
-                try (Writer writer = new OutputStreamWriter(new FileOutputStream(f, false), StandardCharsets.UTF_8)) {
-                    log.info("writing usage info data to '" + location + "' ...");
-                    gson.toJson(usageData, writer);
-                    writer.flush();
+                // pretty-printing is enabled by default for plain JSON files only
+                boolean usePrettyPrint = (fileEncoding == UsageDataEncoding.JSON)
+                        ? ((this.prettyPrint == null) || (this.prettyPrint == true))
+                        : ((this.prettyPrint != null) && (this.prettyPrint == true));
+                Gson gson = SharedGson.get(usePrettyPrint);
+                Path tempFile = Files.createTempFile(f.getAbsoluteFile().getParentFile().toPath(), f.getName() + ".", ".tmp");
+                try {
+                    log.info("writing usage info data to '" + location + "' (" + fileEncoding.getId() + ") ...");
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                        fileEncoding.write(usageData, gson, out);
+                    }
+                    // file I/O ignores interrupts, so a timed out send must not publish its file
+                    if (cancellation.isCancelled()) {
+                        log.warn("sending has been cancelled, file '" + location + "' has not been written");
+                        return false;
+                    }
+                    // fails if the file has been created meanwhile, which will not be overwritten either
+                    Files.move(tempFile, f.toPath());
                     log.info("data has been written to file");
+                    return true;
                 } catch (IOException ioEx) {
                     log.error("exception sending data to file: " + ioEx);
+                    return false;
+                } finally {
+                    Files.deleteIfExists(tempFile);
                 }
             }
         } catch (Exception ex) {
             log.error("exception sending data to file: " + ex);
+            return false;
         }
     }
 
+    /**
+     * Returns the sink for history locations, configured by the Mojo parameters.
+     * @return history sink
+     */
+    protected HistorySink getHistorySink() {
+        long maxFileSize = toLong(this.historyMaxFileSize) * BYTES_PER_MB;
+        long maxFileAgeMillis = TimeUnit.HOURS.toMillis(toLong(this.historyRotateHours));
+        int maxFiles = (this.historyMaxFiles != null) ? this.historyMaxFiles : 0;
+        return new HistorySink(maxFileSize, maxFileAgeMillis, maxFiles);
+    }
+
     /**
      * Displays the data in build log.
      * @param usageData usage data to display
      * @param logInfo   log info
      * @param log       logging
+     * @return true if the data has been logged, false otherwise
      */
-    protected void sendDataToLog(UsageData usageData, String logInfo, Log log) {
+    protected boolean sendDataToLog(UsageData usageData, String logInfo, Log log) {
         if (usageData == null) {
-            return;
+            return false;
         }
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
             // pretty-printing is enabled by default for log output
             boolean usePrettyPrint = (this.prettyPrint == null) || (this.prettyPrint);
             if (logInfo.contains("(single-line)")) {
                 usePrettyPrint = false;
             }
-            if (usePrettyPrint) {
-                gsonBuilder.setPrettyPrinting();
-            }
             Consumer<String> logTarget = log::info;
             if (logInfo != null) {
                 if (logInfo.startsWith("@logging:debug")) {
@@ -315,62 +1546,13 @@ public class SendUsageInfoMojo extends AbstractMojo {
                 }
             }
             Writer sw = new LineBasedWriter(logTarget);
-            Gson gson = gsonBuilder.create();
+            Gson gson = SharedGson.get(usePrettyPrint);
             gson.toJson(usageData, sw);
             sw.flush();
+            return true;
         } catch (Exception ex) {
             log.error("exception sending data to log: " + ex);
-        }
-    }
-
-    /**
-     * Line-based writer, forwarding each line to the given consumer.
-     */
-    private static class LineBasedWriter extends Writer {
-        /**
-         * Temporary line buffer.
-         */
-        private final StringBuilder buffer = new StringBuilder();
-        /**
-         * Target consumer to write to.
-         */
-        private final Consumer<String> consumer;
-
-        /**
-         * Creates a new instance with given consumer.
-         * @param consumer consumer
-         */
-        LineBasedWriter(Consumer<String> consumer) {
-            this.consumer = consumer;
-        }
-
-        @Override
-        public void write(char[] cbuf, int off, int len) {
-            for (int i = off; i < off + len; i++) {
-                char c = cbuf[i];
-                if (c == '\n' || c == '\r') {
-                    this.writeBufferToConsumer();
-                } else {
-                    buffer.append(c);
-                }
-            }
-        }
-
-        @Override
-        public void flush() {
-            this.writeBufferToConsumer();
-        }
-
-        @Override
-        public void close() {
-            this.writeBufferToConsumer();
-        }
-
-        private void writeBufferToConsumer() {
-            if (buffer.length() > 0) {
-                this.consumer.accept(buffer.toString());
-                buffer.setLength(0);
-            }
+            return false;
         }
     }
 
@@ -1,13 +1,16 @@
 package io.github.nilscoding.maven.sendusageinfos.data;
 
+import com.google.gson.annotations.JsonAdapter;
 import org.apache.maven.project.MavenProject;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Artifact information.
  * @author NilsCoding
  */
+@JsonAdapter(DataTypeAdapters.ArtifactAdapter.class)
 public class Artifact implements Serializable {
     private static final long serialVersionUID = 5497108326195918954L;
 
@@ -51,6 +54,18 @@ public class Artifact implements Serializable {
      * Dependency trail.
      */
     protected List<String> dependencyTrail;
+    /**
+     * GATVs of the modules using this artifact (only for aggregated usage data).
+     */
+    protected List<String> usedBy;
+    /**
+     * Node ID in the dependency graph of the usage data (only with graph encoding, replacing the dependency trail).
+     */
+    protected Integer graphNode;
+    /**
+     * Reason why the artifact's metadata could not be resolved (only for artifacts sent without metadata).
+     */
+    protected String resolutionFailure;
 
     /**
      * Creates a new instance.
@@ -97,6 +112,28 @@ public class Artifact implements Serializable {
         return artifact;
     }
 
+    /**
+     * Creates a copy of this artifact. Lists will be copied, but not their elements.
+     * @return copy of this artifact
+     */
+    public Artifact copy() {
+        Artifact artifact = new Artifact();
+        artifact.setGroupId(this.groupId);
+        artifact.setArtifactId(this.artifactId);
+        artifact.setVersion(this.version);
+        artifact.setScope(this.scope);
+        artifact.setPackaging(this.packaging);
+        artifact.setLicenses((this.licenses != null) ? new ArrayList<>(this.licenses) : null);
+        artifact.setName(this.name);
+        artifact.setDescription(this.description);
+        artifact.setWebsiteUrl(this.websiteUrl);
+        artifact.setDependencyTrail((this.dependencyTrail != null) ? new ArrayList<>(this.dependencyTrail) : null);
+        artifact.setUsedBy((this.usedBy != null) ? new ArrayList<>(this.usedBy) : null);
+        artifact.setGraphNode(this.graphNode);
+        artifact.setResolutionFailure(this.resolutionFailure);
+        return artifact;
+    }
+
     /**
      * Returns the artifact's coordinates string (in GATV format, with type).
      * @return artifact's coordinates string
@@ -279,4 +316,52 @@ public class Artifact implements Serializable {
     public void setDependencyTrail(List<String> dependencyTrail) {
         this.dependencyTrail = dependencyTrail;
     }
+
+    /**
+     * Returns the GATVs of the modules using this artifact, if any.
+     * @return GATVs of the modules using this artifact
+     */
+    public List<String> getUsedBy() {
+        return usedBy;
+    }
+
+    /**
+     * Sets the GATVs of the modules using this artifact.
+     * @param usedBy GATVs of the modules using this artifact
+     */
+    public void setUsedBy(List<String> usedBy) {
+        this.usedBy = usedBy;
+    }
+
+    /**
+     * Returns the node ID in the dependency graph (only with graph encoding).
+     * @return node ID in the dependency graph, can be null
+     */
+    public Integer getGraphNode() {
+        return graphNode;
+    }
+
+    /**
+     * Sets the node ID in the dependency graph.
+     * @param graphNode node ID in the dependency graph
+     */
+    public void setGraphNode(Integer graphNode) {
+        this.graphNode = graphNode;
+    }
+
+    /**
+     * Returns the reason why the artifact's metadata could not be resolved.
+     * @return failure reason, null if resolved (or not resolved at all)
+     */
+    public String getResolutionFailure() {
+        return resolutionFailure;
+    }
+
+    /**
+     * Sets the reason why the artifact's metadata could not be resolved.
+     * @param resolutionFailure failure reason
+     */
+    public void setResolutionFailure(String resolutionFailure) {
+        this.resolutionFailure = resolutionFailure;
+    }
 }
@@ -0,0 +1,60 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.io.Serializable;
+
+/**
+ * Resolution duration of one referenced artifact.
+ * @author NilsCoding
+ */
+@JsonAdapter(DataTypeAdapters.ArtifactTimingAdapter.class)
+public class ArtifactTiming implements Serializable {
+    private static final long serialVersionUID = -2860409369478395294L;
+
+    /**
+     * Artifact GATV (groupId:artifactId:packaging:version).
+     */
+    protected String gatv;
+    /**
+     * Resolution duration in milliseconds.
+     */
+    protected Long durationMillis;
+
+    /**
+     * Creates a new instance.
+     */
+    public ArtifactTiming() {
+    }
+
+    /**
+     * Returns the artifact GATV.
+     * @return artifact GATV
+     */
+    public String getGatv() {
+        return gatv;
+    }
+
+    /**
+     * Sets the artifact GATV.
+     * @param gatv artifact GATV to set
+     */
+    public void setGatv(String gatv) {
+        this.gatv = gatv;
+    }
+
+    /**
+     * Returns the resolution duration in milliseconds.
+     * @return resolution duration in milliseconds
+     */
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Sets the resolution duration in milliseconds.
+     * @param durationMillis resolution duration in milliseconds to set
+     */
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,728 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming type adapters of the data classes, registered via {@link com.google.gson.annotations.JsonAdapter},
+ * so serialization needs no reflection.
+ * <p>
+ * The output is identical to Gson's reflective serialization: fields are written in declaration order and
+ * null fields are handed to the writer, which omits them unless null serialization is enabled.
+ * Unknown fields are skipped when reading. New fields of the data classes must be added here as well.
+ * </p>
+ * @author NilsCoding
+ */
+public final class DataTypeAdapters {
+
+    /**
+     * Initial capacity for reading int arrays.
+     */
+    private static final int INITIAL_ARRAY_CAPACITY = 16;
+    /**
+     * Adapter for nested artifacts.
+     */
+    private static final ArtifactAdapter ARTIFACT = new ArtifactAdapter();
+    /**
+     * Adapter for nested licenses.
+     */
+    private static final LicenseAdapter LICENSE = new LicenseAdapter();
+    /**
+     * Adapter for nested dependency graphs.
+     */
+    private static final DependencyGraphAdapter DEPENDENCY_GRAPH = new DependencyGraphAdapter();
+    /**
+     * Adapter for nested execution metrics.
+     */
+    private static final ExecutionMetricsAdapter EXECUTION_METRICS = new ExecutionMetricsAdapter();
+    /**
+     * Adapter for nested artifact timings.
+     */
+    private static final ArtifactTimingAdapter ARTIFACT_TIMING = new ArtifactTimingAdapter();
+    /**
+     * Adapter for nested sink timings.
+     */
+    private static final SinkTimingAdapter SINK_TIMING = new SinkTimingAdapter();
+
+    /**
+     * Hidden constructor.
+     */
+    private DataTypeAdapters() {
+    }
+
+    /**
+     * Type adapter of {@link UsageData}.
+     */
+    public static final class UsageDataAdapter extends TypeAdapter<UsageData> {
+        @Override
+        public void write(JsonWriter out, UsageData value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("projectArtifact");
+            ARTIFACT.write(out, value.projectArtifact);
+            out.name("referencedArtifacts");
+            writeList(out, value.referencedArtifacts, ARTIFACT);
+            out.name("moduleArtifacts");
+            writeList(out, value.moduleArtifacts, ARTIFACT);
+            out.name("dependencyGraph");
+            DEPENDENCY_GRAPH.write(out, value.dependencyGraph);
+            out.name("unenrichedArtifacts");
+            writeStringList(out, value.unenrichedArtifacts);
+            out.name("partial").value(value.partial);
+            out.name("timedOutArtifacts");
+            writeStringList(out, value.timedOutArtifacts);
+            out.name("knownMetadataOmitted").value(value.knownMetadataOmitted);
+            out.name("executionMetrics");
+            EXECUTION_METRICS.write(out, value.executionMetrics);
+            out.endObject();
+        }
+
+        @Override
+        public UsageData read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            UsageData value = new UsageData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "projectArtifact":
+                        value.projectArtifact = ARTIFACT.read(in);
+                        break;
+                    case "referencedArtifacts":
+                        value.referencedArtifacts = readList(in, ARTIFACT);
+                        break;
+                    case "moduleArtifacts":
+                        value.moduleArtifacts = readList(in, ARTIFACT);
+                        break;
+                    case "dependencyGraph":
+                        value.dependencyGraph = DEPENDENCY_GRAPH.read(in);
+                        break;
+                    case "unenrichedArtifacts":
+                        value.unenrichedArtifacts = readStringList(in);
+                        break;
+                    case "partial":
+                        value.partial = readBoolean(in);
+                        break;
+                    case "timedOutArtifacts":
+                        value.timedOutArtifacts = readStringList(in);
+                        break;
+                    case "knownMetadataOmitted":
+                        value.knownMetadataOmitted = readBoolean(in);
+                        break;
+                    case "executionMetrics":
+                        value.executionMetrics = EXECUTION_METRICS.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link DeltaUsageData}.
+     */
+    public static final class DeltaUsageDataAdapter extends TypeAdapter<DeltaUsageData> {
+        @Override
+        public void write(JsonWriter out, DeltaUsageData value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("projectArtifact");
+            ARTIFACT.write(out, value.projectArtifact);
+            out.name("baseChecksum").value(value.baseChecksum);
+            out.name("checksum").value(value.checksum);
+            out.name("addedArtifacts");
+            writeList(out, value.addedArtifacts, ARTIFACT);
+            out.name("changedArtifacts");
+            writeList(out, value.changedArtifacts, ARTIFACT);
+            out.name("removedArtifacts");
+            writeStringList(out, value.removedArtifacts);
+            out.name("dependencyGraph");
+            DEPENDENCY_GRAPH.write(out, value.dependencyGraph);
+            out.name("unenrichedArtifacts");
+            writeStringList(out, value.unenrichedArtifacts);
+            out.name("partial").value(value.partial);
+            out.name("timedOutArtifacts");
+            writeStringList(out, value.timedOutArtifacts);
+            out.name("knownMetadataOmitted").value(value.knownMetadataOmitted);
+            out.name("executionMetrics");
+            EXECUTION_METRICS.write(out, value.executionMetrics);
+            out.endObject();
+        }
+
+        @Override
+        public DeltaUsageData read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            DeltaUsageData value = new DeltaUsageData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "projectArtifact":
+                        value.projectArtifact = ARTIFACT.read(in);
+                        break;
+                    case "baseChecksum":
+                        value.baseChecksum = readString(in);
+                        break;
+                    case "checksum":
+                        value.checksum = readString(in);
+                        break;
+                    case "addedArtifacts":
+                        value.addedArtifacts = readList(in, ARTIFACT);
+                        break;
+                    case "changedArtifacts":
+                        value.changedArtifacts = readList(in, ARTIFACT);
+                        break;
+                    case "removedArtifacts":
+                        value.removedArtifacts = readStringList(in);
+                        break;
+                    case "dependencyGraph":
+                        value.dependencyGraph = DEPENDENCY_GRAPH.read(in);
+                        break;
+                    case "unenrichedArtifacts":
+                        value.unenrichedArtifacts = readStringList(in);
+                        break;
+                    case "partial":
+                        value.partial = readBoolean(in);
+                        break;
+                    case "timedOutArtifacts":
+                        value.timedOutArtifacts = readStringList(in);
+                        break;
+                    case "knownMetadataOmitted":
+                        value.knownMetadataOmitted = readBoolean(in);
+                        break;
+                    case "executionMetrics":
+                        value.executionMetrics = EXECUTION_METRICS.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link Artifact}.
+     */
+    public static final class ArtifactAdapter extends TypeAdapter<Artifact> {
+        @Override
+        public void write(JsonWriter out, Artifact value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("groupId").value(value.groupId);
+            out.name("artifactId").value(value.artifactId);
+            out.name("version").value(value.version);
+            out.name("scope").value(value.scope);
+            out.name("packaging").value(value.packaging);
+            out.name("licenses");
+            writeList(out, value.licenses, LICENSE);
+            out.name("name").value(value.name);
+            out.name("description").value(value.description);
+            out.name("websiteUrl").value(value.websiteUrl);
+            out.name("dependencyTrail");
+            writeStringList(out, value.dependencyTrail);
+            out.name("usedBy");
+            writeStringList(out, value.usedBy);
+            out.name("graphNode").value(value.graphNode);
+            out.name("resolutionFailure").value(value.resolutionFailure);
+            out.endObject();
+        }
+
+        @Override
+        public Artifact read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Artifact value = new Artifact();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "groupId":
+                        value.groupId = readString(in);
+                        break;
+                    case "artifactId":
+                        value.artifactId = readString(in);
+                        break;
+                    case "version":
+                        value.version = readString(in);
+                        break;
+                    case "scope":
+                        value.scope = readString(in);
+                        break;
+                    case "packaging":
+                        value.packaging = readString(in);
+                        break;
+                    case "licenses":
+                        value.licenses = readList(in, LICENSE);
+                        break;
+                    case "name":
+                        value.name = readString(in);
+                        break;
+                    case "description":
+                        value.description = readString(in);
+                        break;
+                    case "websiteUrl":
+                        value.websiteUrl = readString(in);
+                        break;
+                    case "dependencyTrail":
+                        value.dependencyTrail = readStringList(in);
+                        break;
+                    case "usedBy":
+                        value.usedBy = readStringList(in);
+                        break;
+                    case "graphNode":
+                        value.graphNode = readInteger(in);
+                        break;
+                    case "resolutionFailure":
+                        value.resolutionFailure = readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link License}.
+     */
+    public static final class LicenseAdapter extends TypeAdapter<License> {
+        @Override
+        public void write(JsonWriter out, License value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("name").value(value.name);
+            out.name("url").value(value.url);
+            out.endObject();
+        }
+
+        @Override
+        public License read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            License value = new License();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name":
+                        value.name = readString(in);
+                        break;
+                    case "url":
+                        value.url = readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link DependencyGraph}.
+     */
+    public static final class DependencyGraphAdapter extends TypeAdapter<DependencyGraph> {
+        @Override
+        public void write(JsonWriter out, DependencyGraph value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("nodes");
+            writeStringList(out, value.nodes);
+            out.name("parents");
+            if (value.parents == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (int oneParent : value.parents) {
+                    out.value(oneParent);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public DependencyGraph read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            DependencyGraph value = new DependencyGraph();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "nodes":
+                        value.nodes = readStringList(in);
+                        break;
+                    case "parents":
+                        value.parents = readIntArray(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link ExecutionMetrics}.
+     */
+    public static final class ExecutionMetricsAdapter extends TypeAdapter<ExecutionMetrics> {
+        @Override
+        public void write(JsonWriter out, ExecutionMetrics value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("resolutionMillis").value(value.resolutionMillis);
+            out.name("resolvedArtifacts").value(value.resolvedArtifacts);
+            out.name("failedArtifacts").value(value.failedArtifacts);
+            out.name("skippedArtifacts").value(value.skippedArtifacts);
+            out.name("knownArtifacts").value(value.knownArtifacts);
+            out.name("slowestArtifacts");
+            writeList(out, value.slowestArtifacts, ARTIFACT_TIMING);
+            out.name("serializationMillis").value(value.serializationMillis);
+            out.name("payloadBytes").value(value.payloadBytes);
+            out.name("sinks");
+            writeList(out, value.sinks, SINK_TIMING);
+            out.endObject();
+        }
+
+        @Override
+        public ExecutionMetrics read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ExecutionMetrics value = new ExecutionMetrics();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "resolutionMillis":
+                        value.resolutionMillis = readLong(in);
+                        break;
+                    case "resolvedArtifacts":
+                        value.resolvedArtifacts = readInteger(in);
+                        break;
+                    case "failedArtifacts":
+                        value.failedArtifacts = readInteger(in);
+                        break;
+                    case "skippedArtifacts":
+                        value.skippedArtifacts = readInteger(in);
+                        break;
+                    case "knownArtifacts":
+                        value.knownArtifacts = readInteger(in);
+                        break;
+                    case "slowestArtifacts":
+                        value.slowestArtifacts = readList(in, ARTIFACT_TIMING);
+                        break;
+                    case "serializationMillis":
+                        value.serializationMillis = readLong(in);
+                        break;
+                    case "payloadBytes":
+                        value.payloadBytes = readLong(in);
+                        break;
+                    case "sinks":
+                        value.sinks = readList(in, SINK_TIMING);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link ArtifactTiming}.
+     */
+    public static final class ArtifactTimingAdapter extends TypeAdapter<ArtifactTiming> {
+        @Override
+        public void write(JsonWriter out, ArtifactTiming value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("gatv").value(value.gatv);
+            out.name("durationMillis").value(value.durationMillis);
+            out.endObject();
+        }
+
+        @Override
+        public ArtifactTiming read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ArtifactTiming value = new ArtifactTiming();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "gatv":
+                        value.gatv = readString(in);
+                        break;
+                    case "durationMillis":
+                        value.durationMillis = readLong(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Type adapter of {@link SinkTiming}.
+     */
+    public static final class SinkTimingAdapter extends TypeAdapter<SinkTiming> {
+        @Override
+        public void write(JsonWriter out, SinkTiming value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("location").value(value.location);
+            out.name("status").value(value.status);
+            out.name("durationMillis").value(value.durationMillis);
+            out.endObject();
+        }
+
+        @Override
+        public SinkTiming read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            SinkTiming value = new SinkTiming();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "location":
+                        value.location = readString(in);
+                        break;
+                    case "status":
+                        value.status = readString(in);
+                        break;
+                    case "durationMillis":
+                        value.durationMillis = readLong(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Writes a list of objects.
+     * @param out     JSON writer
+     * @param list    list, can be null
+     * @param adapter element adapter
+     * @param <T>     element type
+     * @throws IOException on write errors
+     */
+    private static <T> void writeList(JsonWriter out, List<T> list, TypeAdapter<T> adapter) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T oneElement : list) {
+            adapter.write(out, oneElement);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Writes a list of strings.
+     * @param out  JSON writer
+     * @param list list, can be null
+     * @throws IOException on write errors
+     */
+    private static void writeStringList(JsonWriter out, List<String> list) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String oneElement : list) {
+            out.value(oneElement);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Reads a list of objects.
+     * @param in      JSON reader
+     * @param adapter element adapter
+     * @param <T>     element type
+     * @return list or null
+     * @throws IOException on read errors
+     */
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(adapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Reads a list of strings.
+     * @param in JSON reader
+     * @return list or null
+     * @throws IOException on read errors
+     */
+    private static List<String> readStringList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(readString(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Reads an int array.
+     * @param in JSON reader
+     * @return array or null
+     * @throws IOException on read errors
+     */
+    private static int[] readIntArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int[] values = new int[INITIAL_ARRAY_CAPACITY];
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = in.nextInt();
+        }
+        in.endArray();
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Reads a string, also from a number or boolean.
+     * @param in JSON reader
+     * @return string or null
+     * @throws IOException on read errors
+     */
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a boolean, also from a string.
+     * @param in JSON reader
+     * @return boolean or null
+     * @throws IOException on read errors
+     */
+    private static Boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * Reads an integer.
+     * @param in JSON reader
+     * @return integer or null
+     * @throws IOException on read errors
+     */
+    private static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    /**
+     * Reads a long.
+     * @param in JSON reader
+     * @return long or null
+     * @throws IOException on read errors
+     */
+    private static Long readLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+}
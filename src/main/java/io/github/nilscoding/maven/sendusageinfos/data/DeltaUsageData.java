@@ -0,0 +1,261 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Delta usage data, containing only the referenced artifacts that changed since the last successfully sent usage data.
+ * @author NilsCoding
+ */
+@JsonAdapter(DataTypeAdapters.DeltaUsageDataAdapter.class)
+public class DeltaUsageData implements Serializable {
+    private static final long serialVersionUID = 8216016563906171394L;
+
+    /**
+     * Project artifact.
+     */
+    protected Artifact projectArtifact;
+    /**
+     * Checksum of the referenced artifacts this delta is based on.
+     */
+    protected String baseChecksum;
+    /**
+     * Checksum of the referenced artifacts after applying this delta.
+     */
+    protected String checksum;
+    /**
+     * Added referenced artifacts.
+     */
+    protected List<Artifact> addedArtifacts;
+    /**
+     * Changed referenced artifacts (same GATV, but different data).
+     */
+    protected List<Artifact> changedArtifacts;
+    /**
+     * GATVs of removed referenced artifacts.
+     */
+    protected List<String> removedArtifacts;
+    /**
+     * Complete dependency graph (only with graph encoding).
+     */
+    protected DependencyGraph dependencyGraph;
+    /**
+     * GATVs of referenced artifacts sent without metadata (only in offline resolution mode).
+     */
+    protected List<String> unenrichedArtifacts;
+    /**
+     * Flag for incomplete data, set if the resolution of referenced artifacts did not finish in time.
+     */
+    protected Boolean partial;
+    /**
+     * GATVs of referenced artifacts whose resolution did not finish in time (sent without metadata).
+     */
+    protected List<String> timedOutArtifacts;
+    /**
+     * Flag for omitted metadata, set if artifacts already known to the collector have been sent without metadata.
+     */
+    protected Boolean knownMetadataOmitted;
+    /**
+     * Metrics of the Mojo execution (only if attaching metrics to the payload is enabled).
+     */
+    protected ExecutionMetrics executionMetrics;
+
+    /**
+     * Creates a new instance.
+     */
+    public DeltaUsageData() {
+    }
+
+    /**
+     * Returns the project artifact data.
+     * @return project artifact data
+     */
+    public Artifact getProjectArtifact() {
+        return projectArtifact;
+    }
+
+    /**
+     * Sets the project artifact data.
+     * @param projectArtifact project artifact data to set
+     */
+    public void setProjectArtifact(Artifact projectArtifact) {
+        this.projectArtifact = projectArtifact;
+    }
+
+    /**
+     * Returns the checksum of the referenced artifacts this delta is based on.
+     * @return base checksum
+     */
+    public String getBaseChecksum() {
+        return baseChecksum;
+    }
+
+    /**
+     * Sets the checksum of the referenced artifacts this delta is based on.
+     * @param baseChecksum base checksum to set
+     */
+    public void setBaseChecksum(String baseChecksum) {
+        this.baseChecksum = baseChecksum;
+    }
+
+    /**
+     * Returns the checksum of the referenced artifacts after applying this delta.
+     * @return checksum
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Sets the checksum of the referenced artifacts after applying this delta.
+     * @param checksum checksum to set
+     */
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * Returns the added referenced artifacts.
+     * @return added referenced artifacts
+     */
+    public List<Artifact> getAddedArtifacts() {
+        return addedArtifacts;
+    }
+
+    /**
+     * Sets the added referenced artifacts.
+     * @param addedArtifacts added referenced artifacts to set
+     */
+    public void setAddedArtifacts(List<Artifact> addedArtifacts) {
+        this.addedArtifacts = addedArtifacts;
+    }
+
+    /**
+     * Returns the changed referenced artifacts.
+     * @return changed referenced artifacts
+     */
+    public List<Artifact> getChangedArtifacts() {
+        return changedArtifacts;
+    }
+
+    /**
+     * Sets the changed referenced artifacts.
+     * @param changedArtifacts changed referenced artifacts to set
+     */
+    public void setChangedArtifacts(List<Artifact> changedArtifacts) {
+        this.changedArtifacts = changedArtifacts;
+    }
+
+    /**
+     * Returns the GATVs of removed referenced artifacts.
+     * @return GATVs of removed referenced artifacts
+     */
+    public List<String> getRemovedArtifacts() {
+        return removedArtifacts;
+    }
+
+    /**
+     * Sets the GATVs of removed referenced artifacts.
+     * @param removedArtifacts GATVs of removed referenced artifacts to set
+     */
+    public void setRemovedArtifacts(List<String> removedArtifacts) {
+        this.removedArtifacts = removedArtifacts;
+    }
+
+    /**
+     * Returns the complete dependency graph (only with graph encoding).
+     * @return dependency graph
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    /**
+     * Sets the complete dependency graph (only with graph encoding).
+     * @param dependencyGraph dependency graph to set
+     */
+    public void setDependencyGraph(DependencyGraph dependencyGraph) {
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    /**
+     * Returns the GATVs of referenced artifacts sent without metadata (only in offline resolution mode).
+     * @return GATVs of referenced artifacts sent without metadata
+     */
+    public List<String> getUnenrichedArtifacts() {
+        return unenrichedArtifacts;
+    }
+
+    /**
+     * Sets the GATVs of referenced artifacts sent without metadata.
+     * @param unenrichedArtifacts GATVs of referenced artifacts sent without metadata to set
+     */
+    public void setUnenrichedArtifacts(List<String> unenrichedArtifacts) {
+        this.unenrichedArtifacts = unenrichedArtifacts;
+    }
+
+    /**
+     * Returns the flag for incomplete data, set if the resolution of referenced artifacts did not finish in time.
+     * @return true if incomplete, null otherwise
+     */
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    /**
+     * Sets the flag for incomplete data.
+     * @param partial flag for incomplete data to set
+     */
+    public void setPartial(Boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Returns the GATVs of referenced artifacts whose resolution did not finish in time.
+     * @return GATVs of timed out artifacts
+     */
+    public List<String> getTimedOutArtifacts() {
+        return timedOutArtifacts;
+    }
+
+    /**
+     * Sets the GATVs of referenced artifacts whose resolution did not finish in time.
+     * @param timedOutArtifacts GATVs of timed out artifacts to set
+     */
+    public void setTimedOutArtifacts(List<String> timedOutArtifacts) {
+        this.timedOutArtifacts = timedOutArtifacts;
+    }
+
+    /**
+     * Returns the flag for omitted metadata, set if artifacts already known to the collector have been sent without metadata.
+     * @return true if metadata has been omitted, null otherwise
+     */
+    public Boolean getKnownMetadataOmitted() {
+        return knownMetadataOmitted;
+    }
+
+    /**
+     * Sets the flag for omitted metadata.
+     * @param knownMetadataOmitted flag for omitted metadata to set
+     */
+    public void setKnownMetadataOmitted(Boolean knownMetadataOmitted) {
+        this.knownMetadataOmitted = knownMetadataOmitted;
+    }
+
+    /**
+     * Returns the metrics of the Mojo execution (only if attaching metrics to the payload is enabled).
+     * @return metrics of the Mojo execution
+     */
+    public ExecutionMetrics getExecutionMetrics() {
+        return executionMetrics;
+    }
+
+    /**
+     * Sets the metrics of the Mojo execution.
+     * @param executionMetrics metrics of the Mojo execution to set
+     */
+    public void setExecutionMetrics(ExecutionMetrics executionMetrics) {
+        this.executionMetrics = executionMetrics;
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact encoding of the resolved dependency graph: a node table with the GATV of each node (the node ID being the index)
+ * and the ID of each node's parent. The resolved graph is a tree (one path per artifact), rooted at node 0,
+ * the project artifact, whose parent is -1.
+ * <p>
+ * Each GATV occurs only once, instead of once per dependency trail it is part of.
+ * </p>
+ * @author NilsCoding
+ */
+@JsonAdapter(DataTypeAdapters.DependencyGraphAdapter.class)
+public class DependencyGraph implements Serializable {
+    private static final long serialVersionUID = -2461309337165209583L;
+
+    /**
+     * Parent ID of the root node.
+     */
+    public static final int NO_PARENT = -1;
+    /**
+     * Node ID returned for unknown GATVs.
+     */
+    public static final int NO_NODE = -1;
+    /**
+     * Initial capacity of the parents array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * GATVs of all nodes, by node ID.
+     */
+    protected List<String> nodes = new ArrayList<>();
+    /**
+     * Parent node ID of each node, by node ID.
+     */
+    protected int[] parents = new int[0];
+    /**
+     * Node IDs by GATV, built on demand.
+     */
+    private transient Map<String, Integer> nodeIds;
+
+    /**
+     * Creates a new instance.
+     */
+    public DependencyGraph() {
+    }
+
+    /**
+     * Creates the graph from the dependency trails of the given artifacts. The trails will be moved into the graph,
+     * i.e. each artifact gets its node ID assigned and its dependency trail removed.
+     * @param projectGatv GATV of the project artifact (root node)
+     * @param artifacts   referenced artifacts
+     * @return graph
+     */
+    public static DependencyGraph fromDependencyTrails(String projectGatv, List<Artifact> artifacts) {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addNode(projectGatv, NO_PARENT);
+        if (artifacts == null) {
+            return graph.trim();
+        }
+        for (Artifact oneArtifact : artifacts) {
+            List<String> trail = oneArtifact.getDependencyTrail();
+            int nodeId;
+            if ((trail == null) || trail.isEmpty()) {
+                nodeId = graph.addNode(oneArtifact.getGatv(), 0);
+            } else {
+                int parentId = NO_PARENT;
+                nodeId = NO_PARENT;
+                for (String oneGatv : trail) {
+                    nodeId = graph.addNode(oneGatv, (parentId == NO_PARENT) ? 0 : parentId);
+                    parentId = nodeId;
+                }
+            }
+            oneArtifact.setGraphNode(nodeId);
+            oneArtifact.setDependencyTrail(null);
+        }
+        return graph.trim();
+    }
+
+    /**
+     * Adds a node if not yet present.
+     * @param gatv     GATV of the node
+     * @param parentId parent node ID, used only if the node is new
+     * @return node ID
+     */
+    private int addNode(String gatv, int parentId) {
+        Map<String, Integer> ids = this.getNodeIds();
+        Integer existingId = ids.get(gatv);
+        if (existingId != null) {
+            return existingId;
+        }
+        int nodeId = this.nodes.size();
+        this.nodes.add(gatv);
+        if (nodeId >= this.parents.length) {
+            this.parents = Arrays.copyOf(this.parents, Math.max(INITIAL_CAPACITY, this.parents.length * 2));
+        }
+        // the root node never gets a parent
+        this.parents[nodeId] = (nodeId == 0) ? NO_PARENT : parentId;
+        ids.put(gatv, nodeId);
+        return nodeId;
+    }
+
+    /**
+     * Trims the parents array to the number of nodes.
+     * @return this instance
+     */
+    private DependencyGraph trim() {
+        if (this.parents.length != this.nodes.size()) {
+            this.parents = Arrays.copyOf(this.parents, this.nodes.size());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return number of nodes
+     */
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Returns the GATV of a node.
+     * @param nodeId node ID
+     * @return GATV or null if the node does not exist
+     */
+    public String getGatv(int nodeId) {
+        return ((nodeId >= 0) && (nodeId < this.nodes.size())) ? this.nodes.get(nodeId) : null;
+    }
+
+    /**
+     * Returns the node ID of the given GATV.
+     * @param gatv GATV
+     * @return node ID or -1 if not found
+     */
+    public int getNodeId(String gatv) {
+        Integer nodeId = this.getNodeIds().get(gatv);
+        return (nodeId != null) ? nodeId : NO_NODE;
+    }
+
+    /**
+     * Returns the parent node ID of a node.
+     * @param nodeId node ID
+     * @return parent node ID or -1 for the root node (or if the node does not exist)
+     */
+    public int getParent(int nodeId) {
+        return ((nodeId >= 0) && (nodeId < this.parents.length)) ? this.parents[nodeId] : NO_PARENT;
+    }
+
+    /**
+     * Checks if a node is a direct dependency of the given other artifact, i.e. if its parent node is that artifact.
+     * @param nodeId    node ID
+     * @param otherGatv GATV of the other artifact
+     * @return true if the node is a direct dependency of the other artifact, false in all other cases
+     */
+    public boolean isDirectDependencyOf(int nodeId, String otherGatv) {
+        if ((otherGatv == null) || otherGatv.isEmpty()) {
+            return false;
+        }
+        return otherGatv.equals(this.getGatv(this.getParent(nodeId)));
+    }
+
+    /**
+     * Returns the path from the root node to a node, which equals the dependency trail of the node's artifact.
+     * @param nodeId node ID
+     * @return GATVs from the root node to the given node, empty if the node does not exist
+     */
+    public List<String> getPath(int nodeId) {
+        if ((nodeId < 0) || (nodeId >= this.nodes.size())) {
+            return Collections.emptyList();
+        }
+        List<String> path = new ArrayList<>();
+        int currentId = nodeId;
+        // the depth limit guards against cycles in malformed graphs
+        while ((currentId != NO_PARENT) && (path.size() <= this.nodes.size())) {
+            path.add(this.nodes.get(currentId));
+            currentId = this.getParent(currentId);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the GATVs of all nodes, by node ID.
+     * @return GATVs of all nodes
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the parent node ID of each node, by node ID.
+     * @return parent node IDs
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * Returns the node IDs by GATV, building the index on first access.
+     * @return node IDs by GATV
+     */
+    private Map<String, Integer> getNodeIds() {
+        if (this.nodeIds == null) {
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < this.nodes.size(); i++) {
+                ids.putIfAbsent(this.nodes.get(i), i);
+            }
+            this.nodeIds = ids;
+        }
+        return this.nodeIds;
+    }
+}
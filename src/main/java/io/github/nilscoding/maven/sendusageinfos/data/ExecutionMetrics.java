@@ -0,0 +1,201 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Timing and size metrics of one Mojo execution.
+ * @author NilsCoding
+ */
+@JsonAdapter(DataTypeAdapters.ExecutionMetricsAdapter.class)
+public class ExecutionMetrics implements Serializable {
+    private static final long serialVersionUID = -1650705911256123447L;
+
+    /**
+     * Duration of resolving all referenced artifacts in milliseconds.
+     */
+    protected Long resolutionMillis;
+    /**
+     * Number of resolved referenced artifacts.
+     */
+    protected Integer resolvedArtifacts;
+    /**
+     * Number of referenced artifacts whose resolution failed (sent without metadata).
+     */
+    protected Integer failedArtifacts;
+    /**
+     * Number of referenced artifacts not resolved because of a cached resolution failure (sent without metadata).
+     */
+    protected Integer skippedArtifacts;
+    /**
+     * Number of referenced artifacts not resolved because they are known to the URL endpoints.
+     */
+    protected Integer knownArtifacts;
+    /**
+     * Referenced artifacts with the longest resolution, slowest first.
+     */
+    protected List<ArtifactTiming> slowestArtifacts;
+    /**
+     * Duration of serializing the payload as compact JSON in milliseconds.
+     */
+    protected Long serializationMillis;
+    /**
+     * Size of the payload as compact JSON in bytes (UTF-8, uncompressed).
+     */
+    protected Long payloadBytes;
+    /**
+     * Results of sending to the locations (not part of metrics attached to the payload).
+     */
+    protected List<SinkTiming> sinks;
+
+    /**
+     * Creates a new instance.
+     */
+    public ExecutionMetrics() {
+    }
+
+    /**
+     * Returns the resolution duration in milliseconds.
+     * @return resolution duration in milliseconds
+     */
+    public Long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * Sets the resolution duration in milliseconds.
+     * @param resolutionMillis resolution duration in milliseconds to set
+     */
+    public void setResolutionMillis(Long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    /**
+     * Returns the number of resolved referenced artifacts.
+     * @return number of resolved referenced artifacts
+     */
+    public Integer getResolvedArtifacts() {
+        return resolvedArtifacts;
+    }
+
+    /**
+     * Sets the number of resolved referenced artifacts.
+     * @param resolvedArtifacts number of resolved referenced artifacts to set
+     */
+    public void setResolvedArtifacts(Integer resolvedArtifacts) {
+        this.resolvedArtifacts = resolvedArtifacts;
+    }
+
+    /**
+     * Returns the number of referenced artifacts whose resolution failed.
+     * @return number of failed referenced artifacts
+     */
+    public Integer getFailedArtifacts() {
+        return failedArtifacts;
+    }
+
+    /**
+     * Sets the number of referenced artifacts whose resolution failed.
+     * @param failedArtifacts number of failed referenced artifacts to set
+     */
+    public void setFailedArtifacts(Integer failedArtifacts) {
+        this.failedArtifacts = failedArtifacts;
+    }
+
+    /**
+     * Returns the number of referenced artifacts skipped because of a cached resolution failure.
+     * @return number of skipped referenced artifacts
+     */
+    public Integer getSkippedArtifacts() {
+        return skippedArtifacts;
+    }
+
+    /**
+     * Sets the number of referenced artifacts skipped because of a cached resolution failure.
+     * @param skippedArtifacts number of skipped referenced artifacts to set
+     */
+    public void setSkippedArtifacts(Integer skippedArtifacts) {
+        this.skippedArtifacts = skippedArtifacts;
+    }
+
+    /**
+     * Returns the number of referenced artifacts known to the URL endpoints.
+     * @return number of known referenced artifacts
+     */
+    public Integer getKnownArtifacts() {
+        return knownArtifacts;
+    }
+
+    /**
+     * Sets the number of referenced artifacts known to the URL endpoints.
+     * @param knownArtifacts number of known referenced artifacts to set
+     */
+    public void setKnownArtifacts(Integer knownArtifacts) {
+        this.knownArtifacts = knownArtifacts;
+    }
+
+    /**
+     * Returns the slowest referenced artifacts.
+     * @return slowest referenced artifacts
+     */
+    public List<ArtifactTiming> getSlowestArtifacts() {
+        return slowestArtifacts;
+    }
+
+    /**
+     * Sets the slowest referenced artifacts.
+     * @param slowestArtifacts slowest referenced artifacts to set
+     */
+    public void setSlowestArtifacts(List<ArtifactTiming> slowestArtifacts) {
+        this.slowestArtifacts = slowestArtifacts;
+    }
+
+    /**
+     * Returns the serialization duration in milliseconds.
+     * @return serialization duration in milliseconds
+     */
+    public Long getSerializationMillis() {
+        return serializationMillis;
+    }
+
+    /**
+     * Sets the serialization duration in milliseconds.
+     * @param serializationMillis serialization duration in milliseconds to set
+     */
+    public void setSerializationMillis(Long serializationMillis) {
+        this.serializationMillis = serializationMillis;
+    }
+
+    /**
+     * Returns the payload size in bytes.
+     * @return payload size in bytes
+     */
+    public Long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /**
+     * Sets the payload size in bytes.
+     * @param payloadBytes payload size in bytes to set
+     */
+    public void setPayloadBytes(Long payloadBytes) {
+        this.payloadBytes = payloadBytes;
+    }
+
+    /**
+     * Returns the sink results.
+     * @return sink results
+     */
+    public List<SinkTiming> getSinks() {
+        return sinks;
+    }
+
+    /**
+     * Sets the sink results.
+     * @param sinks sink results to set
+     */
+    public void setSinks(List<SinkTiming> sinks) {
+        this.sinks = sinks;
+    }
+}
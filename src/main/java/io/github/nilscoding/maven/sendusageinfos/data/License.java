@@ -1,11 +1,13 @@
 package io.github.nilscoding.maven.sendusageinfos.data;
 
+import com.google.gson.annotations.JsonAdapter;
 import java.io.Serializable;
 
 /**
  * License information.
  * @author NilsCoding
  */
+@JsonAdapter(DataTypeAdapters.LicenseAdapter.class)
 public class License implements Serializable {
     private static final long serialVersionUID = -4703130343551325886L;
 
@@ -0,0 +1,80 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.io.Serializable;
+
+/**
+ * Result of sending data to one location.
+ * @author NilsCoding
+ */
+@JsonAdapter(DataTypeAdapters.SinkTimingAdapter.class)
+public class SinkTiming implements Serializable {
+    private static final long serialVersionUID = -902238406299424276L;
+
+    /**
+     * Location.
+     */
+    protected String location;
+    /**
+     * Status (success, failed or timeout).
+     */
+    protected String status;
+    /**
+     * Duration in milliseconds.
+     */
+    protected Long durationMillis;
+
+    /**
+     * Creates a new instance.
+     */
+    public SinkTiming() {
+    }
+
+    /**
+     * Returns the location.
+     * @return location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Sets the location.
+     * @param location location to set
+     */
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    /**
+     * Returns the status.
+     * @return status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status.
+     * @param status status to set
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Returns the duration in milliseconds.
+     * @return duration in milliseconds
+     */
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Sets the duration in milliseconds.
+     * @param durationMillis duration in milliseconds to set
+     */
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
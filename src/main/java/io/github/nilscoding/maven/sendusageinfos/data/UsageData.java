@@ -1,5 +1,6 @@
 package io.github.nilscoding.maven.sendusageinfos.data;
 
+import com.google.gson.annotations.JsonAdapter;
 import java.io.Serializable;
 import java.util.List;
 
@@ -7,6 +8,7 @@ import java.util.List;
  * Usage data.
  * @author NilsCoding
  */
+@JsonAdapter(DataTypeAdapters.UsageDataAdapter.class)
 public class UsageData implements Serializable {
     private static final long serialVersionUID = -5548464498473724433L;
 
@@ -18,6 +20,34 @@ public class UsageData implements Serializable {
      * Referenced artifacts.
      */
     protected List<Artifact> referencedArtifacts;
+    /**
+     * Module artifacts (only for aggregated usage data).
+     */
+    protected List<Artifact> moduleArtifacts;
+    /**
+     * Dependency graph (only with graph encoding, replacing the dependency trails of the referenced artifacts).
+     */
+    protected DependencyGraph dependencyGraph;
+    /**
+     * GATVs of referenced artifacts sent without metadata (only in offline resolution mode).
+     */
+    protected List<String> unenrichedArtifacts;
+    /**
+     * Flag for incomplete data, set if the resolution of referenced artifacts did not finish in time.
+     */
+    protected Boolean partial;
+    /**
+     * GATVs of referenced artifacts whose resolution did not finish in time (sent without metadata).
+     */
+    protected List<String> timedOutArtifacts;
+    /**
+     * Flag for omitted metadata, set if artifacts already known to the collector have been sent without metadata.
+     */
+    protected Boolean knownMetadataOmitted;
+    /**
+     * Metrics of the Mojo execution (only if attaching metrics to the payload is enabled).
+     */
+    protected ExecutionMetrics executionMetrics;
 
     /**
      * Creates a new instance.
@@ -56,4 +86,116 @@ public class UsageData implements Serializable {
     public void setReferencedArtifacts(List<Artifact> referencedArtifacts) {
         this.referencedArtifacts = referencedArtifacts;
     }
+
+    /**
+     * Returns the module artifacts data (only for aggregated usage data).
+     * @return module artifacts data
+     */
+    public List<Artifact> getModuleArtifacts() {
+        return moduleArtifacts;
+    }
+
+    /**
+     * Sets the module artifacts data.
+     * @param moduleArtifacts module artifacts data to set
+     */
+    public void setModuleArtifacts(List<Artifact> moduleArtifacts) {
+        this.moduleArtifacts = moduleArtifacts;
+    }
+
+    /**
+     * Returns the dependency graph (only with graph encoding).
+     * @return dependency graph
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    /**
+     * Sets the dependency graph (only with graph encoding).
+     * @param dependencyGraph dependency graph to set
+     */
+    public void setDependencyGraph(DependencyGraph dependencyGraph) {
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    /**
+     * Returns the GATVs of referenced artifacts sent without metadata (only in offline resolution mode).
+     * @return GATVs of referenced artifacts sent without metadata
+     */
+    public List<String> getUnenrichedArtifacts() {
+        return unenrichedArtifacts;
+    }
+
+    /**
+     * Sets the GATVs of referenced artifacts sent without metadata.
+     * @param unenrichedArtifacts GATVs of referenced artifacts sent without metadata to set
+     */
+    public void setUnenrichedArtifacts(List<String> unenrichedArtifacts) {
+        this.unenrichedArtifacts = unenrichedArtifacts;
+    }
+
+    /**
+     * Returns the flag for incomplete data, set if the resolution of referenced artifacts did not finish in time.
+     * @return true if incomplete, null otherwise
+     */
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    /**
+     * Sets the flag for incomplete data.
+     * @param partial flag for incomplete data to set
+     */
+    public void setPartial(Boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Returns the GATVs of referenced artifacts whose resolution did not finish in time.
+     * @return GATVs of timed out artifacts
+     */
+    public List<String> getTimedOutArtifacts() {
+        return timedOutArtifacts;
+    }
+
+    /**
+     * Sets the GATVs of referenced artifacts whose resolution did not finish in time.
+     * @param timedOutArtifacts GATVs of timed out artifacts to set
+     */
+    public void setTimedOutArtifacts(List<String> timedOutArtifacts) {
+        this.timedOutArtifacts = timedOutArtifacts;
+    }
+
+    /**
+     * Returns the flag for omitted metadata, set if artifacts already known to the collector have been sent without metadata.
+     * @return true if metadata has been omitted, null otherwise
+     */
+    public Boolean getKnownMetadataOmitted() {
+        return knownMetadataOmitted;
+    }
+
+    /**
+     * Sets the flag for omitted metadata.
+     * @param knownMetadataOmitted flag for omitted metadata to set
+     */
+    public void setKnownMetadataOmitted(Boolean knownMetadataOmitted) {
+        this.knownMetadataOmitted = knownMetadataOmitted;
+    }
+
+    /**
+     * Returns the metrics of the Mojo execution (only if attaching metrics to the payload is enabled).
+     * @return metrics of the Mojo execution
+     */
+    public ExecutionMetrics getExecutionMetrics() {
+        return executionMetrics;
+    }
+
+    /**
+     * Sets the metrics of the Mojo execution.
+     * @param executionMetrics metrics of the Mojo execution to set
+     */
+    public void setExecutionMetrics(ExecutionMetrics executionMetrics) {
+        this.executionMetrics = executionMetrics;
+    }
 }
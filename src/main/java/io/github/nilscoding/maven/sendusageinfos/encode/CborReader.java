@@ -0,0 +1,308 @@
+package io.github.nilscoding.maven.sendusageinfos.encode;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads CBOR (RFC 8949) data items as JSON trees. Supports the data items written by {@link CborWriter},
+ * plus indefinite lengths, 16 and 32 bit floats and tags (which will be ignored). Byte strings are not supported.
+ * @author NilsCoding
+ */
+public final class CborReader {
+
+    /**
+     * Mask of the additional information in the initial byte.
+     */
+    private static final int INFO_MASK = 0x1F;
+    /**
+     * Break code ending indefinite length items.
+     */
+    private static final int BREAK = 0xFF;
+    /**
+     * Maximum nesting depth.
+     */
+    private static final int MAX_DEPTH = 512;
+    /**
+     * Exponent bits of 16 bit floats.
+     */
+    private static final int HALF_EXPONENT_MASK = 0x1F;
+    /**
+     * Bit shift of the exponent of 16 bit floats.
+     */
+    private static final int HALF_EXPONENT_SHIFT = 10;
+    /**
+     * Mantissa bits of 16 bit floats.
+     */
+    private static final int HALF_MANTISSA_MASK = 0x3FF;
+    /**
+     * Sign bit of 16 bit floats.
+     */
+    private static final int HALF_SIGN_BIT = 0x8000;
+    /**
+     * Exponent bias of 16 bit floats.
+     */
+    private static final int HALF_EXPONENT_BIAS = 15;
+    /**
+     * Mantissa scale of 16 bit floats (2^10).
+     */
+    private static final double HALF_MANTISSA_SCALE = 1024.0;
+    /**
+     * Mask for reading 4 byte values as unsigned.
+     */
+    private static final long UINT32_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Input to read from.
+     */
+    private final DataInputStream in;
+    /**
+     * Pushback input, used to detect the end of the input.
+     */
+    private final PushbackInputStream pushbackIn;
+
+    /**
+     * Creates a new instance.
+     * @param in input stream to read from
+     */
+    public CborReader(InputStream in) {
+        this.pushbackIn = new PushbackInputStream(in, 1);
+        this.in = new DataInputStream(this.pushbackIn);
+    }
+
+    /**
+     * Checks if there is another data item in the input.
+     * @return true if another data item follows
+     * @throws IOException on read errors
+     */
+    public boolean hasNext() throws IOException {
+        int b = this.pushbackIn.read();
+        if (b < 0) {
+            return false;
+        }
+        this.pushbackIn.unread(b);
+        return true;
+    }
+
+    /**
+     * Reads the next data item.
+     * @return JSON tree
+     * @throws IOException on read errors or unsupported data items
+     */
+    public JsonElement read() throws IOException {
+        return this.readItem(this.in.readUnsignedByte(), 0);
+    }
+
+    /**
+     * Reads a data item.
+     * @param initialByte initial byte of the data item
+     * @param depth       nesting depth
+     * @return JSON tree
+     * @throws IOException on read errors or unsupported data items
+     */
+    private JsonElement readItem(int initialByte, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("CBOR data nested too deeply");
+        }
+        int majorType = initialByte >>> CborWriter.MAJOR_SHIFT;
+        int info = initialByte & INFO_MASK;
+        switch (majorType) {
+            case CborWriter.MAJOR_UNSIGNED:
+                return new JsonPrimitive(this.readValue(info));
+            case CborWriter.MAJOR_NEGATIVE:
+                return new JsonPrimitive(-1L - this.readValue(info));
+            case CborWriter.MAJOR_BYTES:
+                throw new IOException("CBOR byte strings are not supported");
+            case CborWriter.MAJOR_TEXT:
+                return new JsonPrimitive(this.readText(info));
+            case CborWriter.MAJOR_ARRAY:
+                return this.readArray(info, depth);
+            case CborWriter.MAJOR_MAP:
+                return this.readMap(info, depth);
+            case CborWriter.MAJOR_TAG:
+                // tags carry no information needed for usage data
+                this.readValue(info);
+                return this.readItem(this.in.readUnsignedByte(), depth + 1);
+            case CborWriter.MAJOR_SIMPLE:
+                return this.readSimple(info);
+            default:
+                throw new IOException("unsupported CBOR major type " + majorType);
+        }
+    }
+
+    /**
+     * Reads an array.
+     * @param info  additional information of the initial byte
+     * @param depth nesting depth
+     * @return JSON array
+     * @throws IOException on read errors
+     */
+    private JsonArray readArray(int info, int depth) throws IOException {
+        JsonArray array = new JsonArray();
+        if (info == CborWriter.INFO_INDEFINITE) {
+            for (int b = this.in.readUnsignedByte(); b != BREAK; b = this.in.readUnsignedByte()) {
+                array.add(this.readItem(b, depth + 1));
+            }
+        } else {
+            long size = this.readValue(info);
+            for (long i = 0; i < size; i++) {
+                array.add(this.readItem(this.in.readUnsignedByte(), depth + 1));
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Reads a map.
+     * @param info  additional information of the initial byte
+     * @param depth nesting depth
+     * @return JSON object
+     * @throws IOException on read errors
+     */
+    private JsonObject readMap(int info, int depth) throws IOException {
+        JsonObject object = new JsonObject();
+        if (info == CborWriter.INFO_INDEFINITE) {
+            for (int b = this.in.readUnsignedByte(); b != BREAK; b = this.in.readUnsignedByte()) {
+                object.add(this.readKey(b, depth), this.readItem(this.in.readUnsignedByte(), depth + 1));
+            }
+        } else {
+            long size = this.readValue(info);
+            for (long i = 0; i < size; i++) {
+                String key = this.readKey(this.in.readUnsignedByte(), depth);
+                object.add(key, this.readItem(this.in.readUnsignedByte(), depth + 1));
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Reads a map key.
+     * @param initialByte initial byte of the key
+     * @param depth       nesting depth
+     * @return key as string
+     * @throws IOException on read errors
+     */
+    private String readKey(int initialByte, int depth) throws IOException {
+        JsonElement key = this.readItem(initialByte, depth + 1);
+        if (key.isJsonPrimitive() == false) {
+            throw new IOException("unsupported CBOR map key");
+        }
+        return key.getAsString();
+    }
+
+    /**
+     * Reads a simple value or float.
+     * @param info additional information of the initial byte
+     * @return JSON element
+     * @throws IOException on read errors
+     */
+    private JsonElement readSimple(int info) throws IOException {
+        switch (info) {
+            case CborWriter.SIMPLE_FALSE:
+                return new JsonPrimitive(false);
+            case CborWriter.SIMPLE_TRUE:
+                return new JsonPrimitive(true);
+            case CborWriter.SIMPLE_NULL:
+                return JsonNull.INSTANCE;
+            case CborWriter.INFO_UINT16:
+                return new JsonPrimitive(halfToDouble(this.in.readUnsignedShort()));
+            case CborWriter.INFO_UINT32:
+                return new JsonPrimitive(this.in.readFloat());
+            case CborWriter.INFO_UINT64:
+                return new JsonPrimitive(this.in.readDouble());
+            default:
+                // undefined and unassigned simple values
+                return JsonNull.INSTANCE;
+        }
+    }
+
+    /**
+     * Reads a text string.
+     * @param info additional information of the initial byte
+     * @return text
+     * @throws IOException on read errors
+     */
+    private String readText(int info) throws IOException {
+        if (info != CborWriter.INFO_INDEFINITE) {
+            return new String(this.readBytes(this.readValue(info)), StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (int b = this.in.readUnsignedByte(); b != BREAK; b = this.in.readUnsignedByte()) {
+            if ((b >>> CborWriter.MAJOR_SHIFT) != CborWriter.MAJOR_TEXT) {
+                throw new IOException("invalid CBOR text chunk");
+            }
+            chunks.write(this.readBytes(this.readValue(b & INFO_MASK)));
+        }
+        return new String(chunks.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the given number of bytes.
+     * @param length number of bytes
+     * @return bytes
+     * @throws IOException on read errors
+     */
+    private byte[] readBytes(long length) throws IOException {
+        if ((length < 0) || (length > Integer.MAX_VALUE)) {
+            throw new IOException("CBOR string too long");
+        }
+        byte[] bytes = new byte[(int) length];
+        this.in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the value (or length) following the initial byte.
+     * @param info additional information of the initial byte
+     * @return value
+     * @throws IOException on read errors or unsupported encodings
+     */
+    private long readValue(int info) throws IOException {
+        if (info <= CborWriter.MAX_DIRECT_VALUE) {
+            return info;
+        }
+        switch (info) {
+            case CborWriter.INFO_UINT8:
+                return this.in.readUnsignedByte();
+            case CborWriter.INFO_UINT16:
+                return this.in.readUnsignedShort();
+            case CborWriter.INFO_UINT32:
+                return this.in.readInt() & UINT32_MASK;
+            case CborWriter.INFO_UINT64:
+                long value = this.in.readLong();
+                if (value < 0) {
+                    throw new IOException("CBOR integer out of range");
+                }
+                return value;
+            default:
+                throw new IOException("unsupported CBOR additional information " + info);
+        }
+    }
+
+    /**
+     * Converts a 16 bit float to double.
+     * @param half 16 bit float
+     * @return value
+     */
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> HALF_EXPONENT_SHIFT) & HALF_EXPONENT_MASK;
+        int mantissa = half & HALF_MANTISSA_MASK;
+        double value;
+        if (exponent == 0) {
+            value = mantissa / HALF_MANTISSA_SCALE * Math.pow(2, 1 - HALF_EXPONENT_BIAS);
+        } else if (exponent == HALF_EXPONENT_MASK) {
+            value = (mantissa == 0) ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (1 + mantissa / HALF_MANTISSA_SCALE) * Math.pow(2, exponent - HALF_EXPONENT_BIAS);
+        }
+        return ((half & HALF_SIGN_BIT) != 0) ? -value : value;
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.nilscoding.maven.sendusageinfos.encode;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes JSON trees as CBOR (RFC 8949), using definite lengths and the shortest integer encodings.
+ * Integral numbers are written as integers, all other numbers as 64 bit floats.
+ * @author NilsCoding
+ */
+public final class CborWriter {
+
+    /**
+     * Major type: unsigned integer.
+     */
+    static final int MAJOR_UNSIGNED = 0;
+    /**
+     * Major type: negative integer.
+     */
+    static final int MAJOR_NEGATIVE = 1;
+    /**
+     * Major type: byte string.
+     */
+    static final int MAJOR_BYTES = 2;
+    /**
+     * Major type: text string.
+     */
+    static final int MAJOR_TEXT = 3;
+    /**
+     * Major type: array.
+     */
+    static final int MAJOR_ARRAY = 4;
+    /**
+     * Major type: map.
+     */
+    static final int MAJOR_MAP = 5;
+    /**
+     * Major type: tag.
+     */
+    static final int MAJOR_TAG = 6;
+    /**
+     * Major type: simple values and floats.
+     */
+    static final int MAJOR_SIMPLE = 7;
+    /**
+     * Bit shift of the major type in the initial byte.
+     */
+    static final int MAJOR_SHIFT = 5;
+    /**
+     * Maximum value encoded directly in the initial byte.
+     */
+    static final int MAX_DIRECT_VALUE = 23;
+    /**
+     * Additional information: 1 byte value follows.
+     */
+    static final int INFO_UINT8 = 24;
+    /**
+     * Additional information: 2 byte value follows.
+     */
+    static final int INFO_UINT16 = 25;
+    /**
+     * Additional information: 4 byte value follows.
+     */
+    static final int INFO_UINT32 = 26;
+    /**
+     * Additional information: 8 byte value follows.
+     */
+    static final int INFO_UINT64 = 27;
+    /**
+     * Additional information: indefinite length.
+     */
+    static final int INFO_INDEFINITE = 31;
+    /**
+     * Simple value false.
+     */
+    static final int SIMPLE_FALSE = 20;
+    /**
+     * Simple value true.
+     */
+    static final int SIMPLE_TRUE = 21;
+    /**
+     * Simple value null.
+     */
+    static final int SIMPLE_NULL = 22;
+    /**
+     * Maximum 1 byte value.
+     */
+    private static final long MAX_UINT8 = 0xFFL;
+    /**
+     * Maximum 2 byte value.
+     */
+    private static final long MAX_UINT16 = 0xFFFFL;
+    /**
+     * Maximum 4 byte value.
+     */
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+
+    /**
+     * Output to write to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Creates a new instance.
+     * @param out output stream to write to
+     */
+    public CborWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Writes a JSON tree as one CBOR data item.
+     * @param element JSON tree, can be null
+     * @throws IOException on write errors
+     */
+    public void write(JsonElement element) throws IOException {
+        if ((element == null) || element.isJsonNull()) {
+            this.writeHead(MAJOR_SIMPLE, SIMPLE_NULL);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            this.writeHead(MAJOR_MAP, object.size());
+            for (Map.Entry<String, JsonElement> oneEntry : object.entrySet()) {
+                this.writeText(oneEntry.getKey());
+                this.write(oneEntry.getValue());
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            this.writeHead(MAJOR_ARRAY, array.size());
+            for (JsonElement oneElement : array) {
+                this.write(oneElement);
+            }
+        } else {
+            this.writePrimitive(element.getAsJsonPrimitive());
+        }
+    }
+
+    /**
+     * Flushes the output.
+     * @throws IOException on write errors
+     */
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    /**
+     * Writes a primitive value.
+     * @param primitive primitive value
+     * @throws IOException on write errors
+     */
+    private void writePrimitive(JsonPrimitive primitive) throws IOException {
+        if (primitive.isBoolean()) {
+            this.writeHead(MAJOR_SIMPLE, primitive.getAsBoolean() ? SIMPLE_TRUE : SIMPLE_FALSE);
+        } else if (primitive.isNumber()) {
+            this.writeNumber(primitive.getAsNumber());
+        } else {
+            this.writeText(primitive.getAsString());
+        }
+    }
+
+    /**
+     * Writes a number, as integer if integral and in range, as 64 bit float otherwise.
+     * @param number number
+     * @throws IOException on write errors
+     */
+    private void writeNumber(Number number) throws IOException {
+        if ((number instanceof Double) || (number instanceof Float)) {
+            this.writeDouble(number.doubleValue());
+            return;
+        }
+        long longValue;
+        try {
+            longValue = ((number instanceof Integer) || (number instanceof Long) || (number instanceof Short) || (number instanceof Byte))
+                    ? number.longValue() : new BigDecimal(number.toString()).longValueExact();
+        } catch (ArithmeticException | NumberFormatException ex) {
+            this.writeDouble(number.doubleValue());
+            return;
+        }
+        if (longValue >= 0) {
+            this.writeHead(MAJOR_UNSIGNED, longValue);
+        } else {
+            this.writeHead(MAJOR_NEGATIVE, -1L - longValue);
+        }
+    }
+
+    /**
+     * Writes a 64 bit float.
+     * @param value value
+     * @throws IOException on write errors
+     */
+    private void writeDouble(double value) throws IOException {
+        this.out.writeByte((MAJOR_SIMPLE << MAJOR_SHIFT) | INFO_UINT64);
+        this.out.writeDouble(value);
+    }
+
+    /**
+     * Writes a text string.
+     * @param text text
+     * @throws IOException on write errors
+     */
+    private void writeText(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        this.writeHead(MAJOR_TEXT, bytes.length);
+        this.out.write(bytes);
+    }
+
+    /**
+     * Writes the head of a data item: major type and value (or length) in the shortest encoding.
+     * @param majorType major type
+     * @param value     value, interpreted as unsigned
+     * @throws IOException on write errors
+     */
+    private void writeHead(int majorType, long value) throws IOException {
+        int major = majorType << MAJOR_SHIFT;
+        if ((value >= 0) && (value <= MAX_DIRECT_VALUE)) {
+            this.out.writeByte(major | (int) value);
+        } else if ((value >= 0) && (value <= MAX_UINT8)) {
+            this.out.writeByte(major | INFO_UINT8);
+            this.out.writeByte((int) value);
+        } else if ((value >= 0) && (value <= MAX_UINT16)) {
+            this.out.writeByte(major | INFO_UINT16);
+            this.out.writeShort((int) value);
+        } else if ((value >= 0) && (value <= MAX_UINT32)) {
+            this.out.writeByte(major | INFO_UINT32);
+            this.out.writeInt((int) value);
+        } else {
+            this.out.writeByte(major | INFO_UINT64);
+            this.out.writeLong(value);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.nilscoding.maven.sendusageinfos.encode;
+
+import com.google.gson.FormattingStyle;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output encodings of usage data.
+ * @author NilsCoding
+ */
+public enum UsageDataEncoding {
+
+    /**
+     * JSON text.
+     */
+    JSON("json", "application/json", ".json", false),
+    /**
+     * Gzip-compressed JSON text.
+     */
+    JSON_GZIP("json-gzip", "application/json", ".json.gz", true),
+    /**
+     * Newline-delimited JSON, one compact document per line.
+     */
+    NDJSON("ndjson", "application/x-ndjson", ".ndjson", false),
+    /**
+     * Gzip-compressed newline-delimited JSON.
+     */
+    NDJSON_GZIP("ndjson-gzip", "application/x-ndjson", ".ndjson.gz", true),
+    /**
+     * CBOR (RFC 8949), binary.
+     */
+    CBOR("cbor", "application/cbor", ".cbor", false);
+
+    /**
+     * Encoding ID, as used in location options.
+     */
+    private final String id;
+    /**
+     * Media type (Content-Type).
+     */
+    private final String mediaType;
+    /**
+     * File extension, including the dot.
+     */
+    private final String fileExtension;
+    /**
+     * Flag for gzip compression (Content-Encoding gzip).
+     */
+    private final boolean gzip;
+
+    /**
+     * Creates a new instance.
+     * @param id            encoding ID
+     * @param mediaType     media type
+     * @param fileExtension file extension, including the dot
+     * @param gzip          flag for gzip compression
+     */
+    UsageDataEncoding(String id, String mediaType, String fileExtension, boolean gzip) {
+        this.id = id;
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Returns the encoding with the given ID.
+     * @param id encoding ID (case-insensitive)
+     * @return encoding or null if unknown
+     */
+    public static UsageDataEncoding fromId(String id) {
+        if (id == null) {
+            return null;
+        }
+        String normalizedId = id.trim().toLowerCase(Locale.ROOT);
+        for (UsageDataEncoding oneEncoding : values()) {
+            if (oneEncoding.id.equals(normalizedId)) {
+                return oneEncoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the encoding matching the extension of the given file name.
+     * @param fileName file name
+     * @return encoding or null if the extension is not known
+     */
+    public static UsageDataEncoding fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String lowerName = fileName.toLowerCase(Locale.ROOT);
+        for (UsageDataEncoding oneEncoding : values()) {
+            if (lowerName.endsWith(oneEncoding.fileExtension)) {
+                return oneEncoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a payload in this encoding. Gzip compression is applied for gzip encodings.
+     * @param payload payload to write (an object serializable by Gson or a JSON tree)
+     * @param gson    Gson instance for serialization (pretty-printing is only used for JSON)
+     * @param out     output stream to write to, will not be closed
+     * @throws IOException on write errors
+     */
+    public void write(Object payload, Gson gson, OutputStream out) throws IOException {
+        if (this.gzip) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(new NonClosingOutputStream(out));
+            this.writeUncompressed(payload, gson, gzipOut);
+            gzipOut.close();
+        } else {
+            this.writeUncompressed(payload, gson, out);
+        }
+    }
+
+    /**
+     * Writes a payload in this encoding, without compression.
+     * @param payload payload to write
+     * @param gson    Gson instance for serialization
+     * @param out     output stream to write to
+     * @throws IOException on write errors
+     */
+    private void writeUncompressed(Object payload, Gson gson, OutputStream out) throws IOException {
+        if (this == CBOR) {
+            JsonElement tree = (payload instanceof JsonElement) ? (JsonElement) payload : gson.toJsonTree(payload);
+            CborWriter cborWriter = new CborWriter(out);
+            cborWriter.write(tree);
+            cborWriter.flush();
+            return;
+        }
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if ((this == NDJSON) || (this == NDJSON_GZIP)) {
+            // one document per line, so never pretty-printed; the writer's formatting is kept by Gson,
+            // so no compact copy of the Gson instance is needed
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.setFormattingStyle(FormattingStyle.COMPACT);
+            gson.toJson(payload, (payload != null) ? payload.getClass() : Object.class, jsonWriter);
+            jsonWriter.flush();
+            writer.write('\n');
+        } else {
+            gson.toJson(payload, writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the encoding ID.
+     * @return encoding ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the media type (Content-Type).
+     * @return media type
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the file extension, including the dot.
+     * @return file extension
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Checks if this encoding is gzip-compressed.
+     * @return true if gzip-compressed
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Output stream that does not close the underlying stream.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        /**
+         * Creates a new instance.
+         * @param out underlying output stream
+         */
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flush();
+        }
+    }
+}
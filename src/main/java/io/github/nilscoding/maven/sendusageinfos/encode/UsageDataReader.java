@@ -0,0 +1,127 @@
+package io.github.nilscoding.maven.sendusageinfos.encode;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads usage data in any of the {@link UsageDataEncoding}s back into {@link UsageData} objects.
+ * The encoding is detected from the content: gzip compression by its magic bytes, JSON and NDJSON by their
+ * first character, CBOR otherwise.
+ * @author NilsCoding
+ */
+public final class UsageDataReader {
+
+    /**
+     * First magic byte of gzip data.
+     */
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    /**
+     * Second magic byte of gzip data.
+     */
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    /**
+     * Number of bytes to look ahead for detecting the encoding.
+     */
+    private static final int LOOKAHEAD = 64;
+
+    /**
+     * Hidden constructor.
+     */
+    private UsageDataReader() {
+    }
+
+    /**
+     * Reads all usage data documents of a file.
+     * @param file file to read
+     * @return usage data documents, not null
+     * @throws IOException on read errors or invalid content
+     */
+    public static List<UsageData> read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in, SharedGson.compact());
+        }
+    }
+
+    /**
+     * Reads all usage data documents of a stream (one JSON document, NDJSON or a sequence of CBOR data items,
+     * each one optionally gzip-compressed).
+     * @param in   input stream, will not be closed
+     * @param gson Gson instance for deserialization
+     * @return usage data documents, not null
+     * @throws IOException on read errors or invalid content
+     */
+    public static List<UsageData> read(InputStream in, Gson gson) throws IOException {
+        InputStream bufferedIn = new BufferedInputStream(in);
+        bufferedIn.mark(2);
+        int b1 = bufferedIn.read();
+        int b2 = bufferedIn.read();
+        bufferedIn.reset();
+        if ((b1 == GZIP_MAGIC_1) && (b2 == GZIP_MAGIC_2)) {
+            bufferedIn = new BufferedInputStream(new GZIPInputStream(bufferedIn));
+        }
+        List<UsageData> documents = new ArrayList<>();
+        if (isJson(bufferedIn)) {
+            JsonReader reader = new JsonReader(new InputStreamReader(bufferedIn, StandardCharsets.UTF_8));
+            // lenient parsing accepts multiple top-level documents (NDJSON)
+            reader.setStrictness(Strictness.LENIENT);
+            try {
+                while (reader.peek() != JsonToken.END_DOCUMENT) {
+                    documents.add(gson.<UsageData>fromJson(reader, UsageData.class));
+                }
+            } catch (JsonParseException ex) {
+                throw new IOException("invalid JSON usage data: " + ex.getMessage(), ex);
+            }
+        } else {
+            CborReader reader = new CborReader(bufferedIn);
+            try {
+                while (reader.hasNext()) {
+                    JsonElement tree = reader.read();
+                    documents.add(gson.fromJson(tree, UsageData.class));
+                }
+            } catch (JsonParseException ex) {
+                throw new IOException("invalid CBOR usage data: " + ex.getMessage(), ex);
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Checks if the content is JSON text, i.e. if its first non-whitespace character starts an object.
+     * @param in buffered input stream, supporting mark and reset
+     * @return true if JSON, false otherwise
+     * @throws IOException on read errors
+     */
+    private static boolean isJson(InputStream in) throws IOException {
+        in.mark(LOOKAHEAD);
+        try {
+            for (int i = 0; i < LOOKAHEAD; i++) {
+                int b = in.read();
+                if ((b < 0) || (b == '{')) {
+                    return b == '{';
+                }
+                if (Character.isWhitespace(b) == false) {
+                    return false;
+                }
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+}
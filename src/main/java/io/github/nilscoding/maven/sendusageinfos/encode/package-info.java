@@ -0,0 +1,4 @@
+/**
+ * Output encodings of usage data (JSON, NDJSON, CBOR, optionally gzip-compressed) and reading them back.
+ */
+package io.github.nilscoding.maven.sendusageinfos.encode;
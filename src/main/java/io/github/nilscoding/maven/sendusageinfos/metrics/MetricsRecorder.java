@@ -0,0 +1,326 @@
+package io.github.nilscoding.maven.sendusageinfos.metrics;
+
+import com.google.gson.Gson;
+import io.github.nilscoding.maven.sendusageinfos.data.ArtifactTiming;
+import io.github.nilscoding.maven.sendusageinfos.data.ExecutionMetrics;
+import io.github.nilscoding.maven.sendusageinfos.data.SinkTiming;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records timings and sizes of one Mojo execution. Recording is thread-safe, as artifacts are resolved
+ * and locations are served concurrently.
+ * @author NilsCoding
+ */
+public class MetricsRecorder {
+
+    /**
+     * Marker for values not recorded.
+     */
+    private static final long NOT_RECORDED = -1L;
+    /**
+     * Line format of the summary table.
+     */
+    private static final String SUMMARY_LINE = "  %-14s %10s  %s";
+
+    /**
+     * Resolution durations of the referenced artifacts (in nanoseconds).
+     */
+    private final ConcurrentLinkedQueue<ResolutionTiming> resolutionTimings = new ConcurrentLinkedQueue<>();
+    /**
+     * Number of resolved referenced artifacts.
+     */
+    private final AtomicInteger resolvedArtifacts = new AtomicInteger();
+    /**
+     * Number of referenced artifacts whose resolution failed (sent without metadata).
+     */
+    private final AtomicInteger failedArtifacts = new AtomicInteger();
+    /**
+     * Number of referenced artifacts not resolved because of a cached resolution failure (sent without metadata).
+     */
+    private final AtomicInteger skippedArtifacts = new AtomicInteger();
+    /**
+     * Number of referenced artifacts not resolved because they are known to the URL endpoints.
+     */
+    private final AtomicInteger knownArtifacts = new AtomicInteger();
+    /**
+     * Results of sending to the locations.
+     */
+    private final ConcurrentLinkedQueue<SinkTiming> sinks = new ConcurrentLinkedQueue<>();
+    /**
+     * Duration of resolving all referenced artifacts in nanoseconds.
+     */
+    private volatile long resolutionNanos = NOT_RECORDED;
+    /**
+     * Duration of serializing the payload in nanoseconds.
+     */
+    private volatile long serializationNanos = NOT_RECORDED;
+    /**
+     * Size of the serialized payload in bytes.
+     */
+    private volatile long payloadBytes = NOT_RECORDED;
+    /**
+     * Note on sending, if the data is not sent by this execution.
+     */
+    private volatile String sendNote;
+
+    /**
+     * Creates a new instance.
+     */
+    public MetricsRecorder() {
+    }
+
+    /**
+     * Outcome of resolving one referenced artifact.
+     */
+    public enum ResolutionOutcome {
+        /**
+         * Metadata has been resolved (or taken from a metadata cache).
+         */
+        RESOLVED,
+        /**
+         * Resolution failed, the artifact is sent without metadata.
+         */
+        FAILED,
+        /**
+         * Not resolved because of a cached resolution failure, the artifact is sent without metadata.
+         */
+        SKIPPED,
+        /**
+         * Not resolved because the URL endpoints already know the artifact's metadata.
+         */
+        KNOWN
+    }
+
+    /**
+     * Records the resolution of one referenced artifact. Only actual resolutions (resolved or failed) are considered
+     * for the slowest artifacts.
+     * @param gatv    artifact GATV
+     * @param nanos   duration in nanoseconds
+     * @param outcome outcome of the resolution
+     */
+    public void recordArtifactResolution(String gatv, long nanos, ResolutionOutcome outcome) {
+        switch (outcome) {
+            case RESOLVED:
+                this.resolutionTimings.add(new ResolutionTiming(gatv, nanos));
+                this.resolvedArtifacts.incrementAndGet();
+                break;
+            case FAILED:
+                this.resolutionTimings.add(new ResolutionTiming(gatv, nanos));
+                this.failedArtifacts.incrementAndGet();
+                break;
+            case SKIPPED:
+                this.skippedArtifacts.incrementAndGet();
+                break;
+            case KNOWN:
+                this.knownArtifacts.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Records the duration of resolving all referenced artifacts.
+     * @param nanos duration in nanoseconds
+     */
+    public void recordResolution(long nanos) {
+        this.resolutionNanos = nanos;
+    }
+
+    /**
+     * Serializes the payload as compact JSON, discarding the output, and records duration and size.
+     * @param gson    Gson instance for serialization
+     * @param payload payload
+     */
+    public void measureSerialization(Gson gson, Object payload) {
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(payload, writer);
+            writer.flush();
+        } catch (IOException ex) {
+            // cannot happen when discarding the output
+            return;
+        }
+        this.serializationNanos = System.nanoTime() - start;
+        this.payloadBytes = out.getCount();
+    }
+
+    /**
+     * Records the result of sending to one location.
+     * @param location       location
+     * @param status         status (success, failed or timeout)
+     * @param durationMillis duration in milliseconds
+     */
+    public void recordSink(String location, String status, long durationMillis) {
+        SinkTiming sink = new SinkTiming();
+        sink.setLocation(location);
+        sink.setStatus(status);
+        sink.setDurationMillis(durationMillis);
+        this.sinks.add(sink);
+    }
+
+    /**
+     * Sets a note on sending, if the data is not sent by this execution (e.g. aggregated or deferred).
+     * @param sendNote note
+     */
+    public void setSendNote(String sendNote) {
+        this.sendNote = sendNote;
+    }
+
+    /**
+     * Returns the recorded metrics.
+     * @param slowestCount maximum number of slowest artifacts to include
+     * @param includeSinks true to include the sink results
+     * @return metrics
+     */
+    public ExecutionMetrics toMetrics(int slowestCount, boolean includeSinks) {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        if (this.resolutionNanos != NOT_RECORDED) {
+            metrics.setResolutionMillis(TimeUnit.NANOSECONDS.toMillis(this.resolutionNanos));
+        }
+        metrics.setResolvedArtifacts(this.resolvedArtifacts.get());
+        metrics.setFailedArtifacts(this.failedArtifacts.get());
+        metrics.setSkippedArtifacts(this.skippedArtifacts.get());
+        metrics.setKnownArtifacts(this.knownArtifacts.get());
+        List<ArtifactTiming> slowest = new ArrayList<>();
+        for (ResolutionTiming oneTiming : this.getSlowest(slowestCount)) {
+            ArtifactTiming artifactTiming = new ArtifactTiming();
+            artifactTiming.setGatv(oneTiming.gatv);
+            artifactTiming.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(oneTiming.nanos));
+            slowest.add(artifactTiming);
+        }
+        metrics.setSlowestArtifacts(slowest);
+        if (this.serializationNanos != NOT_RECORDED) {
+            metrics.setSerializationMillis(TimeUnit.NANOSECONDS.toMillis(this.serializationNanos));
+            metrics.setPayloadBytes(this.payloadBytes);
+        }
+        if (includeSinks) {
+            metrics.setSinks(new ArrayList<>(this.sinks));
+        }
+        return metrics;
+    }
+
+    /**
+     * Formats the recorded metrics as summary table.
+     * @param slowestCount maximum number of slowest artifacts to include
+     * @return lines of the table
+     */
+    public List<String> formatSummary(int slowestCount) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "phase", "duration", "details"));
+        String resolutionDetails = this.resolvedArtifacts.get() + " artifacts resolved, " + this.failedArtifacts.get() + " failed, "
+                + this.skippedArtifacts.get() + " skipped (cached failure), " + this.knownArtifacts.get() + " known to endpoints";
+        lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "resolution", formatNanos(this.resolutionNanos), resolutionDetails));
+        if (this.serializationNanos != NOT_RECORDED) {
+            lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "serialization", formatNanos(this.serializationNanos),
+                    this.payloadBytes + " bytes (compact JSON)"));
+        }
+        for (SinkTiming oneSink : this.sinks) {
+            lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "send", oneSink.getDurationMillis() + " ms",
+                    oneSink.getStatus() + ": " + oneSink.getLocation()));
+        }
+        if (this.sendNote != null) {
+            lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "send", "-", this.sendNote));
+        }
+        List<ResolutionTiming> slowest = this.getSlowest(slowestCount);
+        if (slowest.isEmpty() == false) {
+            lines.add("  slowest artifacts:");
+            for (ResolutionTiming oneTiming : slowest) {
+                lines.add(String.format(Locale.ROOT, SUMMARY_LINE, "", formatNanos(oneTiming.nanos), oneTiming.gatv));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the artifacts with the longest resolution, slowest first.
+     * @param count maximum number of artifacts
+     * @return slowest artifacts
+     */
+    private List<ResolutionTiming> getSlowest(int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        List<ResolutionTiming> timings = new ArrayList<>(this.resolutionTimings);
+        timings.sort(Comparator.comparingLong((ResolutionTiming t) -> t.nanos).reversed());
+        return timings.subList(0, Math.min(count, timings.size()));
+    }
+
+    /**
+     * Formats a duration for the summary table.
+     * @param nanos duration in nanoseconds
+     * @return formatted duration
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos == NOT_RECORDED) {
+            return "-";
+        }
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+    }
+
+    /**
+     * Resolution duration of one artifact.
+     */
+    private static final class ResolutionTiming {
+        /**
+         * Artifact GATV.
+         */
+        private final String gatv;
+        /**
+         * Duration in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Creates a new instance.
+         * @param gatv  artifact GATV
+         * @param nanos duration in nanoseconds
+         */
+        ResolutionTiming(String gatv, long nanos) {
+            this.gatv = gatv;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Output stream discarding all content, counting the bytes written.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        /**
+         * Number of bytes written.
+         */
+        private long count;
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+
+        /**
+         * Returns the number of bytes written.
+         * @return number of bytes written
+         */
+        long getCount() {
+            return this.count;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Timing and size metrics of Mojo executions.
+ */
+package io.github.nilscoding.maven.sendusageinfos.metrics;
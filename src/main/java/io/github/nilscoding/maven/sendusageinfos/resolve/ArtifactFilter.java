@@ -0,0 +1,211 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Filter for referenced artifacts, applied before their metadata is resolved. Artifacts can be filtered by
+ * <code>groupId[:artifactId]</code> glob patterns (<code>*</code> and <code>?</code>), by scope and by type, and
+ * can be restricted to direct dependencies. Excludes take precedence over includes; empty includes match everything.
+ * @author NilsCoding
+ */
+public class ArtifactFilter {
+
+    /**
+     * Scope of artifacts without scope.
+     */
+    private static final String DEFAULT_SCOPE = "compile";
+
+    /**
+     * Include patterns, matching "groupId:artifactId".
+     */
+    private final List<Pattern> includes;
+    /**
+     * Exclude patterns, matching "groupId:artifactId".
+     */
+    private final List<Pattern> excludes;
+    /**
+     * Included scopes, empty for all.
+     */
+    private Set<String> includeScopes = Collections.emptySet();
+    /**
+     * Excluded scopes.
+     */
+    private Set<String> excludeScopes = Collections.emptySet();
+    /**
+     * Included types, empty for all.
+     */
+    private Set<String> includeTypes = Collections.emptySet();
+    /**
+     * Excluded types.
+     */
+    private Set<String> excludeTypes = Collections.emptySet();
+    /**
+     * Flag for accepting direct dependencies only.
+     */
+    private boolean directDependenciesOnly;
+
+    /**
+     * Creates a new instance.
+     * @param includes include patterns <code>groupId[:artifactId]</code>, separated by commas or whitespace, can be null
+     * @param excludes exclude patterns <code>groupId[:artifactId]</code>, separated by commas or whitespace, can be null
+     */
+    public ArtifactFilter(String includes, String excludes) {
+        this.includes = toPatterns(includes);
+        this.excludes = toPatterns(excludes);
+    }
+
+    /**
+     * Sets the scope filter.
+     * @param scopes         included scopes, separated by commas or whitespace, null or empty for all
+     * @param excludedScopes excluded scopes, separated by commas or whitespace, can be null
+     */
+    public void setScopes(String scopes, String excludedScopes) {
+        this.includeScopes = toLowerCaseSet(scopes);
+        this.excludeScopes = toLowerCaseSet(excludedScopes);
+    }
+
+    /**
+     * Sets the type filter.
+     * @param types         included types, separated by commas or whitespace, null or empty for all
+     * @param excludedTypes excluded types, separated by commas or whitespace, can be null
+     */
+    public void setTypes(String types, String excludedTypes) {
+        this.includeTypes = toLowerCaseSet(types);
+        this.excludeTypes = toLowerCaseSet(excludedTypes);
+    }
+
+    /**
+     * Sets the flag for accepting direct dependencies only.
+     * @param directDependenciesOnly true to accept direct dependencies only
+     */
+    public void setDirectDependenciesOnly(boolean directDependenciesOnly) {
+        this.directDependenciesOnly = directDependenciesOnly;
+    }
+
+    /**
+     * Checks if this filter would reject any artifact at all.
+     * @return true if any criterion is set
+     */
+    public boolean isActive() {
+        return (this.includes.isEmpty() == false) || (this.excludes.isEmpty() == false)
+                || (this.includeScopes.isEmpty() == false) || (this.excludeScopes.isEmpty() == false)
+                || (this.includeTypes.isEmpty() == false) || (this.excludeTypes.isEmpty() == false)
+                || this.directDependenciesOnly;
+    }
+
+    /**
+     * Checks if a referenced Maven artifact is accepted.
+     * @param mavenArtifact referenced Maven artifact
+     * @param projectGatv   GATV of the project, used for detecting direct dependencies
+     * @return true if accepted
+     */
+    public boolean accepts(org.apache.maven.artifact.Artifact mavenArtifact, String projectGatv) {
+        if (mavenArtifact == null) {
+            return false;
+        }
+        String scope = (mavenArtifact.getScope() != null) ? mavenArtifact.getScope().toLowerCase(Locale.ROOT) : DEFAULT_SCOPE;
+        if (this.excludeScopes.contains(scope) || ((this.includeScopes.isEmpty() == false) && (this.includeScopes.contains(scope) == false))) {
+            return false;
+        }
+        String type = (mavenArtifact.getType() != null) ? mavenArtifact.getType().toLowerCase(Locale.ROOT) : "";
+        if (this.excludeTypes.contains(type) || ((this.includeTypes.isEmpty() == false) && (this.includeTypes.contains(type) == false))) {
+            return false;
+        }
+        String ga = mavenArtifact.getGroupId() + ":" + mavenArtifact.getArtifactId();
+        if (matchesAny(this.excludes, ga) || ((this.includes.isEmpty() == false) && (matchesAny(this.includes, ga) == false))) {
+            return false;
+        }
+        if (this.directDependenciesOnly) {
+            return Artifact.fromMavenArtifact(mavenArtifact).isDirectDependencyOf(projectGatv);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any of the patterns matches.
+     * @param patterns patterns
+     * @param ga       "groupId:artifactId"
+     * @return true if any pattern matches
+     */
+    private static boolean matchesAny(List<Pattern> patterns, String ga) {
+        for (Pattern onePattern : patterns) {
+            if (onePattern.matcher(ga).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts <code>groupId[:artifactId]</code> glob patterns to regular expressions matching "groupId:artifactId".
+     * A missing artifact ID matches all artifacts of the group.
+     * @param patterns patterns, separated by commas or whitespace, can be null
+     * @return regular expressions
+     */
+    private static List<Pattern> toPatterns(String patterns) {
+        List<Pattern> result = new ArrayList<>();
+        for (String onePattern : toSet(patterns)) {
+            String ga = (onePattern.indexOf(':') < 0) ? onePattern + ":*" : onePattern;
+            result.add(Pattern.compile(globToRegex(ga)));
+        }
+        return result;
+    }
+
+    /**
+     * Converts a glob (<code>*</code> and <code>?</code>) to a regular expression.
+     * @param glob glob
+     * @return regular expression
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder sb = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if ((c == '*') || (c == '?')) {
+                if (i > literalStart) {
+                    sb.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                sb.append((c == '*') ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            sb.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits a list of values separated by commas or whitespace.
+     * @param values values, can be null
+     * @return values, not null
+     */
+    private static Set<String> toSet(String values) {
+        Set<String> result = new LinkedHashSet<>();
+        if (values == null) {
+            return result;
+        }
+        for (String oneValue : values.split("[,\\s]+")) {
+            if (oneValue.isEmpty() == false) {
+                result.add(oneValue);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits a list of values separated by commas or whitespace, converting them to lower case.
+     * @param values values, can be null
+     * @return values in lower case, not null
+     */
+    private static Set<String> toLowerCaseSet(String values) {
+        return toSet((values != null) ? values.toLowerCase(Locale.ROOT) : null);
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import org.apache.maven.project.MavenProject;
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Metadata of a referenced artifact, as taken from its resolved project.
+ * @author NilsCoding
+ */
+public class ArtifactMetadata implements Serializable {
+    private static final long serialVersionUID = 2364710972318404851L;
+
+    /**
+     * List with licenses.
+     */
+    protected List<License> licenses;
+    /**
+     * Name.
+     */
+    protected String name;
+    /**
+     * Description.
+     */
+    protected String description;
+    /**
+     * Website URL.
+     */
+    protected String websiteUrl;
+
+    /**
+     * Creates a new instance.
+     */
+    public ArtifactMetadata() {
+    }
+
+    /**
+     * Creates an instance from given Maven project data.
+     * @param mavenProject Maven project data
+     * @return instance or null on error
+     */
+    public static ArtifactMetadata fromMavenProject(MavenProject mavenProject) {
+        if (mavenProject == null) {
+            return null;
+        }
+        ArtifactMetadata metadata = new ArtifactMetadata();
+        List<org.apache.maven.model.License> mavenLicenses = mavenProject.getLicenses();
+        if ((mavenLicenses != null) && (mavenLicenses.isEmpty() == false)) {
+            List<License> licenses = new LinkedList<>();
+            for (final org.apache.maven.model.License oneMavenLicense : mavenLicenses) {
+                License oneLicense = License.fromMavenLicense(oneMavenLicense);
+                if (oneLicense != null) {
+                    licenses.add(oneLicense);
+                }
+            }
+            metadata.setLicenses(licenses);
+        }
+        metadata.setName(mavenProject.getName());
+        metadata.setDescription(mavenProject.getDescription());
+        metadata.setWebsiteUrl(mavenProject.getUrl());
+        return metadata;
+    }
+
+    /**
+     * Applies this metadata to the given artifact.
+     * @param artifact artifact to apply metadata to
+     */
+    public void applyTo(Artifact artifact) {
+        if (artifact == null) {
+            return;
+        }
+        if ((this.licenses != null) && (this.licenses.isEmpty() == false)) {
+            artifact.setLicenses(new LinkedList<>(this.licenses));
+        }
+        artifact.setName(this.name);
+        artifact.setDescription(this.description);
+        artifact.setWebsiteUrl(this.websiteUrl);
+    }
+
+    /**
+     * Returns a description of all differences between this and the given metadata.
+     * @param other other metadata to compare with
+     * @return list with differences, empty if equal
+     */
+    public List<String> getDifferences(ArtifactMetadata other) {
+        List<String> differences = new LinkedList<>();
+        if (other == null) {
+            differences.add("no metadata");
+            return differences;
+        }
+        addDifference(differences, "name", this.name, other.name);
+        addDifference(differences, "description", this.description, other.description);
+        addDifference(differences, "websiteUrl", this.websiteUrl, other.websiteUrl);
+        addDifference(differences, "licenses", licensesToString(this.licenses), licensesToString(other.licenses));
+        return differences;
+    }
+
+    /**
+     * Adds a difference description if both values differ.
+     * @param differences list with differences to add to
+     * @param field       field name
+     * @param value       this value
+     * @param otherValue  other value
+     */
+    private static void addDifference(List<String> differences, String field, String value, String otherValue) {
+        if (Objects.equals(value, otherValue) == false) {
+            differences.add(field + ": '" + value + "' vs. '" + otherValue + "'");
+        }
+    }
+
+    /**
+     * Returns a string representation of the given licenses for comparison.
+     * @param licenses licenses
+     * @return string representation
+     */
+    private static String licensesToString(List<License> licenses) {
+        if ((licenses == null) || (licenses.isEmpty())) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (License oneLicense : licenses) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(oneLicense.getName()).append(" (").append(oneLicense.getUrl()).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Returns the list with licenses.
+     * @return licenses
+     */
+    public List<License> getLicenses() {
+        return licenses;
+    }
+
+    /**
+     * Sets the list with licenses.
+     * @param licenses list with licenses to set
+     */
+    public void setLicenses(List<License> licenses) {
+        this.licenses = licenses;
+    }
+
+    /**
+     * Returns the name.
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     * @param name name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the description.
+     * @return description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the description.
+     * @param description description to set
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns the website URL.
+     * @return website URL
+     */
+    public String getWebsiteUrl() {
+        return websiteUrl;
+    }
+
+    /**
+     * Sets the website URL.
+     * @param websiteUrl website URL to set
+     */
+    public void setWebsiteUrl(String websiteUrl) {
+        this.websiteUrl = websiteUrl;
+    }
+}
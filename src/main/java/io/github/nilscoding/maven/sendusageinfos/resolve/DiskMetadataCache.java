@@ -0,0 +1,284 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import io.github.nilscoding.maven.sendusageinfos.util.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent on-disk cache for artifact metadata, keyed by resolution engine and groupId:artifactId:version.
+ * <p>
+ * Each entry is stored in its own small binary file. Entries are written to a temporary file first and then
+ * moved into place, so concurrent builds on the same machine never read partially written entries.
+ * The optional stamp (e.g. POM timestamp and size for SNAPSHOT versions) invalidates an entry when it differs.
+ * Entries of different resolution engines are kept apart, so results of one engine are never served to the other.
+ * </p>
+ * @author NilsCoding
+ */
+public class DiskMetadataCache {
+
+    /**
+     * Format version of the entry files.
+     */
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * File extension of entry files.
+     */
+    private static final String ENTRY_EXTENSION = ".bin";
+    /**
+     * Maximum size of an entry file in bytes; larger files are corrupt and treated as not cached.
+     */
+    private static final long MAX_ENTRY_SIZE = 1024L * 1024L;
+    /**
+     * File name prefix of temporary files.
+     */
+    private static final String TEMP_PREFIX = "entry";
+    /**
+     * File extension of temporary files.
+     */
+    private static final String TEMP_EXTENSION = ".tmp";
+    /**
+     * Age in milliseconds after which a temporary file is considered left behind by a crashed or killed build.
+     */
+    private static final long STALE_TEMP_FILE_MILLIS = 60L * 60L * 1000L;
+
+    /**
+     * Cache directory.
+     */
+    private final File directory;
+    /**
+     * Resolution engine whose results are cached.
+     */
+    private final String engine;
+    /**
+     * Maximum number of entries to keep.
+     */
+    private final int maxEntries;
+    /**
+     * Flag if entries have been written since the last eviction.
+     */
+    private final AtomicBoolean modified = new AtomicBoolean();
+
+    /**
+     * Creates a new instance.
+     * @param directory  cache directory, will be created if missing
+     * @param engine     resolution engine whose results are cached
+     * @param maxEntries maximum number of entries to keep (0 or less for unlimited)
+     */
+    public DiskMetadataCache(File directory, String engine, int maxEntries) {
+        this.directory = directory;
+        this.engine = engine;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached metadata.
+     * @param gav   artifact coordinates (groupId:artifactId:version)
+     * @param stamp stamp the entry must match, or null if the entry never changes
+     * @return cached metadata or null if not cached or outdated
+     */
+    public ArtifactMetadata get(String gav, String stamp) {
+        if (gav == null) {
+            return null;
+        }
+        File f = this.entryFile(gav);
+        if ((f.isFile() == false) || (f.length() > MAX_ENTRY_SIZE)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(f.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String entryEngine = readString(in);
+            String entryGav = readString(in);
+            String entryStamp = readString(in);
+            if ((Objects.equals(this.engine, entryEngine) == false) || (gav.equals(entryGav) == false)
+                    || (Objects.equals(stamp, entryStamp) == false)) {
+                return null;
+            }
+            ArtifactMetadata metadata = new ArtifactMetadata();
+            metadata.setName(readString(in));
+            metadata.setDescription(readString(in));
+            metadata.setWebsiteUrl(readString(in));
+            int licenseCount = in.readInt();
+            if (licenseCount >= 0) {
+                List<License> licenses = new LinkedList<>();
+                for (int i = 0; i < licenseCount; i++) {
+                    License license = new License();
+                    license.setName(readString(in));
+                    license.setUrl(readString(in));
+                    licenses.add(license);
+                }
+                metadata.setLicenses(licenses);
+            }
+            // used as access time for eviction, failing to update is not critical
+            f.setLastModified(System.currentTimeMillis());
+            return metadata;
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the metadata in the cache.
+     * @param gav      artifact coordinates (groupId:artifactId:version)
+     * @param stamp    stamp for invalidation, or null if the entry never changes
+     * @param metadata metadata to store
+     * @return true if stored, false on error
+     */
+    public boolean put(String gav, String stamp, ArtifactMetadata metadata) {
+        if ((gav == null) || (metadata == null)) {
+            return false;
+        }
+        File tmpFile = null;
+        try {
+            Files.createDirectories(this.directory.toPath());
+            tmpFile = File.createTempFile(TEMP_PREFIX, TEMP_EXTENSION, this.directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, this.engine);
+                writeString(out, gav);
+                writeString(out, stamp);
+                writeString(out, metadata.getName());
+                writeString(out, metadata.getDescription());
+                writeString(out, metadata.getWebsiteUrl());
+                List<License> licenses = metadata.getLicenses();
+                if (licenses == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(licenses.size());
+                    for (License oneLicense : licenses) {
+                        writeString(out, oneLicense.getName());
+                        writeString(out, oneLicense.getUrl());
+                    }
+                }
+            }
+            File f = this.entryFile(gav);
+            try {
+                Files.move(tmpFile.toPath(), f.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.modified.set(true);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Removes temporary files left behind by crashed or killed builds, and the least recently used entries if the
+     * cache holds more than the maximum number of entries.
+     * Does nothing if no entries have been written since the last call.
+     * @return number of removed entries and temporary files
+     */
+    public int evict() {
+        if (this.modified.getAndSet(false) == false) {
+            return 0;
+        }
+        int removed = 0;
+        File[] tmpFiles = this.directory.listFiles((dir, name) -> name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_EXTENSION));
+        if (tmpFiles != null) {
+            // younger temporary files might still be written by a concurrent build
+            long staleBefore = System.currentTimeMillis() - STALE_TEMP_FILE_MILLIS;
+            for (File oneTmpFile : tmpFiles) {
+                if ((oneTmpFile.lastModified() < staleBefore) && oneTmpFile.delete()) {
+                    removed++;
+                }
+            }
+        }
+        if (this.maxEntries <= 0) {
+            return removed;
+        }
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+        if ((entryFiles == null) || (entryFiles.length <= this.maxEntries)) {
+            return removed;
+        }
+        Arrays.sort(entryFiles, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < entryFiles.length - this.maxEntries; i++) {
+            if (entryFiles[i].delete()) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the cache directory.
+     * @return cache directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the resolution engine whose results are cached.
+     * @return resolution engine
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the entry file for the given coordinates.
+     * @param gav artifact coordinates
+     * @return entry file
+     */
+    private File entryFile(String gav) {
+        return new File(this.directory, Hashing.sha1Hex(this.engine + "|" + gav) + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Writes a nullable string.
+     * @param out output
+     * @param str string to write, can be null
+     * @throws IOException on write errors
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a nullable string.
+     * @param in input, reading from the entry in memory (so the number of available bytes is exact)
+     * @return string or null
+     * @throws IOException on read errors or if the string is longer than the rest of the entry
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            return null;
+        }
+        if (len > in.available()) {
+            // corrupt or truncated entry, don't allocate what the length claims
+            throw new IOException("string length " + len + " exceeds the entry size");
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.util.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Negative cache for artifacts whose metadata could not be resolved, keyed by groupId:artifactId:version.
+ * <p>
+ * Failures are kept in memory for the whole build session, so every failing artifact is only resolved once per build.
+ * With a directory and a time to live, failures are also stored on disk (one small binary file per entry, written like
+ * the entries of {@link DiskMetadataCache}), and later builds skip the resolution until the entry has expired.
+ * The failure reason is kept with each entry, so skipped artifacts can still be reported with their reason.
+ * </p>
+ * @author NilsCoding
+ */
+public class FailedResolutionCache {
+
+    /**
+     * Format version of the entry files.
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * File extension of entry files.
+     */
+    private static final String ENTRY_EXTENSION = ".bin";
+    /**
+     * Maximum size of an entry file in bytes; larger files are corrupt and treated as not cached.
+     */
+    private static final long MAX_ENTRY_SIZE = 64L * 1024L;
+
+    /**
+     * Cache directory, null for an in-memory cache only.
+     */
+    private final File directory;
+    /**
+     * Time to live of the entries on disk in milliseconds.
+     */
+    private final long ttlMillis;
+    /**
+     * Failure reasons by coordinates, for all failures of the current build session.
+     */
+    private final ConcurrentMap<String, String> failures = new ConcurrentHashMap<>();
+    /**
+     * Coordinates of the failures read from disk, which have not been resolved again in the current build session.
+     */
+    private final Set<String> diskHits = ConcurrentHashMap.newKeySet();
+    /**
+     * Coordinates already looked up on disk without a (valid) entry, so the disk is only checked once per build session.
+     */
+    private final Set<String> diskMisses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new instance.
+     * @param directory cache directory, will be created if missing; null for an in-memory cache only
+     * @param ttlMillis time to live of the entries on disk in milliseconds, 0 or less for an in-memory cache only
+     */
+    public FailedResolutionCache(File directory, long ttlMillis) {
+        this.directory = (ttlMillis > 0) ? directory : null;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the reason of a cached failure.
+     * @param gav artifact coordinates (groupId:artifactId:version)
+     * @return failure reason or null if the artifact has no cached (or only an expired) failure
+     */
+    public String get(String gav) {
+        if (gav == null) {
+            return null;
+        }
+        String reason = this.failures.get(gav);
+        if ((reason == null) && (this.directory != null) && (this.diskMisses.contains(gav) == false)) {
+            reason = this.readEntry(gav);
+            if (reason == null) {
+                this.diskMisses.add(gav);
+            } else {
+                String previousReason = this.failures.putIfAbsent(gav, reason);
+                if (previousReason == null) {
+                    this.diskHits.add(gav);
+                } else {
+                    reason = previousReason;
+                }
+            }
+        }
+        return reason;
+    }
+
+    /**
+     * Returns the reason of a failure of the current build session, without looking at the entries on disk.
+     * @param gav artifact coordinates (groupId:artifactId:version)
+     * @return failure reason or null if the artifact did not fail in the current build session
+     */
+    public String getReason(String gav) {
+        return (gav != null) ? this.failures.get(gav) : null;
+    }
+
+    /**
+     * Stores a failure.
+     * @param gav     artifact coordinates (groupId:artifactId:version)
+     * @param reason  failure reason
+     * @param persist true to store the failure on disk as well (if enabled), false to keep it for this build session only
+     */
+    public void put(String gav, String reason, boolean persist) {
+        if ((gav == null) || (reason == null)) {
+            return;
+        }
+        this.failures.put(gav, reason);
+        this.diskHits.remove(gav);
+        if (persist && (this.directory != null)) {
+            this.writeEntry(gav, reason);
+        }
+    }
+
+    /**
+     * Returns the failures of the current build session, grouped by reason. Reasons are ordered by the number of
+     * failed artifacts (most frequent first), the coordinates of each reason are ordered alphabetically.
+     * @return coordinates by failure reason, not null
+     */
+    public Map<String, List<String>> getFailuresByReason() {
+        Map<String, List<String>> byReason = new TreeMap<>();
+        for (Map.Entry<String, String> oneFailure : new TreeMap<>(this.failures).entrySet()) {
+            byReason.computeIfAbsent(oneFailure.getValue(), k -> new ArrayList<>()).add(oneFailure.getKey());
+        }
+        List<Map.Entry<String, List<String>>> entries = new ArrayList<>(byReason.entrySet());
+        entries.sort((e1, e2) -> Integer.compare(e2.getValue().size(), e1.getValue().size()));
+        Map<String, List<String>> ordered = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> oneEntry : entries) {
+            ordered.put(oneEntry.getKey(), Collections.unmodifiableList(oneEntry.getValue()));
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the number of failed artifacts of the current build session.
+     * @return number of failed artifacts
+     */
+    public int size() {
+        return this.failures.size();
+    }
+
+    /**
+     * Returns the number of failed artifacts of the current build session that were taken from disk.
+     * @return number of failed artifacts taken from disk
+     */
+    public int getDiskHits() {
+        return this.diskHits.size();
+    }
+
+    /**
+     * Removes all expired entries from disk.
+     * @return number of removed entries
+     */
+    public int evictExpired() {
+        if (this.directory == null) {
+            return 0;
+        }
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+        if (entryFiles == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (File oneEntryFile : entryFiles) {
+            // entry files are never modified after the move, so the modification time is the time of the failure
+            if ((oneEntryFile.lastModified() + this.ttlMillis < now) && oneEntryFile.delete()) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the cache directory.
+     * @return cache directory, null for an in-memory cache only
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads the failure reason of an entry on disk.
+     * @param gav artifact coordinates
+     * @return failure reason or null if not cached, expired or on error
+     */
+    private String readEntry(String gav) {
+        File f = this.entryFile(gav);
+        if ((f.isFile() == false) || (f.length() > MAX_ENTRY_SIZE)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(f.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String entryGav = readString(in);
+            long failedAt = in.readLong();
+            String reason = readString(in);
+            if ((gav.equals(entryGav) == false) || (failedAt + this.ttlMillis < System.currentTimeMillis())) {
+                return null;
+            }
+            return reason;
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry to disk. Errors are ignored, the failure is still kept in memory.
+     * @param gav    artifact coordinates
+     * @param reason failure reason
+     */
+    private void writeEntry(String gav, String reason) {
+        File tmpFile = null;
+        try {
+            Files.createDirectories(this.directory.toPath());
+            tmpFile = File.createTempFile("entry", ".tmp", this.directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, gav);
+                out.writeLong(System.currentTimeMillis());
+                writeString(out, reason);
+            }
+            File f = this.entryFile(gav);
+            try {
+                Files.move(tmpFile.toPath(), f.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException ex) {
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the entry file for the given coordinates.
+     * @param gav artifact coordinates
+     * @return entry file
+     */
+    private File entryFile(String gav) {
+        return new File(this.directory, Hashing.sha1Hex(gav) + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Writes a nullable string.
+     * @param out output
+     * @param str string to write, can be null
+     * @throws IOException on write errors
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a nullable string.
+     * @param in input, reading from the entry in memory (so the number of available bytes is exact)
+     * @return string or null
+     * @throws IOException on read errors or if the string is longer than the rest of the entry
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            return null;
+        }
+        if (len > in.available()) {
+            // corrupt or truncated entry, don't allocate what the length claims
+            throw new IOException("string length " + len + " exceeds the entry size");
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,409 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight metadata reader, which extracts licenses, name, description and website URL directly from POM files
+ * in the local repository instead of building the full Maven project model.
+ * <p>
+ * The parent chain is only read up to the first POM declaring licenses (which are inherited in Maven), so artifacts
+ * declaring their own licenses need a single file. Description and website URL are inherited from the POMs read for
+ * the licenses only. Parsed parent POMs are cached, as many artifacts share the same parents.
+ * If the parent chain is needed but breaks (e.g. a parent POM that is not in the local repository), no metadata is
+ * returned at all instead of metadata without licenses, so the caller can fall back to building the full project model.
+ * Only simple property expressions (project coordinates and properties defined in the POM chain) are interpolated.
+ * </p>
+ * @author NilsCoding
+ */
+public class PomMetadataReader {
+
+    /**
+     * Maximum depth of the parent chain.
+     */
+    private static final int MAX_PARENT_DEPTH = 32;
+    /**
+     * Pattern for property expressions.
+     */
+    private static final Pattern EXPRESSION_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * Locator for POM files.
+     */
+    private final PomLocator pomLocator;
+    /**
+     * XML input factory.
+     */
+    private final XMLInputFactory xmlInputFactory;
+    /**
+     * Cache for parsed parent POMs, by groupId:artifactId:version.
+     */
+    private final ConcurrentMap<String, PomInfo> parentCache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     * @param pomLocator locator for POM files
+     */
+    public PomMetadataReader(PomLocator pomLocator) {
+        this.pomLocator = pomLocator;
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Reads the metadata of the given artifact.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param version    version
+     * @return metadata or null if the artifact's POM or a required parent POM is not available or not readable
+     */
+    public ArtifactMetadata read(String groupId, String artifactId, String version) {
+        PomInfo pom = this.readPom(groupId, artifactId, version);
+        if (pom == null) {
+            return null;
+        }
+        List<PomInfo> chain = new ArrayList<>();
+        chain.add(pom);
+        if (pom.licenses.isEmpty()) {
+            PomInfo current = pom;
+            while ((current.parentArtifactId != null) && current.licenses.isEmpty()) {
+                PomInfo parent = (chain.size() < MAX_PARENT_DEPTH)
+                        ? this.readParentPom(current.parentGroupId, current.parentArtifactId, current.parentVersion) : null;
+                if (parent == null) {
+                    // inherited licenses might be missing, which must not be taken for the artifact's metadata
+                    return null;
+                }
+                chain.add(parent);
+                current = parent;
+            }
+        }
+
+        ArtifactMetadata metadata = new ArtifactMetadata();
+        metadata.setName(interpolate(pom.name, chain));
+        for (PomInfo onePom : chain) {
+            if (onePom.description != null) {
+                metadata.setDescription(interpolate(onePom.description, chain));
+                break;
+            }
+        }
+        StringBuilder urlPath = new StringBuilder();
+        for (PomInfo onePom : chain) {
+            if (onePom.url != null) {
+                metadata.setWebsiteUrl(interpolate(onePom.url, chain) + urlPath);
+                break;
+            }
+            // inherited URLs get the child's artifact ID appended
+            urlPath.insert(0, "/" + onePom.artifactId);
+        }
+        for (PomInfo onePom : chain) {
+            if (onePom.licenses.isEmpty() == false) {
+                List<License> licenses = new LinkedList<>();
+                for (String[] oneLicense : onePom.licenses) {
+                    License license = new License();
+                    license.setName(interpolate(oneLicense[0], chain));
+                    license.setUrl(interpolate(oneLicense[1], chain));
+                    licenses.add(license);
+                }
+                metadata.setLicenses(licenses);
+                break;
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns the number of cached parent POMs.
+     * @return number of cached parent POMs
+     */
+    public int getParentCacheSize() {
+        return this.parentCache.size();
+    }
+
+    /**
+     * Reads a parent POM, using the parent cache.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param version    version
+     * @return parsed POM or null if not available
+     */
+    private PomInfo readParentPom(String groupId, String artifactId, String version) {
+        String key = groupId + ":" + artifactId + ":" + version;
+        PomInfo cached = this.parentCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        PomInfo pom = this.readPom(groupId, artifactId, version);
+        if (pom != null) {
+            this.parentCache.putIfAbsent(key, pom);
+        }
+        return pom;
+    }
+
+    /**
+     * Locates and parses a POM file.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param version    version
+     * @return parsed POM or null if not available
+     */
+    private PomInfo readPom(String groupId, String artifactId, String version) {
+        if ((groupId == null) || (artifactId == null) || (version == null)) {
+            return null;
+        }
+        File pomFile = this.pomLocator.locate(groupId, artifactId, version);
+        if ((pomFile == null) || (pomFile.isFile() == false)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(pomFile))) {
+            return this.parsePom(in);
+        } catch (IOException | XMLStreamException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses the relevant elements of a POM.
+     * @param in input stream
+     * @return parsed POM
+     * @throws XMLStreamException on parse errors
+     */
+    PomInfo parsePom(InputStream in) throws XMLStreamException {
+        PomInfo pom = new PomInfo();
+        XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(in);
+        try {
+            List<String> path = new ArrayList<>();
+            String[] currentLicense = null;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    path.add(reader.getLocalName());
+                    text.setLength(0);
+                    if (isPath(path, "project", "licenses", "license")) {
+                        currentLicense = new String[2];
+                    }
+                } else if ((event == XMLStreamConstants.CHARACTERS) || (event == XMLStreamConstants.CDATA)) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String value = text.toString().trim();
+                    text.setLength(0);
+                    this.assignValue(pom, path, value, currentLicense);
+                    if (isPath(path, "project", "licenses", "license") && (currentLicense != null)) {
+                        if (currentLicense[0] != null) {
+                            pom.licenses.add(currentLicense);
+                        }
+                        currentLicense = null;
+                    }
+                    path.remove(path.size() - 1);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        if (pom.groupId == null) {
+            pom.groupId = pom.parentGroupId;
+        }
+        if (pom.version == null) {
+            pom.version = pom.parentVersion;
+        }
+        return pom;
+    }
+
+    /**
+     * Assigns the value of an element, if relevant.
+     * @param pom            POM to assign value to
+     * @param path           element path
+     * @param value          element text
+     * @param currentLicense current license, can be null
+     */
+    private void assignValue(PomInfo pom, List<String> path, String value, String[] currentLicense) {
+        String nullableValue = value.isEmpty() ? null : value;
+        if (path.size() == 2) {
+            switch (path.get(1)) {
+                case "groupId":
+                    pom.groupId = nullableValue;
+                    break;
+                case "artifactId":
+                    pom.artifactId = nullableValue;
+                    break;
+                case "version":
+                    pom.version = nullableValue;
+                    break;
+                case "name":
+                    pom.name = nullableValue;
+                    break;
+                case "description":
+                    pom.description = nullableValue;
+                    break;
+                case "url":
+                    pom.url = nullableValue;
+                    break;
+                default:
+                    break;
+            }
+        } else if (isPath(path, "project", "parent", null)) {
+            switch (path.get(path.size() - 1)) {
+                case "groupId":
+                    pom.parentGroupId = nullableValue;
+                    break;
+                case "artifactId":
+                    pom.parentArtifactId = nullableValue;
+                    break;
+                case "version":
+                    pom.parentVersion = nullableValue;
+                    break;
+                default:
+                    break;
+            }
+        } else if (isPath(path, "project", "properties", null)) {
+            pom.properties.put(path.get(path.size() - 1), value);
+        } else if (isPath(path, "project", "licenses", "license", null) && (currentLicense != null)) {
+            String licenseElement = path.get(path.size() - 1);
+            if ("name".equals(licenseElement)) {
+                currentLicense[0] = nullableValue;
+            } else if ("url".equals(licenseElement)) {
+                currentLicense[1] = nullableValue;
+            }
+        }
+    }
+
+    /**
+     * Checks if the given path matches the given elements (null matching any element).
+     * @param path     path to check
+     * @param elements elements to match
+     * @return true if matching, false otherwise
+     */
+    private static boolean isPath(List<String> path, String... elements) {
+        if (path.size() != elements.length) {
+            return false;
+        }
+        for (int i = 0; i < elements.length; i++) {
+            if ((elements[i] != null) && (elements[i].equals(path.get(i)) == false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interpolates simple property expressions.
+     * @param value value to interpolate
+     * @param chain POM chain, starting with the artifact's own POM
+     * @return interpolated value
+     */
+    private static String interpolate(String value, List<PomInfo> chain) {
+        if ((value == null) || (value.contains("${") == false)) {
+            return value;
+        }
+        PomInfo pom = chain.get(0);
+        Matcher m = EXPRESSION_PATTERN.matcher(value);
+        StringBuffer sb = new StringBuffer();
+        while (m.find()) {
+            String expression = m.group(1);
+            String replacement = null;
+            if ("project.groupId".equals(expression) || "pom.groupId".equals(expression)) {
+                replacement = pom.groupId;
+            } else if ("project.artifactId".equals(expression) || "pom.artifactId".equals(expression)) {
+                replacement = pom.artifactId;
+            } else if ("project.version".equals(expression) || "pom.version".equals(expression)) {
+                replacement = pom.version;
+            } else if ("project.name".equals(expression)) {
+                replacement = pom.name;
+            } else {
+                for (PomInfo onePom : chain) {
+                    replacement = onePom.properties.get(expression);
+                    if (replacement != null) {
+                        break;
+                    }
+                }
+            }
+            m.appendReplacement(sb, Matcher.quoteReplacement((replacement != null) ? replacement : m.group()));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Locator for POM files.
+     */
+    @FunctionalInterface
+    public interface PomLocator {
+        /**
+         * Returns the POM file of the given artifact.
+         * @param groupId    group ID
+         * @param artifactId artifact ID
+         * @param version    version
+         * @return POM file or null if not available
+         */
+        File locate(String groupId, String artifactId, String version);
+    }
+
+    /**
+     * Relevant elements of a parsed POM.
+     */
+    static class PomInfo {
+        /**
+         * Group ID (or parent's group ID if not specified).
+         */
+        private String groupId;
+        /**
+         * Artifact ID.
+         */
+        private String artifactId;
+        /**
+         * Version (or parent's version if not specified).
+         */
+        private String version;
+        /**
+         * Name.
+         */
+        private String name;
+        /**
+         * Description.
+         */
+        private String description;
+        /**
+         * Website URL.
+         */
+        private String url;
+        /**
+         * Licenses, each one as array of name and URL.
+         */
+        private final List<String[]> licenses = new ArrayList<>();
+        /**
+         * Properties.
+         */
+        private final Map<String, String> properties = new HashMap<>();
+        /**
+         * Parent group ID.
+         */
+        private String parentGroupId;
+        /**
+         * Parent artifact ID.
+         */
+        private String parentArtifactId;
+        /**
+         * Parent version.
+         */
+        private String parentVersion;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache for artifact metadata, shared by all Mojo executions of one build session.
+ * <p>
+ * Each key is resolved at most once: concurrent requests for the same key wait for the first resolution
+ * instead of resolving the artifact again. Unresolvable artifacts are cached as well (with a null result), but
+ * resolutions cancelled by an interrupt are not: their entry is removed, and waiting requests resolve the key again.
+ * </p>
+ * @author NilsCoding
+ */
+public class SessionResolutionCache {
+
+    /**
+     * Cached (or pending) resolution results by key.
+     */
+    private final ConcurrentMap<String, CompletableFuture<ArtifactMetadata>> entries = new ConcurrentHashMap<>();
+    /**
+     * Number of cache hits.
+     */
+    private final AtomicLong hits = new AtomicLong();
+    /**
+     * Number of cache misses.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new instance.
+     */
+    public SessionResolutionCache() {
+    }
+
+    /**
+     * Returns the cached metadata for the given key, resolving it with the given resolver if not cached yet.
+     * @param key      cache key
+     * @param resolver resolver to use on cache miss, may return null
+     * @return metadata or null if not resolvable
+     */
+    public ArtifactMetadata get(String key, Supplier<ArtifactMetadata> resolver) {
+        while (true) {
+            CompletableFuture<ArtifactMetadata> newEntry = new CompletableFuture<>();
+            CompletableFuture<ArtifactMetadata> entry = this.entries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                return this.resolve(key, newEntry, resolver);
+            }
+            ArtifactMetadata metadata;
+            try {
+                metadata = entry.join();
+            } catch (CancellationException ex) {
+                // the resolving thread has been interrupted and the entry removed, so resolve again
+                continue;
+            }
+            this.hits.incrementAndGet();
+            return metadata;
+        }
+    }
+
+    /**
+     * Resolves the metadata for a new entry and completes the entry.
+     * @param key      cache key
+     * @param newEntry new (pending) entry of the key
+     * @param resolver resolver to use, may return null
+     * @return metadata or null if not resolvable
+     */
+    private ArtifactMetadata resolve(String key, CompletableFuture<ArtifactMetadata> newEntry, Supplier<ArtifactMetadata> resolver) {
+        this.misses.incrementAndGet();
+        ArtifactMetadata metadata;
+        try {
+            metadata = resolver.get();
+        } catch (RuntimeException ex) {
+            // don't keep failures caused by exceptions, a later request may succeed
+            this.entries.remove(key, newEntry);
+            newEntry.completeExceptionally(ex);
+            throw ex;
+        }
+        if ((metadata == null) && Thread.currentThread().isInterrupted()) {
+            // a cancelled resolution does not mean the artifact is unresolvable, so don't keep it for later modules
+            this.entries.remove(key, newEntry);
+            newEntry.cancel(false);
+            return null;
+        }
+        newEntry.complete(metadata);
+        return metadata;
+    }
+
+    /**
+     * Returns the number of cache hits.
+     * @return number of cache hits
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     * @return number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * @return number of cached entries
+     */
+    public int size() {
+        return this.entries.size();
+    }
+}
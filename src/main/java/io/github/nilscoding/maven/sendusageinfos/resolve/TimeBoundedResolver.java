@@ -0,0 +1,276 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.session.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runs resolutions on a thread pool, with a timeout per resolution and an overall budget.
+ * Resolutions that do not finish in time will be cancelled and reported as timed out. Since a resolution might not
+ * react on being cancelled, the pool gets a replacement thread for each cancelled running resolution.
+ * @param <R> result type
+ * @author NilsCoding
+ */
+public class TimeBoundedResolver<R> {
+
+    /**
+     * State of a resolution: waiting for a thread.
+     */
+    private static final int STATE_QUEUED = 0;
+    /**
+     * State of a resolution: running.
+     */
+    private static final int STATE_RUNNING = 1;
+    /**
+     * State of a resolution: finished.
+     */
+    private static final int STATE_FINISHED = 2;
+
+    /**
+     * Number of threads.
+     */
+    private final int threads;
+    /**
+     * Timeout per resolution in milliseconds, 0 or less for no timeout.
+     */
+    private final long timeoutMillis;
+    /**
+     * Overall budget in milliseconds, 0 or less for no budget.
+     */
+    private final long budgetMillis;
+    /**
+     * Start time of the budget (as of {@link System#nanoTime()}).
+     */
+    private final long budgetStartNanos;
+
+    /**
+     * Creates a new instance.
+     * @param threads          number of threads
+     * @param timeoutMillis    timeout per resolution in milliseconds, 0 or less for no timeout
+     * @param budgetMillis     overall budget in milliseconds, 0 or less for no budget
+     * @param budgetStartNanos start time of the budget (as of {@link System#nanoTime()})
+     */
+    public TimeBoundedResolver(int threads, long timeoutMillis, long budgetMillis, long budgetStartNanos) {
+        this.threads = Math.max(threads, 1);
+        this.timeoutMillis = timeoutMillis;
+        this.budgetMillis = budgetMillis;
+        this.budgetStartNanos = budgetStartNanos;
+    }
+
+    /**
+     * Runs the given resolutions and waits for their results.
+     * @param resolutions resolutions to run
+     * @return outcomes in order of the given resolutions
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<Outcome<R>> resolve(List<Callable<R>> resolutions) throws InterruptedException {
+        List<Outcome<R>> outcomes = new ArrayList<>(resolutions.size());
+        if (resolutions.isEmpty()) {
+            return outcomes;
+        }
+        AtomicIntegerArray states = new AtomicIntegerArray(resolutions.size());
+        AtomicLongArray startTimes = new AtomicLongArray(resolutions.size());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory("send-usage-infos-resolver"));
+        try {
+            List<Future<R>> futures = new ArrayList<>(resolutions.size());
+            for (int i = 0; i < resolutions.size(); i++) {
+                final int index = i;
+                final Callable<R> resolution = resolutions.get(i);
+                futures.add(executor.submit(() -> {
+                    startTimes.set(index, System.nanoTime());
+                    states.set(index, STATE_RUNNING);
+                    try {
+                        return resolution.call();
+                    } finally {
+                        states.set(index, STATE_FINISHED);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                outcomes.add(this.waitFor(futures.get(i), i, states, startTimes, executor));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    /**
+     * Waits for the given future, respecting timeout per resolution and overall budget.
+     * @param future     future to wait for
+     * @param index      index of the resolution
+     * @param states     states of all resolutions
+     * @param startTimes start times of all resolutions
+     * @param executor   executor running the resolutions
+     * @return outcome
+     * @throws InterruptedException if interrupted
+     */
+    private Outcome<R> waitFor(Future<R> future, int index, AtomicIntegerArray states, AtomicLongArray startTimes,
+                               ThreadPoolExecutor executor) throws InterruptedException {
+        while (true) {
+            boolean started = states.get(index) != STATE_QUEUED;
+            long now = System.nanoTime();
+            long waitNanos = Long.MAX_VALUE;
+            if (this.budgetMillis > 0) {
+                waitNanos = TimeUnit.MILLISECONDS.toNanos(this.budgetMillis) - (now - this.budgetStartNanos);
+            }
+            if (this.timeoutMillis > 0) {
+                // the timeout only starts when the resolution gets a thread, until then check again after the timeout
+                long elapsedNanos = started ? (now - startTimes.get(index)) : 0L;
+                waitNanos = Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(this.timeoutMillis) - elapsedNanos);
+            }
+            try {
+                if (waitNanos == Long.MAX_VALUE) {
+                    return Outcome.resolved(future.get());
+                }
+                if (waitNanos <= 0) {
+                    if (future.isDone() == false) {
+                        throw new TimeoutException();
+                    }
+                    return Outcome.resolved(future.get());
+                }
+                return Outcome.resolved(future.get(waitNanos, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ex) {
+                return Outcome.failed(ex.getCause());
+            } catch (TimeoutException ex) {
+                if ((this.isBudgetExceeded() == false) && (started == false)) {
+                    continue;
+                }
+                if (this.isBudgetExceeded() || this.isTimeoutExceeded(index, states, startTimes)) {
+                    future.cancel(true);
+                    if (states.get(index) == STATE_RUNNING) {
+                        addReplacementThread(executor);
+                    }
+                    return Outcome.timedOut();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the overall budget has been exceeded.
+     * @return true if exceeded
+     */
+    private boolean isBudgetExceeded() {
+        return (this.budgetMillis > 0)
+                && (System.nanoTime() - this.budgetStartNanos >= TimeUnit.MILLISECONDS.toNanos(this.budgetMillis));
+    }
+
+    /**
+     * Checks if the timeout of a running resolution has been exceeded.
+     * @param index      index of the resolution
+     * @param states     states of all resolutions
+     * @param startTimes start times of all resolutions
+     * @return true if exceeded
+     */
+    private boolean isTimeoutExceeded(int index, AtomicIntegerArray states, AtomicLongArray startTimes) {
+        return (this.timeoutMillis > 0) && (states.get(index) == STATE_RUNNING)
+                && (System.nanoTime() - startTimes.get(index) >= TimeUnit.MILLISECONDS.toNanos(this.timeoutMillis));
+    }
+
+    /**
+     * Adds a thread to the pool, replacing a thread that might still be blocked by a cancelled resolution.
+     * @param executor executor to add the thread to
+     */
+    private static void addReplacementThread(ThreadPoolExecutor executor) {
+        synchronized (executor) {
+            // maximum first, the core size must never exceed it
+            executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+            executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+        }
+    }
+
+    /**
+     * Outcome of one resolution.
+     * @param <R> result type
+     */
+    public static final class Outcome<R> {
+        /**
+         * Result, null if failed or timed out.
+         */
+        private final R result;
+        /**
+         * Failure cause, null if resolved or timed out.
+         */
+        private final Throwable failure;
+        /**
+         * Flag for a resolution that did not finish in time.
+         */
+        private final boolean timedOut;
+
+        /**
+         * Creates a new instance.
+         * @param result   result
+         * @param failure  failure cause
+         * @param timedOut flag for a resolution that did not finish in time
+         */
+        private Outcome(R result, Throwable failure, boolean timedOut) {
+            this.result = result;
+            this.failure = failure;
+            this.timedOut = timedOut;
+        }
+
+        /**
+         * Creates the outcome of a finished resolution.
+         * @param result result
+         * @param <R>    result type
+         * @return outcome
+         */
+        static <R> Outcome<R> resolved(R result) {
+            return new Outcome<>(result, null, false);
+        }
+
+        /**
+         * Creates the outcome of a failed resolution.
+         * @param failure failure cause
+         * @param <R>     result type
+         * @return outcome
+         */
+        static <R> Outcome<R> failed(Throwable failure) {
+            return new Outcome<>(null, failure, false);
+        }
+
+        /**
+         * Creates the outcome of a resolution that did not finish in time.
+         * @param <R> result type
+         * @return outcome
+         */
+        static <R> Outcome<R> timedOut() {
+            return new Outcome<>(null, null, true);
+        }
+
+        /**
+         * Returns the result.
+         * @return result, null if failed or timed out
+         */
+        public R getResult() {
+            return result;
+        }
+
+        /**
+         * Returns the failure cause.
+         * @return failure cause, null if resolved or timed out
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Checks if the resolution did not finish in time.
+         * @return true if timed out
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Resolution of referenced artifact metadata, including caching.
+ */
+package io.github.nilscoding.maven.sendusageinfos.resolve;
@@ -0,0 +1,138 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-document result of a batch request.
+ * <p>
+ * The batch endpoint responds with <code>{"results": [{"index": 0, "status": 200, "message": "..."}, ...]}</code>.
+ * Documents without an entry in the response (or if the response cannot be parsed) get the status of the HTTP response.
+ * </p>
+ * @author NilsCoding
+ */
+public class BatchResult {
+
+    /**
+     * Status code per document.
+     */
+    private final int[] statuses;
+    /**
+     * Message per document, entries can be null.
+     */
+    private final String[] messages;
+
+    /**
+     * Creates a new instance.
+     * @param statuses status code per document
+     * @param messages message per document, entries can be null
+     */
+    public BatchResult(int[] statuses, String[] messages) {
+        this.statuses = statuses;
+        this.messages = messages;
+    }
+
+    /**
+     * Creates an instance from the HTTP result of a batch request.
+     * @param httpResult    HTTP result
+     * @param documentCount number of documents sent
+     * @param gson          Gson instance for parsing the response
+     * @return instance
+     */
+    public static BatchResult fromHttpResult(HttpResult httpResult, int documentCount, Gson gson) {
+        int[] statuses = new int[documentCount];
+        String[] messages = new String[documentCount];
+        Arrays.fill(statuses, httpResult.getCode());
+        if (httpResult.isSuccessful() && (httpResult.getBody() != null)) {
+            try {
+                BatchResponse response = gson.fromJson(httpResult.getBody(), BatchResponse.class);
+                if ((response != null) && (response.results != null)) {
+                    for (DocumentStatus oneStatus : response.results) {
+                        if ((oneStatus != null) && (oneStatus.index != null) && (oneStatus.index >= 0)
+                                && (oneStatus.index < documentCount) && (oneStatus.status != null)) {
+                            statuses[oneStatus.index] = oneStatus.status;
+                            messages[oneStatus.index] = oneStatus.message;
+                        }
+                    }
+                }
+            } catch (JsonParseException ex) {
+                // no per-document status, the status of the HTTP response applies to all documents
+            }
+        }
+        return new BatchResult(statuses, messages);
+    }
+
+    /**
+     * Returns the number of documents.
+     * @return number of documents
+     */
+    public int size() {
+        return this.statuses.length;
+    }
+
+    /**
+     * Returns the status code of a document.
+     * @param index document index
+     * @return status code
+     */
+    public int getStatus(int index) {
+        return this.statuses[index];
+    }
+
+    /**
+     * Returns the message of a document.
+     * @param index document index
+     * @return message, can be null
+     */
+    public String getMessage(int index) {
+        return this.messages[index];
+    }
+
+    /**
+     * Checks if a document has been stored successfully.
+     * @param index document index
+     * @return true if successful
+     */
+    public boolean isSuccessful(int index) {
+        return HttpResult.isSuccessful(this.statuses[index]);
+    }
+
+    /**
+     * Checks if a document may be stored successfully when sent again later.
+     * @param index document index
+     * @return true if retryable
+     */
+    public boolean isRetryable(int index) {
+        return HttpResult.isRetryable(this.statuses[index]);
+    }
+
+    /**
+     * Response of the batch endpoint.
+     */
+    private static class BatchResponse {
+        /**
+         * Per-document results.
+         */
+        private List<DocumentStatus> results;
+    }
+
+    /**
+     * Result of one document.
+     */
+    private static class DocumentStatus {
+        /**
+         * Index of the document in the batch.
+         */
+        private Integer index;
+        /**
+         * Status code.
+         */
+        private Integer status;
+        /**
+         * Message, can be null.
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.DeltaUsageData;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.Hashing;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact snapshot of the last successfully sent usage data of one project to one location,
+ * consisting of a hash per referenced artifact (by GATV).
+ * <p>
+ * Only the artifact's own data (coordinates, scope, packaging, metadata and dependency trail) is hashed. Graph node
+ * numbers and <code>usedBy</code> references shift whenever the dependency graph changes, and the resolution failure
+ * depends on the build's environment, so these would mark unchanged artifacts as changed.
+ * </p>
+ * @author NilsCoding
+ */
+public class DeltaSnapshot {
+
+    /**
+     * Flag if the location supports delta usage data.
+     */
+    protected boolean deltaSupported;
+    /**
+     * Artifact hashes by GATV.
+     */
+    protected Map<String, String> artifactHashes = new TreeMap<>();
+
+    /**
+     * Creates a new instance.
+     */
+    public DeltaSnapshot() {
+    }
+
+    /**
+     * Creates a snapshot of the given usage data.
+     * @param usageData      usage data
+     * @param gson           Gson instance used for hashing the artifacts (see {@link #hash(Artifact, Gson)})
+     * @param deltaSupported flag if the location supports delta usage data
+     * @return snapshot
+     */
+    public static DeltaSnapshot of(UsageData usageData, Gson gson, boolean deltaSupported) {
+        DeltaSnapshot snapshot = new DeltaSnapshot();
+        snapshot.deltaSupported = deltaSupported;
+        if (usageData.getReferencedArtifacts() != null) {
+            for (Artifact oneArtifact : usageData.getReferencedArtifacts()) {
+                snapshot.artifactHashes.put(oneArtifact.getGatv(), hash(oneArtifact, gson));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Hashes the own data of an artifact, leaving out graph node, <code>usedBy</code> references and resolution failure.
+     * @param artifact artifact
+     * @param gson     Gson instance for serialization
+     * @return hash
+     */
+    static String hash(Artifact artifact, Gson gson) {
+        Artifact hashed = new Artifact();
+        hashed.setGroupId(artifact.getGroupId());
+        hashed.setArtifactId(artifact.getArtifactId());
+        hashed.setVersion(artifact.getVersion());
+        hashed.setScope(artifact.getScope());
+        hashed.setPackaging(artifact.getPackaging());
+        hashed.setLicenses(artifact.getLicenses());
+        hashed.setName(artifact.getName());
+        hashed.setDescription(artifact.getDescription());
+        hashed.setWebsiteUrl(artifact.getWebsiteUrl());
+        hashed.setDependencyTrail(artifact.getDependencyTrail());
+        return Hashing.sha1Hex(gson.toJson(hashed));
+    }
+
+    /**
+     * Returns the file of the snapshot for a project and location.
+     * @param stateDirectory state directory
+     * @param projectGatv    project's GATV
+     * @param location       location
+     * @return snapshot file
+     */
+    public static File getFile(File stateDirectory, String projectGatv, String location) {
+        return new File(stateDirectory, "delta-" + Hashing.sha1Hex(projectGatv + "|" + location) + ".json");
+    }
+
+    /**
+     * Loads a snapshot.
+     * @param file snapshot file
+     * @param gson Gson instance
+     * @return snapshot or null if not available or not readable
+     */
+    public static DeltaSnapshot load(File file, Gson gson) {
+        if (file.isFile() == false) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            DeltaSnapshot snapshot = gson.fromJson(reader, DeltaSnapshot.class);
+            if ((snapshot != null) && (snapshot.artifactHashes == null)) {
+                snapshot.artifactHashes = new TreeMap<>();
+            }
+            return snapshot;
+        } catch (IOException | JsonParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves this snapshot.
+     * @param file snapshot file
+     * @param gson Gson instance
+     * @throws IOException on write errors
+     */
+    public void save(File file, Gson gson) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            gson.toJson(this, writer);
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Creates the delta from this (old) snapshot to the given (current) usage data.
+     * @param usageData current usage data
+     * @param current   snapshot of the current usage data
+     * @return delta usage data
+     */
+    public DeltaUsageData createDelta(UsageData usageData, DeltaSnapshot current) {
+        DeltaUsageData delta = new DeltaUsageData();
+        delta.setProjectArtifact(usageData.getProjectArtifact());
+        delta.setBaseChecksum(this.getChecksum());
+        delta.setChecksum(current.getChecksum());
+        List<Artifact> added = new ArrayList<>();
+        List<Artifact> changed = new ArrayList<>();
+        if (usageData.getReferencedArtifacts() != null) {
+            for (Artifact oneArtifact : usageData.getReferencedArtifacts()) {
+                String gatv = oneArtifact.getGatv();
+                String oldHash = this.artifactHashes.get(gatv);
+                if (oldHash == null) {
+                    added.add(oneArtifact);
+                } else if (oldHash.equals(current.artifactHashes.get(gatv)) == false) {
+                    changed.add(oneArtifact);
+                }
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String oneGatv : this.artifactHashes.keySet()) {
+            if (current.artifactHashes.containsKey(oneGatv) == false) {
+                removed.add(oneGatv);
+            }
+        }
+        delta.setAddedArtifacts(added);
+        delta.setChangedArtifacts(changed);
+        delta.setRemovedArtifacts(removed);
+        // node IDs of the artifacts refer to the current graph, so the graph is always sent completely
+        delta.setDependencyGraph(usageData.getDependencyGraph());
+        delta.setUnenrichedArtifacts(usageData.getUnenrichedArtifacts());
+        delta.setPartial(usageData.getPartial());
+        delta.setTimedOutArtifacts(usageData.getTimedOutArtifacts());
+        delta.setKnownMetadataOmitted(usageData.getKnownMetadataOmitted());
+        delta.setExecutionMetrics(usageData.getExecutionMetrics());
+        return delta;
+    }
+
+    /**
+     * Returns the checksum of all artifact hashes, identifying the state of the referenced artifacts.
+     * @return checksum
+     */
+    public String getChecksum() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> oneEntry : this.artifactHashes.entrySet()) {
+            sb.append(oneEntry.getKey()).append('=').append(oneEntry.getValue()).append('\n');
+        }
+        return Hashing.sha1Hex(sb.toString());
+    }
+
+    /**
+     * Checks if the location supports delta usage data.
+     * @return true if supported
+     */
+    public boolean isDeltaSupported() {
+        return deltaSupported;
+    }
+}
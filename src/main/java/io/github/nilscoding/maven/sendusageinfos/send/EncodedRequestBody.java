@@ -0,0 +1,60 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import io.github.nilscoding.maven.sendusageinfos.encode.UsageDataEncoding;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Request body that streams a payload in the given encoding, with the encoding's Content-Type.
+ * For gzip encodings, the Content-Encoding header must be set accordingly.
+ * @author NilsCoding
+ */
+public final class EncodedRequestBody extends RequestBody {
+
+    /**
+     * Encoding.
+     */
+    private final UsageDataEncoding encoding;
+    /**
+     * Gson instance to use for serialization.
+     */
+    private final Gson gson;
+    /**
+     * Payload to serialize.
+     */
+    private final Object payload;
+
+    /**
+     * Creates a new instance.
+     * @param encoding encoding
+     * @param gson     Gson instance to use for serialization
+     * @param payload  payload to serialize
+     */
+    public EncodedRequestBody(UsageDataEncoding encoding, Gson gson, Object payload) {
+        this.encoding = encoding;
+        this.gson = gson;
+        this.payload = payload;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return MediaType.get(this.encoding.getMediaType());
+    }
+
+    @Override
+    public long contentLength() {
+        // unknown, content will be streamed in chunks
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        OutputStream out = sink.outputStream();
+        this.encoding.write(this.payload, this.gson, out);
+        out.flush();
+    }
+}
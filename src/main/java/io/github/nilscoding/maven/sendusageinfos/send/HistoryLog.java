@@ -0,0 +1,326 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.encode.UsageDataEncoding;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Append-only history of usage data in rolling NDJSON files, one record per line.
+ * <p>
+ * Each data file has a sidecar index file with one line per record (timestamp, offset, length and project GAV),
+ * so records can be looked up by project and time without parsing the data files. Data files are rotated by size
+ * and age; the oldest ones are removed if there are more than the maximum number of files.
+ * Appending is guarded by a lock file, so concurrent builds (also in the same JVM) can append safely.
+ * </p>
+ * @author NilsCoding
+ */
+public class HistoryLog {
+
+    /**
+     * File name prefix of data and index files.
+     */
+    private static final String FILE_PREFIX = "usage-history-";
+    /**
+     * File extension of data files.
+     */
+    private static final String DATA_EXTENSION = ".ndjson";
+    /**
+     * File extension of index files.
+     */
+    private static final String INDEX_EXTENSION = ".idx";
+    /**
+     * Name of the lock file.
+     */
+    private static final String LOCK_FILE_NAME = "usage-history.lock";
+    /**
+     * Separator of index fields.
+     */
+    private static final char INDEX_SEPARATOR = '\t';
+    /**
+     * Number of fields per index line.
+     */
+    private static final int INDEX_FIELDS = 4;
+    /**
+     * Monitors by directory, as file locks cannot be held twice within one JVM.
+     */
+    private static final ConcurrentMap<String, Object> DIRECTORY_MONITORS = new ConcurrentHashMap<>();
+
+    /**
+     * History directory.
+     */
+    private final File directory;
+    /**
+     * Maximum size of a data file in bytes, 0 or less for unlimited.
+     */
+    private final long maxFileSize;
+    /**
+     * Maximum age of a data file in milliseconds, 0 or less for unlimited.
+     */
+    private final long maxFileAgeMillis;
+    /**
+     * Maximum number of data files to keep, 0 or less for unlimited.
+     */
+    private final int maxFiles;
+
+    /**
+     * Creates a new instance.
+     * @param directory        history directory, will be created if missing
+     * @param maxFileSize      maximum size of a data file in bytes, 0 or less for unlimited
+     * @param maxFileAgeMillis maximum age of a data file in milliseconds, 0 or less for unlimited
+     * @param maxFiles         maximum number of data files to keep, 0 or less for unlimited
+     */
+    public HistoryLog(File directory, long maxFileSize, long maxFileAgeMillis, int maxFiles) {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFileAgeMillis = maxFileAgeMillis;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Appends a record.
+     * @param usageData usage data to append
+     * @param gson      Gson instance for serialization
+     * @param timestamp timestamp of the record in milliseconds
+     * @return data file the record has been appended to
+     * @throws IOException on write errors
+     */
+    public File append(UsageData usageData, Gson gson, long timestamp) throws IOException {
+        // serialized before locking, so the lock is only held for the actual writes
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        UsageDataEncoding.NDJSON.write(usageData, gson, record);
+        byte[] recordBytes = record.toByteArray();
+        String gav = getGav(usageData);
+
+        Files.createDirectories(this.directory.toPath());
+        Object monitor = DIRECTORY_MONITORS.computeIfAbsent(this.directory.getCanonicalPath(), k -> new Object());
+        synchronized (monitor) {
+            try (FileChannel lockChannel = FileChannel.open(new File(this.directory, LOCK_FILE_NAME).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    File dataFile = this.getCurrentDataFile(recordBytes.length, timestamp);
+                    long offset;
+                    try (FileChannel dataChannel = FileChannel.open(dataFile.toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                        offset = dataChannel.size();
+                        if ((offset > 0) && (endsWithLineBreak(dataChannel, offset) == false)) {
+                            // a previous append has been interrupted, the partial record stays on its own line
+                            offset += dataChannel.write(ByteBuffer.wrap(new byte[] {'\n'}), offset);
+                        }
+                        writeFully(dataChannel, ByteBuffer.wrap(recordBytes), offset);
+                        dataChannel.force(false);
+                    }
+                    String indexLine = timestamp + String.valueOf(INDEX_SEPARATOR) + offset + INDEX_SEPARATOR + recordBytes.length
+                            + INDEX_SEPARATOR + gav + "\n";
+                    try (FileChannel indexChannel = FileChannel.open(getIndexFile(dataFile).toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        indexChannel.write(ByteBuffer.wrap(indexLine.getBytes(StandardCharsets.UTF_8)));
+                    }
+                    return dataFile;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the records of a project within a time range, using the index files.
+     * @param gav           project coordinates (groupId:artifactId:version), null for all projects
+     * @param fromTimestamp start of the time range in milliseconds (inclusive)
+     * @param toTimestamp   end of the time range in milliseconds (inclusive)
+     * @param gson          Gson instance for deserialization
+     * @return records in order of their timestamps, not null
+     * @throws IOException on read errors
+     */
+    public List<UsageData> find(String gav, long fromTimestamp, long toTimestamp, Gson gson) throws IOException {
+        List<UsageData> records = new ArrayList<>();
+        for (File oneDataFile : this.listDataFiles()) {
+            if (getStartTimestamp(oneDataFile) > toTimestamp) {
+                // files are ordered by their start, so all further records are newer
+                break;
+            }
+            File indexFile = getIndexFile(oneDataFile);
+            if (indexFile.isFile() == false) {
+                continue;
+            }
+            try (BufferedReader indexReader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8));
+                 FileChannel dataChannel = FileChannel.open(oneDataFile.toPath(), StandardOpenOption.READ)) {
+                for (String line = indexReader.readLine(); line != null; line = indexReader.readLine()) {
+                    String[] fields = line.split(String.valueOf(INDEX_SEPARATOR), INDEX_FIELDS);
+                    if (fields.length != INDEX_FIELDS) {
+                        continue;
+                    }
+                    UsageData record = this.readIndexedRecord(fields, gav, fromTimestamp, toTimestamp, dataChannel, gson);
+                    if (record != null) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the record of an index line, if it matches.
+     * @param fields        index fields (timestamp, offset, length, GAV)
+     * @param gav           project coordinates to match, null for all projects
+     * @param fromTimestamp start of the time range in milliseconds (inclusive)
+     * @param toTimestamp   end of the time range in milliseconds (inclusive)
+     * @param dataChannel   channel of the data file
+     * @param gson          Gson instance for deserialization
+     * @return record or null if not matching or not readable
+     * @throws IOException on read errors
+     */
+    private UsageData readIndexedRecord(String[] fields, String gav, long fromTimestamp, long toTimestamp,
+            FileChannel dataChannel, Gson gson) throws IOException {
+        try {
+            long timestamp = Long.parseLong(fields[0]);
+            if ((timestamp < fromTimestamp) || (timestamp > toTimestamp) || ((gav != null) && (gav.equals(fields[3]) == false))) {
+                return null;
+            }
+            long offset = Long.parseLong(fields[1]);
+            int length = Integer.parseInt(fields[2]);
+            if ((offset < 0) || (length <= 0) || (offset + length > dataChannel.size())) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (dataChannel.read(buffer, offset + buffer.position()) < 0) {
+                    return null;
+                }
+            }
+            return gson.fromJson(new String(buffer.array(), StandardCharsets.UTF_8), UsageData.class);
+        } catch (NumberFormatException | JsonParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the data file to append to, rotating if the current one is too large or too old.
+     * Must be called while holding the lock.
+     * @param recordLength length of the record to append
+     * @param now          current time in milliseconds
+     * @return data file
+     */
+    private File getCurrentDataFile(int recordLength, long now) {
+        List<File> dataFiles = this.listDataFiles();
+        if (dataFiles.isEmpty() == false) {
+            File current = dataFiles.get(dataFiles.size() - 1);
+            boolean tooLarge = (this.maxFileSize > 0) && (current.length() > 0) && (current.length() + recordLength > this.maxFileSize);
+            boolean tooOld = (this.maxFileAgeMillis > 0) && (now - getStartTimestamp(current) > this.maxFileAgeMillis);
+            if ((tooLarge == false) && (tooOld == false)) {
+                return current;
+            }
+        }
+        long start = now;
+        if ((dataFiles.isEmpty() == false) && (getStartTimestamp(dataFiles.get(dataFiles.size() - 1)) >= start)) {
+            // file names must stay unique and ordered
+            start = getStartTimestamp(dataFiles.get(dataFiles.size() - 1)) + 1;
+        }
+        File newFile = new File(this.directory, FILE_PREFIX + String.format("%015d", start) + DATA_EXTENSION);
+        dataFiles.add(newFile);
+        if ((this.maxFiles > 0) && (dataFiles.size() > this.maxFiles)) {
+            for (File oneOldFile : dataFiles.subList(0, dataFiles.size() - this.maxFiles)) {
+                oneOldFile.delete();
+                getIndexFile(oneOldFile).delete();
+            }
+        }
+        return newFile;
+    }
+
+    /**
+     * Returns all data files, oldest first.
+     * @return data files
+     */
+    private List<File> listDataFiles() {
+        File[] files = this.directory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(DATA_EXTENSION));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Returns the index file of a data file.
+     * @param dataFile data file
+     * @return index file
+     */
+    private static File getIndexFile(File dataFile) {
+        String name = dataFile.getName();
+        return new File(dataFile.getParentFile(), name.substring(0, name.length() - DATA_EXTENSION.length()) + INDEX_EXTENSION);
+    }
+
+    /**
+     * Returns the start timestamp encoded in the name of a data file.
+     * @param dataFile data file
+     * @return start timestamp, 0 if unknown
+     */
+    private static long getStartTimestamp(File dataFile) {
+        String name = dataFile.getName();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - DATA_EXTENSION.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Returns the coordinates of the project of the given usage data.
+     * @param usageData usage data
+     * @return coordinates (groupId:artifactId:version)
+     */
+    private static String getGav(UsageData usageData) {
+        if (usageData.getProjectArtifact() == null) {
+            return "";
+        }
+        return usageData.getProjectArtifact().getGroupId() + ":" + usageData.getProjectArtifact().getArtifactId() + ":"
+                + usageData.getProjectArtifact().getVersion();
+    }
+
+    /**
+     * Checks if the file ends with a line break.
+     * @param channel file channel
+     * @param size    file size
+     * @return true if the last byte is a line break
+     * @throws IOException on read errors
+     */
+    private static boolean endsWithLineBreak(FileChannel channel, long size) throws IOException {
+        ByteBuffer lastByte = ByteBuffer.allocate(1);
+        return (channel.read(lastByte, size - 1) == 1) && (lastByte.get(0) == '\n');
+    }
+
+    /**
+     * Writes the whole buffer at the given position.
+     * @param channel  file channel
+     * @param buffer   buffer to write
+     * @param position file position
+     * @throws IOException on write errors
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            currentPosition += channel.write(buffer, currentPosition);
+        }
+    }
+}
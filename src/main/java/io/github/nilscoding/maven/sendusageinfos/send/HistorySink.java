@@ -0,0 +1,88 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import org.apache.maven.plugin.logging.Log;
+import java.io.File;
+
+/**
+ * Appends usage data to the history in a directory (see {@link HistoryLog}), with the configured rotation.
+ * @author NilsCoding
+ */
+public class HistorySink {
+
+    /**
+     * Maximum size of a history file in bytes before rotating, 0 or less for no limit.
+     */
+    private final long maxFileSize;
+    /**
+     * Maximum age of a history file in milliseconds before rotating, 0 or less for no limit.
+     */
+    private final long maxFileAgeMillis;
+    /**
+     * Maximum number of history files to keep, 0 or less for no limit.
+     */
+    private final int maxFiles;
+    /**
+     * Cancellation of the send, nothing will be appended once cancelled.
+     */
+    private SendCancellation cancellation = new SendCancellation();
+
+    /**
+     * Creates a new instance.
+     * @param maxFileSize      maximum size of a history file in bytes before rotating, 0 or less for no limit
+     * @param maxFileAgeMillis maximum age of a history file in milliseconds before rotating, 0 or less for no limit
+     * @param maxFiles         maximum number of history files to keep, 0 or less for no limit
+     */
+    public HistorySink(long maxFileSize, long maxFileAgeMillis, int maxFiles) {
+        this.maxFileSize = maxFileSize;
+        this.maxFileAgeMillis = maxFileAgeMillis;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Sets the cancellation of the send.
+     * @param cancellation cancellation, nothing will be appended once cancelled
+     */
+    public void setCancellation(SendCancellation cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Appends the data to the history in the given directory.
+     * @param usageData        usage data to append
+     * @param historyDirectory history directory
+     * @param log              logging
+     * @return true if the data has been appended, false otherwise
+     */
+    public boolean send(UsageData usageData, String historyDirectory, Log log) {
+        if (usageData == null) {
+            return false;
+        }
+        if (historyDirectory.isEmpty()) {
+            log.error("missing directory for history location");
+            return false;
+        }
+        if (this.cancellation.isCancelled()) {
+            log.warn("sending has been cancelled, data has not been appended to history");
+            return false;
+        }
+        try {
+            File historyFile = this.getHistoryLog(new File(historyDirectory)).append(usageData, SharedGson.compact(), System.currentTimeMillis());
+            log.info("data has been appended to history file '" + historyFile + "'");
+            return true;
+        } catch (Exception ex) {
+            log.error("exception appending data to history: " + ex);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the history log for the given directory.
+     * @param historyDirectory history directory
+     * @return history log
+     */
+    protected HistoryLog getHistoryLog(File historyDirectory) {
+        return new HistoryLog(historyDirectory, this.maxFileSize, this.maxFileAgeMillis, this.maxFiles);
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import okhttp3.Response;
+import java.io.IOException;
+
+/**
+ * Result of an HTTP request: status code, relevant response headers and response body.
+ * @author NilsCoding
+ */
+public class HttpResult {
+
+    /**
+     * Response header signalling that the endpoint supports delta usage data.
+     */
+    public static final String HEADER_DELTA_SUPPORT = "X-Usage-Data-Delta";
+
+    /**
+     * HTTP status code.
+     */
+    private final int code;
+    /**
+     * Value of the delta support header, can be null.
+     */
+    private final String deltaSupport;
+    /**
+     * Response body, can be null.
+     */
+    private final String body;
+    /**
+     * Value of the Retry-After header, can be null.
+     */
+    private final String retryAfter;
+
+    /**
+     * Creates a new instance.
+     * @param code         HTTP status code
+     * @param deltaSupport value of the delta support header, can be null
+     * @param body         response body, can be null
+     * @param retryAfter   value of the Retry-After header, can be null
+     */
+    public HttpResult(int code, String deltaSupport, String body, String retryAfter) {
+        this.code = code;
+        this.deltaSupport = deltaSupport;
+        this.body = body;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Creates an instance from the given response, reading the response body.
+     * @param response response
+     * @return instance
+     * @throws IOException on errors reading the response body
+     */
+    public static HttpResult fromResponse(Response response) throws IOException {
+        String body = (response.body() != null) ? response.body().string() : null;
+        return new HttpResult(response.code(), response.header(HEADER_DELTA_SUPPORT), body, response.header("Retry-After"));
+    }
+
+    /**
+     * Returns the HTTP status code.
+     * @return HTTP status code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Checks if the request was successful (status code 2xx).
+     * @return true if successful
+     */
+    public boolean isSuccessful() {
+        return isSuccessful(this.code);
+    }
+
+    /**
+     * Checks if the given status code signals success (2xx).
+     * @param code HTTP status code
+     * @return true if successful
+     */
+    public static boolean isSuccessful(int code) {
+        return (code >= HttpStatus.OK) && (code < HttpStatus.MULTIPLE_CHOICES);
+    }
+
+    /**
+     * Checks if the endpoint signalled support for delta usage data.
+     * @return true if supported
+     */
+    public boolean isDeltaSupported() {
+        return "supported".equalsIgnoreCase(this.deltaSupport);
+    }
+
+    /**
+     * Returns the response body.
+     * @return response body, can be null
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the value of the Retry-After header.
+     * @return value of the Retry-After header, can be null
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Checks if the request may succeed when retried later (request timeout, rate limiting or server errors).
+     * @return true if retryable
+     */
+    public boolean isRetryable() {
+        return isRetryable(this.code);
+    }
+
+    /**
+     * Checks if the given status code signals that a request may succeed when retried later.
+     * @param code HTTP status code
+     * @return true if retryable
+     */
+    public static boolean isRetryable(int code) {
+        return (code == HttpStatus.REQUEST_TIMEOUT) || (code == HttpStatus.TOO_MANY_REQUESTS)
+                || (code >= HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * HTTP status codes.
+     */
+    private static final class HttpStatus {
+        /**
+         * Status code 200.
+         */
+        static final int OK = 200;
+        /**
+         * Status code 300.
+         */
+        static final int MULTIPLE_CHOICES = 300;
+        /**
+         * Status code 408.
+         */
+        static final int REQUEST_TIMEOUT = 408;
+        /**
+         * Status code 429.
+         */
+        static final int TOO_MANY_REQUESTS = 429;
+        /**
+         * Status code 500.
+         */
+        static final int INTERNAL_SERVER_ERROR = 500;
+
+        /**
+         * Hidden constructor.
+         */
+        private HttpStatus() {
+        }
+    }
+}
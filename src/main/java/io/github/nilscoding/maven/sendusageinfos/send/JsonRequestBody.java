@@ -0,0 +1,145 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request body that streams the JSON representation of a payload directly into the request, optionally gzip-compressed.
+ * The JSON is written on demand, so the payload is never held in memory as a string.
+ * @author NilsCoding
+ */
+public final class JsonRequestBody extends RequestBody {
+
+    /**
+     * Media type of JSON content.
+     */
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json");
+
+    /**
+     * Gson instance to use for serialization.
+     */
+    private final Gson gson;
+    /**
+     * Payload to serialize.
+     */
+    private final Object payload;
+    /**
+     * Flag for gzip compression.
+     */
+    private final boolean gzip;
+
+    /**
+     * Creates a new instance.
+     * @param gson    Gson instance to use for serialization
+     * @param payload payload to serialize
+     * @param gzip    true to compress the content with gzip (Content-Encoding header must be set accordingly)
+     */
+    public JsonRequestBody(Gson gson, Object payload, boolean gzip) {
+        this.gson = gson;
+        this.payload = payload;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Checks if the JSON representation of the given payload exceeds the given size (in characters).
+     * Serialization stops as soon as the size is exceeded, so this costs at most the given size.
+     * @param gson    Gson instance to use for serialization
+     * @param payload payload to check
+     * @param size    size to check against
+     * @return true if the size is exceeded, false if not
+     */
+    public static boolean exceedsSize(Gson gson, Object payload, long size) {
+        try {
+            gson.toJson(payload, new SizeLimitWriter(size));
+            return false;
+        } catch (SizeLimitWriter.SizeExceededException ex) {
+            return true;
+        }
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON_MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        // unknown, content will be streamed in chunks
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        if (this.gzip) {
+            BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
+            Writer writer = new OutputStreamWriter(gzipSink.outputStream(), StandardCharsets.UTF_8);
+            this.gson.toJson(this.payload, writer);
+            writer.flush();
+            gzipSink.close();
+        } else {
+            Writer writer = new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8);
+            this.gson.toJson(this.payload, writer);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writer discarding all content, which fails as soon as a size limit is exceeded.
+     */
+    private static class SizeLimitWriter extends Writer {
+        /**
+         * Size limit.
+         */
+        private final long limit;
+        /**
+         * Number of characters written so far.
+         */
+        private long count;
+
+        /**
+         * Creates a new instance.
+         * @param limit size limit
+         */
+        SizeLimitWriter(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            this.count += len;
+            if (this.count > this.limit) {
+                throw new SizeExceededException();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Exception signalling that the size limit has been exceeded.
+         */
+        private static class SizeExceededException extends RuntimeException {
+            private static final long serialVersionUID = -3000869410394626186L;
+
+            /**
+             * Creates a new instance.
+             */
+            SizeExceededException() {
+                super(null, null, false, false);
+            }
+        }
+    }
+}
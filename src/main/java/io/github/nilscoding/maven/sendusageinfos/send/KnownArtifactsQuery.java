@@ -0,0 +1,71 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Request of the known-artifacts handshake, sent to <code>&lt;url&gt;/known</code> before resolving metadata.
+ * <p>
+ * The request is <code>{"artifacts": ["groupId:artifactId:type:version", ...]}</code>, the endpoint responds with
+ * <code>{"unknownArtifacts": [...]}</code>, listing the artifacts it has no metadata for. All other artifacts can be
+ * sent with their coordinates only.
+ * </p>
+ * @author NilsCoding
+ */
+public class KnownArtifactsQuery {
+
+    /**
+     * GATVs of the referenced artifacts.
+     */
+    protected List<String> artifacts;
+
+    /**
+     * Creates a new instance.
+     * @param artifacts GATVs of the referenced artifacts
+     */
+    public KnownArtifactsQuery(List<String> artifacts) {
+        this.artifacts = artifacts;
+    }
+
+    /**
+     * Returns the GATVs of the referenced artifacts.
+     * @return GATVs of the referenced artifacts
+     */
+    public List<String> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * Parses the GATVs of the unknown artifacts from the HTTP result of a handshake request.
+     * @param httpResult HTTP result
+     * @param gson       Gson instance for parsing the response
+     * @return GATVs of the unknown artifacts, null if the handshake failed or is not supported by the endpoint
+     */
+    public static Set<String> parseUnknownArtifacts(HttpResult httpResult, Gson gson) {
+        if ((httpResult.isSuccessful() == false) || (httpResult.getBody() == null)) {
+            return null;
+        }
+        try {
+            KnownArtifactsResponse response = gson.fromJson(httpResult.getBody(), KnownArtifactsResponse.class);
+            if ((response == null) || (response.unknownArtifacts == null)) {
+                return null;
+            }
+            return new LinkedHashSet<>(response.unknownArtifacts);
+        } catch (JsonParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Response of the handshake endpoint.
+     */
+    private static class KnownArtifactsResponse {
+        /**
+         * GATVs of the artifacts without stored metadata.
+         */
+        private List<String> unknownArtifacts;
+    }
+}
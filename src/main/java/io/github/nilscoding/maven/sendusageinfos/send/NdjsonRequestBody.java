@@ -0,0 +1,86 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Request body that streams multiple documents as newline-delimited JSON (one compact JSON document per line),
+ * optionally gzip-compressed.
+ * @author NilsCoding
+ */
+public final class NdjsonRequestBody extends RequestBody {
+
+    /**
+     * Media type of newline-delimited JSON content.
+     */
+    private static final MediaType NDJSON_MEDIA_TYPE = MediaType.get("application/x-ndjson");
+
+    /**
+     * Gson instance to use for serialization, must not pretty-print.
+     */
+    private final Gson gson;
+    /**
+     * Documents to serialize.
+     */
+    private final List<?> documents;
+    /**
+     * Flag for gzip compression.
+     */
+    private final boolean gzip;
+
+    /**
+     * Creates a new instance.
+     * @param gson      Gson instance to use for serialization, must not pretty-print
+     * @param documents documents to serialize
+     * @param gzip      true to compress the content with gzip (Content-Encoding header must be set accordingly)
+     */
+    public NdjsonRequestBody(Gson gson, List<?> documents, boolean gzip) {
+        this.gson = gson;
+        this.documents = documents;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return NDJSON_MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        // unknown, content will be streamed in chunks
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        if (this.gzip) {
+            BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
+            this.writeDocuments(new OutputStreamWriter(gzipSink.outputStream(), StandardCharsets.UTF_8));
+            gzipSink.close();
+        } else {
+            this.writeDocuments(new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes all documents, each one followed by a line break.
+     * @param writer writer to write to
+     * @throws IOException on write errors
+     */
+    private void writeDocuments(Writer writer) throws IOException {
+        for (Object oneDocument : this.documents) {
+            this.gson.toJson(oneDocument, writer);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,371 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import io.github.nilscoding.maven.sendusageinfos.util.Hashing;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable on-disk outbox for data that could not be sent, to be replayed by later builds.
+ * <p>
+ * Each entry is stored in its own file, named by a hash of the target URL and its creation time. Entries are
+ * claimed by renaming them, so concurrent builds on the same machine never replay the same entry twice.
+ * The outbox is bounded by a maximum number of entries and a maximum entry age; the oldest entries will be removed first.
+ * </p>
+ * @author NilsCoding
+ */
+public class Outbox {
+
+    /**
+     * File extension of pending entries.
+     */
+    private static final String ENTRY_EXTENSION = ".json";
+    /**
+     * File extension of claimed entries.
+     */
+    private static final String CLAIMED_EXTENSION = ".claimed";
+    /**
+     * Length of the URL hash prefix in entry file names.
+     */
+    private static final int URL_HASH_LENGTH = 12;
+    /**
+     * Length of the random part in entry file names.
+     */
+    private static final int RANDOM_ID_LENGTH = 8;
+    /**
+     * Time in milliseconds after which a claimed entry is considered abandoned (e.g. after a crashed build).
+     */
+    private static final long CLAIM_TIMEOUT_MILLIS = 60L * 60L * 1000L;
+
+    /**
+     * Outbox directory.
+     */
+    private final File directory;
+    /**
+     * Maximum number of entries, 0 or less for unlimited.
+     */
+    private final int maxEntries;
+    /**
+     * Maximum age of entries in milliseconds, 0 or less for unlimited.
+     */
+    private final long maxAgeMillis;
+    /**
+     * Gson instance for reading and writing entries.
+     */
+    private final Gson gson = SharedGson.compact();
+
+    /**
+     * Creates a new instance.
+     * @param directory    outbox directory, will be created if missing
+     * @param maxEntries   maximum number of entries, 0 or less for unlimited
+     * @param maxAgeMillis maximum age of entries in milliseconds, 0 or less for unlimited
+     */
+    public Outbox(File directory, int maxEntries, long maxAgeMillis) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Adds an entry to the outbox.
+     * @param url           target URL
+     * @param payload       payload to send
+     * @param attempts      number of failed attempts so far
+     * @param nextAttemptAt time of the next attempt in milliseconds
+     * @throws IOException on write errors
+     */
+    public void add(String url, JsonElement payload, int attempts, long nextAttemptAt) throws IOException {
+        OutboxEntry entry = new OutboxEntry();
+        entry.url = url;
+        entry.createdAt = System.currentTimeMillis();
+        entry.attempts = attempts;
+        entry.nextAttemptAt = nextAttemptAt;
+        entry.payload = payload;
+        this.write(entry, this.newEntryFile(url, entry.createdAt));
+        this.evict();
+    }
+
+    /**
+     * Claims the entries for the given URL that are due for their next attempt, oldest first.
+     * Claimed entries must either be completed or released.
+     * @param url        target URL
+     * @param maxEntries maximum number of entries to claim
+     * @return claimed entries, not null
+     */
+    public List<OutboxEntry> claimDue(String url, int maxEntries) {
+        List<OutboxEntry> claimed = new ArrayList<>();
+        String prefix = urlHash(url) + "-";
+        this.releaseAbandonedClaims(prefix);
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(ENTRY_EXTENSION));
+        if (entryFiles == null) {
+            return claimed;
+        }
+        Arrays.sort(entryFiles, Comparator.comparing(File::getName));
+        long now = System.currentTimeMillis();
+        for (File oneFile : entryFiles) {
+            if (claimed.size() >= maxEntries) {
+                break;
+            }
+            OutboxEntry entry = this.read(oneFile);
+            if ((entry == null) || this.isExpired(entry, now)) {
+                oneFile.delete();
+                continue;
+            }
+            if ((entry.nextAttemptAt > now) || (url.equals(entry.url) == false)) {
+                continue;
+            }
+            File claimedFile = new File(this.directory, oneFile.getName() + CLAIMED_EXTENSION);
+            if (oneFile.renameTo(claimedFile)) {
+                claimedFile.setLastModified(now);
+                entry.file = claimedFile;
+                claimed.add(entry);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Completes a claimed entry, removing it from the outbox.
+     * @param entry claimed entry
+     */
+    public void complete(OutboxEntry entry) {
+        if (entry.file != null) {
+            entry.file.delete();
+        }
+    }
+
+    /**
+     * Releases a claimed entry after another failed attempt, scheduling its next attempt.
+     * @param entry         claimed entry
+     * @param nextAttemptAt time of the next attempt in milliseconds
+     * @throws IOException on write errors
+     */
+    public void release(OutboxEntry entry, long nextAttemptAt) throws IOException {
+        entry.attempts++;
+        this.putBack(entry, nextAttemptAt);
+    }
+
+    /**
+     * Puts a claimed entry back without an attempt (e.g. when the endpoint already failed for another entry),
+     * scheduling its next attempt. The number of failed attempts stays unchanged.
+     * @param entry         claimed entry
+     * @param nextAttemptAt time of the next attempt in milliseconds
+     * @throws IOException on write errors
+     */
+    public void putBack(OutboxEntry entry, long nextAttemptAt) throws IOException {
+        entry.nextAttemptAt = nextAttemptAt;
+        String claimedName = entry.file.getName();
+        File pendingFile = new File(this.directory, claimedName.substring(0, claimedName.length() - CLAIMED_EXTENSION.length()));
+        this.write(entry, pendingFile);
+        entry.file.delete();
+    }
+
+    /**
+     * Returns the number of pending entries (for all URLs).
+     * @return number of pending entries
+     */
+    public int size() {
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+        return (entryFiles != null) ? entryFiles.length : 0;
+    }
+
+    /**
+     * Removes expired entries and the oldest entries exceeding the maximum number of entries.
+     */
+    private void evict() {
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+        if (entryFiles == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<File> remaining = new ArrayList<>();
+        for (File oneFile : entryFiles) {
+            if ((this.maxAgeMillis > 0) && (now - getCreatedAt(oneFile) > this.maxAgeMillis)) {
+                oneFile.delete();
+            } else {
+                remaining.add(oneFile);
+            }
+        }
+        if ((this.maxEntries > 0) && (remaining.size() > this.maxEntries)) {
+            remaining.sort(Comparator.comparingLong(Outbox::getCreatedAt));
+            for (int i = 0; i < remaining.size() - this.maxEntries; i++) {
+                remaining.get(i).delete();
+            }
+        }
+    }
+
+    /**
+     * Releases claims that have been abandoned, e.g. by a crashed build.
+     * @param prefix file name prefix of the URL's entries
+     */
+    private void releaseAbandonedClaims(String prefix) {
+        File[] claimedFiles = this.directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(CLAIMED_EXTENSION));
+        if (claimedFiles == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (File oneFile : claimedFiles) {
+            if (now - oneFile.lastModified() > CLAIM_TIMEOUT_MILLIS) {
+                String name = oneFile.getName();
+                oneFile.renameTo(new File(this.directory, name.substring(0, name.length() - CLAIMED_EXTENSION.length())));
+            }
+        }
+    }
+
+    /**
+     * Checks if the given entry has exceeded the maximum age.
+     * @param entry entry to check
+     * @param now   current time in milliseconds
+     * @return true if expired
+     */
+    private boolean isExpired(OutboxEntry entry, long now) {
+        return (this.maxAgeMillis > 0) && (now - entry.createdAt > this.maxAgeMillis);
+    }
+
+    /**
+     * Returns a new entry file.
+     * @param url       target URL
+     * @param createdAt creation time
+     * @return entry file
+     */
+    private File newEntryFile(String url, long createdAt) {
+        // zero-padded creation time, so file names sort by age
+        return new File(this.directory, urlHash(url) + "-" + String.format("%015d", createdAt) + "-"
+                + UUID.randomUUID().toString().substring(0, RANDOM_ID_LENGTH) + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Returns the creation time encoded in the given entry file name.
+     * @param entryFile entry file
+     * @return creation time, 0 if unknown
+     */
+    private static long getCreatedAt(File entryFile) {
+        String[] parts = entryFile.getName().split("-");
+        try {
+            return (parts.length > 1) ? Long.parseLong(parts[1]) : 0L;
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Returns the hash of the given URL, as used in entry file names.
+     * @param url URL
+     * @return hash
+     */
+    private static String urlHash(String url) {
+        return Hashing.sha1Hex(url).substring(0, URL_HASH_LENGTH);
+    }
+
+    /**
+     * Writes an entry (via temporary file, so readers never see partial entries).
+     * @param entry entry to write
+     * @param file  target file
+     * @throws IOException on write errors
+     */
+    private void write(OutboxEntry entry, File file) throws IOException {
+        Files.createDirectories(this.directory.toPath());
+        File tmpFile = new File(this.directory, file.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            this.gson.toJson(entry, writer);
+        }
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads an entry.
+     * @param file entry file
+     * @return entry or null if not readable
+     */
+    private OutboxEntry read(File file) {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return this.gson.fromJson(reader, OutboxEntry.class);
+        } catch (IOException | JsonParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Outbox entry.
+     */
+    public static class OutboxEntry {
+        /**
+         * Target URL.
+         */
+        private String url;
+        /**
+         * Creation time in milliseconds.
+         */
+        private long createdAt;
+        /**
+         * Number of failed attempts.
+         */
+        private int attempts;
+        /**
+         * Time of the next attempt in milliseconds.
+         */
+        private long nextAttemptAt;
+        /**
+         * Payload to send.
+         */
+        private JsonElement payload;
+        /**
+         * File of the claimed entry.
+         */
+        private transient File file;
+
+        /**
+         * Returns the target URL.
+         * @return target URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Returns the creation time in milliseconds.
+         * @return creation time
+         */
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * Returns the number of failed attempts.
+         * @return number of failed attempts
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * Returns the payload to send.
+         * @return payload
+         */
+        public JsonElement getPayload() {
+            return payload;
+        }
+    }
+}
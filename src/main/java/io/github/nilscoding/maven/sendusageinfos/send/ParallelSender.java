@@ -0,0 +1,199 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import io.github.nilscoding.maven.sendusageinfos.session.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sends to multiple locations concurrently, with a timeout per location and an overall deadline.
+ * Sends that do not finish in time will be cancelled (see {@link SendCancellation}) and reported as timed out.
+ * The duration of each send is measured by the send's own thread, so it does not depend on the other sends.
+ * @author NilsCoding
+ */
+public class ParallelSender {
+
+    /**
+     * Timeout per location in milliseconds, 0 or less for no timeout.
+     */
+    private final long sinkTimeoutMillis;
+    /**
+     * Overall deadline in milliseconds, 0 or less for no deadline.
+     */
+    private final long deadlineMillis;
+
+    /**
+     * Creates a new instance.
+     * @param sinkTimeoutMillis timeout per location in milliseconds, 0 or less for no timeout
+     * @param deadlineMillis    overall deadline in milliseconds, 0 or less for no deadline
+     */
+    public ParallelSender(long sinkTimeoutMillis, long deadlineMillis) {
+        this.sinkTimeoutMillis = sinkTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Runs the given sends concurrently and waits for their results.
+     * @param sends sends by location, each returning true on success
+     * @return results in order of the given locations
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<SinkResult> send(Map<String, CancellableSend> sends) throws InterruptedException {
+        List<SinkResult> results = new ArrayList<>(sends.size());
+        if (sends.isEmpty()) {
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(sends.size(), new DaemonThreadFactory("send-usage-infos-sender"));
+        try {
+            long start = System.nanoTime();
+            Map<String, TimedSend> timedSends = new LinkedHashMap<>();
+            Map<String, Future<Boolean>> futures = new LinkedHashMap<>();
+            for (Map.Entry<String, CancellableSend> oneSend : sends.entrySet()) {
+                TimedSend timedSend = new TimedSend(oneSend.getValue());
+                timedSends.put(oneSend.getKey(), timedSend);
+                futures.put(oneSend.getKey(), executor.submit(timedSend));
+            }
+            for (Map.Entry<String, Future<Boolean>> oneFuture : futures.entrySet()) {
+                SinkResult.Status status;
+                try {
+                    Boolean success = this.waitFor(oneFuture.getValue(), start);
+                    status = ((success != null) && success) ? SinkResult.Status.SUCCESS : SinkResult.Status.FAILED;
+                } catch (ExecutionException ex) {
+                    status = SinkResult.Status.FAILED;
+                } catch (TimeoutException ex) {
+                    timedSends.get(oneFuture.getKey()).cancel();
+                    oneFuture.getValue().cancel(true);
+                    status = SinkResult.Status.TIMEOUT;
+                }
+                long durationMillis = TimeUnit.NANOSECONDS.toMillis(timedSends.get(oneFuture.getKey()).getDurationNanos());
+                results.add(new SinkResult(oneFuture.getKey(), status, durationMillis));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Waits for the given future, respecting timeout per location and overall deadline.
+     * @param future      future to wait for
+     * @param startNanos  start time of all sends
+     * @return result
+     * @throws InterruptedException if interrupted
+     * @throws ExecutionException   if the send failed with an exception
+     * @throws TimeoutException     if the timeout or deadline has been exceeded
+     */
+    private Boolean waitFor(Future<Boolean> future, long startNanos)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        long waitMillis = Long.MAX_VALUE;
+        if (this.sinkTimeoutMillis > 0) {
+            waitMillis = this.sinkTimeoutMillis - elapsedMillis;
+        }
+        if (this.deadlineMillis > 0) {
+            waitMillis = Math.min(waitMillis, this.deadlineMillis - elapsedMillis);
+        }
+        if (waitMillis == Long.MAX_VALUE) {
+            return future.get();
+        }
+        if (waitMillis <= 0) {
+            if (future.isDone() == false) {
+                throw new TimeoutException();
+            }
+            return future.get();
+        }
+        return future.get(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send to one location, which must stop its side effects once cancelled.
+     */
+    @FunctionalInterface
+    public interface CancellableSend {
+        /**
+         * Sends the data.
+         * @param cancellation cancellation of the send if it does not finish in time
+         * @return true on success
+         * @throws Exception on errors
+         */
+        Boolean send(SendCancellation cancellation) throws Exception;
+    }
+
+    /**
+     * Send that records its own start and end time.
+     */
+    private static final class TimedSend implements Callable<Boolean> {
+        /**
+         * Wrapped send.
+         */
+        private final CancellableSend send;
+        /**
+         * Cancellation of the send.
+         */
+        private final SendCancellation cancellation = new SendCancellation();
+        /**
+         * Start time (as of {@link System#nanoTime()}), valid if started.
+         */
+        private volatile long startNanos;
+        /**
+         * End time (as of {@link System#nanoTime()}), valid if ended.
+         */
+        private volatile long endNanos;
+        /**
+         * Flag if the send has been started.
+         */
+        private volatile boolean started;
+        /**
+         * Flag if the send has ended.
+         */
+        private volatile boolean ended;
+
+        /**
+         * Creates a new instance.
+         * @param send send to wrap
+         */
+        TimedSend(CancellableSend send) {
+            this.send = send;
+        }
+
+        @Override
+        public Boolean call() throws Exception {
+            this.startNanos = System.nanoTime();
+            this.started = true;
+            try {
+                return this.send.send(this.cancellation);
+            } finally {
+                this.endNanos = System.nanoTime();
+                this.ended = true;
+            }
+        }
+
+        /**
+         * Cancels the send.
+         */
+        void cancel() {
+            this.cancellation.cancel();
+        }
+
+        /**
+         * Returns the duration of the send. For a send that is still running (i.e. timed out), this is the time
+         * it has been running so far.
+         * @return duration in nanoseconds, 0 if not started
+         */
+        long getDurationNanos() {
+            if (this.started == false) {
+                return 0L;
+            }
+            long end = this.ended ? this.endNanos : System.nanoTime();
+            return end - this.startNanos;
+        }
+    }
+}
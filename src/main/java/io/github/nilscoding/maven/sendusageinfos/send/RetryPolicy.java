@@ -0,0 +1,84 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy with exponential backoff and jitter, honoring Retry-After values sent by the server.
+ * @author NilsCoding
+ */
+public class RetryPolicy {
+
+    /**
+     * Milliseconds per second.
+     */
+    private static final long MILLIS_PER_SECOND = 1000L;
+    /**
+     * Maximum exponent for the backoff calculation, to prevent overflows.
+     */
+    private static final int MAX_EXPONENT = 30;
+
+    /**
+     * Base delay in milliseconds.
+     */
+    private final long baseDelayMillis;
+    /**
+     * Maximum delay in milliseconds.
+     */
+    private final long maxDelayMillis;
+
+    /**
+     * Creates a new instance.
+     * @param baseDelayMillis base delay in milliseconds (delay of the first retry)
+     * @param maxDelayMillis  maximum delay in milliseconds
+     */
+    public RetryPolicy(long baseDelayMillis, long maxDelayMillis) {
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Returns the delay before the next attempt. A valid Retry-After value takes precedence, otherwise the delay
+     * grows exponentially with the number of failed attempts, randomized between half and full delay
+     * so that many clients don't retry at the same time.
+     * @param failedAttempts number of failed attempts so far (at least 1)
+     * @param retryAfter     Retry-After value sent by the server, can be null
+     * @return delay in milliseconds
+     */
+    public long getDelayMillis(int failedAttempts, String retryAfter) {
+        long retryAfterMillis = parseRetryAfterMillis(retryAfter, System.currentTimeMillis());
+        if (retryAfterMillis >= 0) {
+            return retryAfterMillis;
+        }
+        int exponent = Math.min(Math.max(failedAttempts - 1, 0), MAX_EXPONENT);
+        long delay = Math.min(this.maxDelayMillis, this.baseDelayMillis * (1L << exponent));
+        long halfDelay = delay / 2;
+        return halfDelay + ThreadLocalRandom.current().nextLong(delay - halfDelay + 1);
+    }
+
+    /**
+     * Parses a Retry-After value, given either as seconds or as HTTP date.
+     * @param retryAfter Retry-After value, can be null
+     * @param nowMillis  current time in milliseconds
+     * @return delay in milliseconds, or -1 if not available or not parseable
+     */
+    public static long parseRetryAfterMillis(String retryAfter, long nowMillis) {
+        if ((retryAfter == null) || (retryAfter.trim().isEmpty())) {
+            return -1;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0L, Long.parseLong(value) * MILLIS_PER_SECOND);
+        } catch (NumberFormatException ex) {
+            // not given in seconds, try HTTP date
+        }
+        try {
+            long retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0L, retryAt - nowMillis);
+        } catch (DateTimeParseException ex) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancellation of a send that did not finish in time. Interrupting the sending thread is not enough, as blocking
+ * network and file I/O ignores interrupts: sends register their HTTP calls to be cancelled and check the flag before
+ * any side effect (e.g. renaming a written file or adding data to the outbox).
+ * @author NilsCoding
+ */
+public final class SendCancellation {
+
+    /**
+     * Actions to run on cancellation.
+     */
+    private final List<Runnable> cancelActions = new ArrayList<>();
+    /**
+     * Flag if the send has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new instance, not cancelled.
+     */
+    public SendCancellation() {
+    }
+
+    /**
+     * Registers an action to run on cancellation, e.g. cancelling an HTTP call. If already cancelled,
+     * the action will be run immediately.
+     * @param action action to run
+     */
+    public void onCancel(Runnable action) {
+        synchronized (this.cancelActions) {
+            if (this.cancelled == false) {
+                this.cancelActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Cancels the send and runs all registered actions.
+     */
+    public void cancel() {
+        List<Runnable> actions;
+        synchronized (this.cancelActions) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+            actions = new ArrayList<>(this.cancelActions);
+            this.cancelActions.clear();
+        }
+        for (Runnable oneAction : actions) {
+            oneAction.run();
+        }
+    }
+
+    /**
+     * Checks if the send has been cancelled.
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
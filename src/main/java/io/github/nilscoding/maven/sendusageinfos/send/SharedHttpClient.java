@@ -0,0 +1,80 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client shared by all sends of a build, so connections (including TLS sessions and HTTP/2 connections)
+ * are pooled and kept alive between modules.
+ * <p>
+ * Clients with different timeouts are derived from one base client and share its connection pool and dispatcher.
+ * {@link #close()} must be called at the end of the build to release pooled connections and threads.
+ * </p>
+ * @author NilsCoding
+ */
+public final class SharedHttpClient implements AutoCloseable {
+
+    /**
+     * Maximum number of idle connections to keep in the pool.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    /**
+     * Keep-alive duration of idle connections in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Base client, providing connection pool and dispatcher.
+     */
+    private final OkHttpClient baseClient;
+    /**
+     * Clients by timeout configuration.
+     */
+    private final Map<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     */
+    public SharedHttpClient() {
+        this.baseClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS))
+                .dispatcher(new Dispatcher())
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .followRedirects(true)
+                .followSslRedirects(true)
+                .hostnameVerifier((hostname, sslSession) -> true)
+                .build();
+    }
+
+    /**
+     * Returns a client with the given timeouts.
+     * @param connectTimeoutSeconds connect timeout in seconds (0 for no timeout)
+     * @param readTimeoutSeconds    read timeout in seconds (0 for no timeout)
+     * @param writeTimeoutSeconds   write timeout in seconds (0 for no timeout)
+     * @return client
+     */
+    public OkHttpClient getClient(long connectTimeoutSeconds, long readTimeoutSeconds, long writeTimeoutSeconds) {
+        String key = connectTimeoutSeconds + ":" + readTimeoutSeconds + ":" + writeTimeoutSeconds;
+        return this.clients.computeIfAbsent(key, k -> this.baseClient.newBuilder()
+                .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(readTimeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(writeTimeoutSeconds, TimeUnit.SECONDS)
+                .build());
+    }
+
+    /**
+     * Releases all pooled connections and shuts down the dispatcher threads.
+     */
+    @Override
+    public void close() {
+        this.baseClient.dispatcher().executorService().shutdown();
+        this.baseClient.connectionPool().evictAll();
+        this.clients.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+/**
+ * Result of sending data to one location.
+ * @author NilsCoding
+ */
+public class SinkResult {
+
+    /**
+     * Status of a send.
+     */
+    public enum Status {
+        /**
+         * Data has been sent successfully.
+         */
+        SUCCESS,
+        /**
+         * Sending data failed.
+         */
+        FAILED,
+        /**
+         * Sending data did not finish in time.
+         */
+        TIMEOUT
+    }
+
+    /**
+     * Location the data has been sent to.
+     */
+    private final String location;
+    /**
+     * Status.
+     */
+    private final Status status;
+    /**
+     * Duration in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * Creates a new instance.
+     * @param location       location the data has been sent to
+     * @param status         status
+     * @param durationMillis duration in milliseconds
+     */
+    public SinkResult(String location, Status status, long durationMillis) {
+        this.location = location;
+        this.status = status;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Returns the location.
+     * @return location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the status.
+     * @return status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the duration in milliseconds.
+     * @return duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Checks if the data has been sent successfully.
+     * @return true on success
+     */
+    public boolean isSuccess() {
+        return this.status == Status.SUCCESS;
+    }
+}
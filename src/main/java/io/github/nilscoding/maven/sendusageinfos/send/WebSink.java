@@ -0,0 +1,609 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import io.github.nilscoding.maven.sendusageinfos.data.DeltaUsageData;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.encode.UsageDataEncoding;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.apache.maven.plugin.logging.Log;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends usage data to URL endpoints via HTTP/HTTPS: complete data, deltas and batches, with retries within a time budget
+ * and an optional outbox for data that could not be sent.
+ * <p>
+ * Only the HTTP method, auth header and client are required, all other features are disabled unless configured.
+ * </p>
+ * @author NilsCoding
+ */
+public class WebSink {
+
+    /**
+     * HTTP compression mode: no compression.
+     */
+    public static final String COMPRESSION_NONE = "none";
+    /**
+     * HTTP compression mode: gzip compression.
+     */
+    public static final String COMPRESSION_GZIP = "gzip";
+    /**
+     * HTTP compression mode: gzip compression above size threshold.
+     */
+    public static final String COMPRESSION_AUTO = "auto";
+    /**
+     * HTTP status code for unsupported media types.
+     */
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+
+    /**
+     * HTTP client.
+     */
+    private final OkHttpClient client;
+    /**
+     * HTTP method.
+     */
+    private final String method;
+    /**
+     * Authorization header value, can be null.
+     */
+    private final String authHeader;
+    /**
+     * HTTP compression mode: none, gzip or auto.
+     */
+    private String compression = COMPRESSION_NONE;
+    /**
+     * Size threshold in bytes above which request bodies will be compressed in compression mode auto.
+     */
+    private long compressionThreshold;
+    /**
+     * Retry policy.
+     */
+    private RetryPolicy retryPolicy = new RetryPolicy(0L, 0L);
+    /**
+     * Time budget in milliseconds for retries.
+     */
+    private long retryBudgetMillis;
+    /**
+     * Outbox, null if disabled.
+     */
+    private Outbox outbox;
+    /**
+     * Maximum number of outbox entries to replay per URL endpoint, 0 or less for unlimited.
+     */
+    private int outboxReplayBatchSize;
+    /**
+     * Directory for the snapshots of the last successfully sent data, null if delta sending is disabled.
+     */
+    private File deltaStateDirectory;
+    /**
+     * Flag for sending data as newline-delimited JSON batches.
+     */
+    private boolean batchSend;
+    /**
+     * Flag for pretty-printing JSON requests (never used for batches).
+     */
+    private boolean prettyPrint;
+    /**
+     * Cancellation of the send, no new requests or outbox entries once cancelled.
+     */
+    private SendCancellation cancellation = new SendCancellation();
+
+    /**
+     * Creates a new instance.
+     * @param client     HTTP client
+     * @param method     HTTP method
+     * @param authHeader Authorization header value, null or empty for none
+     */
+    public WebSink(OkHttpClient client, String method, String authHeader) {
+        this.client = client;
+        this.method = method;
+        this.authHeader = authHeader;
+    }
+
+    /**
+     * Sets the compression of request bodies.
+     * @param compression compression mode: none, gzip or auto, null for none
+     * @param threshold   size threshold in bytes above which request bodies will be compressed in mode auto
+     */
+    public void setCompression(String compression, long threshold) {
+        this.compression = (compression != null) ? compression.trim() : COMPRESSION_NONE;
+        this.compressionThreshold = threshold;
+    }
+
+    /**
+     * Sets the retry policy and the time budget for retries (per send).
+     * @param retryPolicy       retry policy, also used to schedule outbox entries
+     * @param retryBudgetMillis time budget in milliseconds for retries, 0 for no retries
+     */
+    public void setRetry(RetryPolicy retryPolicy, long retryBudgetMillis) {
+        this.retryPolicy = retryPolicy;
+        this.retryBudgetMillis = retryBudgetMillis;
+    }
+
+    /**
+     * Sets the outbox for data that could not be sent.
+     * @param outbox          outbox, null to disable
+     * @param replayBatchSize maximum number of outbox entries to replay per URL endpoint, 0 or less for unlimited
+     */
+    public void setOutbox(Outbox outbox, int replayBatchSize) {
+        this.outbox = outbox;
+        this.outboxReplayBatchSize = replayBatchSize;
+    }
+
+    /**
+     * Enables sending only changes since the last successfully sent data to URL endpoints supporting it.
+     * @param deltaStateDirectory directory for the snapshots of the last successfully sent data, null to disable
+     */
+    public void setDeltaStateDirectory(File deltaStateDirectory) {
+        this.deltaStateDirectory = deltaStateDirectory;
+    }
+
+    /**
+     * Sets the flag for sending data as newline-delimited JSON batches to <code>&lt;url&gt;/batch</code>.
+     * @param batchSend true for batches
+     */
+    public void setBatchSend(boolean batchSend) {
+        this.batchSend = batchSend;
+    }
+
+    /**
+     * Sets the flag for pretty-printing JSON requests.
+     * @param prettyPrint true for pretty-printing
+     */
+    public void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
+
+    /**
+     * Sets the cancellation of the send: running HTTP calls will be cancelled, and no new requests or outbox entries
+     * will be made once cancelled.
+     * @param cancellation cancellation
+     */
+    public void setCancellation(SendCancellation cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Sends the data, together with the due outbox entries for the URL.
+     * @param usageData usage data to send
+     * @param sendToUrl url to send data to
+     * @param encoding  encoding of complete data, null for JSON
+     * @param log       logging
+     * @return true if the data has been sent successfully (http 2xx), false otherwise
+     */
+    public boolean send(UsageData usageData, String sendToUrl, UsageDataEncoding encoding, Log log) {
+        if (usageData == null) {
+            return false;
+        }
+        try {
+            Gson gson = SharedGson.get(this.prettyPrint);
+            long deadlineNanos = this.getRetryDeadlineNanos();
+            boolean delta = (this.deltaStateDirectory != null);
+            if (this.batchSend) {
+                if (delta == false) {
+                    // data of this module and due outbox entries in one request
+                    return this.sendBatch(Collections.singletonList(usageData), sendToUrl, deadlineNanos, log).get(0);
+                }
+                this.sendBatch(Collections.emptyList(), sendToUrl, deadlineNanos, log);
+            } else if (this.outbox != null) {
+                this.replayOutbox(sendToUrl, gson, encoding, log);
+            }
+            if (delta) {
+                return this.sendDelta(usageData, sendToUrl, gson, encoding, deadlineNanos, log);
+            }
+            HttpResult result = this.sendComplete(usageData, sendToUrl, gson, encoding, deadlineNanos, log);
+            return (result != null) && result.isSuccessful();
+        } catch (Exception ex) {
+            log.error("exception sending data via web: " + ex);
+            return false;
+        }
+    }
+
+    /**
+     * Sends the data as delta to the last successfully sent data, if possible.
+     * Falls back to sending the complete data if there is no snapshot of the last sent data, the endpoint
+     * does not support delta data or rejects the delta.
+     * @param usageData     usage data to send
+     * @param sendToUrl     url to send data to
+     * @param gson          Gson instance
+     * @param encoding      encoding of complete data, null for JSON (delta data is always sent as JSON)
+     * @param deadlineNanos deadline for retries (in terms of {@link System#nanoTime()})
+     * @param log           logging
+     * @return true if the data has been sent successfully, false otherwise
+     * @throws IOException on errors saving the snapshot
+     */
+    protected boolean sendDelta(UsageData usageData, String sendToUrl, Gson gson, UsageDataEncoding encoding,
+            long deadlineNanos, Log log)
+            throws IOException {
+        Gson stateGson = SharedGson.compact();
+        File snapshotFile = DeltaSnapshot.getFile(this.deltaStateDirectory, usageData.getProjectArtifact().getGatv(), sendToUrl);
+        DeltaSnapshot lastSnapshot = DeltaSnapshot.load(snapshotFile, stateGson);
+        if ((lastSnapshot != null) && (lastSnapshot.isDeltaSupported())) {
+            DeltaSnapshot currentSnapshot = DeltaSnapshot.of(usageData, stateGson, true);
+            DeltaUsageData delta = lastSnapshot.createDelta(usageData, currentSnapshot);
+            String deltaUrl = appendPath(sendToUrl, "/delta");
+            log.info("sending usage info delta data (" + delta.getAddedArtifacts().size() + " added, "
+                    + delta.getChangedArtifacts().size() + " changed, " + delta.getRemovedArtifacts().size()
+                    + " removed) to '" + deltaUrl + "' ...");
+            try {
+                HttpResult result = this.sendWithRetry(() -> this.sendJson(delta, deltaUrl, gson), deltaUrl, deadlineNanos, log);
+                log.info("delta data sent (http " + result.getCode() + ")");
+                if (result.isSuccessful()) {
+                    currentSnapshot.save(snapshotFile, stateGson);
+                    return true;
+                }
+                log.warn("delta data has been rejected, sending complete data instead");
+            } catch (IOException ex) {
+                log.warn("exception sending delta data, sending complete data instead: " + ex);
+            }
+        }
+        HttpResult result = this.sendComplete(usageData, sendToUrl, gson, encoding, deadlineNanos, log);
+        if ((result != null) && result.isSuccessful()) {
+            DeltaSnapshot.of(usageData, stateGson, result.isDeltaSupported()).save(snapshotFile, stateGson);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sends the complete data, retrying within the retry budget. If sending finally fails with
+     * a retryable error, the data will be added to the outbox (if enabled) to be sent by a later build.
+     * @param usageData     usage data to send
+     * @param sendToUrl     url to send data to
+     * @param gson          Gson instance
+     * @param encoding      encoding, null for JSON
+     * @param deadlineNanos deadline for retries (in terms of {@link System#nanoTime()})
+     * @param log           logging
+     * @return HTTP result or null if sending failed with an exception
+     */
+    protected HttpResult sendComplete(UsageData usageData, String sendToUrl, Gson gson, UsageDataEncoding encoding,
+            long deadlineNanos, Log log) {
+        log.info("sending usage info data to '" + sendToUrl + "' ...");
+        HttpResult result = null;
+        try {
+            result = this.sendWithRetry(() -> this.sendEncoded(usageData, sendToUrl, gson, encoding),
+                    sendToUrl, deadlineNanos, log);
+            log.info("data sent (http " + result.getCode() + ")");
+        } catch (IOException ex) {
+            log.error("exception sending data via web: " + ex);
+        }
+        boolean retryable = (result == null) || ((result.isSuccessful() == false) && result.isRetryable());
+        if (retryable && (this.outbox != null) && (this.cancellation.isCancelled() == false)) {
+            try {
+                long nextAttemptAt = System.currentTimeMillis()
+                        + this.retryPolicy.getDelayMillis(1, (result != null) ? result.getRetryAfter() : null);
+                this.outbox.add(sendToUrl, SharedGson.compact().toJsonTree(usageData), 1, nextAttemptAt);
+                log.warn("data has been added to outbox and will be sent by a later build");
+            } catch (IOException ex) {
+                log.error("exception adding data to outbox: " + ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sends multiple usage data documents as one newline-delimited JSON batch to <code>&lt;url&gt;/batch</code>,
+     * retrying within the retry budget.
+     * @param usageDataList usage data documents to send
+     * @param sendToUrl     url to send data to
+     * @param log           logging
+     * @return per given document true if stored successfully, false otherwise
+     * @see #sendBatch(List, String, long, Log)
+     */
+    public List<Boolean> sendBatch(List<UsageData> usageDataList, String sendToUrl, Log log) {
+        return this.sendBatch(usageDataList, sendToUrl, this.getRetryDeadlineNanos(), log);
+    }
+
+    /**
+     * Sends multiple usage data documents as one newline-delimited JSON batch to <code>&lt;url&gt;/batch</code>,
+     * together with the due outbox entries for the URL (if enabled). Documents that could not be stored are handled
+     * per document: retryable ones are (re-)added to the outbox, others are logged and dropped.
+     * @param usageDataList usage data documents to send
+     * @param sendToUrl     url to send data to
+     * @param deadlineNanos deadline for retries (in terms of {@link System#nanoTime()})
+     * @param log           logging
+     * @return per given document true if stored successfully, false otherwise
+     */
+    protected List<Boolean> sendBatch(List<UsageData> usageDataList, String sendToUrl, long deadlineNanos, Log log) {
+        // one document per line, so never pretty-printed
+        Gson gson = SharedGson.compact();
+        Outbox batchOutbox = this.outbox;
+        List<Outbox.OutboxEntry> entries = (batchOutbox != null)
+                ? batchOutbox.claimDue(sendToUrl, this.outboxReplayBatchSize)
+                : Collections.emptyList();
+        List<Object> documents = new ArrayList<>(entries.size() + usageDataList.size());
+        for (Outbox.OutboxEntry oneEntry : entries) {
+            documents.add(oneEntry.getPayload());
+        }
+        documents.addAll(usageDataList);
+        List<Boolean> stored = new ArrayList<>(usageDataList.size());
+        if (documents.isEmpty()) {
+            return stored;
+        }
+        String batchUrl = appendPath(sendToUrl, "/batch");
+        log.info("sending batch of " + documents.size() + " usage info documents (" + entries.size() + " from outbox) to '"
+                + batchUrl + "' ...");
+        BatchResult batchResult = null;
+        String retryAfter = null;
+        try {
+            HttpResult httpResult = this.sendWithRetry(() -> this.sendNdjson(documents, batchUrl, gson),
+                    batchUrl, deadlineNanos, log);
+            log.info("batch sent (http " + httpResult.getCode() + ")");
+            batchResult = BatchResult.fromHttpResult(httpResult, documents.size(), gson);
+            retryAfter = httpResult.getRetryAfter();
+        } catch (IOException ex) {
+            log.error("exception sending batch via web: " + ex);
+        }
+        long now = System.currentTimeMillis();
+        int storedCount = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            boolean success = (batchResult != null) && batchResult.isSuccessful(i);
+            boolean retryable = (batchResult == null) || batchResult.isRetryable(i);
+            if (success) {
+                storedCount++;
+            } else if (batchResult != null) {
+                log.warn("batch document " + i + " has not been stored (status " + batchResult.getStatus(i) + ")"
+                        + ((batchResult.getMessage(i) != null) ? ": " + batchResult.getMessage(i) : ""));
+            }
+            try {
+                if (i < entries.size()) {
+                    Outbox.OutboxEntry entry = entries.get(i);
+                    if (success || (retryable == false)) {
+                        batchOutbox.complete(entry);
+                    } else {
+                        batchOutbox.release(entry, now + this.retryPolicy.getDelayMillis(entry.getAttempts() + 1, retryAfter));
+                    }
+                } else {
+                    stored.add(success);
+                    if ((success == false) && retryable && (batchOutbox != null) && (this.cancellation.isCancelled() == false)) {
+                        batchOutbox.add(sendToUrl, gson.toJsonTree(documents.get(i)), 1,
+                                now + this.retryPolicy.getDelayMillis(1, retryAfter));
+                        log.warn("batch document " + i + " has been added to outbox and will be sent by a later build");
+                    }
+                }
+            } catch (IOException ex) {
+                log.error("exception updating outbox: " + ex);
+            }
+        }
+        log.info(storedCount + " of " + documents.size() + " batch documents have been stored");
+        return stored;
+    }
+
+    /**
+     * Sends the given web request, retrying on retryable errors with exponential backoff (honoring Retry-After)
+     * as long as the deadline allows.
+     * @param request       request to send
+     * @param sendToUrl     url the request is sent to (for logging)
+     * @param deadlineNanos deadline for retries (in terms of {@link System#nanoTime()})
+     * @param log           logging
+     * @return HTTP result of the last attempt
+     * @throws IOException if the last attempt failed with an exception
+     */
+    protected HttpResult sendWithRetry(WebRequest request, String sendToUrl, long deadlineNanos, Log log)
+            throws IOException {
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            HttpResult result = null;
+            IOException failure = null;
+            try {
+                result = request.send();
+                if (result.isSuccessful() || (result.isRetryable() == false)) {
+                    return result;
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            }
+            long delayMillis = this.retryPolicy.getDelayMillis(attempts, (result != null) ? result.getRetryAfter() : null);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if ((delayMillis > remainingMillis) || this.cancellation.isCancelled()) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }
+            log.warn("sending data to '" + sendToUrl + "' failed (" + ((result != null) ? "http " + result.getCode() : failure)
+                    + "), retrying in " + delayMillis + " ms");
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Replays the outbox entries for the given URL that are due, oldest first, with one attempt per entry.
+     * Failed entries are not retried within the build, but scheduled with backoff. When the endpoint is unavailable
+     * (connection error or retryable HTTP status), the remaining entries are put back without an attempt, so an outage
+     * neither blocks the build with one timeout per entry nor counts against the entries.
+     * @param sendToUrl url to replay entries for
+     * @param gson      Gson instance for serialization
+     * @param encoding  encoding, null for JSON
+     * @param log       logging
+     */
+    protected void replayOutbox(String sendToUrl, Gson gson, UsageDataEncoding encoding, Log log) {
+        List<Outbox.OutboxEntry> entries = this.outbox.claimDue(sendToUrl, this.outboxReplayBatchSize);
+        if (entries.isEmpty()) {
+            return;
+        }
+        log.info("replaying " + entries.size() + " outbox entries to '" + sendToUrl + "' ...");
+        int sent = 0;
+        long unavailableUntil = -1L;
+        for (Outbox.OutboxEntry oneEntry : entries) {
+            try {
+                if (unavailableUntil >= 0) {
+                    this.outbox.putBack(oneEntry, unavailableUntil);
+                    continue;
+                }
+                HttpResult result = null;
+                try {
+                    result = this.sendEncoded(oneEntry.getPayload(), sendToUrl, gson, encoding);
+                } catch (IOException ex) {
+                    log.debug("exception replaying outbox entry: " + ex);
+                }
+                if ((result != null) && result.isSuccessful()) {
+                    this.outbox.complete(oneEntry);
+                    sent++;
+                } else if ((result != null) && (result.isRetryable() == false)) {
+                    log.warn("outbox entry has been rejected (http " + result.getCode() + ") and will be removed");
+                    this.outbox.complete(oneEntry);
+                } else {
+                    long delayMillis = this.retryPolicy.getDelayMillis(oneEntry.getAttempts() + 1,
+                            (result != null) ? result.getRetryAfter() : null);
+                    // endpoint unavailable, the other entries are tried again together with this one
+                    unavailableUntil = System.currentTimeMillis() + delayMillis;
+                    this.outbox.release(oneEntry, unavailableUntil);
+                }
+            } catch (IOException ex) {
+                log.error("exception updating outbox entry: " + ex);
+            }
+        }
+        if (unavailableUntil >= 0) {
+            log.warn("'" + sendToUrl + "' is not available, outbox entries will be replayed by a later build");
+        }
+        log.info(sent + " of " + entries.size() + " outbox entries have been sent");
+    }
+
+    /**
+     * Sends a JSON payload, using the configured method, authentication and compression.
+     * @param payload   payload to send
+     * @param sendToUrl url to send data to
+     * @param gson      Gson instance for serialization
+     * @return HTTP result
+     * @throws IOException on errors sending the data
+     */
+    public HttpResult sendJson(Object payload, String sendToUrl, Gson gson) throws IOException {
+        boolean gzip = this.useCompression(gson, payload);
+        // JSON will be streamed into the request, without creating the whole content in memory first
+        return this.execute(sendToUrl, new JsonRequestBody(gson, payload, gzip), gzip);
+    }
+
+    /**
+     * Sends a payload in the given encoding, with the encoding's Content-Type. If the endpoint does not
+     * accept the encoding (HTTP 415), the payload will be sent as JSON instead.
+     * @param payload   payload to send
+     * @param sendToUrl url to send data to
+     * @param gson      Gson instance for serialization
+     * @param encoding  encoding, null for JSON
+     * @return HTTP result
+     * @throws IOException on network errors
+     */
+    public HttpResult sendEncoded(Object payload, String sendToUrl, Gson gson, UsageDataEncoding encoding) throws IOException {
+        if ((encoding == null) || (encoding == UsageDataEncoding.JSON)) {
+            return this.sendJson(payload, sendToUrl, gson);
+        }
+        HttpResult result = this.execute(sendToUrl, new EncodedRequestBody(encoding, gson, payload), encoding.isGzip());
+        if (result.getCode() == HTTP_UNSUPPORTED_MEDIA_TYPE) {
+            return this.sendJson(payload, sendToUrl, gson);
+        }
+        return result;
+    }
+
+    /**
+     * Sends multiple documents as newline-delimited JSON, using the configured method, auth header and compression.
+     * @param documents documents to send
+     * @param sendToUrl url to send data to
+     * @param gson      Gson instance for serialization, must not pretty-print
+     * @return HTTP result
+     * @throws IOException on network errors
+     */
+    public HttpResult sendNdjson(List<?> documents, String sendToUrl, Gson gson) throws IOException {
+        boolean gzip = this.useCompression(gson, documents);
+        return this.execute(sendToUrl, new NdjsonRequestBody(gson, documents, gzip), gzip);
+    }
+
+    /**
+     * Executes a web request with the configured method and auth header.
+     * @param sendToUrl url to send data to
+     * @param reqBody   request body
+     * @param gzip      true if the request body is gzip-compressed
+     * @return HTTP result
+     * @throws IOException on network errors
+     */
+    protected HttpResult execute(String sendToUrl, RequestBody reqBody, boolean gzip) throws IOException {
+        Request.Builder reqBuilder = new Request.Builder()
+                .url(sendToUrl);
+        if ((this.authHeader != null) && (this.authHeader.isEmpty() == false)) {
+            reqBuilder.addHeader("Authorization", this.authHeader);
+        }
+        if (gzip) {
+            reqBuilder.addHeader("Content-Encoding", "gzip");
+        }
+        reqBuilder.method(this.method, reqBody);
+        Request req = reqBuilder.build();
+        Call call = this.client.newCall(req);
+        // blocking network I/O ignores interrupts, so the call must be cancelled explicitly
+        this.cancellation.onCancel(call::cancel);
+        try (Response resp = call.execute()) {
+            return HttpResult.fromResponse(resp);
+        }
+    }
+
+    /**
+     * Checks if the request body should be gzip-compressed, according to the configured compression mode.
+     * @param gson    Gson instance used for serialization
+     * @param payload payload to send
+     * @return true if the request body should be compressed
+     */
+    protected boolean useCompression(Gson gson, Object payload) {
+        if (COMPRESSION_GZIP.equalsIgnoreCase(this.compression)) {
+            return true;
+        }
+        if (COMPRESSION_AUTO.equalsIgnoreCase(this.compression)) {
+            return JsonRequestBody.exceedsSize(gson, payload, this.compressionThreshold);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the deadline for retries of a send starting now.
+     * @return deadline (in terms of {@link System#nanoTime()})
+     */
+    private long getRetryDeadlineNanos() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.retryBudgetMillis);
+    }
+
+    /**
+     * Appends a path to the path of the given URL (before any query string).
+     * @param url  URL
+     * @param path path to append
+     * @return URL with appended path
+     */
+    public static String appendPath(String url, String path) {
+        int queryPos = url.indexOf('?');
+        String base = (queryPos >= 0) ? url.substring(0, queryPos) : url;
+        String query = (queryPos >= 0) ? url.substring(queryPos) : "";
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return base + path + query;
+    }
+
+    /**
+     * Web request which can be sent (again).
+     */
+    @FunctionalInterface
+    protected interface WebRequest {
+        /**
+         * Sends the request.
+         * @return HTTP result
+         * @throws IOException on network errors
+         */
+        HttpResult send() throws IOException;
+    }
+}
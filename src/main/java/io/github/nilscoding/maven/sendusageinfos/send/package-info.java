@@ -0,0 +1,4 @@
+/**
+ * Sending usage data to its targets.
+ */
+package io.github.nilscoding.maven.sendusageinfos.send;
@@ -0,0 +1,122 @@
+package io.github.nilscoding.maven.sendusageinfos.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers data in the background while the build continues, to be joined with a bounded wait at session end.
+ * Deliveries run one after another on a single worker thread, so they never compete with the build for more
+ * than one thread.
+ * @author NilsCoding
+ */
+public final class BackgroundDelivery implements AutoCloseable {
+
+    /**
+     * Executor running the deliveries.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("send-usage-infos-delivery"));
+    /**
+     * Pending deliveries, in order of submission. Descriptions need not be unique (e.g. a module delivered by
+     * multiple executions), so every delivery is kept.
+     */
+    private final List<Delivery> deliveries = new ArrayList<>();
+
+    /**
+     * Creates a new instance.
+     */
+    public BackgroundDelivery() {
+    }
+
+    /**
+     * Queues a delivery.
+     * @param description description of the delivery (e.g. the module), used for reporting
+     * @param delivery    delivery, returning true on success
+     */
+    public synchronized void submit(String description, Callable<Boolean> delivery) {
+        this.deliveries.add(new Delivery(description, this.executor.submit(delivery)));
+    }
+
+    /**
+     * Waits for all queued deliveries, at most for the given time. Deliveries not finished in time will be cancelled.
+     * @param timeoutMillis maximum time to wait in milliseconds, 0 or less for no limit
+     * @return descriptions of the deliveries that failed or did not finish in time, not null
+     */
+    public List<String> awaitAll(long timeoutMillis) {
+        List<Delivery> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(this.deliveries);
+            this.deliveries.clear();
+        }
+        List<String> failed = new ArrayList<>();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Delivery oneDelivery : pending) {
+            Future<Boolean> future = oneDelivery.future;
+            try {
+                Boolean success;
+                if (timeoutMillis <= 0) {
+                    success = future.get();
+                } else {
+                    success = future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                if ((success == null) || (success == false)) {
+                    failed.add(oneDelivery.description);
+                }
+            } catch (ExecutionException ex) {
+                failed.add(oneDelivery.description);
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                failed.add(oneDelivery.description);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                failed.add(oneDelivery.description);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Returns the number of queued deliveries not yet joined.
+     * @return number of queued deliveries
+     */
+    public synchronized int size() {
+        return this.deliveries.size();
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Queued delivery.
+     */
+    private static final class Delivery {
+
+        /**
+         * Description of the delivery.
+         */
+        private final String description;
+        /**
+         * Result of the delivery.
+         */
+        private final Future<Boolean> future;
+
+        /**
+         * Creates a new instance.
+         * @param description description of the delivery
+         * @param future      result of the delivery
+         */
+        Delivery(String description, Future<Boolean> future) {
+            this.description = description;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.nilscoding.maven.sendusageinfos.session;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory creating named daemon threads with the context class loader of the creating thread (the plugin's
+ * class loader), so worker threads never keep the Maven JVM alive.
+ * @author NilsCoding
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+    /**
+     * Thread name prefix.
+     */
+    private final String namePrefix;
+    /**
+     * Thread counter.
+     */
+    private final AtomicInteger counter = new AtomicInteger();
+    /**
+     * Context class loader of the creating thread.
+     */
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+    /**
+     * Creates a new instance.
+     * @param namePrefix thread name prefix
+     */
+    public DaemonThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, this.namePrefix + "-" + this.counter.incrementAndGet());
+        t.setDaemon(true);
+        t.setContextClassLoader(this.contextClassLoader);
+        return t;
+    }
+}
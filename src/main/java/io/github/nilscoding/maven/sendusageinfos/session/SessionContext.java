@@ -0,0 +1,130 @@
+package io.github.nilscoding.maven.sendusageinfos.session;
+
+import io.github.nilscoding.maven.sendusageinfos.resolve.SessionResolutionCache;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * State of one Maven build session, shared by all Mojo executions in that session (also in parallel builds).
+ * @author NilsCoding
+ */
+public class SessionContext {
+
+    /**
+     * Resolution cache.
+     */
+    private final SessionResolutionCache resolutionCache = new SessionResolutionCache();
+    /**
+     * Additional attributes, by key.
+     */
+    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
+    /**
+     * Actions to run at session end, by id.
+     */
+    private final Map<String, Runnable> sessionEndActions = new LinkedHashMap<>();
+    /**
+     * Resources to close at session end, after all session end actions.
+     */
+    private final List<AutoCloseable> sessionResources = new ArrayList<>();
+    /**
+     * Flag if the session has ended.
+     */
+    private boolean ended;
+
+    /**
+     * Creates a new instance.
+     */
+    public SessionContext() {
+    }
+
+    /**
+     * Returns the resolution cache of this session.
+     * @return resolution cache
+     */
+    public SessionResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
+    /**
+     * Returns the attribute with the given key, creating it on first access.
+     * @param key     attribute key
+     * @param type    attribute type
+     * @param factory factory to create the attribute if not present
+     * @param <T>     attribute type
+     * @return attribute
+     */
+    public <T> T getAttribute(String key, Class<T> type, Supplier<T> factory) {
+        return type.cast(this.attributes.computeIfAbsent(key, k -> factory.get()));
+    }
+
+    /**
+     * Registers an action to run when the session ends. If an action with the same id is already registered,
+     * the given action will be ignored. Actions run in order of their registration.
+     * @param id     action id
+     * @param action action to run
+     * @return true if registered, false if already registered or the session has already ended
+     */
+    public synchronized boolean registerSessionEndAction(String id, Runnable action) {
+        if (this.ended || this.sessionEndActions.containsKey(id)) {
+            return false;
+        }
+        this.sessionEndActions.put(id, action);
+        return true;
+    }
+
+    /**
+     * Checks if the session has already ended.
+     * @return true if ended, false otherwise
+     */
+    public synchronized boolean hasEnded() {
+        return this.ended;
+    }
+
+    /**
+     * Registers a resource to close at session end, after all session end actions have been run.
+     * Resources registered while the session end actions are running will be closed as well.
+     * @param resource resource to close
+     */
+    public synchronized void registerSessionResource(AutoCloseable resource) {
+        this.sessionResources.add(resource);
+    }
+
+    /**
+     * Runs all registered session end actions and closes all session resources. Called once when the session ends.
+     */
+    void sessionEnded() {
+        List<Runnable> actions;
+        synchronized (this) {
+            if (this.ended) {
+                return;
+            }
+            this.ended = true;
+            actions = new ArrayList<>(this.sessionEndActions.values());
+            this.sessionEndActions.clear();
+        }
+        for (Runnable oneAction : actions) {
+            try {
+                oneAction.run();
+            } catch (RuntimeException ex) {
+                // one failing action must not prevent the others from running
+            }
+        }
+        List<AutoCloseable> resources;
+        synchronized (this) {
+            resources = new ArrayList<>(this.sessionResources);
+            this.sessionResources.clear();
+        }
+        for (AutoCloseable oneResource : resources) {
+            try {
+                oneResource.close();
+            } catch (Exception ex) {
+                // closing is best effort
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.nilscoding.maven.sendusageinfos.session;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Provides the session context of a Maven build session.
+ * <p>
+ * The context is stored in the session data of the repository session, which is shared by all (also cloned)
+ * Maven sessions of one build, so it lives exactly as long as the build. When the build ends, the registered
+ * session end actions of the context will be run.
+ * </p>
+ * @author NilsCoding
+ */
+@Named
+@Singleton
+public class SessionContextManager {
+
+    /**
+     * Key for storing the context in the session data.
+     */
+    private static final String SESSION_DATA_KEY = SessionContext.class.getName();
+
+    /**
+     * Creates a new instance.
+     */
+    public SessionContextManager() {
+    }
+
+    /**
+     * Returns the context of the given session, creating it on first access.
+     * @param session Maven session
+     * @return session context
+     */
+    public synchronized SessionContext getContext(MavenSession session) {
+        SessionData sessionData = session.getRepositorySession().getData();
+        Object existing = sessionData.get(SESSION_DATA_KEY);
+        if (existing instanceof SessionContext) {
+            return (SessionContext) existing;
+        }
+        SessionContext context = new SessionContext();
+        sessionData.set(SESSION_DATA_KEY, context);
+        MavenExecutionRequest request = session.getRequest();
+        request.setExecutionListener(new SessionEndListener(request.getExecutionListener(), context));
+        return context;
+    }
+
+    /**
+     * Execution listener that notifies the session context about the session end and forwards all events
+     * to the previously registered listener.
+     */
+    private static class SessionEndListener implements ExecutionListener {
+        /**
+         * Previously registered listener, can be null.
+         */
+        private final ExecutionListener delegate;
+        /**
+         * Session context to notify.
+         */
+        private final SessionContext context;
+
+        /**
+         * Creates a new instance.
+         * @param delegate previously registered listener, can be null
+         * @param context  session context to notify
+         */
+        SessionEndListener(ExecutionListener delegate, SessionContext context) {
+            this.delegate = delegate;
+            this.context = context;
+        }
+
+        @Override
+        public void projectDiscoveryStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.projectDiscoveryStarted(event);
+            }
+        }
+
+        @Override
+        public void sessionStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.sessionStarted(event);
+            }
+        }
+
+        @Override
+        public void sessionEnded(ExecutionEvent event) {
+            // run own actions first, so their logging appears before the build summary
+            this.context.sessionEnded();
+            if (this.delegate != null) {
+                this.delegate.sessionEnded(event);
+            }
+        }
+
+        @Override
+        public void projectSkipped(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.projectSkipped(event);
+            }
+        }
+
+        @Override
+        public void projectStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.projectStarted(event);
+            }
+        }
+
+        @Override
+        public void projectSucceeded(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.projectSucceeded(event);
+            }
+        }
+
+        @Override
+        public void projectFailed(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.projectFailed(event);
+            }
+        }
+
+        @Override
+        public void mojoSkipped(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.mojoSkipped(event);
+            }
+        }
+
+        @Override
+        public void mojoStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.mojoStarted(event);
+            }
+        }
+
+        @Override
+        public void mojoSucceeded(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.mojoSucceeded(event);
+            }
+        }
+
+        @Override
+        public void mojoFailed(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.mojoFailed(event);
+            }
+        }
+
+        @Override
+        public void forkStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkStarted(event);
+            }
+        }
+
+        @Override
+        public void forkSucceeded(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkSucceeded(event);
+            }
+        }
+
+        @Override
+        public void forkFailed(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkFailed(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectStarted(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkedProjectStarted(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectSucceeded(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkedProjectSucceeded(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectFailed(ExecutionEvent event) {
+            if (this.delegate != null) {
+                this.delegate.forkedProjectFailed(event);
+            }
+        }
+    }
+}
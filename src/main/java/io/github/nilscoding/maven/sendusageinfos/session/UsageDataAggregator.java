@@ -0,0 +1,131 @@
+package io.github.nilscoding.maven.sendusageinfos.session;
+
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Collects the usage data of all modules of a build and combines it into one usage data document.
+ * <p>
+ * Referenced artifacts are deduplicated by their GATV, each one listing the modules using it.
+ * Modules are ordered by their position in the reactor, so the result does not depend on the order
+ * in which (parallel) module builds finish.
+ * </p>
+ * @author NilsCoding
+ */
+public class UsageDataAggregator {
+
+    /**
+     * Collected usage data by reactor position.
+     */
+    private final Map<Integer, UsageData> moduleUsageData = new TreeMap<>();
+
+    /**
+     * Creates a new instance.
+     */
+    public UsageDataAggregator() {
+    }
+
+    /**
+     * Adds the usage data of one module.
+     * @param reactorIndex position of the module in the reactor
+     * @param usageData    usage data of the module
+     */
+    public synchronized void add(int reactorIndex, UsageData usageData) {
+        if (usageData != null) {
+            this.moduleUsageData.put(reactorIndex, usageData);
+        }
+    }
+
+    /**
+     * Returns the number of collected modules.
+     * @return number of collected modules
+     */
+    public synchronized int size() {
+        return this.moduleUsageData.size();
+    }
+
+    /**
+     * Returns the collected usage data of all modules, in reactor order.
+     * @return collected usage data
+     */
+    public synchronized List<UsageData> getModuleUsageData() {
+        return new ArrayList<>(this.moduleUsageData.values());
+    }
+
+    /**
+     * Combines the collected usage data.
+     * @param projectArtifact project artifact of the combined usage data (e.g. the top level project)
+     * @return combined usage data
+     */
+    public synchronized UsageData aggregate(Artifact projectArtifact) {
+        UsageData aggregated = new UsageData();
+        aggregated.setProjectArtifact(projectArtifact);
+        List<Artifact> moduleArtifacts = new ArrayList<>(this.moduleUsageData.size());
+        Map<String, Artifact> refArtifacts = new LinkedHashMap<>();
+        Set<String> unenrichedArtifacts = new LinkedHashSet<>();
+        Set<String> timedOutArtifacts = new LinkedHashSet<>();
+        boolean partial = false;
+        boolean knownMetadataOmitted = false;
+        for (UsageData oneUsageData : this.moduleUsageData.values()) {
+            Artifact moduleArtifact = oneUsageData.getProjectArtifact();
+            if (moduleArtifact == null) {
+                continue;
+            }
+            moduleArtifacts.add(moduleArtifact);
+            String moduleGatv = moduleArtifact.getGatv();
+            if (oneUsageData.getUnenrichedArtifacts() != null) {
+                unenrichedArtifacts.addAll(oneUsageData.getUnenrichedArtifacts());
+            }
+            if ((oneUsageData.getPartial() != null) && (oneUsageData.getPartial())) {
+                partial = true;
+            }
+            if ((oneUsageData.getKnownMetadataOmitted() != null) && (oneUsageData.getKnownMetadataOmitted())) {
+                knownMetadataOmitted = true;
+            }
+            if (oneUsageData.getTimedOutArtifacts() != null) {
+                timedOutArtifacts.addAll(oneUsageData.getTimedOutArtifacts());
+            }
+            if (oneUsageData.getReferencedArtifacts() == null) {
+                continue;
+            }
+            for (Artifact oneRefArtifact : oneUsageData.getReferencedArtifacts()) {
+                Artifact aggregatedArtifact = refArtifacts.get(oneRefArtifact.getGatv());
+                if (aggregatedArtifact == null) {
+                    aggregatedArtifact = oneRefArtifact.copy();
+                    // dependency trails and graphs are module-specific, the using modules are listed instead
+                    aggregatedArtifact.setDependencyTrail(null);
+                    aggregatedArtifact.setGraphNode(null);
+                    aggregatedArtifact.setUsedBy(new ArrayList<>());
+                    refArtifacts.put(oneRefArtifact.getGatv(), aggregatedArtifact);
+                }
+                aggregatedArtifact.getUsedBy().add(moduleGatv);
+            }
+        }
+        if (moduleArtifacts.isEmpty() == false) {
+            aggregated.setModuleArtifacts(moduleArtifacts);
+        }
+        if (refArtifacts.isEmpty() == false) {
+            aggregated.setReferencedArtifacts(new ArrayList<>(refArtifacts.values()));
+        }
+        if (unenrichedArtifacts.isEmpty() == false) {
+            aggregated.setUnenrichedArtifacts(new ArrayList<>(unenrichedArtifacts));
+        }
+        if (partial) {
+            aggregated.setPartial(Boolean.TRUE);
+        }
+        if (timedOutArtifacts.isEmpty() == false) {
+            aggregated.setTimedOutArtifacts(new ArrayList<>(timedOutArtifacts));
+        }
+        if (knownMetadataOmitted) {
+            aggregated.setKnownMetadataOmitted(Boolean.TRUE);
+        }
+        return aggregated;
+    }
+}
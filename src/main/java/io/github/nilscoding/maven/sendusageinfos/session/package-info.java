@@ -0,0 +1,4 @@
+/**
+ * State shared by all Mojo executions of one Maven build session.
+ */
+package io.github.nilscoding.maven.sendusageinfos.session;
@@ -0,0 +1,50 @@
+package io.github.nilscoding.maven.sendusageinfos.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hashing utilities.
+ * @author NilsCoding
+ */
+public final class Hashing {
+
+    /**
+     * Radix for hex encoding.
+     */
+    private static final int HEX_RADIX = 16;
+    /**
+     * Number of bits per hex digit.
+     */
+    private static final int HEX_DIGIT_BITS = 4;
+    /**
+     * Bit mask for one hex digit.
+     */
+    private static final int HEX_DIGIT_MASK = 0xF;
+
+    /**
+     * Hidden constructor.
+     */
+    private Hashing() {
+    }
+
+    /**
+     * Returns the hex-encoded SHA-1 hash of the given string.
+     * @param str string to hash
+     * @return hash string
+     */
+    public static String sha1Hex(String str) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(str.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> HEX_DIGIT_BITS) & HEX_DIGIT_MASK, HEX_RADIX));
+                sb.append(Character.forDigit(b & HEX_DIGIT_MASK, HEX_RADIX));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
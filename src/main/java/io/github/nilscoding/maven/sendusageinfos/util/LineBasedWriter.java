@@ -0,0 +1,56 @@
+package io.github.nilscoding.maven.sendusageinfos.util;
+
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Line-based writer, forwarding each line to the given consumer. Used for writing data to the Maven build log.
+ * @author NilsCoding
+ */
+public final class LineBasedWriter extends Writer {
+    /**
+     * Temporary line buffer.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+    /**
+     * Target consumer to write to.
+     */
+    private final Consumer<String> consumer;
+
+    /**
+     * Creates a new instance with given consumer.
+     * @param consumer consumer
+     */
+    public LineBasedWriter(Consumer<String> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            char c = cbuf[i];
+            if (c == '\n' || c == '\r') {
+                this.writeBufferToConsumer();
+            } else {
+                buffer.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.writeBufferToConsumer();
+    }
+
+    @Override
+    public void close() {
+        this.writeBufferToConsumer();
+    }
+
+    private void writeBufferToConsumer() {
+        if (buffer.length() > 0) {
+            this.consumer.accept(buffer.toString());
+            buffer.setLength(0);
+        }
+    }
+}
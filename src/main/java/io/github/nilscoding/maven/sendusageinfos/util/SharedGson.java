@@ -0,0 +1,53 @@
+package io.github.nilscoding.maven.sendusageinfos.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Gson instances shared by all Mojo executions, as Gson instances are immutable and thread-safe and cache
+ * their type adapters. This avoids building Gson instances (and their adapters) per send, which matters
+ * when the Mojo runs many times in one JVM (e.g. in a Maven daemon).
+ * @author NilsCoding
+ */
+public final class SharedGson {
+
+    /**
+     * Gson instance without pretty-printing.
+     */
+    private static final Gson COMPACT = new Gson();
+    /**
+     * Gson instance with pretty-printing.
+     */
+    private static final Gson PRETTY = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Hidden constructor.
+     */
+    private SharedGson() {
+    }
+
+    /**
+     * Returns the Gson instance without pretty-printing.
+     * @return Gson instance
+     */
+    public static Gson compact() {
+        return COMPACT;
+    }
+
+    /**
+     * Returns the Gson instance with pretty-printing.
+     * @return Gson instance
+     */
+    public static Gson pretty() {
+        return PRETTY;
+    }
+
+    /**
+     * Returns the Gson instance for the given configuration.
+     * @param prettyPrint true for pretty-printing
+     * @return Gson instance
+     */
+    public static Gson get(boolean prettyPrint) {
+        return prettyPrint ? PRETTY : COMPACT;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Common utilities.
+ */
+package io.github.nilscoding.maven.sendusageinfos.util;
@@ -0,0 +1,120 @@
+package io.github.nilscoding.maven.sendusageinfos.data;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DependencyGraph}.
+ * @author NilsCoding
+ */
+class DependencyGraphTest {
+
+    /**
+     * GATV of the project.
+     */
+    private static final String PROJECT = "org.example:app:jar:1.0";
+    /**
+     * GATV of a direct dependency.
+     */
+    private static final String DIRECT = "org.example:direct:jar:1.0";
+    /**
+     * GATV of a transitive dependency.
+     */
+    private static final String TRANSITIVE = "org.example:transitive:jar:1.0";
+    /**
+     * GATV of another direct dependency.
+     */
+    private static final String OTHER = "org.example:other:jar:2.0";
+
+    /**
+     * Shared trail prefixes become shared nodes, and each path equals the artifact's former dependency trail.
+     */
+    @Test
+    void buildsGraphFromTrails() {
+        Artifact direct = artifact(DIRECT, Arrays.asList(PROJECT, DIRECT));
+        Artifact transitive = artifact(TRANSITIVE, Arrays.asList(PROJECT, DIRECT, TRANSITIVE));
+        Artifact other = artifact(OTHER, Arrays.asList(PROJECT, OTHER));
+
+        DependencyGraph graph = DependencyGraph.fromDependencyTrails(PROJECT, Arrays.asList(direct, transitive, other));
+
+        assertEquals(Arrays.asList(PROJECT, DIRECT, TRANSITIVE, OTHER), graph.getNodes());
+        assertArrayEquals(new int[] {DependencyGraph.NO_PARENT, 0, 1, 0}, graph.getParents());
+        assertEquals(Arrays.asList(PROJECT, DIRECT, TRANSITIVE), graph.getPath(transitive.getGraphNode()));
+        assertTrue(graph.isDirectDependencyOf(direct.getGraphNode(), PROJECT));
+        assertFalse(graph.isDirectDependencyOf(transitive.getGraphNode(), PROJECT));
+        assertTrue(graph.isDirectDependencyOf(transitive.getGraphNode(), DIRECT));
+    }
+
+    /**
+     * The trails are moved into the graph: each artifact gets its node ID and loses its trail.
+     */
+    @Test
+    void movesTrailsIntoGraph() {
+        Artifact direct = artifact(DIRECT, Arrays.asList(PROJECT, DIRECT));
+        Artifact transitive = artifact(TRANSITIVE, Arrays.asList(PROJECT, DIRECT, TRANSITIVE));
+
+        DependencyGraph graph = DependencyGraph.fromDependencyTrails(PROJECT, Arrays.asList(transitive, direct));
+
+        assertNull(direct.getDependencyTrail());
+        assertNull(transitive.getDependencyTrail());
+        assertEquals(DIRECT, graph.getGatv(direct.getGraphNode()));
+        assertEquals(TRANSITIVE, graph.getGatv(transitive.getGraphNode()));
+        // the intermediate node is created by the first trail and reused by the second
+        assertEquals(graph.getNodeId(DIRECT), direct.getGraphNode().intValue());
+        assertEquals(3, graph.size());
+    }
+
+    /**
+     * Artifacts without trail become direct children of the root node.
+     */
+    @Test
+    void attachesArtifactsWithoutTrailToRoot() {
+        Artifact noTrail = artifact(OTHER, null);
+        Artifact emptyTrail = artifact(DIRECT, Collections.emptyList());
+
+        DependencyGraph graph = DependencyGraph.fromDependencyTrails(PROJECT, Arrays.asList(noTrail, emptyTrail));
+
+        assertEquals(0, graph.getParent(noTrail.getGraphNode()));
+        assertEquals(0, graph.getParent(emptyTrail.getGraphNode()));
+        assertEquals(3, graph.getParents().length);
+    }
+
+    /**
+     * Without artifacts, the graph consists of the root node only.
+     */
+    @Test
+    void containsRootOnlyWithoutArtifacts() {
+        DependencyGraph graph = DependencyGraph.fromDependencyTrails(PROJECT, null);
+
+        assertEquals(Collections.singletonList(PROJECT), graph.getNodes());
+        assertArrayEquals(new int[] {DependencyGraph.NO_PARENT}, graph.getParents());
+        assertEquals(DependencyGraph.NO_NODE, graph.getNodeId(DIRECT));
+        assertTrue(graph.getPath(1).isEmpty());
+    }
+
+    /**
+     * Creates an artifact from its GATV.
+     * @param gatv  GATV (groupId:artifactId:type:version)
+     * @param trail dependency trail, can be null
+     * @return artifact
+     */
+    private static Artifact artifact(String gatv, List<String> trail) {
+        String[] parts = gatv.split(":");
+        Artifact artifact = new Artifact();
+        artifact.setGroupId(parts[0]);
+        artifact.setArtifactId(parts[1]);
+        artifact.setPackaging(parts[2]);
+        artifact.setVersion(parts[3]);
+        artifact.setDependencyTrail((trail != null) ? new ArrayList<>(trail) : null);
+        return artifact;
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.nilscoding.maven.sendusageinfos.encode;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CborWriter} and {@link CborReader}.
+ * @author NilsCoding
+ */
+class CborWriterTest {
+
+    /**
+     * Integers at the boundaries of the head encodings are read back unchanged.
+     * @throws IOException on errors
+     */
+    @Test
+    void roundTripsIntegerBoundaries() throws IOException {
+        long[] values = {0L, 23L, 24L, 255L, 256L, 65535L, 65536L, 4294967295L, 4294967296L, Long.MAX_VALUE,
+            -1L, -24L, -25L, -256L, -257L, -65536L, -65537L, -4294967296L, -4294967297L, Long.MIN_VALUE};
+        for (long oneValue : values) {
+            JsonElement read = roundTrip(new JsonPrimitive(oneValue));
+            assertEquals(oneValue, read.getAsLong(), "value " + oneValue);
+        }
+    }
+
+    /**
+     * Integers are written in the shortest encoding.
+     * @throws IOException on errors
+     */
+    @Test
+    void writesShortestIntegerEncoding() throws IOException {
+        assertArrayEquals(new byte[] {0x17}, write(new JsonPrimitive(23)));
+        assertArrayEquals(new byte[] {0x18, 0x18}, write(new JsonPrimitive(24)));
+        assertArrayEquals(new byte[] {0x19, 0x01, 0x00}, write(new JsonPrimitive(256)));
+        assertArrayEquals(new byte[] {0x20}, write(new JsonPrimitive(-1)));
+        assertArrayEquals(new byte[] {0x38, 0x18}, write(new JsonPrimitive(-25)));
+    }
+
+    /**
+     * Objects, arrays, texts, floats, booleans and null are read back as equal JSON trees.
+     * @throws IOException on errors
+     */
+    @Test
+    void roundTripsJsonTree() throws IOException {
+        JsonObject object = new JsonObject();
+        object.addProperty("text", "grüße € 😀");
+        object.addProperty("empty", "");
+        object.addProperty("float", 1.5d);
+        object.addProperty("negativeFloat", -0.25d);
+        object.addProperty("yes", true);
+        object.addProperty("no", false);
+        object.add("nothing", JsonNull.INSTANCE);
+        JsonArray array = new JsonArray();
+        array.add(1);
+        array.add("two");
+        array.add(new JsonArray());
+        array.add(new JsonObject());
+        object.add("array", array);
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longText.append("0123456789");
+        }
+        object.addProperty("longText", longText.toString());
+        assertEquals(object, roundTrip(object));
+    }
+
+    /**
+     * Usage data written in CBOR encoding is read back with the same content.
+     * @throws IOException on errors
+     */
+    @Test
+    void roundTripsUsageData() throws IOException {
+        UsageData usageData = new UsageData();
+        Artifact projectArtifact = new Artifact();
+        projectArtifact.setGroupId("org.example");
+        projectArtifact.setArtifactId("app");
+        projectArtifact.setVersion("1.0.0");
+        projectArtifact.setPackaging("jar");
+        usageData.setProjectArtifact(projectArtifact);
+        Artifact refArtifact = new Artifact();
+        refArtifact.setGroupId("org.example");
+        refArtifact.setArtifactId("lib");
+        refArtifact.setVersion("2.1");
+        refArtifact.setPackaging("jar");
+        refArtifact.setScope("compile");
+        License license = new License();
+        license.setName("MIT License");
+        license.setUrl("https://opensource.org/licenses/MIT");
+        refArtifact.setLicenses(Collections.singletonList(license));
+        refArtifact.setDependencyTrail(Arrays.asList(projectArtifact.getGatv(), refArtifact.getGatv()));
+        usageData.setReferencedArtifacts(Collections.singletonList(refArtifact));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UsageDataEncoding.CBOR.write(usageData, SharedGson.compact(), out);
+        List<UsageData> read = UsageDataReader.read(new ByteArrayInputStream(out.toByteArray()), SharedGson.compact());
+
+        assertEquals(1, read.size());
+        assertEquals(SharedGson.compact().toJson(usageData), SharedGson.compact().toJson(read.get(0)));
+    }
+
+    /**
+     * Multiple data items can be read one after another.
+     * @throws IOException on errors
+     */
+    @Test
+    void readsSequenceOfItems() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CborWriter writer = new CborWriter(out);
+        writer.write(new JsonPrimitive("first"));
+        writer.write(new JsonPrimitive(2));
+        writer.flush();
+        CborReader reader = new CborReader(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(reader.hasNext());
+        assertEquals("first", reader.read().getAsString());
+        assertTrue(reader.hasNext());
+        assertEquals(2, reader.read().getAsInt());
+        assertFalse(reader.hasNext());
+    }
+
+    /**
+     * Unsupported and truncated data is rejected with an exception.
+     */
+    @Test
+    void rejectsInvalidData() {
+        // byte string of length 1
+        assertThrows(IOException.class, () -> read(new byte[] {0x41, 0x00}));
+        // text string of length 5 with only 2 bytes
+        assertThrows(IOException.class, () -> read(new byte[] {0x65, 0x61, 0x62}));
+    }
+
+    /**
+     * Writes a JSON tree and reads it back.
+     * @param element JSON tree
+     * @return JSON tree read back
+     * @throws IOException on errors
+     */
+    private static JsonElement roundTrip(JsonElement element) throws IOException {
+        return read(write(element));
+    }
+
+    /**
+     * Writes a JSON tree as CBOR.
+     * @param element JSON tree
+     * @return CBOR data
+     * @throws IOException on errors
+     */
+    private static byte[] write(JsonElement element) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CborWriter writer = new CborWriter(out);
+        writer.write(element);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads one data item.
+     * @param data CBOR data
+     * @return JSON tree
+     * @throws IOException on errors
+     */
+    private static JsonElement read(byte[] data) throws IOException {
+        return new CborReader(new ByteArrayInputStream(data)).read();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ArtifactFilter}.
+ * @author NilsCoding
+ */
+class ArtifactFilterTest {
+
+    /**
+     * GATV of the project.
+     */
+    private static final String PROJECT = "org.example:app:jar:1.0";
+
+    /**
+     * A pattern without artifact ID matches all artifacts of the group, but not of other groups with the same prefix.
+     */
+    @Test
+    void groupPatternMatchesWholeGroup() {
+        ArtifactFilter filter = new ArtifactFilter("org.example", null);
+
+        assertTrue(filter.accepts(artifact("org.example", "lib", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.example.sub", "lib", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.other", "lib", "compile", "jar"), PROJECT));
+    }
+
+    /**
+     * <code>*</code> matches any number of characters, <code>?</code> exactly one character.
+     */
+    @Test
+    void globsMatchWildcards() {
+        ArtifactFilter filter = new ArtifactFilter("org.apache.*:commons-*, com.example:lib-?", null);
+
+        assertTrue(filter.accepts(artifact("org.apache.commons", "commons-lang3", "compile", "jar"), PROJECT));
+        assertTrue(filter.accepts(artifact("com.example", "lib-a", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("com.example", "lib-ab", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.apache.commons", "httpclient", "compile", "jar"), PROJECT));
+    }
+
+    /**
+     * Characters with a meaning in regular expressions are matched literally.
+     */
+    @Test
+    void globsQuoteRegexCharacters() {
+        ArtifactFilter filter = new ArtifactFilter("org.example:lib+core", null);
+
+        assertTrue(filter.accepts(artifact("org.example", "lib+core", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("orgXexample", "lib+core", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.example", "libbcore", "compile", "jar"), PROJECT));
+    }
+
+    /**
+     * Excludes take precedence over includes.
+     */
+    @Test
+    void excludesTakePrecedence() {
+        ArtifactFilter filter = new ArtifactFilter("org.example:*", "org.example:internal-*");
+
+        assertTrue(filter.accepts(artifact("org.example", "lib", "compile", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.example", "internal-tools", "compile", "jar"), PROJECT));
+    }
+
+    /**
+     * Scopes and types are compared case-insensitively, artifacts without scope count as compile scope.
+     */
+    @Test
+    void filtersScopesAndTypes() {
+        ArtifactFilter filter = new ArtifactFilter(null, null);
+        filter.setScopes("compile, runtime", null);
+        filter.setTypes(null, "POM");
+
+        assertTrue(filter.isActive());
+        assertTrue(filter.accepts(artifact("org.example", "lib", null, "jar"), PROJECT));
+        assertTrue(filter.accepts(artifact("org.example", "lib", "RUNTIME", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.example", "lib", "test", "jar"), PROJECT));
+        assertFalse(filter.accepts(artifact("org.example", "bom", "compile", "pom"), PROJECT));
+    }
+
+    /**
+     * Only artifacts whose dependency trail starts with the project and has length 2 are direct dependencies.
+     */
+    @Test
+    void acceptsDirectDependenciesOnly() {
+        ArtifactFilter filter = new ArtifactFilter(null, null);
+        filter.setDirectDependenciesOnly(true);
+        Artifact direct = artifact("org.example", "direct", "compile", "jar");
+        direct.setDependencyTrail(Arrays.asList(PROJECT, "org.example:direct:jar:1.0"));
+        Artifact transitive = artifact("org.example", "transitive", "compile", "jar");
+        transitive.setDependencyTrail(Arrays.asList(PROJECT, "org.example:direct:jar:1.0", "org.example:transitive:jar:1.0"));
+
+        assertTrue(filter.accepts(direct, PROJECT));
+        assertFalse(filter.accepts(transitive, PROJECT));
+    }
+
+    /**
+     * A filter without any criterion is not active and accepts everything.
+     */
+    @Test
+    void emptyFilterIsInactive() {
+        ArtifactFilter filter = new ArtifactFilter(" , ", null);
+
+        assertFalse(filter.isActive());
+        assertTrue(filter.accepts(artifact("any.group", "any", "test", "zip"), PROJECT));
+        assertFalse(filter.accepts(null, PROJECT));
+    }
+
+    /**
+     * Creates a Maven artifact.
+     * @param groupId    group ID
+     * @param artifactId artifact ID
+     * @param scope      scope, can be null
+     * @param type       type
+     * @return Maven artifact
+     */
+    private static Artifact artifact(String groupId, String artifactId, String scope, String type) {
+        return new DefaultArtifact(groupId, artifactId, "1.0", scope, type, null, new DefaultArtifactHandler(type));
+    }
+}
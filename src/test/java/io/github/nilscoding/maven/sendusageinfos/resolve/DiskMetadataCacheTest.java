@@ -0,0 +1,169 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DiskMetadataCache}.
+ * @author NilsCoding
+ */
+class DiskMetadataCacheTest {
+
+    /**
+     * Artifact coordinates.
+     */
+    private static final String GAV = "org.example:lib:1.0";
+    /**
+     * Resolution engine.
+     */
+    private static final String ENGINE = "maven";
+    /**
+     * Stamp of the entries.
+     */
+    private static final String STAMP = "1234";
+
+    /**
+     * Cache directory.
+     */
+    @TempDir
+    File directory;
+
+    /**
+     * Stored metadata is read back, including a new instance on the same directory.
+     */
+    @Test
+    void roundTripsMetadata() {
+        License license = new License();
+        license.setName("Apache License, Version 2.0");
+        license.setUrl(null);
+        ArtifactMetadata metadata = new ArtifactMetadata();
+        metadata.setName("Library ✓");
+        metadata.setDescription("");
+        metadata.setLicenses(Arrays.asList(license, new License()));
+
+        assertTrue(new DiskMetadataCache(this.directory, ENGINE, 0).put(GAV, STAMP, metadata));
+        ArtifactMetadata read = new DiskMetadataCache(this.directory, ENGINE, 0).get(GAV, STAMP);
+
+        assertNotNull(read);
+        assertEquals("Library ✓", read.getName());
+        assertEquals("", read.getDescription());
+        assertNull(read.getWebsiteUrl());
+        assertEquals(2, read.getLicenses().size());
+        assertEquals("Apache License, Version 2.0", read.getLicenses().get(0).getName());
+        assertNull(read.getLicenses().get(0).getUrl());
+        assertNull(read.getLicenses().get(1).getName());
+        assertTrue(read.getDifferences(metadata).isEmpty());
+    }
+
+    /**
+     * Missing license lists stay missing, empty ones stay empty.
+     */
+    @Test
+    void keepsMissingAndEmptyLicenses() {
+        DiskMetadataCache cache = new DiskMetadataCache(this.directory, ENGINE, 0);
+        ArtifactMetadata noLicenses = new ArtifactMetadata();
+        ArtifactMetadata emptyLicenses = new ArtifactMetadata();
+        emptyLicenses.setLicenses(Collections.emptyList());
+
+        cache.put(GAV, null, noLicenses);
+        cache.put("org.example:other:1.0", null, emptyLicenses);
+
+        assertNull(cache.get(GAV, null).getLicenses());
+        assertTrue(cache.get("org.example:other:1.0", null).getLicenses().isEmpty());
+    }
+
+    /**
+     * Entries of another engine or with another stamp are not returned.
+     */
+    @Test
+    void ignoresOtherEngineAndStamp() {
+        new DiskMetadataCache(this.directory, ENGINE, 0).put(GAV, STAMP, new ArtifactMetadata());
+
+        assertNull(new DiskMetadataCache(this.directory, "aether", 0).get(GAV, STAMP));
+        assertNull(new DiskMetadataCache(this.directory, ENGINE, 0).get(GAV, "5678"));
+        assertNull(new DiskMetadataCache(this.directory, ENGINE, 0).get(GAV, null));
+        assertNull(new DiskMetadataCache(this.directory, ENGINE, 0).get("org.example:lib:2.0", STAMP));
+    }
+
+    /**
+     * Truncated entries are a cache miss.
+     * @throws IOException on errors
+     */
+    @Test
+    void ignoresTruncatedEntry() throws IOException {
+        DiskMetadataCache cache = new DiskMetadataCache(this.directory, ENGINE, 0);
+        ArtifactMetadata metadata = new ArtifactMetadata();
+        metadata.setDescription("some description of the library");
+        cache.put(GAV, STAMP, metadata);
+        File entryFile = singleEntryFile();
+        byte[] data = Files.readAllBytes(entryFile.toPath());
+
+        Files.write(entryFile.toPath(), Arrays.copyOf(data, data.length - 10));
+
+        assertNull(cache.get(GAV, STAMP));
+    }
+
+    /**
+     * Entries with a corrupt string length are a cache miss, without allocating what the length claims.
+     * @throws IOException on errors
+     */
+    @Test
+    void ignoresCorruptLength() throws IOException {
+        DiskMetadataCache cache = new DiskMetadataCache(this.directory, ENGINE, 0);
+        cache.put(GAV, STAMP, new ArtifactMetadata());
+        File entryFile = singleEntryFile();
+        // format version, followed by the length of the engine
+        byte[] data = Arrays.copyOf(Files.readAllBytes(entryFile.toPath()), 8);
+        data[4] = (byte) 0x7f;
+
+        Files.write(entryFile.toPath(), data);
+
+        assertNull(cache.get(GAV, STAMP));
+    }
+
+    /**
+     * The least recently used entries are removed above the maximum number of entries.
+     */
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        DiskMetadataCache cache = new DiskMetadataCache(this.directory, ENGINE, 2);
+        for (int i = 1; i <= 3; i++) {
+            cache.put("org.example:lib:" + i, null, new ArtifactMetadata());
+        }
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        long now = System.currentTimeMillis();
+        for (File oneEntryFile : entryFiles) {
+            oneEntryFile.setLastModified(now - 60000L);
+        }
+        assertNotNull(cache.get("org.example:lib:1", null));
+        assertNotNull(cache.get("org.example:lib:3", null));
+
+        assertEquals(1, cache.evict());
+
+        assertNull(cache.get("org.example:lib:2", null));
+        assertNotNull(cache.get("org.example:lib:1", null));
+        assertNotNull(cache.get("org.example:lib:3", null));
+        assertEquals(0, cache.evict());
+    }
+
+    /**
+     * Returns the only entry file of the cache directory.
+     * @return entry file
+     */
+    private File singleEntryFile() {
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        assertEquals(1, entryFiles.length);
+        return entryFiles[0];
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.nilscoding.maven.sendusageinfos.resolve;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link FailedResolutionCache}.
+ * @author NilsCoding
+ */
+class FailedResolutionCacheTest {
+
+    /**
+     * Artifact coordinates.
+     */
+    private static final String GAV = "org.example:lib:1.0";
+    /**
+     * Failure reason.
+     */
+    private static final String REASON = "not found";
+    /**
+     * One hour in milliseconds.
+     */
+    private static final long ONE_HOUR = 60L * 60L * 1000L;
+
+    /**
+     * Cache directory.
+     */
+    @TempDir
+    File directory;
+
+    /**
+     * Persisted failures are read by a new instance and counted as disk hits until resolved again.
+     */
+    @Test
+    void readsPersistedFailures() {
+        new FailedResolutionCache(this.directory, ONE_HOUR).put(GAV, REASON, true);
+        FailedResolutionCache cache = new FailedResolutionCache(this.directory, ONE_HOUR);
+
+        assertNull(cache.getReason(GAV));
+        assertEquals(REASON, cache.get(GAV));
+        assertEquals(REASON, cache.getReason(GAV));
+        assertEquals(1, cache.getDiskHits());
+
+        cache.put(GAV, "timeout", false);
+        assertEquals("timeout", cache.get(GAV));
+        assertEquals(0, cache.getDiskHits());
+    }
+
+    /**
+     * Failures not to persist are kept for the current instance only.
+     */
+    @Test
+    void keepsSessionFailuresInMemory() {
+        FailedResolutionCache cache = new FailedResolutionCache(this.directory, ONE_HOUR);
+        cache.put(GAV, REASON, false);
+
+        assertEquals(REASON, cache.get(GAV));
+        assertEquals(0, entryFiles().length);
+        assertNull(new FailedResolutionCache(this.directory, ONE_HOUR).get(GAV));
+    }
+
+    /**
+     * Without time to live, nothing is written to disk.
+     */
+    @Test
+    void isInMemoryOnlyWithoutTtl() {
+        FailedResolutionCache cache = new FailedResolutionCache(this.directory, 0L);
+        cache.put(GAV, REASON, true);
+
+        assertNull(cache.getDirectory());
+        assertEquals(REASON, cache.get(GAV));
+        assertEquals(0, entryFiles().length);
+        assertEquals(0, cache.evictExpired());
+    }
+
+    /**
+     * Truncated entries and entries with a corrupt length are a cache miss.
+     * @throws IOException on errors
+     */
+    @Test
+    void ignoresCorruptEntries() throws IOException {
+        new FailedResolutionCache(this.directory, ONE_HOUR).put(GAV, REASON, true);
+        File entryFile = entryFiles()[0];
+        byte[] data = Files.readAllBytes(entryFile.toPath());
+
+        Files.write(entryFile.toPath(), Arrays.copyOf(data, data.length - 2));
+        assertNull(new FailedResolutionCache(this.directory, ONE_HOUR).get(GAV));
+
+        byte[] corruptLength = data.clone();
+        // first byte of the length of the coordinates, after the format version
+        corruptLength[4] = (byte) 0x7f;
+        Files.write(entryFile.toPath(), corruptLength);
+        assertNull(new FailedResolutionCache(this.directory, ONE_HOUR).get(GAV));
+    }
+
+    /**
+     * Expired entries are neither read nor kept on disk.
+     */
+    @Test
+    void evictsExpiredEntries() {
+        new FailedResolutionCache(this.directory, ONE_HOUR).put(GAV, REASON, true);
+        new FailedResolutionCache(this.directory, ONE_HOUR).put("org.example:other:1.0", REASON, true);
+        entryFiles()[0].setLastModified(System.currentTimeMillis() - 2 * ONE_HOUR);
+
+        assertEquals(1, new FailedResolutionCache(this.directory, ONE_HOUR).evictExpired());
+        assertEquals(1, entryFiles().length);
+        assertNull(new FailedResolutionCache(this.directory, 1L).get(GAV));
+    }
+
+    /**
+     * Failures are grouped by reason, most frequent reason first.
+     */
+    @Test
+    void groupsFailuresByReason() {
+        FailedResolutionCache cache = new FailedResolutionCache(null, 0L);
+        cache.put("org.example:b:1.0", REASON, false);
+        cache.put("org.example:c:1.0", "timeout", false);
+        cache.put("org.example:a:1.0", REASON, false);
+
+        Map<String, List<String>> byReason = cache.getFailuresByReason();
+
+        Iterator<Map.Entry<String, List<String>>> it = byReason.entrySet().iterator();
+        Map.Entry<String, List<String>> first = it.next();
+        assertEquals(REASON, first.getKey());
+        assertEquals(Arrays.asList("org.example:a:1.0", "org.example:b:1.0"), first.getValue());
+        assertEquals(Collections.singletonList("org.example:c:1.0"), it.next().getValue());
+        assertEquals(3, cache.size());
+    }
+
+    /**
+     * Returns the entry files of the cache directory.
+     * @return entry files
+     */
+    private File[] entryFiles() {
+        File[] entryFiles = this.directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        return (entryFiles != null) ? entryFiles : new File[0];
+    }
+}
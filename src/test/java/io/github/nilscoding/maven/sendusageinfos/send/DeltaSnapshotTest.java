@@ -0,0 +1,179 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.Gson;
+import io.github.nilscoding.maven.sendusageinfos.data.Artifact;
+import io.github.nilscoding.maven.sendusageinfos.data.DeltaUsageData;
+import io.github.nilscoding.maven.sendusageinfos.data.License;
+import io.github.nilscoding.maven.sendusageinfos.data.UsageData;
+import io.github.nilscoding.maven.sendusageinfos.util.SharedGson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DeltaSnapshot}.
+ * @author NilsCoding
+ */
+class DeltaSnapshotTest {
+
+    /**
+     * Gson instance.
+     */
+    private static final Gson GSON = SharedGson.compact();
+
+    /**
+     * State directory.
+     */
+    @TempDir
+    File directory;
+
+    /**
+     * The same data results in the same checksum, regardless of the order of the artifacts.
+     */
+    @Test
+    void sameDataHasSameChecksum() {
+        UsageData first = usageData(artifact("lib", "MIT"), artifact("other", "Apache-2.0"));
+        UsageData second = usageData(artifact("other", "Apache-2.0"), artifact("lib", "MIT"));
+
+        assertEquals(DeltaSnapshot.of(first, GSON, true).getChecksum(), DeltaSnapshot.of(second, GSON, true).getChecksum());
+    }
+
+    /**
+     * A changed license changes the checksum and marks the artifact as changed.
+     */
+    @Test
+    void detectsChangedArtifact() {
+        UsageData oldData = usageData(artifact("lib", "MIT"), artifact("other", "Apache-2.0"));
+        UsageData newData = usageData(artifact("lib", "EPL-2.0"), artifact("other", "Apache-2.0"));
+        DeltaSnapshot oldSnapshot = DeltaSnapshot.of(oldData, GSON, true);
+        DeltaSnapshot newSnapshot = DeltaSnapshot.of(newData, GSON, true);
+
+        DeltaUsageData delta = oldSnapshot.createDelta(newData, newSnapshot);
+
+        assertNotEquals(oldSnapshot.getChecksum(), newSnapshot.getChecksum());
+        assertEquals(oldSnapshot.getChecksum(), delta.getBaseChecksum());
+        assertEquals(newSnapshot.getChecksum(), delta.getChecksum());
+        assertTrue(delta.getAddedArtifacts().isEmpty());
+        assertEquals(1, delta.getChangedArtifacts().size());
+        assertEquals("lib", delta.getChangedArtifacts().get(0).getArtifactId());
+        assertTrue(delta.getRemovedArtifacts().isEmpty());
+    }
+
+    /**
+     * Shifted graph nodes, changed <code>usedBy</code> references and resolution failures are no changes.
+     */
+    @Test
+    void ignoresGraphAndEnvironment() {
+        Artifact oldArtifact = artifact("lib", "MIT");
+        oldArtifact.setGraphNode(1);
+        Artifact newArtifact = artifact("lib", "MIT");
+        newArtifact.setGraphNode(7);
+        newArtifact.setUsedBy(Collections.singletonList("org.example:other:jar:1.0"));
+        newArtifact.setResolutionFailure("offline");
+        UsageData newData = usageData(newArtifact);
+        DeltaSnapshot oldSnapshot = DeltaSnapshot.of(usageData(oldArtifact), GSON, true);
+        DeltaSnapshot newSnapshot = DeltaSnapshot.of(newData, GSON, true);
+
+        assertEquals(DeltaSnapshot.hash(oldArtifact, GSON), DeltaSnapshot.hash(newArtifact, GSON));
+        assertEquals(oldSnapshot.getChecksum(), newSnapshot.getChecksum());
+        assertTrue(oldSnapshot.createDelta(newData, newSnapshot).getChangedArtifacts().isEmpty());
+    }
+
+    /**
+     * New artifacts are added, missing artifacts are removed by GATV.
+     */
+    @Test
+    void detectsAddedAndRemovedArtifacts() {
+        UsageData oldData = usageData(artifact("lib", "MIT"), artifact("gone", "MIT"));
+        UsageData newData = usageData(artifact("lib", "MIT"), artifact("new", "MIT"));
+        DeltaSnapshot newSnapshot = DeltaSnapshot.of(newData, GSON, true);
+
+        DeltaUsageData delta = DeltaSnapshot.of(oldData, GSON, true).createDelta(newData, newSnapshot);
+
+        assertEquals(1, delta.getAddedArtifacts().size());
+        assertEquals("new", delta.getAddedArtifacts().get(0).getArtifactId());
+        assertTrue(delta.getChangedArtifacts().isEmpty());
+        assertEquals(Collections.singletonList("org.example:gone:jar:1.0"), delta.getRemovedArtifacts());
+    }
+
+    /**
+     * A saved snapshot is loaded with the same checksum and delta support flag.
+     * @throws IOException on errors
+     */
+    @Test
+    void savesAndLoadsSnapshot() throws IOException {
+        DeltaSnapshot snapshot = DeltaSnapshot.of(usageData(artifact("lib", "MIT")), GSON, true);
+        File file = DeltaSnapshot.getFile(new File(this.directory, "state"), "org.example:app:jar:1.0", "https://example.org");
+
+        snapshot.save(file, GSON);
+        DeltaSnapshot loaded = DeltaSnapshot.load(file, GSON);
+
+        assertNotNull(loaded);
+        assertTrue(loaded.isDeltaSupported());
+        assertEquals(snapshot.getChecksum(), loaded.getChecksum());
+    }
+
+    /**
+     * Missing and corrupt snapshot files are not loaded.
+     * @throws IOException on errors
+     */
+    @Test
+    void ignoresMissingAndCorruptFiles() throws IOException {
+        File file = new File(this.directory, "delta.json");
+        assertNull(DeltaSnapshot.load(file, GSON));
+
+        Files.write(file.toPath(), "{\"artifactHashes\": [".getBytes(StandardCharsets.UTF_8));
+        assertNull(DeltaSnapshot.load(file, GSON));
+    }
+
+    /**
+     * Creates usage data of a project referencing the given artifacts.
+     * @param artifacts referenced artifacts
+     * @return usage data
+     */
+    private static UsageData usageData(Artifact... artifacts) {
+        Artifact projectArtifact = new Artifact();
+        projectArtifact.setGroupId("org.example");
+        projectArtifact.setArtifactId("app");
+        projectArtifact.setVersion("1.0");
+        projectArtifact.setPackaging("jar");
+        UsageData usageData = new UsageData();
+        usageData.setProjectArtifact(projectArtifact);
+        usageData.setReferencedArtifacts(new ArrayList<>(Arrays.asList(artifacts)));
+        return usageData;
+    }
+
+    /**
+     * Creates a referenced artifact.
+     * @param artifactId  artifact ID
+     * @param licenseName name of the license
+     * @return artifact
+     */
+    private static Artifact artifact(String artifactId, String licenseName) {
+        Artifact artifact = new Artifact();
+        artifact.setGroupId("org.example");
+        artifact.setArtifactId(artifactId);
+        artifact.setVersion("1.0");
+        artifact.setPackaging("jar");
+        artifact.setScope("compile");
+        License license = new License();
+        license.setName(licenseName);
+        List<License> licenses = new ArrayList<>();
+        licenses.add(license);
+        artifact.setLicenses(licenses);
+        return artifact;
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Outbox}.
+ * @author NilsCoding
+ */
+class OutboxTest {
+
+    /**
+     * Target URL.
+     */
+    private static final String URL = "https://collector.example.org/usage-data";
+    /**
+     * Another target URL.
+     */
+    private static final String OTHER_URL = "https://other.example.org/usage-data";
+    /**
+     * One hour in milliseconds.
+     */
+    private static final long ONE_HOUR = 60L * 60L * 1000L;
+
+    /**
+     * Outbox directory.
+     */
+    @TempDir
+    File directory;
+
+    /**
+     * Only due entries of the given URL are claimed, and claimed entries are not claimed again.
+     * @throws IOException on errors
+     */
+    @Test
+    void claimsDueEntriesOfUrl() throws IOException {
+        Outbox outbox = new Outbox(this.directory, 0, 0L);
+        long now = System.currentTimeMillis();
+        outbox.add(URL, new JsonPrimitive("due"), 1, now - 1L);
+        outbox.add(URL, new JsonPrimitive("later"), 1, now + ONE_HOUR);
+        outbox.add(OTHER_URL, new JsonPrimitive("other"), 1, now - 1L);
+
+        List<Outbox.OutboxEntry> claimed = outbox.claimDue(URL, 10);
+
+        assertEquals(1, claimed.size());
+        assertEquals("due", claimed.get(0).getPayload().getAsString());
+        assertEquals(URL, claimed.get(0).getUrl());
+        assertEquals(2, outbox.size());
+        assertTrue(outbox.claimDue(URL, 10).isEmpty());
+    }
+
+    /**
+     * Claims are limited to the given number of entries, oldest first.
+     * @throws IOException          on errors
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void claimsOldestEntriesFirst() throws IOException, InterruptedException {
+        Outbox outbox = new Outbox(this.directory, 0, 0L);
+        for (int i = 1; i <= 3; i++) {
+            outbox.add(URL, new JsonPrimitive(i), 1, 0L);
+            // distinct creation times
+            Thread.sleep(5L);
+        }
+
+        List<Outbox.OutboxEntry> claimed = outbox.claimDue(URL, 2);
+
+        assertEquals(2, claimed.size());
+        assertEquals(1, claimed.get(0).getPayload().getAsInt());
+        assertEquals(2, claimed.get(1).getPayload().getAsInt());
+    }
+
+    /**
+     * Completed entries are removed, including their claim.
+     * @throws IOException on errors
+     */
+    @Test
+    void completeRemovesEntry() throws IOException {
+        Outbox outbox = new Outbox(this.directory, 0, 0L);
+        outbox.add(URL, new JsonPrimitive("data"), 1, 0L);
+
+        outbox.complete(outbox.claimDue(URL, 10).get(0));
+
+        assertEquals(0, outbox.size());
+        assertEquals(0, this.directory.listFiles().length);
+    }
+
+    /**
+     * Released entries count another attempt and are due at the given time only.
+     * @throws IOException on errors
+     */
+    @Test
+    void releaseCountsAttemptAndReschedules() throws IOException {
+        Outbox outbox = new Outbox(this.directory, 0, 0L);
+        outbox.add(URL, new JsonPrimitive("data"), 1, 0L);
+
+        outbox.release(reclaim(outbox), 0L);
+        Outbox.OutboxEntry released = reclaim(outbox);
+        assertEquals(2, released.getAttempts());
+
+        outbox.release(released, System.currentTimeMillis() + ONE_HOUR);
+
+        assertEquals(1, outbox.size());
+        assertTrue(outbox.claimDue(URL, 10).isEmpty());
+    }
+
+    /**
+     * Entries put back keep their number of attempts.
+     * @throws IOException on errors
+     */
+    @Test
+    void putBackKeepsAttempts() throws IOException {
+        Outbox outbox = new Outbox(this.directory, 0, 0L);
+        outbox.add(URL, new JsonPrimitive("data"), 1, 0L);
+
+        outbox.putBack(outbox.claimDue(URL, 10).get(0), 0L);
+
+        List<Outbox.OutboxEntry> claimed = outbox.claimDue(URL, 10);
+        assertEquals(1, claimed.size());
+        assertEquals(1, claimed.get(0).getAttempts());
+    }
+
+    /**
+     * The oldest entries are evicted when the maximum number of entries is exceeded.
+     * @throws IOException          on errors
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void evictsOldestEntriesAboveMaximum() throws IOException, InterruptedException {
+        Outbox outbox = new Outbox(this.directory, 2, 0L);
+        for (int i = 1; i <= 3; i++) {
+            outbox.add(URL, new JsonPrimitive(i), 1, 0L);
+            // distinct creation times
+            Thread.sleep(5L);
+        }
+
+        assertEquals(2, outbox.size());
+        List<Outbox.OutboxEntry> claimed = outbox.claimDue(URL, 10);
+        assertEquals(2, claimed.get(0).getPayload().getAsInt());
+        assertEquals(3, claimed.get(1).getPayload().getAsInt());
+    }
+
+    /**
+     * Entries exceeding the maximum age are evicted and never claimed.
+     * @throws IOException          on errors
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void evictsExpiredEntries() throws IOException, InterruptedException {
+        Outbox outbox = new Outbox(this.directory, 0, 50L);
+        outbox.add(URL, new JsonPrimitive("old"), 1, 0L);
+        Thread.sleep(100L);
+
+        assertTrue(outbox.claimDue(URL, 10).isEmpty());
+        assertEquals(0, outbox.size());
+
+        outbox.add(URL, new JsonPrimitive("new"), 1, 0L);
+        assertEquals(1, outbox.size());
+    }
+
+    /**
+     * Claims the only due entry of the URL.
+     * @param outbox outbox
+     * @return claimed entry
+     */
+    private static Outbox.OutboxEntry reclaim(Outbox outbox) {
+        List<Outbox.OutboxEntry> claimed = outbox.claimDue(URL, 10);
+        assertEquals(1, claimed.size());
+        return claimed.get(0);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.nilscoding.maven.sendusageinfos.send;
+
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link RetryPolicy}.
+ * @author NilsCoding
+ */
+class RetryPolicyTest {
+
+    /**
+     * Fixed current time (2024-01-01T00:00:00Z) in milliseconds.
+     */
+    private static final long NOW = 1704067200000L;
+
+    /**
+     * Retry-After values in seconds are converted to milliseconds, negative values to no delay.
+     */
+    @Test
+    void parsesSeconds() {
+        assertEquals(120000L, RetryPolicy.parseRetryAfterMillis("120", NOW));
+        assertEquals(5000L, RetryPolicy.parseRetryAfterMillis(" 5 ", NOW));
+        assertEquals(0L, RetryPolicy.parseRetryAfterMillis("0", NOW));
+        assertEquals(0L, RetryPolicy.parseRetryAfterMillis("-10", NOW));
+    }
+
+    /**
+     * Retry-After values given as HTTP date are converted to the delay until then, past dates to no delay.
+     */
+    @Test
+    void parsesHttpDate() {
+        assertEquals(90000L, RetryPolicy.parseRetryAfterMillis(httpDate(NOW + 90000L), NOW));
+        assertEquals(0L, RetryPolicy.parseRetryAfterMillis(httpDate(NOW - 90000L), NOW));
+        assertEquals(0L, RetryPolicy.parseRetryAfterMillis("Mon, 01 Jan 2024 00:00:00 GMT", NOW));
+    }
+
+    /**
+     * Missing and unparseable Retry-After values are reported as not available.
+     */
+    @Test
+    void rejectsInvalidValues() {
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis(null, NOW));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("  ", NOW));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("soon", NOW));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("1.5", NOW));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("2024-01-01T00:00:00Z", NOW));
+    }
+
+    /**
+     * A valid Retry-After value takes precedence over the backoff, even above the maximum delay.
+     */
+    @Test
+    void retryAfterTakesPrecedence() {
+        RetryPolicy policy = new RetryPolicy(100L, 1000L);
+
+        assertEquals(30000L, policy.getDelayMillis(1, "30"));
+        assertEquals(0L, policy.getDelayMillis(5, "0"));
+    }
+
+    /**
+     * The backoff doubles per attempt up to the maximum delay and is randomized between half and full delay.
+     */
+    @Test
+    void backsOffExponentiallyWithJitter() {
+        RetryPolicy policy = new RetryPolicy(100L, 1000L);
+        long[] expectedDelays = {100L, 100L, 200L, 400L, 800L, 1000L, 1000L};
+        for (int attempts = 0; attempts < expectedDelays.length; attempts++) {
+            for (int i = 0; i < 50; i++) {
+                long delay = policy.getDelayMillis(attempts, "invalid");
+                long expected = expectedDelays[attempts];
+                assertTrue((delay >= expected / 2) && (delay <= expected), "attempts " + attempts + ", delay " + delay);
+            }
+        }
+        long delay = policy.getDelayMillis(Integer.MAX_VALUE, null);
+        assertTrue((delay >= 500L) && (delay <= 1000L), "delay " + delay);
+    }
+
+    /**
+     * Formats a time as HTTP date.
+     * @param millis time in milliseconds
+     * @return HTTP date
+     */
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+}